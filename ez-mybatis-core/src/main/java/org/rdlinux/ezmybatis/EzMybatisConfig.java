@@ -25,6 +25,63 @@ public class EzMybatisConfig {
      * 启用oracle offset fetch分页
      */
     private boolean enableOracleOffsetFetchPage = false;
+    /**
+     * sql模板缓存容量, 小于等于0时不开启, 开启后相同结构的EzQuery、EzUpdate、EzDelete只需绑定参数即可复用已渲染的sql
+     */
+    private int sqlTemplateCacheSize = 0;
+    /**
+     * 数字参数也使用#{}预编译参数绑定, 默认数字参数使用${}直接拼接到sql中, 开启后相同结构的sql文本保持不变,
+     * 可以充分利用驱动和数据库的预编译语句缓存, 分页与限制数量的skip, size同样绑定为参数
+     */
+    private boolean bindNumberParam = false;
+    /**
+     * 游标查询与流式查询的jdbc fetchSize, 小于等于0时使用驱动默认值, mysql需要在连接参数中开启useCursorFetch,
+     * postgresql需要在事务中查询才会生效
+     */
+    private int streamFetchSize = 1000;
+    /**
+     * 游标查询与流式查询时, 每多少条结果触发一次查询结果全部构造结束事件
+     */
+    private int streamRetChunkSize = 1000;
+    /**
+     * jdbc批量插入时每多少行执行一次executeBatch, 小于等于0时全部数据一次执行
+     */
+    private int jdbcBatchSize = 1000;
+    /**
+     * in条件参数数量超过该值时使用数据库对应的大in列表策略, 例如按块拆分为多个in条件或者使用数组绑定, 小于等于0时不开启
+     */
+    private int inListThreshold = 1000;
+    /**
+     * 批量更新与批量替换使用按块生成的单条CASE WHEN更新语句, 不再使用分号拼接多条更新语句, 默认关闭, 使用逐条拼接
+     */
+    private boolean setBasedBatchUpdate = false;
+    /**
+     * 是否开启实体缓存, 开启后标注{@link org.rdlinux.ezmybatis.annotation.EntityCache}的实体或者通过
+     * {@link org.rdlinux.ezmybatis.core.cache.EntityCacheManager#enable}开启的实体才会缓存
+     */
+    private boolean entityCacheEnabled = false;
+    /**
+     * 查询结果缓存最大估算内存占用, 单位字节, 小于等于0时关闭查询结果缓存, 只有设置了缓存选项的EzQuery才会缓存,
+     * 实体缓存与查询结果缓存都未开启时不安装缓存拦截器
+     */
+    private long queryCacheMaxMemory = 0;
+    /**
+     * 非ez方法(例如xml中定义的语句)写入时是否失效全部缓存, 默认根据执行的sql解析目标表只失效该表相关的缓存,
+     * 无法解析时仍然失效全部缓存; 存在触发器等sql之外的写入时需要开启
+     */
+    private boolean unknownWriteInvalidatesAll = false;
+    /**
+     * 分页查询总数时使用COUNT(*) OVER()在同一条sql中返回总数, 数据库不支持窗口函数时(如mysql 5.7及以下)需要关闭
+     */
+    private boolean enableWindowCountPage = true;
+    /**
+     * 估算总数的最小值, 估算分页时统计信息中的行数小于该值则仍然精确统计总数
+     */
+    private long approximateCountThreshold = 100000L;
+    /**
+     * ez mapper方法直接生成BoundSql并按位置绑定参数, 跳过mybatis的占位符解析与反射取值
+     */
+    private boolean directParamBind = true;
 
     public EzMybatisConfig(Configuration configuration) {
         if (configuration == null) {
@@ -69,4 +126,108 @@ public class EzMybatisConfig {
     public void setEnableOracleOffsetFetchPage(boolean enableOracleOffsetFetchPage) {
         this.enableOracleOffsetFetchPage = enableOracleOffsetFetchPage;
     }
+
+    public int getSqlTemplateCacheSize() {
+        return this.sqlTemplateCacheSize;
+    }
+
+    public void setSqlTemplateCacheSize(int sqlTemplateCacheSize) {
+        this.sqlTemplateCacheSize = sqlTemplateCacheSize;
+    }
+
+    public boolean isBindNumberParam() {
+        return this.bindNumberParam;
+    }
+
+    public void setBindNumberParam(boolean bindNumberParam) {
+        this.bindNumberParam = bindNumberParam;
+    }
+
+    public int getStreamFetchSize() {
+        return this.streamFetchSize;
+    }
+
+    public void setStreamFetchSize(int streamFetchSize) {
+        this.streamFetchSize = streamFetchSize;
+    }
+
+    public int getStreamRetChunkSize() {
+        return this.streamRetChunkSize;
+    }
+
+    public void setStreamRetChunkSize(int streamRetChunkSize) {
+        this.streamRetChunkSize = streamRetChunkSize;
+    }
+
+    public int getJdbcBatchSize() {
+        return this.jdbcBatchSize;
+    }
+
+    public void setJdbcBatchSize(int jdbcBatchSize) {
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    public int getInListThreshold() {
+        return this.inListThreshold;
+    }
+
+    public void setInListThreshold(int inListThreshold) {
+        this.inListThreshold = inListThreshold;
+    }
+
+    public boolean isSetBasedBatchUpdate() {
+        return this.setBasedBatchUpdate;
+    }
+
+    public void setSetBasedBatchUpdate(boolean setBasedBatchUpdate) {
+        this.setBasedBatchUpdate = setBasedBatchUpdate;
+    }
+
+    public boolean isEntityCacheEnabled() {
+        return this.entityCacheEnabled;
+    }
+
+    public void setEntityCacheEnabled(boolean entityCacheEnabled) {
+        this.entityCacheEnabled = entityCacheEnabled;
+    }
+
+    public long getQueryCacheMaxMemory() {
+        return this.queryCacheMaxMemory;
+    }
+
+    public void setQueryCacheMaxMemory(long queryCacheMaxMemory) {
+        this.queryCacheMaxMemory = queryCacheMaxMemory;
+    }
+
+    public boolean isUnknownWriteInvalidatesAll() {
+        return this.unknownWriteInvalidatesAll;
+    }
+
+    public void setUnknownWriteInvalidatesAll(boolean unknownWriteInvalidatesAll) {
+        this.unknownWriteInvalidatesAll = unknownWriteInvalidatesAll;
+    }
+
+    public boolean isEnableWindowCountPage() {
+        return this.enableWindowCountPage;
+    }
+
+    public void setEnableWindowCountPage(boolean enableWindowCountPage) {
+        this.enableWindowCountPage = enableWindowCountPage;
+    }
+
+    public long getApproximateCountThreshold() {
+        return this.approximateCountThreshold;
+    }
+
+    public void setApproximateCountThreshold(long approximateCountThreshold) {
+        this.approximateCountThreshold = approximateCountThreshold;
+    }
+
+    public boolean isDirectParamBind() {
+        return this.directParamBind;
+    }
+
+    public void setDirectParamBind(boolean directParamBind) {
+        this.directParamBind = directParamBind;
+    }
 }
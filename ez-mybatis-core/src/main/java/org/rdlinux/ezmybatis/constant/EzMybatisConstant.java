@@ -114,8 +114,16 @@ public abstract class EzMybatisConstant {
      * mapper参数, 自定义更新扩展
      */
     public static final String MAPPER_PARAM_UPDATE_EXPAND = "mp_update_expand";
+    /**
+     * mapper参数, 执行上下文
+     */
+    public static final String MAPPER_PARAM_EXECUTION_CONTEXT = "mp_context";
     /**
      * oracle行数别名
      */
     public static final String ORACLE_ROW_NUM_ALIAS = "ORA_ROWNUM__$";
+    /**
+     * 分页查询总数别名
+     */
+    public static final String PAGE_TOTAL_ALIAS = "EZ_TOTAL__$";
 }
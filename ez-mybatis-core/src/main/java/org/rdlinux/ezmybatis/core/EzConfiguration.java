@@ -0,0 +1,102 @@
+package org.rdlinux.ezmybatis.core;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+import org.rdlinux.ezmybatis.core.interceptor.executor.EzExecutor;
+import org.rdlinux.ezmybatis.core.interceptor.executor.MapperMethodDispatch;
+import org.rdlinux.ezmybatis.core.interceptor.resultsethandler.EzResultSetHandler;
+
+/**
+ * ez-mybatis的mybatis配置, 使用该配置初始化时ez的执行器拦截逻辑与结果集处理器直接安装,
+ * 不再为每个会话与每条语句生成插件代理
+ */
+public class EzConfiguration extends Configuration {
+    /**
+     * 直接安装的执行器拦截器, 由外向内排列, 为null时表示未安装
+     */
+    private volatile Interceptor[] ezExecutorInterceptors;
+
+    public EzConfiguration() {
+        super();
+    }
+
+    public EzConfiguration(Environment environment) {
+        super(environment);
+    }
+
+    /**
+     * 安装执行器拦截器
+     *
+     * @param interceptors 执行器拦截器, 由外向内排列
+     */
+    void installEzExecutorInterceptors(Interceptor... interceptors) {
+        this.ezExecutorInterceptors = interceptors;
+    }
+
+    /**
+     * 是否已直接安装ez执行器与结果集处理器
+     */
+    public boolean isEzNativeInstalled() {
+        return this.ezExecutorInterceptors != null;
+    }
+
+    /**
+     * 注册ez mapper方法时调整MappedStatement, 避免在执行时修改
+     */
+    @Override
+    public void addMappedStatement(MappedStatement ms) {
+        super.addMappedStatement(ms);
+        if (EzMybatisContent.isInit(this)) {
+            MapperMethodDispatch.prepare(ms);
+        }
+    }
+
+    @Override
+    public Executor newExecutor(Transaction transaction, ExecutorType executorType) {
+        Executor executor = super.newExecutor(transaction, executorType);
+        Interceptor[] interceptors = this.ezExecutorInterceptors;
+        if (interceptors == null) {
+            return executor;
+        }
+        for (int i = interceptors.length - 1; i >= 0; i--) {
+            executor = new EzExecutor(executor, interceptors[i]);
+        }
+        return executor;
+    }
+
+    @Override
+    public ResultSetHandler newResultSetHandler(Executor executor, MappedStatement mappedStatement,
+                                                RowBounds rowBounds, ParameterHandler parameterHandler,
+                                                ResultHandler resultHandler, BoundSql boundSql) {
+        if (this.ezExecutorInterceptors == null) {
+            return super.newResultSetHandler(executor, mappedStatement, rowBounds, parameterHandler, resultHandler,
+                    boundSql);
+        }
+        boolean ezMapper;
+        try {
+            ezMapper = MapperMethodDispatch.forStatement(mappedStatement).isEzMapper();
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+        ResultSetHandler resultSetHandler;
+        if (ezMapper) {
+            resultSetHandler = new EzResultSetHandler(executor, mappedStatement, parameterHandler, resultHandler,
+                    boundSql, rowBounds);
+        } else {
+            resultSetHandler = new DefaultResultSetHandler(executor, mappedStatement, parameterHandler,
+                    resultHandler, boundSql, rowBounds);
+        }
+        return (ResultSetHandler) this.interceptorChain.pluginAll(resultSetHandler);
+    }
+}
@@ -3,16 +3,26 @@ package org.rdlinux.ezmybatis.core;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.apache.ibatis.mapping.MappedStatement;
 import org.rdlinux.ezmybatis.EzMybatisConfig;
 import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.cache.AfterCompletionExecutor;
+import org.rdlinux.ezmybatis.core.cache.EntityCacheManager;
+import org.rdlinux.ezmybatis.core.cache.QueryResultCache;
 import org.rdlinux.ezmybatis.core.interceptor.EzMybatisUpdateInterceptor;
+import org.rdlinux.ezmybatis.core.interceptor.executor.MapperMethodDispatch;
 import org.rdlinux.ezmybatis.core.interceptor.listener.*;
+import org.rdlinux.ezmybatis.core.interceptor.resultsethandler.EzRowMapperCache;
 import org.rdlinux.ezmybatis.core.sqlgenerate.DbKeywordQMFactory;
+import org.rdlinux.ezmybatis.core.sqlgenerate.SqlTemplateCache;
+import org.rdlinux.ezmybatis.core.sqlstruct.converter.ConverterTable;
 import org.rdlinux.ezmybatis.utils.Assert;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * content配置
@@ -53,6 +63,34 @@ public class EzContentConfig {
      * 查询结构构造结束监听器列表
      */
     private List<EzMybatisQueryRetListener> queryRetListeners;
+    /**
+     * sql模板缓存, 未开启时为null
+     */
+    private SqlTemplateCache sqlTemplateCache;
+    /**
+     * 预编译行映射器缓存
+     */
+    private EzRowMapperCache rowMapperCache;
+    /**
+     * 转换器分派表, 注册转换器时重新发布
+     */
+    private volatile ConverterTable converterTable;
+    /**
+     * 实体二级缓存管理
+     */
+    private EntityCacheManager entityCacheManager;
+    /**
+     * 事务结束回调执行器, 为空时只在会话结束时失效缓存
+     */
+    private AfterCompletionExecutor afterCompletionExecutor;
+    /**
+     * 查询结果缓存, 未开启时为null
+     */
+    private QueryResultCache queryResultCache;
+    /**
+     * mapper方法调度信息, 随配置一起回收
+     */
+    private final Map<MappedStatement, MapperMethodDispatch> mapperMethodDispatches = new ConcurrentHashMap<>();
 
     /**
      * 添加当构建sql获取属性时的监听器
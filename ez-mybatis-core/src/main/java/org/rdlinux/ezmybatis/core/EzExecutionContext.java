@@ -0,0 +1,165 @@
+package org.rdlinux.ezmybatis.core;
+
+import org.rdlinux.ezmybatis.constant.EzMybatisConstant;
+import org.rdlinux.ezmybatis.core.sqlstruct.EntityField;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * 单次调用的执行上下文, 保存在mybatis参数中, 由参数持有器传递给sql渲染, 由结果集处理器从参数中读取,
+ * 代替线程变量, 调用结束后随参数一起释放. 该类不是线程安全的
+ */
+public class EzExecutionContext {
+    /**
+     * 兼容已废弃的{@link EzMybatisContent#getCurrentAccessField()}等静态方法的线程属性栈
+     */
+    private static final ThreadLocal<Deque<EntityField>> LEGACY_ACCESS_FIELDS = new ThreadLocal<>();
+    /**
+     * 是否调用过已废弃的静态方法, 调用后上下文的属性访问同步到线程属性栈
+     */
+    private static volatile boolean legacyAccessFieldEnabled;
+    /**
+     * 结果类型, 为null时使用resultMap的类型
+     */
+    private Class<?> retType;
+    /**
+     * 当前访问的属性栈, 用于生成sql时回调监听器处理参数
+     */
+    private EntityField[] accessFields;
+    /**
+     * 访问属性栈深度
+     */
+    private int accessDepth;
+    /**
+     * 本次调用的属性访问是否同步到线程属性栈
+     */
+    private boolean legacyMirror;
+    /**
+     * 是否跳过生成sql时的属性获取监听器, 用于启动预热等使用非真实数据生成sql的场景
+     */
+    private boolean skipFieldListeners;
+
+    /**
+     * 获取mybatis参数中的执行上下文, 不存在时创建并放入参数
+     */
+    public static EzExecutionContext of(Map<String, Object> mybatisParam) {
+        //MapperMethod.ParamMap获取不存在的key时会抛出异常, 需要先判断
+        if (mybatisParam.containsKey(EzMybatisConstant.MAPPER_PARAM_EXECUTION_CONTEXT)) {
+            Object context = mybatisParam.get(EzMybatisConstant.MAPPER_PARAM_EXECUTION_CONTEXT);
+            if (context instanceof EzExecutionContext) {
+                return (EzExecutionContext) context;
+            }
+        }
+        EzExecutionContext context = new EzExecutionContext();
+        mybatisParam.put(EzMybatisConstant.MAPPER_PARAM_EXECUTION_CONTEXT, context);
+        return context;
+    }
+
+    /**
+     * 获取mybatis参数中的执行上下文, 不存在时返回null
+     */
+    public static EzExecutionContext find(Object mybatisParam) {
+        if (!(mybatisParam instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> param = (Map<?, ?>) mybatisParam;
+        if (!param.containsKey(EzMybatisConstant.MAPPER_PARAM_EXECUTION_CONTEXT)) {
+            return null;
+        }
+        Object context = param.get(EzMybatisConstant.MAPPER_PARAM_EXECUTION_CONTEXT);
+        return context instanceof EzExecutionContext ? (EzExecutionContext) context : null;
+    }
+
+    public Class<?> getRetType() {
+        return this.retType;
+    }
+
+    public void setRetType(Class<?> retType) {
+        this.retType = retType;
+    }
+
+    public boolean isSkipFieldListeners() {
+        return this.skipFieldListeners;
+    }
+
+    public void setSkipFieldListeners(boolean skipFieldListeners) {
+        this.skipFieldListeners = skipFieldListeners;
+    }
+
+    /**
+     * 获取当前访问的属性
+     */
+    public EntityField getCurrentAccessField() {
+        if (legacyAccessFieldEnabled && (this.legacyMirror || this.accessDepth == 0)) {
+            return legacyCurrentAccessField();
+        }
+        if (this.accessDepth == 0) {
+            return null;
+        }
+        return this.accessFields[this.accessDepth - 1];
+    }
+
+    /**
+     * 进入属性访问, 需要与{@link #endAccessField()}成对调用
+     */
+    public void beginAccessField(EntityField entityField) {
+        if (this.accessFields == null) {
+            this.accessFields = new EntityField[4];
+        } else if (this.accessDepth == this.accessFields.length) {
+            this.accessFields = Arrays.copyOf(this.accessFields, this.accessDepth * 2);
+        }
+        if (this.accessDepth == 0) {
+            this.legacyMirror = legacyAccessFieldEnabled;
+        }
+        this.accessFields[this.accessDepth++] = entityField;
+        if (this.legacyMirror) {
+            legacyBeginAccessField(entityField);
+        }
+    }
+
+    /**
+     * 结束属性访问
+     */
+    public void endAccessField() {
+        if (this.accessDepth > 0) {
+            this.accessFields[--this.accessDepth] = null;
+            if (this.legacyMirror) {
+                legacyEndAccessField();
+            }
+        }
+    }
+
+    static EntityField legacyCurrentAccessField() {
+        legacyAccessFieldEnabled = true;
+        Deque<EntityField> deque = LEGACY_ACCESS_FIELDS.get();
+        if (deque == null || deque.isEmpty()) {
+            return null;
+        }
+        return deque.element();
+    }
+
+    static void legacyBeginAccessField(EntityField entityField) {
+        legacyAccessFieldEnabled = true;
+        Deque<EntityField> deque = LEGACY_ACCESS_FIELDS.get();
+        if (deque == null) {
+            deque = new LinkedList<>();
+            LEGACY_ACCESS_FIELDS.set(deque);
+        }
+        deque.push(entityField);
+    }
+
+    static void legacyEndAccessField() {
+        Deque<EntityField> deque = LEGACY_ACCESS_FIELDS.get();
+        if (deque != null) {
+            if (!deque.isEmpty()) {
+                deque.poll();
+            }
+            if (deque.isEmpty()) {
+                LEGACY_ACCESS_FIELDS.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.rdlinux.ezmybatis.core;
+
+import org.apache.ibatis.type.TypeHandler;
+import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityFieldInfo;
+
+/**
+ * jdbc插入sql, 参数按列顺序直接从实体中取值绑定
+ */
+public class EzJdbcInsertSql {
+    /**
+     * sql
+     */
+    private final String sql;
+    /**
+     * 表名, 已包含模式与关键字引号
+     */
+    private final String tableName;
+    /**
+     * 按参数顺序排列的列名
+     */
+    private final String[] columns;
+    /**
+     * 实体类型
+     */
+    private final Class<?> modelType;
+    /**
+     * 按参数顺序排列的属性信息
+     */
+    private final EntityFieldInfo[] fieldInfos;
+    /**
+     * 按参数顺序排列的类型处理器
+     */
+    @SuppressWarnings({"rawtypes"})
+    private final TypeHandler[] typeHandlers;
+
+    @SuppressWarnings({"rawtypes"})
+    public EzJdbcInsertSql(String sql, String tableName, String[] columns, Class<?> modelType,
+                           EntityFieldInfo[] fieldInfos, TypeHandler[] typeHandlers) {
+        this.sql = sql;
+        this.tableName = tableName;
+        this.columns = columns;
+        this.modelType = modelType;
+        this.fieldInfos = fieldInfos;
+        this.typeHandlers = typeHandlers;
+    }
+
+    public String getSql() {
+        return this.sql;
+    }
+
+    public String getTableName() {
+        return this.tableName;
+    }
+
+    public String[] getColumns() {
+        return this.columns;
+    }
+
+    public Class<?> getModelType() {
+        return this.modelType;
+    }
+
+    public EntityFieldInfo[] getFieldInfos() {
+        return this.fieldInfos;
+    }
+
+    @SuppressWarnings({"rawtypes"})
+    public TypeHandler[] getTypeHandlers() {
+        return this.typeHandlers;
+    }
+}
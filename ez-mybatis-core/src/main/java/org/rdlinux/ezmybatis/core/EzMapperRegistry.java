@@ -0,0 +1,28 @@
+package org.rdlinux.ezmybatis.core;
+
+import org.apache.ibatis.binding.MapperRegistry;
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.utils.ReflectionUtils;
+
+/**
+ * ez-mybatis的mapper注册器, 与原注册器共享已注册的mapper, 初始化之后注册的ez mapper在注册时调整MappedStatement,
+ * 不在执行时修改
+ */
+public class EzMapperRegistry extends MapperRegistry {
+    private final Configuration configuration;
+
+    public EzMapperRegistry(Configuration configuration, MapperRegistry mapperRegistry) {
+        super(configuration);
+        this.configuration = configuration;
+        ReflectionUtils.setFieldValue(this, "knownMappers", ReflectionUtils.getFieldValue(mapperRegistry,
+                "knownMappers"));
+    }
+
+    @Override
+    public <T> void addMapper(Class<T> type) {
+        super.addMapper(type);
+        if (EzMybatisContent.isInit(this.configuration)) {
+            EzMybatisContent.prepareMapper(this.configuration, type);
+        }
+    }
+}
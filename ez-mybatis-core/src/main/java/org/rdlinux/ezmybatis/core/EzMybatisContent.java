@@ -7,12 +7,21 @@ import org.apache.ibatis.plugin.InterceptorChain;
 import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.EzMybatisConfig;
 import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.cache.AfterCompletionExecutor;
+import org.rdlinux.ezmybatis.core.cache.CacheInvalidation;
+import org.rdlinux.ezmybatis.core.cache.EntityCacheManager;
+import org.rdlinux.ezmybatis.core.cache.QueryResultCache;
+import org.rdlinux.ezmybatis.core.interceptor.EzMybatisCacheInterceptor;
 import org.rdlinux.ezmybatis.core.interceptor.EzMybatisExecutorInterceptor;
 import org.rdlinux.ezmybatis.core.interceptor.EzMybatisResultSetHandlerInterceptor;
 import org.rdlinux.ezmybatis.core.interceptor.EzMybatisUpdateInterceptor;
+import org.rdlinux.ezmybatis.core.interceptor.executor.MapperMethodDispatch;
 import org.rdlinux.ezmybatis.core.interceptor.listener.*;
+import org.rdlinux.ezmybatis.core.interceptor.resultsethandler.EzRowMapperCache;
+import org.rdlinux.ezmybatis.core.mapper.EzBaseMapper;
 import org.rdlinux.ezmybatis.core.mapper.EzMapper;
 import org.rdlinux.ezmybatis.core.sqlgenerate.DbKeywordQMFactory;
+import org.rdlinux.ezmybatis.core.sqlgenerate.SqlTemplateCache;
 import org.rdlinux.ezmybatis.core.sqlstruct.EntityField;
 import org.rdlinux.ezmybatis.core.sqlstruct.SqlStruct;
 import org.rdlinux.ezmybatis.core.sqlstruct.converter.*;
@@ -21,6 +30,7 @@ import org.rdlinux.ezmybatis.utils.ReflectionUtils;
 
 import javax.sql.DataSource;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -31,41 +41,42 @@ public class EzMybatisContent {
      */
     private static final ConcurrentMap<Configuration, EzContentConfig> CFG_CONFIG_MAP = new ConcurrentHashMap<>();
     /**
-     * 转换器映射
+     * 转换器映射, 只在注册时加锁修改
      */
     private static final Map<DbType, Map<Class<?>, Converter<?>>> CONVERT_MAP = new HashMap<>();
     /**
-     * 当前访问filed, 用于查询, 更新, 保存时处理回调以支持用户对参数进行 处理
+     * 转换器分派表, 每次注册转换器后重新发布
      */
-    private static final ThreadLocal<Deque<EntityField>> CURRENT_ACCESS_FIELD = new ThreadLocal<>();
+    private static final ConcurrentMap<DbType, ConverterTable> CONVERTER_TABLE_MAP = new ConcurrentHashMap<>();
 
+    /**
+     * 获取当前访问的属性
+     *
+     * @deprecated 使用{@link EzExecutionContext#getCurrentAccessField()}, 通过MybatisParamHolder#getContext()获取上下文
+     */
+    @Deprecated
     public static EntityField getCurrentAccessField() {
-        Deque<EntityField> deque = CURRENT_ACCESS_FIELD.get();
-        if (deque == null || deque.isEmpty()) {
-            return null;
-        }
-        return CURRENT_ACCESS_FIELD.get().element();
+        return EzExecutionContext.legacyCurrentAccessField();
     }
 
+    /**
+     * 进入属性访问
+     *
+     * @deprecated 使用{@link EzExecutionContext#beginAccessField(EntityField)}
+     */
+    @Deprecated
     public static void setCurrentAccessField(EntityField entityField) {
-        Deque<EntityField> deque = CURRENT_ACCESS_FIELD.get();
-        if (deque == null) {
-            deque = new LinkedList<>();
-            CURRENT_ACCESS_FIELD.set(deque);
-        }
-        deque.push(entityField);
+        EzExecutionContext.legacyBeginAccessField(entityField);
     }
 
+    /**
+     * 结束属性访问
+     *
+     * @deprecated 使用{@link EzExecutionContext#endAccessField()}
+     */
+    @Deprecated
     public static void cleanCurrentAccessField() {
-        Deque<EntityField> deque = CURRENT_ACCESS_FIELD.get();
-        if (deque != null) {
-            if (!deque.isEmpty()) {
-                deque.poll();
-            }
-            if (deque.isEmpty()) {
-                CURRENT_ACCESS_FIELD.remove();
-            }
-        }
+        EzExecutionContext.legacyEndAccessField();
     }
 
     /**
@@ -75,31 +86,44 @@ public class EzMybatisContent {
                                                                        Converter<T> converter) {
         CONVERT_MAP.putIfAbsent(dbType, new HashMap<>());
         CONVERT_MAP.get(dbType).put(sqlStruct, converter);
+        ConverterTable converterTable = ConverterTable.of(dbType, CONVERT_MAP.get(dbType));
+        CONVERTER_TABLE_MAP.put(dbType, converterTable);
+        for (EzContentConfig configurationConfig : CFG_CONFIG_MAP.values()) {
+            if (configurationConfig.getDbType() == dbType) {
+                configurationConfig.setConverterTable(converterTable);
+            }
+        }
+    }
+
+    /**
+     * 绑定content配置的转换器分派表
+     */
+    private synchronized static void bindConverterTable(EzContentConfig configurationConfig) {
+        DbType dbType = configurationConfig.getDbType();
+        configurationConfig.setConverterTable(dbType == null ? null : CONVERTER_TABLE_MAP.get(dbType));
     }
 
     /**
      * 获取转换器
      */
-    @SuppressWarnings("unchecked")
     public static <T extends SqlStruct> Converter<T> getConverter(DbType dbType, Class<T> sqlStruct) {
-        Map<Class<?>, Converter<?>> convertMap = CONVERT_MAP.get(dbType);
-        if (convertMap == null) {
+        ConverterTable converterTable = CONVERTER_TABLE_MAP.get(dbType);
+        if (converterTable == null) {
             throw new RuntimeException("cannot find the converter of " + dbType.name());
         }
-        Converter<T> converter = (Converter<T>) convertMap.get(sqlStruct);
-        if (converter == null) {
-            throw new RuntimeException(String.format("%s cannot find the converter of %s", dbType.name(),
-                    sqlStruct.getSimpleName()));
-        }
-        return converter;
+        return converterTable.get(sqlStruct);
     }
 
     /**
      * 获取转换器
      */
     public static <T extends SqlStruct> Converter<T> getConverter(Configuration configuration, Class<T> sqlStruct) {
-        DbType dbType = getDbType(configuration);
-        return getConverter(dbType, sqlStruct);
+        EzContentConfig configurationConfig = CFG_CONFIG_MAP.get(configuration);
+        ConverterTable converterTable = configurationConfig == null ? null : configurationConfig.getConverterTable();
+        if (converterTable == null) {
+            return getConverter(getDbType(configuration), sqlStruct);
+        }
+        return converterTable.get(sqlStruct);
     }
 
     /**
@@ -111,6 +135,7 @@ public class EzMybatisContent {
         Assert.notNull(configurationConfig, "please init");
         configurationConfig.setDbType(dbType);
         initConverterRegister(dbType);
+        bindConverterTable(configurationConfig);
     }
 
     /**
@@ -134,6 +159,14 @@ public class EzMybatisContent {
         EzContentConfig configurationConfig = new EzContentConfig();
         configurationConfig.setDbKeywordQMFactory(new DbKeywordQMFactory(config));
         configurationConfig.setEzMybatisConfig(config);
+        configurationConfig.setRowMapperCache(new EzRowMapperCache());
+        configurationConfig.setEntityCacheManager(new EntityCacheManager(config.getConfiguration()));
+        if (config.getQueryCacheMaxMemory() > 0) {
+            configurationConfig.setQueryResultCache(new QueryResultCache(config.getQueryCacheMaxMemory()));
+        }
+        if (config.getSqlTemplateCacheSize() > 0) {
+            configurationConfig.setSqlTemplateCache(new SqlTemplateCache(config.getSqlTemplateCacheSize()));
+        }
         CFG_CONFIG_MAP.put(config.getConfiguration(), configurationConfig);
         initMapper(config);
         initInterceptor(config);
@@ -191,6 +224,15 @@ public class EzMybatisContent {
         configurationConfig.addInsertListener(listener);
     }
 
+    /**
+     * 设置事务结束回调执行器, 事务由外部管理时, 缓存在事务真正结束后再次失效
+     */
+    public static void setAfterCompletionExecutor(EzMybatisConfig config, AfterCompletionExecutor executor) {
+        checkInit(config);
+        EzContentConfig configurationConfig = CFG_CONFIG_MAP.get(config.getConfiguration());
+        configurationConfig.setAfterCompletionExecutor(executor);
+    }
+
     /**
      * 添加更新监听器
      */
@@ -234,7 +276,43 @@ public class EzMybatisContent {
     }
 
     private static void initMapper(EzMybatisConfig config) {
-        config.getConfiguration().addMapper(EzMapper.class);
+        Configuration configuration = config.getConfiguration();
+        //替换mapper注册器, 之后注册的mapper在注册时调整MappedStatement
+        if (!(configuration.getMapperRegistry() instanceof EzMapperRegistry)) {
+            ReflectionUtils.setFieldValue(configuration, "mapperRegistry",
+                    new EzMapperRegistry(configuration, configuration.getMapperRegistry()));
+        }
+        configuration.addMapper(EzMapper.class);
+        for (Class<?> mapperClass : configuration.getMapperRegistry().getMappers()) {
+            prepareMapper(configuration, mapperClass);
+        }
+    }
+
+    /**
+     * 调整已注册的ez mapper方法的MappedStatement, 见{@link MapperMethodDispatch#prepare}
+     */
+    static void prepareMapper(Configuration configuration, Class<?> mapperClass) {
+        Method[] methods;
+        if (EzMapper.class.isAssignableFrom(mapperClass)) {
+            methods = EzMapper.class.getDeclaredMethods();
+        } else if (EzBaseMapper.class.isAssignableFrom(mapperClass)) {
+            methods = EzBaseMapper.class.getDeclaredMethods();
+        } else {
+            return;
+        }
+        for (Method method : methods) {
+            String statementId = mapperClass.getName() + "." + method.getName();
+            if (configuration.hasStatement(statementId, false)) {
+                MapperMethodDispatch.prepare(configuration.getMappedStatement(statementId, false));
+            }
+        }
+    }
+
+    /**
+     * 是否已初始化
+     */
+    public static boolean isInit(Configuration configuration) {
+        return CFG_CONFIG_MAP.containsKey(configuration);
     }
 
     /**
@@ -278,6 +356,7 @@ public class EzMybatisContent {
         EzContentConfig configurationConfig = CFG_CONFIG_MAP.get(config.getConfiguration());
         configurationConfig.setDbType(dbType);
         initConverterRegister(dbType);
+        bindConverterTable(configurationConfig);
     }
 
     /**
@@ -308,9 +387,25 @@ public class EzMybatisContent {
         InterceptorChain interceptorChain = ReflectionUtils.getFieldValue(configuration, "interceptorChain");
         EzMybatisInterceptorChain ezMybatisInterceptorChain = new EzMybatisInterceptorChain(interceptorChain);
         ReflectionUtils.setFieldValue(configuration, "interceptorChain", ezMybatisInterceptorChain);
-        ezMybatisInterceptorChain.addEzInterceptor(new EzMybatisResultSetHandlerInterceptor());
-        ezMybatisInterceptorChain.addEzInterceptor(new EzMybatisExecutorInterceptor());
         EzContentConfig configurationConfig = CFG_CONFIG_MAP.get(config.getConfiguration());
+        //实体缓存与查询结果缓存都未开启时不安装缓存拦截器
+        boolean useCache = CacheInvalidation.isCacheEnabled(configuration);
+        if (configuration instanceof EzConfiguration) {
+            //直接安装执行器与结果集处理器, 不使用插件代理, 缓存拦截器同样放在执行器拦截器内层
+            if (useCache) {
+                ((EzConfiguration) configuration).installEzExecutorInterceptors(new EzMybatisExecutorInterceptor(),
+                        new EzMybatisCacheInterceptor());
+            } else {
+                ((EzConfiguration) configuration).installEzExecutorInterceptors(new EzMybatisExecutorInterceptor());
+            }
+        } else {
+            ezMybatisInterceptorChain.addEzInterceptor(new EzMybatisResultSetHandlerInterceptor());
+            //缓存拦截器需要在参数初始化之后处理, 放在执行器拦截器内层
+            if (useCache) {
+                ezMybatisInterceptorChain.addEzInterceptor(new EzMybatisCacheInterceptor());
+            }
+            ezMybatisInterceptorChain.addEzInterceptor(new EzMybatisExecutorInterceptor());
+        }
         configurationConfig.setUpdateInterceptor(new EzMybatisUpdateInterceptor());
         ezMybatisInterceptorChain.addInterceptor(configurationConfig.getUpdateInterceptor());
     }
@@ -0,0 +1,206 @@
+package org.rdlinux.ezmybatis.core;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.classinfo.EzEntityClassInfoFactory;
+import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityClassInfo;
+import org.rdlinux.ezmybatis.core.mapper.EzBaseMapper;
+import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+import org.rdlinux.ezmybatis.core.sqlgenerate.SqlGenerate;
+import org.rdlinux.ezmybatis.core.sqlgenerate.SqlGenerateFactory;
+import org.rdlinux.ezmybatis.utils.Assert;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 启动预热, 在fork-join线程池中并行构建实体信息, 并可预先生成根据主键查询, 插入, 更新sql,
+ * 避免首次访问实体的请求承担构建与jit预热的开销. 预先生成sql使用空实体, 不触发属性获取监听器
+ */
+public class EzMybatisWarmUp {
+    /**
+     * 获取已注册的mapper中{@link EzBaseMapper}泛型参数指定的实体类型
+     */
+    public static Set<Class<?>> findMapperEntityClasses(Configuration configuration) {
+        Assert.notNull(configuration, "configuration can not be null");
+        Set<Class<?>> entityClasses = new LinkedHashSet<>();
+        for (Class<?> mapper : configuration.getMapperRegistry().getMappers()) {
+            Class<?> entityClass = findEntityClass(mapper);
+            if (entityClass != null) {
+                entityClasses.add(entityClass);
+            }
+        }
+        return entityClasses;
+    }
+
+    private static Class<?> findEntityClass(Class<?> mapper) {
+        for (Type type : mapper.getGenericInterfaces()) {
+            if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == EzBaseMapper.class) {
+                Type entityType = ((ParameterizedType) type).getActualTypeArguments()[0];
+                return entityType instanceof Class ? (Class<?>) entityType : null;
+            }
+            Class<?> rawType = type instanceof ParameterizedType ?
+                    (Class<?>) ((ParameterizedType) type).getRawType() : (Class<?>) type;
+            if (EzBaseMapper.class.isAssignableFrom(rawType)) {
+                Class<?> entityClass = findEntityClass(rawType);
+                if (entityClass != null) {
+                    return entityClass;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 预热实体
+     *
+     * @param configuration mybatis配置
+     * @param entityClasses 实体类型
+     * @param renderSql     是否预先生成根据主键查询, 插入, 更新sql
+     * @param parallelism   并行度, 小于等于0时使用cpu核数
+     */
+    public static Result warmUp(Configuration configuration, Collection<Class<?>> entityClasses, boolean renderSql,
+                                int parallelism) {
+        Assert.notNull(configuration, "configuration can not be null");
+        Assert.notNull(entityClasses, "entityClasses can not be null");
+        long start = System.nanoTime();
+        Result result = new Result();
+        if (!entityClasses.isEmpty()) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism :
+                    Runtime.getRuntime().availableProcessors());
+            try {
+                pool.submit(() -> new ArrayList<>(entityClasses).parallelStream()
+                        .forEach(e -> warmUpEntity(configuration, e, renderSql, result))).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+        result.elapsedMillis = (System.nanoTime() - start) / 1000000;
+        return result;
+    }
+
+    private static void warmUpEntity(Configuration configuration, Class<?> entityClass, boolean renderSql,
+                                     Result result) {
+        EntityClassInfo entityClassInfo;
+        try {
+            entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, entityClass);
+        } catch (Exception e) {
+            result.failures.put(entityClass, e);
+            return;
+        }
+        result.entityCount.incrementAndGet();
+        if (!renderSql) {
+            return;
+        }
+        Object entity = newInstance(entityClass);
+        if (entity == null) {
+            return;
+        }
+        SqlGenerate sqlGenerate = SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration));
+        renderSql(result, entityClass, () -> sqlGenerate.getInsertSql(configuration, newParamHolder(configuration),
+                null, entity));
+        if (hasPrimaryKey(entityClassInfo)) {
+            renderSql(result, entityClass, () -> sqlGenerate.getSelectByIdSql(configuration,
+                    newParamHolder(configuration), null, entityClass, null));
+            renderSql(result, entityClass, () -> sqlGenerate.getUpdateSql(configuration,
+                    newParamHolder(configuration), null, entity, true));
+        }
+    }
+
+    private static boolean hasPrimaryKey(EntityClassInfo entityClassInfo) {
+        try {
+            return entityClassInfo.getPrimaryKeyInfo() != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static Object newInstance(Class<?> entityClass) {
+        if (Modifier.isAbstract(entityClass.getModifiers()) || entityClass.isInterface()) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = entityClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static MybatisParamHolder newParamHolder(Configuration configuration) {
+        MybatisParamHolder paramHolder = new MybatisParamHolder(configuration, new HashMap<>());
+        paramHolder.getContext().setSkipFieldListeners(true);
+        return paramHolder;
+    }
+
+    /**
+     * 生成sql, 失败时记录到结果中, 不影响预热
+     */
+    private static void renderSql(Result result, Class<?> entityClass, Runnable render) {
+        try {
+            render.run();
+            result.statementCount.incrementAndGet();
+        } catch (Exception e) {
+            result.renderFailures.computeIfAbsent(entityClass, k -> new CopyOnWriteArrayList<>()).add(e);
+        }
+    }
+
+    /**
+     * 预热结果
+     */
+    public static class Result {
+        private final AtomicInteger entityCount = new AtomicInteger();
+        private final AtomicInteger statementCount = new AtomicInteger();
+        private final Map<Class<?>, Exception> failures = new ConcurrentHashMap<>();
+        private final Map<Class<?>, List<Exception>> renderFailures = new ConcurrentHashMap<>();
+        private long elapsedMillis;
+
+        /**
+         * 已构建实体信息的实体数量
+         */
+        public int getEntityCount() {
+            return this.entityCount.get();
+        }
+
+        /**
+         * 已生成的sql数量
+         */
+        public int getStatementCount() {
+            return this.statementCount.get();
+        }
+
+        /**
+         * 构建实体信息失败的实体
+         */
+        public Map<Class<?>, Exception> getFailures() {
+            return this.failures;
+        }
+
+        /**
+         * 生成sql失败的实体, 该实体的对应语句首次访问时同样会失败
+         */
+        public Map<Class<?>, List<Exception>> getRenderFailures() {
+            return this.renderFailures;
+        }
+
+        /**
+         * 耗时, 单位毫秒
+         */
+        public long getElapsedMillis() {
+            return this.elapsedMillis;
+        }
+    }
+}
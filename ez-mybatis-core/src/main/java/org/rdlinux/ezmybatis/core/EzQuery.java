@@ -1,12 +1,14 @@
 package org.rdlinux.ezmybatis.core;
 
 import lombok.Getter;
+import org.rdlinux.ezmybatis.core.cache.QueryCacheOption;
 import org.rdlinux.ezmybatis.core.sqlstruct.*;
 import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
 import org.rdlinux.ezmybatis.enumeration.JoinType;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Getter
 public class EzQuery<Rt> extends EzParam<Rt> implements MultipleRetOperand, QueryRetNeedAlias {
@@ -16,8 +18,13 @@ public class EzQuery<Rt> extends EzParam<Rt> implements MultipleRetOperand, Quer
     private OrderBy orderBy;
     private Having having;
     private Page page;
+    private KeysetPage keysetPage;
     private List<Union> unions;
     private Limit limit;
+    /**
+     * 结果缓存选项, 为空时不缓存
+     */
+    private QueryCacheOption cacheOption;
 
     private EzQuery(Class<Rt> retType) {
         super(retType);
@@ -249,6 +256,52 @@ public class EzQuery<Rt> extends EzParam<Rt> implements MultipleRetOperand, Quer
             return this.page(true, currentPage, pageSize);
         }
 
+        /**
+         * 键集分页, 根据上一页最后一行排序列的值查询下一页, 必须指定排序, 且排序列的组合需要唯一
+         *
+         * @param size       页大小
+         * @param lastValues 上一页最后一行排序列的值, 与排序项一一对应, 为空时查询第一页
+         */
+        public EzQueryBuilder<Rt> keysetPage(boolean sure, int size, List<?> lastValues) {
+            this.checkFromTable();
+            if (sure) {
+                this.query.keysetPage = new KeysetPage(this.query, size, lastValues);
+                this.query.page = new Page(this.query, 0, size);
+            }
+            return this;
+        }
+
+        /**
+         * 键集分页, 根据上一页最后一行排序列的值查询下一页, 必须指定排序, 且排序列的组合需要唯一
+         *
+         * @param size       页大小
+         * @param lastValues 上一页最后一行排序列的值, 与排序项一一对应, 为空时查询第一页
+         */
+        public EzQueryBuilder<Rt> keysetPage(int size, List<?> lastValues) {
+            return this.keysetPage(true, size, lastValues);
+        }
+
+        /**
+         * 键集分页, 根据续页令牌查询下一页, 必须指定排序, 且排序列的组合需要唯一
+         *
+         * @param size  页大小
+         * @param token 上一页返回的续页令牌, 为空时查询第一页
+         */
+        public EzQueryBuilder<Rt> keysetPage(boolean sure, int size, String token) {
+            List<Object> lastValues = token == null || token.isEmpty() ? null : KeysetToken.decode(token);
+            return this.keysetPage(sure, size, lastValues);
+        }
+
+        /**
+         * 键集分页, 根据续页令牌查询下一页, 必须指定排序, 且排序列的组合需要唯一
+         *
+         * @param size  页大小
+         * @param token 上一页返回的续页令牌, 为空时查询第一页
+         */
+        public EzQueryBuilder<Rt> keysetPage(int size, String token) {
+            return this.keysetPage(true, size, token);
+        }
+
         /**
          * 限定, 当存在分页时, 限定将失效
          */
@@ -267,6 +320,28 @@ public class EzQuery<Rt> extends EzParam<Rt> implements MultipleRetOperand, Quer
             return this.limit(true, limit);
         }
 
+        /**
+         * 缓存查询结果, 写入涉及的表时失效, 需要配置queryCacheMaxMemory大于0
+         *
+         * @param ttl  缓存时间
+         * @param unit 时间单位
+         */
+        public EzQueryBuilder<Rt> cache(long ttl, TimeUnit unit) {
+            return this.cache(ttl, 0, unit);
+        }
+
+        /**
+         * 缓存查询结果, 写入涉及的表时失效, 需要配置queryCacheMaxMemory大于0
+         *
+         * @param ttl                  缓存时间
+         * @param staleWhileRevalidate 过期后仍可返回旧结果的时间, 期间由一个调用方刷新, 其余调用方返回旧结果
+         * @param unit                 时间单位
+         */
+        public EzQueryBuilder<Rt> cache(long ttl, long staleWhileRevalidate, TimeUnit unit) {
+            this.query.cacheOption = new QueryCacheOption(unit.toMillis(ttl), unit.toMillis(staleWhileRevalidate));
+            return this;
+        }
+
         /**
          * 联合查询
          */
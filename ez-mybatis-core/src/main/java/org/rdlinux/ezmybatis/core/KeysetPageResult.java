@@ -0,0 +1,37 @@
+package org.rdlinux.ezmybatis.core;
+
+import java.util.List;
+
+/**
+ * 键集分页结果
+ */
+public class KeysetPageResult<T> {
+    /**
+     * 本页数据
+     */
+    private final List<T> records;
+    /**
+     * 续页令牌, 为空时表示没有下一页
+     */
+    private final String nextToken;
+
+    public KeysetPageResult(List<T> records, String nextToken) {
+        this.records = records;
+        this.nextToken = nextToken;
+    }
+
+    public List<T> getRecords() {
+        return this.records;
+    }
+
+    public String getNextToken() {
+        return this.nextToken;
+    }
+
+    /**
+     * 是否存在下一页
+     */
+    public boolean hasNext() {
+        return this.nextToken != null;
+    }
+}
@@ -0,0 +1,39 @@
+package org.rdlinux.ezmybatis.core;
+
+import java.util.List;
+
+/**
+ * 分页结果
+ */
+public class PageResult<T> {
+    /**
+     * 本页数据
+     */
+    private final List<T> records;
+    /**
+     * 总数
+     */
+    private final long total;
+    /**
+     * 总数是否是根据数据库统计信息估算的
+     */
+    private final boolean approximate;
+
+    public PageResult(List<T> records, long total, boolean approximate) {
+        this.records = records;
+        this.total = total;
+        this.approximate = approximate;
+    }
+
+    public List<T> getRecords() {
+        return this.records;
+    }
+
+    public long getTotal() {
+        return this.total;
+    }
+
+    public boolean isApproximate() {
+        return this.approximate;
+    }
+}
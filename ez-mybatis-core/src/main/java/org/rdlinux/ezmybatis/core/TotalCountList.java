@@ -0,0 +1,41 @@
+package org.rdlinux.ezmybatis.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * 携带查询总数的结果列表, 由分页查询返回
+ */
+public class TotalCountList<E> extends ArrayList<E> {
+    private static final long serialVersionUID = 1L;
+    /**
+     * 总数, 结果集中没有总数列时为-1
+     */
+    private final long total;
+
+    public TotalCountList(Collection<? extends E> records, long total) {
+        super(records);
+        this.total = total;
+    }
+
+    /**
+     * 复制结果列表, 携带总数的列表复制后保留总数
+     */
+    public static <E> ArrayList<E> copyOf(Collection<? extends E> records) {
+        if (records instanceof TotalCountList) {
+            return new TotalCountList<>(records, ((TotalCountList<?>) records).total);
+        }
+        return new ArrayList<>(records);
+    }
+
+    public long getTotal() {
+        return this.total;
+    }
+
+    /**
+     * 是否携带了总数
+     */
+    public boolean hasTotal() {
+        return this.total >= 0;
+    }
+}
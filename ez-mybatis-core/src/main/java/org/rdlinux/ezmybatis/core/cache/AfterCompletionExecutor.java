@@ -0,0 +1,14 @@
+package org.rdlinux.ezmybatis.core.cache;
+
+/**
+ * 事务结束回调执行器, 事务由外部管理(例如spring)时, 会话提交早于数据库真正提交, 缓存需要在事务结束后再次失效
+ */
+public interface AfterCompletionExecutor {
+    /**
+     * 注册事务结束后执行的任务
+     *
+     * @param task 任务
+     * @return 当前没有外部管理的事务时返回false, 任务不会执行
+     */
+    boolean execute(Runnable task);
+}
@@ -0,0 +1,286 @@
+package org.rdlinux.ezmybatis.core.cache;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzContentConfig;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.classinfo.EzEntityClassInfoFactory;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.DbTable;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 写入产生的缓存失效信息, 同时作用于实体缓存与查询结果缓存, 无法确定影响范围时失效全部缓存
+ */
+public class CacheInvalidation {
+    private static final String IDENTIFIER = "([`\"\\[]?[\\w$#]+[`\"\\]]?)";
+    /**
+     * 写入语句的目标表, 第一组为语句类型, 第二组为可选的schema, 第三组为表名
+     */
+    private static final Pattern WRITE_TABLE_PATTERN = Pattern.compile("(insert\\s+into|replace\\s+into|" +
+            "merge\\s+into|update|delete\\s+from)\\s+(?:" + IDENTIFIER + "\\s*\\.\\s*)?" + IDENTIFIER +
+            "(?![\\w$#])", Pattern.CASE_INSENSITIVE);
+    private static final Pattern FROM_PATTERN = Pattern.compile("\\bfrom\\b", Pattern.CASE_INSENSITIVE);
+    /**
+     * 可能出现在表名位置的修饰词, 出现时无法确定目标表
+     */
+    private static final Set<String> WRITE_MODIFIERS = new HashSet<>(Arrays.asList("low_priority", "high_priority",
+            "delayed", "ignore", "quick", "only", "top", "into", "all", "first"));
+    private final Configuration configuration;
+    private final EntityCacheManager entityCacheManager;
+    /**
+     * 事务结束回调执行器, 可能为null
+     */
+    private final AfterCompletionExecutor afterCompletionExecutor;
+    /**
+     * 查询结果缓存, 未开启时为null
+     */
+    private final QueryResultCache queryResultCache;
+    /**
+     * 需要全部失效的实体类型
+     */
+    private final Set<Class<?>> classes = new HashSet<>();
+    /**
+     * 需要根据主键失效的实体类型与主键
+     */
+    private final Map<Class<?>, Set<Object>> ids = new HashMap<>();
+    /**
+     * 需要失效的表标签
+     */
+    private final Set<String> tags = new HashSet<>();
+    private boolean all;
+
+    public CacheInvalidation(Configuration configuration) {
+        EzContentConfig contentConfig = EzMybatisContent.getContentConfig(configuration);
+        this.configuration = configuration;
+        this.entityCacheManager = contentConfig.getEntityCacheManager();
+        this.queryResultCache = contentConfig.getQueryResultCache();
+        this.afterCompletionExecutor = contentConfig.getAfterCompletionExecutor();
+    }
+
+    /**
+     * 是否开启了实体缓存或者查询结果缓存, 都未开启时写入无需失效
+     */
+    public static boolean isCacheEnabled(Configuration configuration) {
+        EzContentConfig contentConfig = EzMybatisContent.getContentConfig(configuration);
+        return contentConfig.getEzMybatisConfig().isEntityCacheEnabled() || contentConfig.getQueryResultCache() != null;
+    }
+
+    private String tableTag(Class<?> entityClass) {
+        return QueryResultCache.tableTag(EzEntityClassInfoFactory.forClass(this.configuration, entityClass)
+                .getTableName());
+    }
+
+    /**
+     * 添加写入的实体
+     *
+     * @param table 写入的表, 为空时使用实体对应的表
+     */
+    public void addEntity(Table table, Object entity) {
+        if (entity == null) {
+            return;
+        }
+        EntityCache cache = this.entityCacheManager.getCache(entity.getClass());
+        if (cache != null) {
+            this.ids.computeIfAbsent(entity.getClass(), k -> new HashSet<>()).add(cache.getId(entity));
+        }
+        this.tags.add(table == null ? this.tableTag(entity.getClass()) :
+                QueryResultCache.tableTag(this.configuration, table));
+    }
+
+    /**
+     * 添加写入的实体
+     *
+     * @param table 写入的表, 为空时使用实体对应的表
+     */
+    public void addEntities(Table table, Collection<?> entitys) {
+        if (entitys != null) {
+            for (Object entity : entitys) {
+                this.addEntity(table, entity);
+            }
+        }
+    }
+
+    /**
+     * 添加插入的表, 插入不影响已缓存的实体, 只失效查询结果
+     *
+     * @param table 写入的表, 为空时使用实体对应的表
+     */
+    public void addInsertTable(Table table, Class<?> entityClass) {
+        this.tags.add(table == null ? this.tableTag(entityClass) :
+                QueryResultCache.tableTag(this.configuration, table));
+    }
+
+    /**
+     * 添加写入的主键
+     *
+     * @param table 写入的表, 为空时使用实体对应的表
+     */
+    public void addId(Class<?> entityClass, Table table, Object id) {
+        if (id != null) {
+            this.ids.computeIfAbsent(entityClass, k -> new HashSet<>()).add(id);
+        }
+        this.tags.add(table == null ? this.tableTag(entityClass) :
+                QueryResultCache.tableTag(this.configuration, table));
+    }
+
+    /**
+     * 添加整表写入
+     */
+    public void addTable(Table table) {
+        if (table instanceof EntityTable) {
+            this.classes.add(((EntityTable) table).getEtType());
+            this.tags.add(QueryResultCache.tableTag(this.configuration, table));
+        } else if (table instanceof DbTable) {
+            String tag = QueryResultCache.tableTag(this.configuration, table);
+            //表名对应的实体类型缓存同样需要失效
+            for (Class<?> entityClass : this.entityCacheManager.getCachedClasses()) {
+                if (tag.equals(this.tableTag(entityClass))) {
+                    this.classes.add(entityClass);
+                }
+            }
+            this.tags.add(tag);
+        } else {
+            this.all = true;
+        }
+    }
+
+    /**
+     * 添加非ez方法执行的写入sql, 只解析单表的insert, replace, merge, update, delete语句的目标表并按表失效,
+     * 多条语句, 多表写入, 带from子句的update以及其它无法解析的语句失效全部缓存
+     */
+    public void addSql(String sql) {
+        DbTable table = parseWriteTable(sql);
+        if (table == null) {
+            this.all = true;
+        } else {
+            this.addTable(table);
+        }
+    }
+
+    /**
+     * 解析写入sql的目标表, 无法确定时返回null
+     */
+    static DbTable parseWriteTable(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        String trimmed = sql.trim();
+        if (trimmed.endsWith(";")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        if (trimmed.indexOf(';') >= 0) {
+            return null;
+        }
+        Matcher matcher = WRITE_TABLE_PATTERN.matcher(trimmed);
+        if (!matcher.lookingAt()) {
+            return null;
+        }
+        String rest = trimmed.substring(matcher.end()).trim();
+        if (rest.startsWith(",") || (matcher.group(1).equalsIgnoreCase("update") &&
+                FROM_PATTERN.matcher(rest).find())) {
+            return null;
+        }
+        String schema = unquote(matcher.group(2));
+        String tableName = unquote(matcher.group(3));
+        if (WRITE_MODIFIERS.contains(tableName.toLowerCase(Locale.ROOT))) {
+            return null;
+        }
+        return schema == null ? DbTable.of(tableName) : DbTable.of(schema, tableName);
+    }
+
+    private static String unquote(String name) {
+        if (name == null || name.length() < 2) {
+            return name;
+        }
+        char first = name.charAt(0);
+        if (first == '`' || first == '"' || first == '[') {
+            return name.substring(1, name.length() - 1);
+        }
+        return name;
+    }
+
+    /**
+     * 无法确定影响范围, 失效全部缓存
+     */
+    public void addAll() {
+        this.all = true;
+    }
+
+    /**
+     * 合并失效信息
+     */
+    public void merge(CacheInvalidation other) {
+        this.all |= other.all;
+        this.classes.addAll(other.classes);
+        this.tags.addAll(other.tags);
+        other.ids.forEach((k, v) -> this.ids.computeIfAbsent(k, c -> new HashSet<>()).addAll(v));
+    }
+
+    /**
+     * 是否影响实体类型的缓存
+     */
+    public boolean affects(Class<?> entityClass) {
+        return this.all || this.classes.contains(entityClass) || this.ids.containsKey(entityClass) ||
+                (!this.tags.isEmpty() && this.tags.contains(this.tableTag(entityClass)));
+    }
+
+    /**
+     * 是否影响表标签对应的查询结果
+     */
+    public boolean affects(Set<String> queryTags) {
+        if (this.all) {
+            return true;
+        }
+        if (this.tags.isEmpty()) {
+            return false;
+        }
+        if (queryTags.contains(QueryResultCache.ALL_TABLES_TAG)) {
+            return true;
+        }
+        for (String tag : queryTags) {
+            if (this.tags.contains(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 立即执行失效, 事务由外部管理时在事务真正结束后再次执行,
+     * 避免提交前失效的缓存被其它线程使用未提交前的数据重新填充
+     */
+    public void applyAndAfterCompletion() {
+        this.apply();
+        if (this.afterCompletionExecutor != null) {
+            this.afterCompletionExecutor.execute(this::apply);
+        }
+    }
+
+    /**
+     * 执行失效
+     */
+    public void apply() {
+        if (this.all) {
+            this.entityCacheManager.clear();
+            if (this.queryResultCache != null) {
+                this.queryResultCache.clear();
+            }
+            return;
+        }
+        for (Class<?> entityClass : this.classes) {
+            this.entityCacheManager.invalidateAll(entityClass);
+        }
+        this.ids.forEach((k, v) -> {
+            if (!this.classes.contains(k)) {
+                this.entityCacheManager.invalidate(k, v);
+            }
+        });
+        if (this.queryResultCache != null && !this.tags.isEmpty()) {
+            this.queryResultCache.invalidate(this.tags);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.rdlinux.ezmybatis.core.cache;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.classinfo.EzEntityClassInfoFactory;
+import org.rdlinux.ezmybatis.core.classinfo.FieldAccessor;
+import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityClassInfo;
+import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityFieldInfo;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单个实体类型的二级缓存, 以主键为key, 存取时都复制实体, 调用方修改返回的实体不会影响缓存
+ */
+public class EntityCache {
+    private final Class<?> entityClass;
+    private final Constructor<?> constructor;
+    private final FieldAccessor primaryKeyAccessor;
+    private final FieldAccessor[] accessors;
+    private final TinyLfuCache<Object, Object> cache;
+    /**
+     * 失效版本, 每次失效时递增, 用于丢弃失效前发起的查询结果
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    public EntityCache(Configuration configuration, Class<?> entityClass, int maxSize, long ttlSeconds) {
+        this.entityClass = entityClass;
+        try {
+            this.constructor = entityClass.getDeclaredConstructor();
+            this.constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("entity cache requires a no-arg constructor: " +
+                    entityClass.getName(), e);
+        }
+        EntityClassInfo classInfo = EzEntityClassInfoFactory.forClass(configuration, entityClass);
+        this.primaryKeyAccessor = classInfo.getPrimaryKeyInfo().getAccessor();
+        List<FieldAccessor> accessors = new ArrayList<>(classInfo.getFieldInfos().size());
+        for (EntityFieldInfo fieldInfo : classInfo.getFieldInfos()) {
+            if (fieldInfo.getAccessor().canSet()) {
+                accessors.add(fieldInfo.getAccessor());
+            }
+        }
+        this.accessors = accessors.toArray(new FieldAccessor[0]);
+        this.cache = new TinyLfuCache<>(maxSize, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 主键统一为Long, 避免同一主键以不同的整数类型传入时无法命中
+     */
+    private static Object normalizeId(Object id) {
+        if (id instanceof Integer || id instanceof Short || id instanceof Byte) {
+            return ((Number) id).longValue();
+        }
+        return id;
+    }
+
+    public Class<?> getEntityClass() {
+        return this.entityClass;
+    }
+
+    /**
+     * 获取当前失效版本, 查询数据库前获取, 放入缓存时传入
+     */
+    public long getVersion() {
+        return this.version.get();
+    }
+
+    /**
+     * 获取实体主键
+     */
+    public Object getId(Object entity) {
+        return this.primaryKeyAccessor.get(entity);
+    }
+
+    /**
+     * 根据主键获取实体副本, 不存在时返回null
+     */
+    public Object get(Object id) {
+        if (id == null) {
+            return null;
+        }
+        Object entity = this.cache.get(normalizeId(id));
+        return entity == null ? null : this.copy(entity);
+    }
+
+    /**
+     * 放入实体副本, 如果获取版本后发生过失效则丢弃
+     *
+     * @param version 查询数据库前获取的失效版本
+     */
+    public synchronized void put(long version, Object entity) {
+        if (entity == null || !this.entityClass.isInstance(entity) || version != this.version.get()) {
+            return;
+        }
+        Object id = this.primaryKeyAccessor.get(entity);
+        if (id != null) {
+            this.cache.put(normalizeId(id), this.copy(entity));
+        }
+    }
+
+    /**
+     * 根据主键失效
+     */
+    public synchronized void invalidate(Object id) {
+        this.version.incrementAndGet();
+        if (id != null) {
+            this.cache.remove(normalizeId(id));
+        }
+    }
+
+    /**
+     * 根据主键批量失效
+     */
+    public synchronized void invalidate(Collection<?> ids) {
+        this.version.incrementAndGet();
+        if (ids != null) {
+            for (Object id : ids) {
+                if (id != null) {
+                    this.cache.remove(normalizeId(id));
+                }
+            }
+        }
+    }
+
+    /**
+     * 根据实体主键失效
+     */
+    public void invalidateEntity(Object entity) {
+        if (entity != null && this.entityClass.isInstance(entity)) {
+            this.invalidate(this.primaryKeyAccessor.get(entity));
+        }
+    }
+
+    /**
+     * 全部失效
+     */
+    public synchronized void invalidateAll() {
+        this.version.incrementAndGet();
+        this.cache.clear();
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public EntityCacheStats getStats() {
+        return new EntityCacheStats(this.cache.getHitCount(), this.cache.getMissCount(),
+                this.cache.getEvictionCount(), this.cache.size());
+    }
+
+    private Object copy(Object entity) {
+        Object ret;
+        try {
+            ret = this.constructor.newInstance();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        for (FieldAccessor accessor : this.accessors) {
+            accessor.set(ret, accessor.get(entity));
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,161 @@
+package org.rdlinux.ezmybatis.core.cache;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.utils.Assert;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 实体二级缓存管理, 实体类标注{@link org.rdlinux.ezmybatis.annotation.EntityCache}或者调用{@link #enable}后开启
+ */
+public class EntityCacheManager {
+    /**
+     * 未开启缓存占位
+     */
+    private static final Holder DISABLED = new Holder(null);
+    private final Configuration configuration;
+    /**
+     * 实体类型与缓存映射, 未开启的类型也会缓存占位
+     */
+    private final Map<Class<?>, Holder> caches = new ConcurrentHashMap<>();
+
+    public EntityCacheManager(Configuration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * 开启实体缓存, 已开启时重新创建
+     *
+     * @param entityClass 实体类型
+     * @param maxSize     最大缓存实体数量
+     * @param ttlSeconds  写入后的存活时间, 单位秒, 小于等于0时不过期
+     */
+    public EntityCache enable(Class<?> entityClass, int maxSize, long ttlSeconds) {
+        Assert.notNull(entityClass, "entityClass can not be null");
+        EntityCache cache = new EntityCache(this.configuration, entityClass, maxSize, ttlSeconds);
+        this.caches.put(entityClass, new Holder(cache));
+        return cache;
+    }
+
+    /**
+     * 关闭实体缓存, 关闭后忽略实体上的注解
+     */
+    public void disable(Class<?> entityClass) {
+        this.caches.put(entityClass, DISABLED);
+    }
+
+    /**
+     * 获取实体缓存, 未开启时返回null
+     */
+    public EntityCache getCache(Class<?> entityClass) {
+        if (entityClass == null) {
+            return null;
+        }
+        Holder holder = this.caches.get(entityClass);
+        if (holder == null) {
+            holder = this.caches.computeIfAbsent(entityClass, this::resolve);
+        }
+        return holder.cache;
+    }
+
+    private Holder resolve(Class<?> entityClass) {
+        org.rdlinux.ezmybatis.annotation.EntityCache annotation = entityClass.getAnnotation(
+                org.rdlinux.ezmybatis.annotation.EntityCache.class);
+        if (annotation == null) {
+            return DISABLED;
+        }
+        return new Holder(new EntityCache(this.configuration, entityClass, annotation.maxSize(), annotation.ttl()));
+    }
+
+    /**
+     * 根据主键失效
+     */
+    public void invalidate(Class<?> entityClass, Object id) {
+        EntityCache cache = this.getCache(entityClass);
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * 根据主键批量失效
+     */
+    public void invalidate(Class<?> entityClass, Collection<?> ids) {
+        EntityCache cache = this.getCache(entityClass);
+        if (cache != null) {
+            cache.invalidate(ids);
+        }
+    }
+
+    /**
+     * 失效实体类型的全部缓存
+     */
+    public void invalidateAll(Class<?> entityClass) {
+        EntityCache cache = this.getCache(entityClass);
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * 失效所有实体类型的缓存
+     */
+    public void clear() {
+        for (Holder holder : this.caches.values()) {
+            if (holder.cache != null) {
+                holder.cache.invalidateAll();
+            }
+        }
+    }
+
+    /**
+     * 获取已开启缓存的实体类型
+     */
+    public Set<Class<?>> getCachedClasses() {
+        Set<Class<?>> ret = new HashSet<>();
+        this.caches.forEach((k, v) -> {
+            if (v.cache != null) {
+                ret.add(k);
+            }
+        });
+        return ret;
+    }
+
+    /**
+     * 是否有开启缓存的实体类型
+     */
+    public boolean hasCache() {
+        for (Holder holder : this.caches.values()) {
+            if (holder.cache != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取所有已开启缓存的统计信息
+     */
+    public Map<Class<?>, EntityCacheStats> getStats() {
+        Map<Class<?>, EntityCacheStats> ret = new LinkedHashMap<>();
+        this.caches.forEach((k, v) -> {
+            if (v.cache != null) {
+                ret.put(k, v.cache.getStats());
+            }
+        });
+        return ret;
+    }
+
+    private static class Holder {
+        private final EntityCache cache;
+
+        private Holder(EntityCache cache) {
+            this.cache = cache;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.rdlinux.ezmybatis.core.cache;
+
+/**
+ * 实体缓存统计信息
+ */
+public class EntityCacheStats {
+    /**
+     * 命中次数
+     */
+    private final long hitCount;
+    /**
+     * 未命中次数
+     */
+    private final long missCount;
+    /**
+     * 淘汰次数
+     */
+    private final long evictionCount;
+    /**
+     * 当前缓存数量
+     */
+    private final int size;
+
+    public EntityCacheStats(long hitCount, long missCount, long evictionCount, int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    public long getHitCount() {
+        return this.hitCount;
+    }
+
+    public long getMissCount() {
+        return this.missCount;
+    }
+
+    public long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * 命中率, 没有请求时返回1
+     */
+    public double getHitRate() {
+        long requestCount = this.hitCount + this.missCount;
+        return requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCacheStats{hitCount=" + this.hitCount + ", missCount=" + this.missCount +
+                ", evictionCount=" + this.evictionCount + ", size=" + this.size + "}";
+    }
+}
@@ -0,0 +1,32 @@
+package org.rdlinux.ezmybatis.core.cache;
+
+import org.rdlinux.ezmybatis.utils.Assert;
+
+/**
+ * 查询结果缓存选项
+ */
+public class QueryCacheOption {
+    /**
+     * 缓存时间, 单位毫秒
+     */
+    private final long ttl;
+    /**
+     * 过期后仍可返回旧结果的时间, 单位毫秒
+     */
+    private final long staleWhileRevalidate;
+
+    public QueryCacheOption(long ttl, long staleWhileRevalidate) {
+        Assert.isTrue(ttl > 0, "ttl must be greater than 0");
+        Assert.isTrue(staleWhileRevalidate >= 0, "staleWhileRevalidate can not be less than 0");
+        this.ttl = ttl;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
+    public long getTtl() {
+        return this.ttl;
+    }
+
+    public long getStaleWhileRevalidate() {
+        return this.staleWhileRevalidate;
+    }
+}
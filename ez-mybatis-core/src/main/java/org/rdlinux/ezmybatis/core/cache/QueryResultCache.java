@@ -0,0 +1,427 @@
+package org.rdlinux.ezmybatis.core.cache;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.sqlstruct.*;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.ArgCompareArgCondition;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.Condition;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.ExistsCondition;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.GroupCondition;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.SqlCondition;
+import org.rdlinux.ezmybatis.core.sqlstruct.formula.Formula;
+import org.rdlinux.ezmybatis.core.sqlstruct.formula.FormulaElement;
+import org.rdlinux.ezmybatis.core.sqlstruct.formula.FormulaOperandElement;
+import org.rdlinux.ezmybatis.core.sqlstruct.formula.GroupFormulaElement;
+import org.rdlinux.ezmybatis.core.sqlstruct.selectitem.SelectItem;
+import org.rdlinux.ezmybatis.core.sqlstruct.selectitem.SelectOperand;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.DbTable;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EzQueryTable;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
+import org.rdlinux.ezmybatis.utils.Assert;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 查询结果缓存, key为渲染后的sql与绑定参数, 每条结果以查询涉及的表作为标签, 写入表时失效对应标签的结果;
+ * 按估算的内存占用限制总量, 超出时淘汰最久未访问的结果; 存取时都深复制结果, 无法复制的结果不缓存
+ */
+public class QueryResultCache {
+    /**
+     * 无法确定涉及的表时使用的标签, 任意写入都会失效
+     */
+    public static final String ALL_TABLES_TAG = "*";
+    private final long maxMemory;
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Object>> tagIndex = new HashMap<>();
+    /**
+     * 标签失效版本, 用于丢弃失效前发起的查询结果
+     */
+    private final Map<String, Long> tagVersions = new HashMap<>();
+    /**
+     * 任意失效都会递增的版本
+     */
+    private long version;
+    /**
+     * 清空次数
+     */
+    private long epoch;
+    private long memory;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder staleHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maxMemory 最大估算内存占用, 单位字节
+     */
+    public QueryResultCache(long maxMemory) {
+        Assert.isTrue(maxMemory > 0, "maxMemory must be greater than 0");
+        this.maxMemory = maxMemory;
+    }
+
+    /**
+     * 获取表标签, 忽略模式与大小写
+     */
+    public static String tableTag(String tableName) {
+        return tableName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 获取表标签, 无法确定表名时返回{@link #ALL_TABLES_TAG}
+     */
+    public static String tableTag(Configuration configuration, Table table) {
+        if (table instanceof EntityTable || table instanceof DbTable) {
+            return tableTag(table.getTableName(configuration));
+        }
+        return ALL_TABLES_TAG;
+    }
+
+    /**
+     * 收集查询涉及的表标签, 包括from, join, 子查询表以及联合查询;
+     * 查询列, 条件, 分组, 排序中存在子查询或原生sql时无法确定涉及的表, 使用{@link #ALL_TABLES_TAG}
+     */
+    public static Set<String> collectTags(Configuration configuration, EzQuery<?> query) {
+        Set<String> tags = new HashSet<>();
+        collectTags(configuration, query, tags);
+        return tags;
+    }
+
+    private static void collectTags(Configuration configuration, EzQuery<?> query, Set<String> tags) {
+        if (query.getFrom() != null) {
+            collectTags(configuration, query.getFrom().getTable(), tags);
+        }
+        collectJoinTags(configuration, query.getJoins(), tags);
+        if (hasSubQuery(query)) {
+            tags.add(ALL_TABLES_TAG);
+        }
+        if (query.getUnions() != null) {
+            for (Union union : query.getUnions()) {
+                collectTags(configuration, union.getQuery(), tags);
+            }
+        }
+    }
+
+    private static void collectJoinTags(Configuration configuration, List<Join> joins, Set<String> tags) {
+        if (joins == null) {
+            return;
+        }
+        for (Join join : joins) {
+            collectTags(configuration, join.getJoinTable(), tags);
+            collectJoinTags(configuration, join.getJoins(), tags);
+        }
+    }
+
+    private static boolean hasSubQuery(EzQuery<?> query) {
+        if (query.getSelect() != null && query.getSelect().getSelectFields() != null) {
+            for (SelectItem item : query.getSelect().getSelectFields()) {
+                if (item instanceof SelectOperand && hasSubQuery(((SelectOperand) item).getOperand())) {
+                    return true;
+                }
+            }
+        }
+        if (query.getWhere() != null && hasSubQuery(query.getWhere().getConditions())) {
+            return true;
+        }
+        if (query.getGroupBy() != null) {
+            for (Operand item : query.getGroupBy().getItems()) {
+                if (hasSubQuery(item)) {
+                    return true;
+                }
+            }
+        }
+        if (query.getHaving() != null && hasSubQuery(query.getHaving().getConditions())) {
+            return true;
+        }
+        if (query.getOrderBy() != null) {
+            for (OrderBy.OrderItem item : query.getOrderBy().getItems()) {
+                if (hasSubQuery(item.getValue())) {
+                    return true;
+                }
+            }
+        }
+        return hasJoinSubQuery(query.getJoins());
+    }
+
+    private static boolean hasJoinSubQuery(List<Join> joins) {
+        if (joins == null) {
+            return false;
+        }
+        for (Join join : joins) {
+            if (hasSubQuery(join.getOnConditions()) || hasJoinSubQuery(join.getJoins())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasSubQuery(List<Condition> conditions) {
+        if (conditions == null) {
+            return false;
+        }
+        for (Condition condition : conditions) {
+            if (condition instanceof ExistsCondition || condition instanceof SqlCondition) {
+                return true;
+            }
+            if (condition instanceof GroupCondition && hasSubQuery(((GroupCondition) condition).getConditions())) {
+                return true;
+            }
+            if (condition instanceof ArgCompareArgCondition) {
+                ArgCompareArgCondition argCondition = (ArgCompareArgCondition) condition;
+                if (hasSubQuery(argCondition.getLeftValue()) || hasSubQuery(argCondition.getRightValue()) ||
+                        hasSubQuery(argCondition.getMinValue()) || hasSubQuery(argCondition.getMaxValue())) {
+                    return true;
+                }
+                if (argCondition.getRightValues() != null) {
+                    for (Operand operand : argCondition.getRightValues()) {
+                        if (hasSubQuery(operand)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasSubQuery(Operand operand) {
+        if (operand instanceof EzQuery || operand instanceof Sql) {
+            return true;
+        }
+        if (operand instanceof Function) {
+            for (Function.FunArg arg : ((Function) operand).getFunArgs()) {
+                if (hasSubQuery(arg.getArgValue())) {
+                    return true;
+                }
+            }
+        } else if (operand instanceof CaseWhen) {
+            CaseWhen caseWhen = (CaseWhen) operand;
+            if (caseWhen.getCaseWhenData() != null) {
+                for (CaseWhen.CaseWhenData data : caseWhen.getCaseWhenData()) {
+                    if (hasSubQuery(data.getConditions()) || hasSubQuery(data.getValue())) {
+                        return true;
+                    }
+                }
+            }
+            return caseWhen.getEls() != null && hasSubQuery(caseWhen.getEls().getValue());
+        } else if (operand instanceof Formula) {
+            return hasFormulaSubQuery(((Formula) operand).getElements());
+        }
+        return false;
+    }
+
+    private static boolean hasFormulaSubQuery(List<FormulaElement> elements) {
+        for (FormulaElement element : elements) {
+            if (element instanceof FormulaOperandElement &&
+                    hasSubQuery(((FormulaOperandElement) element).getOperand())) {
+                return true;
+            }
+            if (element instanceof GroupFormulaElement &&
+                    hasFormulaSubQuery(((GroupFormulaElement) element).getElements())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void collectTags(Configuration configuration, Table table, Set<String> tags) {
+        if (table instanceof EzQueryTable) {
+            collectTags(configuration, ((EzQueryTable) table).getEzQuery(), tags);
+        } else if (table != null) {
+            tags.add(tableTag(configuration, table));
+        }
+    }
+
+    /**
+     * 获取标签的当前失效版本, 查询数据库前获取, 放入缓存时传入
+     */
+    public synchronized long getVersion(Set<String> tags) {
+        if (tags.contains(ALL_TABLES_TAG)) {
+            return this.version;
+        }
+        long ret = this.epoch;
+        for (String tag : tags) {
+            ret += this.tagVersions.getOrDefault(tag, 0L);
+        }
+        return ret;
+    }
+
+    /**
+     * 获取缓存结果, 结果已过期但仍在旧结果可用时间内时, 第一个调用方返回null负责刷新, 其余调用方返回旧结果
+     *
+     * @return 为null时调用方需要查询数据库并调用{@link #put}
+     */
+    public List<?> get(Object key) {
+        Entry entry;
+        synchronized (this) {
+            entry = this.entries.get(key);
+        }
+        long now = System.currentTimeMillis();
+        if (entry == null || now >= entry.staleUntil) {
+            this.missCount.increment();
+            return null;
+        }
+        if (now < entry.expireAt) {
+            this.hitCount.increment();
+            return QueryResultCopier.copy(entry.value);
+        }
+        if (entry.refreshing.compareAndSet(false, true)) {
+            this.missCount.increment();
+            return null;
+        }
+        this.staleHitCount.increment();
+        return QueryResultCopier.copy(entry.value);
+    }
+
+    /**
+     * 放入查询结果, 获取版本后标签发生过失效时丢弃, 结果无法复制时不缓存
+     *
+     * @param version 查询数据库前获取的失效版本
+     */
+    public void put(Object key, List<?> value, Set<String> tags, QueryCacheOption option, long version) {
+        value = QueryResultCopier.copy(value);
+        if (value == null) {
+            this.cancelRefresh(key);
+            return;
+        }
+        long weight = QueryResultWeigher.weigh(value);
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(key, value, tags, weight, now + option.getTtl(),
+                now + option.getTtl() + option.getStaleWhileRevalidate());
+        synchronized (this) {
+            if (version != this.getVersion(tags)) {
+                this.cancelRefresh(key);
+                return;
+            }
+            this.remove(key);
+            if (weight > this.maxMemory) {
+                return;
+            }
+            this.entries.put(key, entry);
+            for (String tag : tags) {
+                this.tagIndex.computeIfAbsent(tag, k -> new HashSet<>()).add(key);
+            }
+            this.memory += weight;
+            Iterator<Entry> iterator = this.entries.values().iterator();
+            while (this.memory > this.maxMemory && iterator.hasNext()) {
+                Entry eldest = iterator.next();
+                iterator.remove();
+                this.unindex(eldest);
+                this.evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * 刷新失败时调用, 允许其他调用方重新刷新
+     */
+    public synchronized void cancelRefresh(Object key) {
+        Entry entry = this.entries.get(key);
+        if (entry != null) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    /**
+     * 失效表标签对应的结果, 同时失效涉及表未知的结果
+     */
+    public synchronized void invalidate(Collection<String> tags) {
+        this.version++;
+        for (String tag : tags) {
+            this.tagVersions.merge(tag, 1L, Long::sum);
+            this.removeTag(tag);
+        }
+        this.removeTag(ALL_TABLES_TAG);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        this.version++;
+        this.epoch++;
+        this.entries.clear();
+        this.tagIndex.clear();
+        this.memory = 0;
+    }
+
+    private void removeTag(String tag) {
+        Set<Object> keys = this.tagIndex.remove(tag);
+        if (keys != null) {
+            for (Object key : keys) {
+                this.remove(key);
+            }
+        }
+    }
+
+    private void remove(Object key) {
+        Entry entry = this.entries.remove(key);
+        if (entry != null) {
+            this.unindex(entry);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        this.memory -= entry.weight;
+        for (String tag : entry.tags) {
+            Set<Object> keys = this.tagIndex.get(tag);
+            if (keys != null) {
+                keys.remove(entry.key);
+                if (keys.isEmpty()) {
+                    this.tagIndex.remove(tag);
+                }
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * 获取当前估算的内存占用, 单位字节
+     */
+    public synchronized long getMemory() {
+        return this.memory;
+    }
+
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    /**
+     * 过期后返回旧结果的次数
+     */
+    public long getStaleHitCount() {
+        return this.staleHitCount.sum();
+    }
+
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    private static class Entry {
+        private final Object key;
+        private final List<?> value;
+        private final Set<String> tags;
+        private final long weight;
+        private final long expireAt;
+        private final long staleUntil;
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        private Entry(Object key, List<?> value, Set<String> tags, long weight, long expireAt, long staleUntil) {
+            this.key = key;
+            this.value = value;
+            this.tags = tags;
+            this.weight = weight;
+            this.expireAt = expireAt;
+            this.staleUntil = staleUntil;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package org.rdlinux.ezmybatis.core.cache;
+
+import org.rdlinux.ezmybatis.core.TotalCountList;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.Temporal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 查询结果深复制, 放入与读取缓存时都复制, 调用方修改返回的结果不会影响缓存;
+ * 不可变类型直接共享, 无法复制的结果不缓存
+ */
+class QueryResultCopier {
+    private static final Map<Class<?>, Field[]> FIELDS_CACHE = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Optional<Constructor<?>>> CONSTRUCTOR_CACHE = new ConcurrentHashMap<>();
+
+    private QueryResultCopier() {
+    }
+
+    /**
+     * 复制结果列表, 携带总数的列表复制后保留总数
+     *
+     * @return 存在无法复制的元素时返回null
+     */
+    static List<?> copy(List<?> rows) {
+        Map<Object, Object> copied = new IdentityHashMap<>();
+        List<Object> ret = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object copy = copy(row, copied);
+            if (copy == Uncopyable.INSTANCE) {
+                return null;
+            }
+            ret.add(copy);
+        }
+        if (rows instanceof TotalCountList) {
+            return new TotalCountList<>(ret, ((TotalCountList<?>) rows).getTotal());
+        }
+        return ret;
+    }
+
+    private static boolean isImmutable(Object obj) {
+        return obj instanceof String || obj instanceof BigDecimal || obj instanceof BigInteger ||
+                obj instanceof Integer || obj instanceof Long || obj instanceof Short || obj instanceof Byte ||
+                obj instanceof Double || obj instanceof Float || obj instanceof Boolean ||
+                obj instanceof Character || obj instanceof Enum || obj instanceof UUID ||
+                obj instanceof Class || (obj instanceof Temporal && obj.getClass().getName().startsWith("java.time."));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object copy(Object obj, Map<Object, Object> copied) {
+        if (obj == null || isImmutable(obj)) {
+            return obj;
+        }
+        Object ret = copied.get(obj);
+        if (ret != null) {
+            return ret;
+        }
+        if (obj instanceof Date) {
+            ret = ((Date) obj).clone();
+            copied.put(obj, ret);
+            return ret;
+        }
+        Class<?> type = obj.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(obj);
+            ret = Array.newInstance(type.getComponentType(), length);
+            copied.put(obj, ret);
+            if (type.getComponentType().isPrimitive()) {
+                System.arraycopy(obj, 0, ret, 0, length);
+                return ret;
+            }
+            for (int i = 0; i < length; i++) {
+                Object item = copy(Array.get(obj, i), copied);
+                if (item == Uncopyable.INSTANCE) {
+                    return item;
+                }
+                Array.set(ret, i, item);
+            }
+            return ret;
+        }
+        if (obj instanceof Map) {
+            Map<Object, Object> map;
+            if (obj instanceof SortedMap) {
+                map = new TreeMap<>(((SortedMap<Object, Object>) obj).comparator());
+            } else {
+                map = (Map<Object, Object>) newInstance(type, LinkedHashMap.class);
+            }
+            copied.put(obj, map);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
+                Object key = copy(entry.getKey(), copied);
+                Object value = copy(entry.getValue(), copied);
+                if (key == Uncopyable.INSTANCE || value == Uncopyable.INSTANCE) {
+                    return Uncopyable.INSTANCE;
+                }
+                map.put(key, value);
+            }
+            return map;
+        }
+        if (obj instanceof Collection) {
+            Collection<Object> collection;
+            if (obj instanceof SortedSet) {
+                collection = new TreeSet<>(((SortedSet<Object>) obj).comparator());
+            } else {
+                collection = (Collection<Object>) newInstance(type, obj instanceof Set ? LinkedHashSet.class :
+                        ArrayList.class);
+            }
+            copied.put(obj, collection);
+            for (Object item : (Collection<?>) obj) {
+                Object copy = copy(item, copied);
+                if (copy == Uncopyable.INSTANCE) {
+                    return copy;
+                }
+                collection.add(copy);
+            }
+            return collection;
+        }
+        return copyBean(obj, copied);
+    }
+
+    /**
+     * 集合类型优先使用原类型, 没有无参构造时使用默认类型
+     */
+    private static Object newInstance(Class<?> type, Class<?> defaultType) {
+        Constructor<?> constructor = getConstructor(type);
+        if (constructor != null) {
+            try {
+                return constructor.newInstance();
+            } catch (Exception ignore) {
+                //使用默认类型
+            }
+        }
+        try {
+            return defaultType.newInstance();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Object copyBean(Object obj, Map<Object, Object> copied) {
+        Class<?> type = obj.getClass();
+        Constructor<?> constructor = getConstructor(type);
+        Field[] fields = FIELDS_CACHE.computeIfAbsent(type, QueryResultCopier::resolveFields);
+        if (constructor == null || fields == null) {
+            return Uncopyable.INSTANCE;
+        }
+        Object ret;
+        try {
+            ret = constructor.newInstance();
+        } catch (Exception e) {
+            return Uncopyable.INSTANCE;
+        }
+        copied.put(obj, ret);
+        try {
+            for (Field field : fields) {
+                Object value = copy(field.get(obj), copied);
+                if (value == Uncopyable.INSTANCE) {
+                    return value;
+                }
+                field.set(ret, value);
+            }
+        } catch (IllegalAccessException e) {
+            return Uncopyable.INSTANCE;
+        }
+        return ret;
+    }
+
+    private static Constructor<?> getConstructor(Class<?> type) {
+        return CONSTRUCTOR_CACHE.computeIfAbsent(type, k -> {
+            try {
+                Constructor<?> constructor = k.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return Optional.of(constructor);
+            } catch (NoSuchMethodException | RuntimeException e) {
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * 获取需要复制的属性, 存在无法访问的属性时返回null
+     */
+    private static Field[] resolveFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                } catch (RuntimeException e) {
+                    return null;
+                }
+                fields.add(field);
+            }
+        }
+        return fields.toArray(new Field[0]);
+    }
+
+    /**
+     * 无法复制的标记
+     */
+    private enum Uncopyable {
+        INSTANCE
+    }
+}
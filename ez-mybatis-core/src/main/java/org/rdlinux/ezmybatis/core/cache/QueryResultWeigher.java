@@ -0,0 +1,115 @@
+package org.rdlinux.ezmybatis.core.cache;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.Temporal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 查询结果内存占用估算, 只用于缓存总量控制, 不追求精确
+ */
+class QueryResultWeigher {
+    /**
+     * 对象头与引用的估算大小
+     */
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 8;
+    /**
+     * 最大递归深度, 超出后按空对象估算, 同时避免循环引用
+     */
+    private static final int MAX_DEPTH = 4;
+    private static final Map<Class<?>, Field[]> FIELDS_CACHE = new ConcurrentHashMap<>();
+
+    private QueryResultWeigher() {
+    }
+
+    static long weigh(List<?> rows) {
+        long ret = OBJECT_HEADER + 8L;
+        for (Object row : rows) {
+            ret += REFERENCE + weigh(row, 0);
+        }
+        return ret;
+    }
+
+    private static long weigh(Object obj, int depth) {
+        if (obj == null) {
+            return 0;
+        }
+        if (obj instanceof String) {
+            return 40L + 2L * ((String) obj).length();
+        }
+        if (obj instanceof BigDecimal || obj instanceof BigInteger) {
+            return 48;
+        }
+        if (obj instanceof Number || obj instanceof Boolean || obj instanceof Character || obj instanceof Enum) {
+            return 16;
+        }
+        if (obj instanceof Date || obj instanceof Temporal) {
+            return 24;
+        }
+        if (obj instanceof byte[]) {
+            return OBJECT_HEADER + ((byte[]) obj).length;
+        }
+        if (depth >= MAX_DEPTH) {
+            return OBJECT_HEADER;
+        }
+        if (obj instanceof Map) {
+            long ret = 48;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
+                ret += 32 + weigh(entry.getKey(), depth + 1) + weigh(entry.getValue(), depth + 1);
+            }
+            return ret;
+        }
+        if (obj instanceof Collection) {
+            long ret = 24;
+            for (Object item : (Collection<?>) obj) {
+                ret += REFERENCE + weigh(item, depth + 1);
+            }
+            return ret;
+        }
+        if (obj.getClass().isArray()) {
+            int length = Array.getLength(obj);
+            long ret = OBJECT_HEADER + (long) REFERENCE * length;
+            if (!obj.getClass().getComponentType().isPrimitive()) {
+                for (int i = 0; i < length; i++) {
+                    ret += weigh(Array.get(obj, i), depth + 1);
+                }
+            }
+            return ret;
+        }
+        long ret = OBJECT_HEADER;
+        for (Field field : FIELDS_CACHE.computeIfAbsent(obj.getClass(), QueryResultWeigher::resolveFields)) {
+            ret += REFERENCE;
+            if (!field.getType().isPrimitive()) {
+                try {
+                    ret += weigh(field.get(obj), depth + 1);
+                } catch (IllegalAccessException ignore) {
+                    //无法访问时只计算引用
+                }
+            }
+        }
+        return ret;
+    }
+
+    private static Field[] resolveFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    fields.add(field);
+                } catch (RuntimeException ignore) {
+                    //无法访问的属性不计算
+                }
+            }
+        }
+        return fields.toArray(new Field[0]);
+    }
+}
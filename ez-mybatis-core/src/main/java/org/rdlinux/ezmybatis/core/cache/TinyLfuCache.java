@@ -0,0 +1,301 @@
+package org.rdlinux.ezmybatis.core.cache;
+
+import org.rdlinux.ezmybatis.utils.Assert;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * W-TinyLFU缓存, 新数据先进入容量为1%的窗口区, 窗口区溢出的数据进入主区的试用段, 与试用段中最久未使用的数据比较访问频率,
+ * 频率高者留下; 试用段中再次被访问的数据晋升到保护段(占主区80%).<br/>
+ * 读取不加锁, 访问记录只在获取到锁时处理, 锁竞争时丢弃本次访问记录
+ */
+public class TinyLfuCache<K, V> {
+    private final ConcurrentHashMap<K, Node<K, V>> data;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final NodeDeque<K, V> window = new NodeDeque<>();
+    private final NodeDeque<K, V> probation = new NodeDeque<>();
+    private final NodeDeque<K, V> protect = new NodeDeque<>();
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectMaximum;
+    /**
+     * 写入后存活时间, 小于等于0时不过期
+     */
+    private final long ttlNanos;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maximumSize 最大数据量
+     * @param ttl         写入后存活时间, 小于等于0时不过期
+     * @param unit        时间单位
+     */
+    public TinyLfuCache(int maximumSize, long ttl, TimeUnit unit) {
+        Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.protectMaximum = (maximumSize - this.windowMaximum) * 8 / 10;
+        this.ttlNanos = ttl <= 0 ? 0 : unit.toNanos(ttl);
+        this.sketch = new FrequencySketch(maximumSize);
+        this.data = new ConcurrentHashMap<>(Math.min(maximumSize, 1024));
+    }
+
+    /**
+     * 获取数据, 不存在或者已过期时返回null
+     */
+    public V get(K key) {
+        Node<K, V> node = this.data.get(key);
+        if (node == null) {
+            this.missCount.increment();
+            return null;
+        }
+        if (node.isExpired(System.nanoTime())) {
+            this.remove(key);
+            this.missCount.increment();
+            return null;
+        }
+        this.hitCount.increment();
+        if (this.lock.tryLock()) {
+            try {
+                if (node.queue != Node.DEAD) {
+                    this.onAccess(node);
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * 放入数据, 超出容量时按访问频率淘汰
+     */
+    public void put(K key, V value) {
+        Assert.notNull(key, "key can not be null");
+        Assert.notNull(value, "value can not be null");
+        long expireAt = this.ttlNanos > 0 ? System.nanoTime() + this.ttlNanos : 0;
+        this.lock.lock();
+        try {
+            Node<K, V> node = this.data.get(key);
+            if (node != null) {
+                node.value = value;
+                node.expireAt = expireAt;
+                this.onAccess(node);
+                return;
+            }
+            node = new Node<>(key, value, expireAt);
+            this.data.put(key, node);
+            this.sketch.increment(key);
+            node.queue = Node.WINDOW;
+            this.window.addLast(node);
+            this.evict();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 移除数据
+     */
+    public void remove(K key) {
+        this.lock.lock();
+        try {
+            Node<K, V> node = this.data.remove(key);
+            if (node != null) {
+                this.unlink(node);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 清空数据
+     */
+    public void clear() {
+        this.lock.lock();
+        try {
+            for (Node<K, V> node : this.data.values()) {
+                node.queue = Node.DEAD;
+            }
+            this.data.clear();
+            this.window.clear();
+            this.probation.clear();
+            this.protect.clear();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public int size() {
+        return this.data.size();
+    }
+
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    private void onAccess(Node<K, V> node) {
+        this.sketch.increment(node.key);
+        if (node.queue == Node.WINDOW) {
+            this.window.moveToBack(node);
+        } else if (node.queue == Node.PROBATION) {
+            this.probation.remove(node);
+            node.queue = Node.PROTECT;
+            this.protect.addLast(node);
+            while (this.protect.size() > this.protectMaximum) {
+                Node<K, V> demoted = this.protect.pollFirst();
+                demoted.queue = Node.PROBATION;
+                this.probation.addLast(demoted);
+            }
+        } else if (node.queue == Node.PROTECT) {
+            this.protect.moveToBack(node);
+        }
+    }
+
+    /**
+     * 窗口区溢出的数据移入试用段, 总量超出容量时在试用段的首尾之间按访问频率淘汰
+     */
+    private void evict() {
+        while (this.window.size() > this.windowMaximum) {
+            Node<K, V> node = this.window.pollFirst();
+            node.queue = Node.PROBATION;
+            this.probation.addLast(node);
+        }
+        while (this.window.size() + this.probation.size() + this.protect.size() > this.maximumSize) {
+            Node<K, V> victim = this.probation.peekFirst();
+            Node<K, V> candidate = this.probation.peekLast();
+            Node<K, V> evicted;
+            if (victim == null) {
+                evicted = this.protect.peekFirst() != null ? this.protect.peekFirst() : this.window.peekFirst();
+            } else if (victim == candidate) {
+                evicted = victim;
+            } else if (this.sketch.frequency(candidate.key) > this.sketch.frequency(victim.key)) {
+                evicted = victim;
+            } else {
+                evicted = candidate;
+            }
+            this.data.remove(evicted.key, evicted);
+            this.unlink(evicted);
+            this.evictionCount.increment();
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.queue == Node.WINDOW) {
+            this.window.remove(node);
+        } else if (node.queue == Node.PROBATION) {
+            this.probation.remove(node);
+        } else if (node.queue == Node.PROTECT) {
+            this.protect.remove(node);
+        }
+        node.queue = Node.DEAD;
+    }
+
+    private static class Node<K, V> {
+        private static final int WINDOW = 0;
+        private static final int PROBATION = 1;
+        private static final int PROTECT = 2;
+        private static final int DEAD = 3;
+        private final K key;
+        private volatile V value;
+        private volatile long expireAt;
+        private int queue;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(long now) {
+            long expireAt = this.expireAt;
+            return expireAt != 0 && now - expireAt >= 0;
+        }
+    }
+
+    /**
+     * 访问顺序双向链表, 头部为最久未访问的数据
+     */
+    private static class NodeDeque<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+        private int size;
+
+        private int size() {
+            return this.size;
+        }
+
+        private Node<K, V> peekFirst() {
+            return this.head;
+        }
+
+        private Node<K, V> peekLast() {
+            return this.tail;
+        }
+
+        private void addLast(Node<K, V> node) {
+            node.prev = this.tail;
+            node.next = null;
+            if (this.tail == null) {
+                this.head = node;
+            } else {
+                this.tail.next = node;
+            }
+            this.tail = node;
+            this.size++;
+        }
+
+        private Node<K, V> pollFirst() {
+            Node<K, V> node = this.head;
+            if (node != null) {
+                this.remove(node);
+            }
+            return node;
+        }
+
+        private void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                this.head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                this.tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            this.size--;
+        }
+
+        private void moveToBack(Node<K, V> node) {
+            if (node != this.tail) {
+                this.remove(node);
+                this.addLast(node);
+            }
+        }
+
+        private void clear() {
+            this.head = null;
+            this.tail = null;
+            this.size = 0;
+        }
+    }
+}
@@ -3,7 +3,11 @@ package org.rdlinux.ezmybatis.core.classinfo;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzContentConfig;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
 import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityClassInfo;
+import org.rdlinux.ezmybatis.core.interceptor.resultsethandler.EzRowMapperCache;
+import org.rdlinux.ezmybatis.core.sqlgenerate.SqlTemplateCache;
 import org.rdlinux.ezmybatis.utils.Assert;
 
 import java.io.File;
@@ -124,10 +128,14 @@ public class DefaultEzMybatisEntityInfoCache implements EzMybatisEntityInfoCache
                                     .replace(File.separator, ".");
                             String className = event.context().toString().split("\\.")[0];
                             String key = packageStr + "." + className;
-                            for (ConcurrentMap<String, EntityClassInfo> cache : ENTITY_INFO_MAP.values()) {
-                                EntityClassInfo classInfo = cache.remove(key);
-                                if (classInfo != null && log.isDebugEnabled()) {
-                                    log.debug(String.format("Cleaning the class information of %s", key));
+                            for (Map.Entry<Configuration, ConcurrentMap<String, EntityClassInfo>> entry :
+                                    ENTITY_INFO_MAP.entrySet()) {
+                                EntityClassInfo classInfo = entry.getValue().remove(key);
+                                if (classInfo != null) {
+                                    this.cleanCaches(entry.getKey());
+                                    if (log.isDebugEnabled()) {
+                                        log.debug(String.format("Cleaning the class information of %s", key));
+                                    }
                                 }
                             }
                         }
@@ -143,6 +151,25 @@ public class DefaultEzMybatisEntityInfoCache implements EzMybatisEntityInfoCache
         cleanThread.start();
     }
 
+    /**
+     * 实体信息变化后已渲染的sql模板与预编译的行映射器不再可靠, 需要清空
+     */
+    private void cleanCaches(Configuration configuration) {
+        try {
+            EzContentConfig contentConfig = EzMybatisContent.getContentConfig(configuration);
+            SqlTemplateCache sqlTemplateCache = contentConfig.getSqlTemplateCache();
+            if (sqlTemplateCache != null) {
+                sqlTemplateCache.clear();
+            }
+            EzRowMapperCache rowMapperCache = contentConfig.getRowMapperCache();
+            if (rowMapperCache != null) {
+                rowMapperCache.clear();
+            }
+        } catch (IllegalArgumentException e) {
+            DefaultEzMybatisEntityInfoCache.log.warn(e.getMessage());
+        }
+    }
+
     @Override
     public EntityClassInfo get(Configuration configuration, Class<?> ntClass) {
         Assert.notNull(configuration, "Configuration can not be null");
@@ -0,0 +1,226 @@
+package org.rdlinux.ezmybatis.core.classinfo;
+
+import org.rdlinux.ezmybatis.utils.ReflectionUtils;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 属性访问器, 构建时将get/set方法编译为lambda, 避免每次调用都走反射, 无法编译时退化为反射调用
+ */
+public class FieldAccessor {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    /**
+     * 属性访问器缓存, 值为属性名称与访问器映射, 保存在类型上, 类卸载时随之回收
+     */
+    private static final ClassValue<Map<String, FieldAccessor>> ACCESSOR_CACHE =
+            new ClassValue<Map<String, FieldAccessor>>() {
+                @Override
+                protected Map<String, FieldAccessor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+    /**
+     * 不存在的属性占位
+     */
+    private static final FieldAccessor NONE = new FieldAccessor(null, null, null);
+    private final Field field;
+    private final Function<Object, Object> getter;
+    private final BiConsumer<Object, Object> setter;
+
+    private FieldAccessor(Field field, Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+        this.field = field;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * 创建属性访问器
+     *
+     * @param field     属性
+     * @param getMethod get方法, 为空时直接读取属性
+     * @param setMethod set方法, 为空时直接设置属性
+     */
+    public static FieldAccessor of(Field field, Method getMethod, Method setMethod) {
+        field.setAccessible(true);
+        return new FieldAccessor(field, buildGetter(field, getMethod), buildSetter(field, setMethod));
+    }
+
+    /**
+     * 使用已有的get/set函数创建属性访问器
+     *
+     * @param field  属性
+     * @param getter get函数
+     * @param setter set函数, 为空时直接设置属性
+     */
+    public static FieldAccessor of(Field field, Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+        field.setAccessible(true);
+        return new FieldAccessor(field, getter, setter == null ? buildSetter(field, null) : setter);
+    }
+
+    /**
+     * 获取类型的属性访问器, 属性不存在时返回null
+     */
+    public static FieldAccessor forProperty(Class<?> type, String property) {
+        Map<String, FieldAccessor> accessors = ACCESSOR_CACHE.get(type);
+        FieldAccessor accessor = accessors.computeIfAbsent(property, k -> {
+            Field field = ReflectionUtils.getField(type, property);
+            if (field == null || Modifier.isStatic(field.getModifiers())) {
+                return NONE;
+            }
+            return FieldAccessor.of(field, findMethod(() -> ReflectionUtils.getMethodOfFieldGet(type, field)),
+                    findMethod(() -> ReflectionUtils.getMethodOfFieldSet(type, field)));
+        });
+        return accessor == NONE ? null : accessor;
+    }
+
+    private static Method findMethod(Supplier<Method> finder) {
+        try {
+            return finder.get();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> buildGetter(Field field, Method getMethod) {
+        if (getMethod != null) {
+            if (canCompile(getMethod)) {
+                try {
+                    MethodHandle handle = LOOKUP.unreflect(getMethod);
+                    CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                            MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+                            handle, MethodType.methodType(wrap(getMethod.getReturnType()),
+                                    getMethod.getDeclaringClass()));
+                    return (Function<Object, Object>) site.getTarget().invoke();
+                } catch (Throwable ignore) {
+                    //退化为反射调用
+                }
+            }
+            getMethod.setAccessible(true);
+            return obj -> {
+                try {
+                    return getMethod.invoke(obj);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            };
+        }
+        return obj -> {
+            try {
+                return field.get(obj);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> buildSetter(Field field, Method setMethod) {
+        if (setMethod != null) {
+            if (canCompile(setMethod)) {
+                try {
+                    MethodHandle handle = LOOKUP.unreflect(setMethod);
+                    CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                            MethodType.methodType(BiConsumer.class),
+                            MethodType.methodType(void.class, Object.class, Object.class), handle,
+                            MethodType.methodType(void.class, setMethod.getDeclaringClass(),
+                                    wrap(setMethod.getParameterTypes()[0])));
+                    return (BiConsumer<Object, Object>) site.getTarget().invoke();
+                } catch (Throwable ignore) {
+                    //退化为反射调用
+                }
+            }
+            setMethod.setAccessible(true);
+            return (obj, value) -> {
+                try {
+                    setMethod.invoke(obj, value);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            };
+        }
+        if (Modifier.isFinal(field.getModifiers())) {
+            return null;
+        }
+        return (obj, value) -> {
+            try {
+                field.set(obj, value);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException(e);
+            }
+        };
+    }
+
+    /**
+     * 只有公共类的公共方法, 并且能从当前类加载器访问到时才能编译为lambda, 否则lambda调用时会出现访问错误
+     */
+    private static boolean canCompile(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())) {
+            return false;
+        }
+        for (Class<?> c = declaringClass; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        for (Class<?> type : method.getParameterTypes()) {
+            if (!isVisible(type)) {
+                return false;
+            }
+        }
+        return isVisible(declaringClass) && isVisible(method.getReturnType());
+    }
+
+    private static boolean isVisible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, FieldAccessor.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    public Field getField() {
+        return this.field;
+    }
+
+    /**
+     * 获取属性值
+     */
+    public Object get(Object obj) {
+        return this.getter.apply(obj);
+    }
+
+    /**
+     * 是否可以设置属性值
+     */
+    public boolean canSet() {
+        return this.setter != null;
+    }
+
+    /**
+     * 设置属性值
+     */
+    public void set(Object obj, Object value) {
+        this.setter.accept(obj, value);
+    }
+}
@@ -2,6 +2,8 @@ package org.rdlinux.ezmybatis.core.classinfo.entityinfo;
 
 import org.apache.commons.lang3.StringUtils;
 import org.rdlinux.ezmybatis.constant.TableNamePattern;
+import org.rdlinux.ezmybatis.core.classinfo.FieldAccessor;
+import org.rdlinux.ezmybatis.metamodel.EntityMetamodel;
 import org.rdlinux.ezmybatis.utils.Assert;
 import org.rdlinux.ezmybatis.utils.HumpLineStringUtils;
 import org.rdlinux.ezmybatis.utils.ReflectionUtils;
@@ -14,9 +16,120 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 
+/**
+ * 实体信息, 存在编译期生成的{@link EntityMetamodel}时根据元数据构建, 否则通过反射构建
+ */
 public class DefaultEntityClassInfo extends AbstractEntityClassInfo {
     public DefaultEntityClassInfo(Class<?> entityClass, EntityInfoBuildConfig buildConfig) {
         Assert.notNull(entityClass, "entityClass can not be null");
+        this.entityClass = entityClass;
+        this.fieldInfos = new LinkedList<>();
+        EntityMetamodel<Object> metamodel = loadMetamodel(entityClass);
+        if (metamodel == null || !this.initByMetamodel(metamodel, buildConfig)) {
+            this.fieldInfos.clear();
+            this.primaryKeyInfo = null;
+            this.initByReflection(entityClass, buildConfig);
+        }
+        if (buildConfig.getTableNamePattern() == TableNamePattern.UPPER_CASE) {
+            this.tableName = this.tableName.toUpperCase();
+        } else if (buildConfig.getTableNamePattern() == TableNamePattern.LOWER_CASE) {
+            this.tableName = this.tableName.toLowerCase();
+        }
+        this.columnMapFieldInfo = new HashMap<>((int) (this.fieldInfos.size() / 0.75) + 1);
+        this.filedNameMapFieldInfo = new HashMap<>((int) (this.fieldInfos.size() / 0.75) + 1);
+        this.fieldInfos.forEach(fieldInfo -> {
+            this.columnMapFieldInfo.put(fieldInfo.getColumnName(), fieldInfo);
+            this.filedNameMapFieldInfo.put(fieldInfo.getFieldName(), fieldInfo);
+        });
+    }
+
+    /**
+     * 加载编译期生成的实体元数据, 不存在时返回null
+     */
+    @SuppressWarnings("unchecked")
+    private static EntityMetamodel<Object> loadMetamodel(Class<?> entityClass) {
+        try {
+            Class<?> metamodelClass = Class.forName(entityClass.getName() + EntityMetamodel.CLASS_SUFFIX, true,
+                    entityClass.getClassLoader());
+            if (!EntityMetamodel.class.isAssignableFrom(metamodelClass)) {
+                return null;
+            }
+            EntityMetamodel<Object> metamodel = (EntityMetamodel<Object>) metamodelClass.newInstance();
+            return metamodel.getEntityClass() == entityClass ? metamodel : null;
+        } catch (Exception | LinkageError e) {
+            //没有生成元数据或元数据不可用时使用反射
+            return null;
+        }
+    }
+
+    /**
+     * 根据实体元数据构建, 元数据与实体不一致时返回false
+     */
+    private boolean initByMetamodel(EntityMetamodel<Object> metamodel, EntityInfoBuildConfig buildConfig) {
+        String[] fieldNames = metamodel.getFieldNames();
+        Field[] fields = this.matchFields(metamodel.getDeclaringClasses(), fieldNames);
+        if (fields == null) {
+            return false;
+        }
+        this.tableName = metamodel.getTableName();
+        this.schema = metamodel.getSchema();
+        String[] columnNames = metamodel.getColumnNames();
+        String[] underlineNames = metamodel.getUnderlineNames();
+        Class<?>[] columnHandlers = metamodel.getColumnHandlers();
+        int primaryKeyId = metamodel.getPrimaryKeyId();
+        for (int i = 0; i < fieldNames.length; i++) {
+            String column = columnNames[i];
+            if (column == null) {
+                if (buildConfig.getColumnHandle() == EntityInfoBuildConfig.ColumnHandle.TO_UNDER) {
+                    column = underlineNames[i];
+                } else if (buildConfig.getColumnHandle() == EntityInfoBuildConfig.ColumnHandle.TO_UNDER_AND_UPPER) {
+                    column = underlineNames[i].toUpperCase();
+                } else {
+                    column = fieldNames[i];
+                }
+            }
+            int fieldId = i;
+            FieldAccessor accessor = FieldAccessor.of(fields[i], entity -> metamodel.get(entity, fieldId),
+                    metamodel.hasSetter(fieldId) ? (entity, value) -> metamodel.set(entity, fieldId, value) : null);
+            EntityFieldInfo fieldInfo = new EntityFieldInfo(fields[i], column, i == primaryKeyId, columnHandlers[i],
+                    accessor, buildConfig);
+            this.fieldInfos.add(fieldInfo);
+            if (fieldInfo.isPrimaryKey()) {
+                this.primaryKeyInfo = fieldInfo;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按顺序比对元数据属性与反射获取的属性(名称与声明类), 元数据中没有的属性必须是反射构建时也会跳过的无get方法属性,
+     * 例如父类来自其他jar且新增了属性时元数据已过期
+     *
+     * @return 不一致时返回null
+     */
+    private Field[] matchFields(Class<?>[] declaringClasses, String[] fieldNames) {
+        Field[] ret = new Field[fieldNames.length];
+        int i = 0;
+        for (Field field : SqlReflectionUtils.getSupportFields(this.entityClass)) {
+            if (i < fieldNames.length && field.getName().equals(fieldNames[i])
+                    && field.getDeclaringClass() == declaringClasses[i]) {
+                ret[i++] = field;
+                continue;
+            }
+            try {
+                ReflectionUtils.getMethodOfFieldGet(this.entityClass, field);
+            } catch (Exception e) {
+                continue;
+            }
+            return null;
+        }
+        return i == fieldNames.length ? ret : null;
+    }
+
+    /**
+     * 通过反射构建
+     */
+    private void initByReflection(Class<?> entityClass, EntityInfoBuildConfig buildConfig) {
         this.tableName = HumpLineStringUtils.humpToLine(entityClass.getSimpleName());
         if (entityClass.isAnnotationPresent(Table.class)) {
             Table annotation = entityClass.getAnnotation(Table.class);
@@ -26,13 +139,6 @@ public class DefaultEntityClassInfo extends AbstractEntityClassInfo {
             }
             this.schema = annotation.schema();
         }
-        if (buildConfig.getTableNamePattern() == TableNamePattern.UPPER_CASE) {
-            this.tableName = this.tableName.toUpperCase();
-        } else if (buildConfig.getTableNamePattern() == TableNamePattern.LOWER_CASE) {
-            this.tableName = this.tableName.toLowerCase();
-        }
-        this.entityClass = entityClass;
-        this.fieldInfos = new LinkedList<>();
         List<Field> fields = SqlReflectionUtils.getSupportFields(entityClass);
         for (Field field : fields) {
             Method fieldGetMethod;
@@ -47,11 +153,5 @@ public class DefaultEntityClassInfo extends AbstractEntityClassInfo {
                 this.primaryKeyInfo = fieldInfo;
             }
         }
-        this.columnMapFieldInfo = new HashMap<>((int) (this.fieldInfos.size() / 0.75) + 1);
-        this.filedNameMapFieldInfo = new HashMap<>((int) (this.fieldInfos.size() / 0.75) + 1);
-        this.fieldInfos.forEach(fieldInfo -> {
-            this.columnMapFieldInfo.put(fieldInfo.getColumnName(), fieldInfo);
-            this.filedNameMapFieldInfo.put(fieldInfo.getFieldName(), fieldInfo);
-        });
     }
 }
@@ -3,7 +3,9 @@ package org.rdlinux.ezmybatis.core.classinfo.entityinfo;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.ibatis.type.TypeHandler;
 import org.rdlinux.ezmybatis.annotation.ColumnHandler;
+import org.rdlinux.ezmybatis.core.classinfo.FieldAccessor;
 import org.rdlinux.ezmybatis.utils.HumpLineStringUtils;
+import org.rdlinux.ezmybatis.utils.ReflectionUtils;
 
 import javax.persistence.Column;
 import javax.persistence.Id;
@@ -18,26 +20,18 @@ public class EntityFieldInfo {
     private boolean isPrimaryKey = false;
     private TypeHandler<?> typeHandler;
     private EntityInfoBuildConfig buildConfig;
+    private FieldAccessor accessor;
 
     public EntityFieldInfo(Field field, Method fieldGetMethod, String column, boolean isPrimaryKey) {
         field.setAccessible(true);
         this.field = field;
         this.fieldGetMethod = fieldGetMethod;
+        this.accessor = FieldAccessor.of(field, fieldGetMethod, getFieldSetMethod(field));
         this.fieldName = field.getName();
         this.columnName = column;
         this.isPrimaryKey = isPrimaryKey;
         if (field.isAnnotationPresent(ColumnHandler.class)) {
-            ColumnHandler annotation = field.getAnnotation(ColumnHandler.class);
-            Class<?> typeHandlerClass = annotation.value();
-            if (TypeHandler.class.isAssignableFrom(typeHandlerClass)) {
-                try {
-                    this.typeHandler = (TypeHandler<?>) typeHandlerClass.newInstance();
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            } else {
-                throw new IllegalArgumentException("columnHandler must extend org.apache.ibatis.type.TypeHandler");
-            }
+            this.typeHandler = newTypeHandler(field.getAnnotation(ColumnHandler.class).value());
         }
     }
 
@@ -45,6 +39,7 @@ public class EntityFieldInfo {
         field.setAccessible(true);
         this.field = field;
         this.fieldGetMethod = fieldGetMethod;
+        this.accessor = FieldAccessor.of(field, fieldGetMethod, getFieldSetMethod(field));
         this.fieldName = field.getName();
         this.columnName = field.getName();
         this.buildConfig = buildConfig;
@@ -63,17 +58,50 @@ public class EntityFieldInfo {
             this.isPrimaryKey = true;
         }
         if (field.isAnnotationPresent(ColumnHandler.class)) {
-            ColumnHandler annotation = field.getAnnotation(ColumnHandler.class);
-            Class<?> typeHandlerClass = annotation.value();
-            if (TypeHandler.class.isAssignableFrom(typeHandlerClass)) {
-                try {
-                    this.typeHandler = (TypeHandler<?>) typeHandlerClass.newInstance();
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            } else {
-                throw new IllegalArgumentException("columnHandler must extend org.apache.ibatis.type.TypeHandler");
+            this.typeHandler = newTypeHandler(field.getAnnotation(ColumnHandler.class).value());
+        }
+    }
+
+    /**
+     * 根据编译期生成的实体元数据创建
+     *
+     * @param field            属性
+     * @param column           列名
+     * @param isPrimaryKey     是否主键
+     * @param typeHandlerClass {@link ColumnHandler}指定的类型处理器, 可以为空
+     * @param accessor         属性访问器
+     * @param buildConfig      构建配置
+     */
+    public EntityFieldInfo(Field field, String column, boolean isPrimaryKey, Class<?> typeHandlerClass,
+                           FieldAccessor accessor, EntityInfoBuildConfig buildConfig) {
+        this.field = field;
+        this.accessor = accessor;
+        this.fieldName = field.getName();
+        this.columnName = column;
+        this.isPrimaryKey = isPrimaryKey;
+        this.buildConfig = buildConfig;
+        if (typeHandlerClass != null) {
+            this.typeHandler = newTypeHandler(typeHandlerClass);
+        }
+    }
+
+    private static TypeHandler<?> newTypeHandler(Class<?> typeHandlerClass) {
+        if (TypeHandler.class.isAssignableFrom(typeHandlerClass)) {
+            try {
+                return (TypeHandler<?>) typeHandlerClass.newInstance();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
             }
+        } else {
+            throw new IllegalArgumentException("columnHandler must extend org.apache.ibatis.type.TypeHandler");
+        }
+    }
+
+    private static Method getFieldSetMethod(Field field) {
+        try {
+            return ReflectionUtils.getMethodOfFieldSet(field.getDeclaringClass(), field);
+        } catch (Exception e) {
+            return null;
         }
     }
 
@@ -102,6 +130,31 @@ public class EntityFieldInfo {
     }
 
     public Method getFieldGetMethod() {
+        //由实体元数据创建时不查找get方法, 使用时再获取
+        if (this.fieldGetMethod == null) {
+            this.fieldGetMethod = ReflectionUtils.getMethodOfFieldGet(this.field.getDeclaringClass(), this.field);
+        }
         return this.fieldGetMethod;
     }
+
+    /**
+     * 获取属性访问器
+     */
+    public FieldAccessor getAccessor() {
+        return this.accessor;
+    }
+
+    /**
+     * 获取实体的属性值
+     */
+    public Object getFieldValue(Object entity) {
+        return this.accessor.get(entity);
+    }
+
+    /**
+     * 设置实体的属性值
+     */
+    public void setFieldValue(Object entity, Object value) {
+        this.accessor.set(entity, value);
+    }
 }
@@ -0,0 +1,17 @@
+package org.rdlinux.ezmybatis.core.dao;
+
+/**
+ * jdbc分块批量执行进度监听器
+ */
+@FunctionalInterface
+public interface JdbcBatchProgressListener {
+    /**
+     * 当一块数据执行完成时
+     *
+     * @param chunkIndex   块下标, 从0开始
+     * @param chunkRows    本块行数
+     * @param updateCounts 本块executeBatch返回的更新数
+     * @param totalRows    已执行的总行数
+     */
+    void onChunkDone(int chunkIndex, int chunkRows, int[] updateCounts, long totalRows);
+}
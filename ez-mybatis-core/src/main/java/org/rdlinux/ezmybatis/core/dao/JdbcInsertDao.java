@@ -4,21 +4,27 @@ import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
-import org.rdlinux.ezmybatis.core.EzJdbcBatchSql;
-import org.rdlinux.ezmybatis.core.EzJdbcSqlParam;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
 import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.cache.CacheInvalidation;
+import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityFieldInfo;
+import org.rdlinux.ezmybatis.core.dao.bulk.BulkLoaderFactory;
 import org.rdlinux.ezmybatis.core.interceptor.listener.EzMybatisInsertListener;
 import org.rdlinux.ezmybatis.core.sqlgenerate.SqlGenerateFactory;
 import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
 import org.rdlinux.ezmybatis.utils.Assert;
+import org.rdlinux.ezmybatis.utils.TypeHandlerUtils;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.sql.Statement;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * 使用jdbc批量插入
@@ -55,11 +61,39 @@ public class JdbcInsertDao {
     }
 
     /**
-     * 批量插入, 指定表
+     * 批量插入, 指定表, 按配置的jdbcBatchSize分块执行
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public int batchInsertByTable(Table table, Collection<?> models) {
-        Connection connection = this.sqlSession.getConnection();
+        Assert.notEmpty(models, "models can not be empty");
+        Configuration configuration = this.sqlSession.getConfiguration();
+        List<EzMybatisInsertListener> listeners = EzMybatisContent.getInsertListeners(configuration);
+        if (listeners != null) {
+            for (EzMybatisInsertListener listener : listeners) {
+                listener.onBatchInsert(models);
+            }
+        }
+        return (int) this.doInsert(table, models.iterator(), 0, null, false);
+    }
+
+    /**
+     * 批量插入, 数据已存在时更新, 按配置的jdbcBatchSize分块执行
+     *
+     * @param conflictFields 判断数据是否存在的属性, 为空时使用主键, mysql根据主键或唯一索引判断, 忽略该参数
+     * @param updateFields   数据存在时更新的属性, 为空时更新除判断属性外的全部属性
+     */
+    public int batchUpsert(Collection<?> models, Collection<String> conflictFields, Collection<String> updateFields) {
+        return this.batchUpsertByTable(null, models, conflictFields, updateFields);
+    }
+
+    /**
+     * 批量插入, 数据已存在时更新, 指定表, 按配置的jdbcBatchSize分块执行, 所有行使用同一条sql
+     *
+     * @param conflictFields 判断数据是否存在的属性, 为空时使用主键, mysql根据主键或唯一索引判断, 忽略该参数
+     * @param updateFields   数据存在时更新的属性, 为空时更新除判断属性外的全部属性
+     */
+    public int batchUpsertByTable(Table table, Collection<?> models, Collection<String> conflictFields,
+                                  Collection<String> updateFields) {
+        Assert.notEmpty(models, "models can not be empty");
         Configuration configuration = this.sqlSession.getConfiguration();
         List<EzMybatisInsertListener> listeners = EzMybatisContent.getInsertListeners(configuration);
         if (listeners != null) {
@@ -67,51 +101,203 @@ public class JdbcInsertDao {
                 listener.onBatchInsert(models);
             }
         }
+        try {
+            return (int) this.doExecute(table, model -> SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(
+                    configuration)).getJdbcUpsertSql(configuration, table, model, conflictFields, updateFields),
+                    models.iterator(), 0, null, false);
+        } finally {
+            //jdbc直接执行不经过拦截器, 需要主动失效缓存
+            if (CacheInvalidation.isCacheEnabled(configuration)) {
+                CacheInvalidation invalidation = new CacheInvalidation(configuration);
+                invalidation.addEntities(table, models);
+                invalidation.applyAndAfterCompletion();
+            }
+        }
+    }
+
+    /**
+     * 流式插入, 按配置的jdbcBatchSize分块执行
+     *
+     * @return 插入行数
+     */
+    public long streamInsert(Iterator<?> models) {
+        return this.streamInsertByTable(null, models, 0, null);
+    }
+
+    /**
+     * 流式插入, 按配置的jdbcBatchSize分块执行, 不会关闭传入的流
+     *
+     * @return 插入行数
+     */
+    public long streamInsert(Stream<?> models) {
+        Assert.notNull(models, "models can not be null");
+        return this.streamInsertByTable(null, models.iterator(), 0, null);
+    }
+
+    /**
+     * 流式插入, 指定表, 不会关闭传入的流
+     *
+     * @param batchSize        每多少行执行一次executeBatch, 小于等于0时使用配置的jdbcBatchSize
+     * @param progressListener 进度监听器, 可以为空
+     * @return 插入行数
+     */
+    public long streamInsertByTable(Table table, Stream<?> models, int batchSize,
+                                    JdbcBatchProgressListener progressListener) {
+        Assert.notNull(models, "models can not be null");
+        return this.streamInsertByTable(table, models.iterator(), batchSize, progressListener);
+    }
+
+    /**
+     * 流式插入, 指定表, 只持有一块数据, 每块数据执行前触发插入事件
+     *
+     * @param batchSize        每多少行执行一次executeBatch, 小于等于0时使用配置的jdbcBatchSize
+     * @param progressListener 进度监听器, 可以为空
+     * @return 插入行数
+     */
+    public long streamInsertByTable(Table table, Iterator<?> models, int batchSize,
+                                    JdbcBatchProgressListener progressListener) {
+        Assert.notNull(models, "models can not be null");
+        return this.doInsert(table, models, batchSize, progressListener, true);
+    }
+
+    /**
+     * 使用数据库原生批量协议装载, 不会关闭传入的流
+     *
+     * @return 装载行数
+     * @see BulkLoaderFactory
+     */
+    public long bulkLoad(Stream<?> models) {
+        Assert.notNull(models, "models can not be null");
+        return this.bulkLoadByTable(null, models.iterator());
+    }
+
+    /**
+     * 使用数据库原生批量协议装载
+     *
+     * @return 装载行数
+     * @see BulkLoaderFactory
+     */
+    public long bulkLoad(Iterator<?> models) {
+        return this.bulkLoadByTable(null, models);
+    }
+
+    /**
+     * 使用数据库原生批量协议装载, 指定表, 实体按需从迭代器读取, 每读取jdbcBatchSize行触发一次插入事件.<br/>
+     * 装载不是原子操作, 失败时(包括mysql装载行数不一致或存在警告)已写入的行不会回滚, 需要原子性时应在事务中调用
+     *
+     * @return 装载行数
+     * @see BulkLoaderFactory
+     */
+    public long bulkLoadByTable(Table table, Iterator<?> models) {
+        Assert.notNull(models, "models can not be null");
+        if (!models.hasNext()) {
+            return 0;
+        }
+        Connection connection = this.sqlSession.getConnection();
+        Configuration configuration = this.sqlSession.getConfiguration();
+        DbType dbType = EzMybatisContent.getDbType(configuration);
+        int chunkSize = EzMybatisContent.getContentConfig(configuration).getEzMybatisConfig().getJdbcBatchSize();
+        InsertEventIterator chunkModels = new InsertEventIterator(models, EzMybatisContent.getInsertListeners(configuration),
+                chunkSize <= 0 ? 1024 : chunkSize);
+        EzJdbcInsertSql insertSql = SqlGenerateFactory.getSqlGenerate(dbType)
+                .getJdbcInsertSql(configuration, table, chunkModels.peek());
+        long start = System.currentTimeMillis();
+        try {
+            long ret = BulkLoaderFactory.getLoader(dbType).load(connection, configuration, insertSql, chunkModels);
+            if (log.isDebugEnabled()) {
+                log.debug("Bulk load takes: " + (System.currentTimeMillis() - start) + "ms, table: " +
+                        insertSql.getTableName() + ", rows: " + ret);
+            }
+            return ret;
+        } catch (SQLException e) {
+            log.error(String.format("Bulk load failed, the table is \"%s\", the error message is \"%s\", " +
+                    "the error code is %d", insertSql.getTableName(), e.getMessage(), e.getErrorCode()));
+            throw new RuntimeException(e);
+        } finally {
+            this.invalidateQueryCache(configuration, table, insertSql.getModelType());
+        }
+    }
+
+    private long doInsert(Table table, Iterator<?> models, int batchSize, JdbcBatchProgressListener progressListener,
+                          boolean chunkInsertEvent) {
+        Configuration configuration = this.sqlSession.getConfiguration();
+        return this.doExecute(table, model -> SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(
+                configuration)).getJdbcInsertSql(configuration, table, model), models, batchSize, progressListener,
+                chunkInsertEvent);
+    }
+
+    /**
+     * 使用第一个实体生成的sql分块执行所有实体
+     *
+     * @param table 写入的表, 为空时使用实体对应的表, 用于失效查询结果缓存
+     */
+    private long doExecute(Table table, Function<Object, EzJdbcInsertSql> sqlBuilder, Iterator<?> models,
+                           int batchSize, JdbcBatchProgressListener progressListener, boolean chunkInsertEvent) {
+        if (!models.hasNext()) {
+            return 0;
+        }
+        Connection connection = this.sqlSession.getConnection();
+        Configuration configuration = this.sqlSession.getConfiguration();
+        if (batchSize <= 0) {
+            batchSize = EzMybatisContent.getContentConfig(configuration).getEzMybatisConfig().getJdbcBatchSize();
+        }
+        if (batchSize <= 0) {
+            batchSize = Integer.MAX_VALUE;
+        }
+        List<EzMybatisInsertListener> listeners = chunkInsertEvent ?
+                EzMybatisContent.getInsertListeners(configuration) : null;
+        Object firstModel = models.next();
         long start = System.currentTimeMillis();
-        EzJdbcBatchSql jdbcBatchSql = SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
-                .getJdbcBatchInsertSql(configuration, table, models);
+        EzJdbcInsertSql insertSql = sqlBuilder.apply(firstModel);
         long end = System.currentTimeMillis();
         if (log.isDebugEnabled()) {
             log.debug("SQL construction takes: " + (end - start) + "ms");
         }
-        try (PreparedStatement statement = connection.prepareStatement(jdbcBatchSql.getSql())) {
+        List<Object> chunk = new ArrayList<>(Math.min(batchSize, 1024));
+        chunk.add(firstModel);
+        try (PreparedStatement statement = connection.prepareStatement(insertSql.getSql())) {
             start = System.currentTimeMillis();
-            for (List<EzJdbcSqlParam> batchParam : jdbcBatchSql.getBatchParams()) {
-                for (int i = 0; i < batchParam.size(); i++) {
-                    EzJdbcSqlParam param = batchParam.get(i);
-                    TypeHandler typeHandler = param.getTypeHandler();
-                    typeHandler.setParameter(statement, i + 1, param.getValue(), param.getJdbcType());
+            long totalRows = 0;
+            long ret = 0;
+            int chunkIndex = 0;
+            while (true) {
+                while (chunk.size() < batchSize && models.hasNext()) {
+                    chunk.add(models.next());
                 }
-                if (jdbcBatchSql.getBatchParams().size() > 1) {
-                    statement.addBatch();
+                boolean last = !models.hasNext();
+                if (listeners != null) {
+                    for (EzMybatisInsertListener listener : listeners) {
+                        listener.onBatchInsert(chunk);
+                    }
                 }
-            }
-            if (log.isDebugEnabled()) {
-                end = System.currentTimeMillis();
-                log.debug("SQL parameter setting takes: " + (end - start) + "ms");
-            }
-            start = System.currentTimeMillis();
-            int[] intRets;
-            if (jdbcBatchSql.getBatchParams().size() == 1) {
-                statement.execute();
-                intRets = new int[]{1};
-            } else {
-                intRets = statement.executeBatch();
-            }
-            if (log.isDebugEnabled()) {
-                end = System.currentTimeMillis();
-                log.debug("SQL execution takes: " + (end - start) + "ms");
-            }
-            int ret = 0;
-            for (int intRet : intRets) {
-                if (intRet == -2) {
-                    ret = models.size();
+                int[] updateCounts;
+                //只有一行数据时直接执行
+                if (chunkIndex == 0 && last && chunk.size() == 1) {
+                    this.setParameters(configuration, statement, insertSql, chunk.get(0));
+                    statement.execute();
+                    updateCounts = new int[]{1};
+                } else {
+                    for (Object model : chunk) {
+                        this.setParameters(configuration, statement, insertSql, model);
+                        statement.addBatch();
+                    }
+                    updateCounts = statement.executeBatch();
+                }
+                totalRows = totalRows + chunk.size();
+                ret = ret + this.getUpdateCount(updateCounts, chunk.size());
+                if (progressListener != null) {
+                    progressListener.onChunkDone(chunkIndex, chunk.size(), updateCounts, totalRows);
+                }
+                if (last) {
                     break;
                 }
-                ret = ret + intRet;
+                chunk = new ArrayList<>(chunk.size());
+                chunkIndex++;
             }
             if (log.isDebugEnabled()) {
-                String msg = "==>  Preparing: " + jdbcBatchSql.getSql();
+                end = System.currentTimeMillis();
+                log.debug("SQL execution takes: " + (end - start) + "ms, chunks: " + (chunkIndex + 1));
+                String msg = "==>  Preparing: " + insertSql.getSql();
                 msg = msg + "\n" + "==> Parameters: *";
                 msg = msg + "\n" + "<==    Updates: " + ret;
                 log.debug(msg);
@@ -119,9 +305,115 @@ public class JdbcInsertDao {
             return ret;
         } catch (SQLException e) {
             log.error(String.format("SQL execution failed,  the SQL statement is \"%s\"," +
-                            " the error message is \"%s\", the error code is %d", jdbcBatchSql.getSql(), e.getMessage(),
+                            " the error message is \"%s\", the error code is %d", insertSql.getSql(), e.getMessage(),
                     e.getErrorCode()));
             throw new RuntimeException(e);
+        } finally {
+            this.invalidateQueryCache(configuration, table, firstModel.getClass());
+        }
+    }
+
+    /**
+     * jdbc直接执行不经过拦截器, 需要主动失效查询结果缓存
+     */
+    private void invalidateQueryCache(Configuration configuration, Table table, Class<?> modelType) {
+        if (!CacheInvalidation.isCacheEnabled(configuration)) {
+            return;
+        }
+        CacheInvalidation invalidation = new CacheInvalidation(configuration);
+        invalidation.addInsertTable(table, modelType);
+        invalidation.applyAndAfterCompletion();
+    }
+
+    /**
+     * 从实体中取值直接绑定到语句参数
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void setParameters(Configuration configuration, PreparedStatement statement, EzJdbcInsertSql insertSql,
+                               Object model) throws SQLException {
+        if (model == null || model.getClass() != insertSql.getModelType()) {
+            throw new IllegalArgumentException("Inconsistent object types within the container");
+        }
+        EntityFieldInfo[] fieldInfos = insertSql.getFieldInfos();
+        TypeHandler[] typeHandlers = insertSql.getTypeHandlers();
+        for (int i = 0; i < fieldInfos.length; i++) {
+            EntityFieldInfo fieldInfo = fieldInfos[i];
+            Object fieldValue = fieldInfo.getFieldValue(model);
+            JdbcType jdbcType = TypeHandlerUtils.getJdbcType(fieldValue);
+            fieldValue = EzMybatisContent.onBuildSqlGetField(configuration, Boolean.TRUE, insertSql.getModelType(),
+                    fieldInfo.getField(), fieldValue);
+            typeHandlers[i].setParameter(statement, i + 1, fieldValue, jdbcType);
+        }
+    }
+
+    /**
+     * 统计更新数, 驱动未返回具体行数时按行数计算
+     */
+    private long getUpdateCount(int[] updateCounts, int rows) {
+        long ret = 0;
+        for (int updateCount : updateCounts) {
+            if (updateCount == Statement.SUCCESS_NO_INFO) {
+                return rows;
+            }
+            ret = ret + updateCount;
+        }
+        return ret;
+    }
+
+    /**
+     * 按块预读实体并触发插入事件, 只持有一块数据
+     */
+    private static class InsertEventIterator implements Iterator<Object> {
+        private final Iterator<?> models;
+        private final List<EzMybatisInsertListener> listeners;
+        private final int chunkSize;
+        private List<Object> chunk = Collections.emptyList();
+        private int index;
+
+        private InsertEventIterator(Iterator<?> models, List<EzMybatisInsertListener> listeners, int chunkSize) {
+            this.models = models;
+            this.listeners = listeners;
+            this.chunkSize = chunkSize;
+        }
+
+        /**
+         * 获取下一个实体但不移动位置
+         */
+        private Object peek() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.chunk.get(this.index);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.index < this.chunk.size()) {
+                return true;
+            }
+            if (!this.models.hasNext()) {
+                return false;
+            }
+            List<Object> chunk = new ArrayList<>(Math.min(this.chunkSize, 1024));
+            while (chunk.size() < this.chunkSize && this.models.hasNext()) {
+                chunk.add(this.models.next());
+            }
+            if (this.listeners != null) {
+                for (EzMybatisInsertListener listener : this.listeners) {
+                    listener.onBatchInsert(chunk);
+                }
+            }
+            this.chunk = chunk;
+            this.index = 0;
+            return true;
+        }
+
+        @Override
+        public Object next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.chunk.get(this.index++);
         }
     }
 }
@@ -8,6 +8,7 @@ import org.apache.ibatis.type.TypeHandler;
 import org.rdlinux.ezmybatis.core.EzJdbcBatchSql;
 import org.rdlinux.ezmybatis.core.EzJdbcSqlParam;
 import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.cache.CacheInvalidation;
 import org.rdlinux.ezmybatis.core.interceptor.listener.EzMybatisUpdateListener;
 import org.rdlinux.ezmybatis.core.sqlgenerate.SqlGenerateFactory;
 import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
@@ -206,6 +207,13 @@ public class JdbcUpdateDao {
                             " the error message is \"%s\", the error code is %d", jdbcBatchSql.getSql(), e.getMessage(),
                     e.getErrorCode()));
             throw new RuntimeException(e);
+        } finally {
+            //jdbc直接执行不经过拦截器, 需要主动失效缓存
+            if (CacheInvalidation.isCacheEnabled(configuration)) {
+                CacheInvalidation invalidation = new CacheInvalidation(configuration);
+                invalidation.addEntities(table, models);
+                invalidation.applyAndAfterCompletion();
+            }
         }
     }
 }
@@ -0,0 +1,25 @@
+package org.rdlinux.ezmybatis.core.dao.bulk;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+/**
+ * 原生批量装载, 使用数据库自身的批量协议写入数据, 实体从迭代器中逐行读取, 不会一次性持有全部数据
+ */
+public interface BulkLoader {
+    /**
+     * 装载数据
+     *
+     * @param connection    连接
+     * @param configuration mybatis配置
+     * @param insertSql     插入sql, 提供表名, 列, 属性与类型处理器
+     * @param models        实体迭代器
+     * @return 装载行数
+     */
+    long load(Connection connection, Configuration configuration, EzJdbcInsertSql insertSql, Iterator<?> models)
+            throws SQLException;
+}
@@ -0,0 +1,42 @@
+package org.rdlinux.ezmybatis.core.dao.bulk;
+
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.utils.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 批量装载工厂
+ */
+public class BulkLoaderFactory {
+    private static final Map<DbType, BulkLoader> LOADER_MAP = new ConcurrentHashMap<>();
+
+    static {
+        LOADER_MAP.put(DbType.MYSQL, MySqlLoadDataBulkLoader.getInstance());
+        LOADER_MAP.put(DbType.POSTGRE_SQL, PostgreSqlCopyBulkLoader.getInstance());
+        LOADER_MAP.put(DbType.SQL_SERVER, SqlServerBulkCopyLoader.getInstance());
+        LOADER_MAP.put(DbType.ORACLE, DirectPathBulkLoader.getInstance());
+        LOADER_MAP.put(DbType.DM, DirectPathBulkLoader.getInstance());
+    }
+
+    /**
+     * 注册数据库的批量装载实现
+     */
+    public static void register(DbType dbType, BulkLoader loader) {
+        Assert.notNull(dbType, "dbType can not be null");
+        Assert.notNull(loader, "loader can not be null");
+        LOADER_MAP.put(dbType, loader);
+    }
+
+    /**
+     * 获取批量装载实现
+     */
+    public static BulkLoader getLoader(DbType dbType) {
+        BulkLoader loader = LOADER_MAP.get(dbType);
+        if (loader == null) {
+            throw new UnsupportedOperationException(String.format("%s bulk load unsupported", dbType));
+        }
+        return loader;
+    }
+}
@@ -0,0 +1,128 @@
+package org.rdlinux.ezmybatis.core.dao.bulk;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityFieldInfo;
+import org.rdlinux.ezmybatis.utils.TypeHandlerUtils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 批量装载行编码器, 使用实体的类型处理器将属性值转换为jdbc值
+ */
+public class BulkRowEncoder {
+    private final Configuration configuration;
+    private final EzJdbcInsertSql insertSql;
+    private final ValueCapture capture;
+    private final PreparedStatement captureStatement;
+
+    public BulkRowEncoder(Connection connection, Configuration configuration, EzJdbcInsertSql insertSql) {
+        this.configuration = configuration;
+        this.insertSql = insertSql;
+        this.capture = new ValueCapture(connection);
+        this.captureStatement = (PreparedStatement) Proxy.newProxyInstance(BulkRowEncoder.class.getClassLoader(),
+                new Class[]{PreparedStatement.class}, this.capture);
+    }
+
+    public EzJdbcInsertSql getInsertSql() {
+        return this.insertSql;
+    }
+
+    /**
+     * 列数量
+     */
+    public int getColumnCount() {
+        return this.insertSql.getFieldInfos().length;
+    }
+
+    /**
+     * 将实体编码为按列顺序排列的jdbc值, 结果数组会在下一次编码时复用
+     */
+    public Object[] encode(Object model, Object[] row) throws SQLException {
+        this.forEachValue(model, (index, value, jdbcType, typeHandler) -> {
+            this.capture.value = null;
+            typeHandler.setParameter(this.captureStatement, 1, value, jdbcType);
+            row[index] = this.capture.value;
+        });
+        return row;
+    }
+
+    /**
+     * 将实体的值直接绑定到语句参数
+     */
+    public void setParameters(PreparedStatement statement, Object model) throws SQLException {
+        this.forEachValue(model, (index, value, jdbcType, typeHandler) ->
+                typeHandler.setParameter(statement, index + 1, value, jdbcType));
+    }
+
+    @SuppressWarnings({"rawtypes"})
+    private void forEachValue(Object model, ValueConsumer consumer) throws SQLException {
+        if (model == null || model.getClass() != this.insertSql.getModelType()) {
+            throw new IllegalArgumentException("Inconsistent object types within the container");
+        }
+        EntityFieldInfo[] fieldInfos = this.insertSql.getFieldInfos();
+        TypeHandler[] typeHandlers = this.insertSql.getTypeHandlers();
+        for (int i = 0; i < fieldInfos.length; i++) {
+            EntityFieldInfo fieldInfo = fieldInfos[i];
+            Object fieldValue = fieldInfo.getFieldValue(model);
+            JdbcType jdbcType = TypeHandlerUtils.getJdbcType(fieldValue);
+            fieldValue = EzMybatisContent.onBuildSqlGetField(this.configuration, Boolean.TRUE,
+                    this.insertSql.getModelType(), fieldInfo.getField(), fieldValue);
+            consumer.accept(i, fieldValue, jdbcType, typeHandlers[i]);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ValueConsumer {
+        @SuppressWarnings({"rawtypes"})
+        void accept(int index, Object value, JdbcType jdbcType, TypeHandler typeHandler) throws SQLException;
+    }
+
+    /**
+     * 记录类型处理器设置到语句上的值
+     */
+    private static class ValueCapture implements InvocationHandler {
+        private final Connection connection;
+        private Object value;
+
+        private ValueCapture(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if (name.equals("setNull")) {
+                this.value = null;
+            } else if (name.startsWith("set") && args != null && args.length >= 2) {
+                this.value = args[1];
+            } else if (name.equals("getConnection")) {
+                //数组等类型需要通过连接创建
+                return this.connection;
+            } else if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            } else if (name.equals("equals")) {
+                return proxy == args[0];
+            } else if (name.equals("toString")) {
+                return "BulkRowEncoder.ValueCapture";
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) {
+                return false;
+            } else if (returnType == int.class) {
+                return 0;
+            } else if (returnType == long.class) {
+                return 0L;
+            }
+            return null;
+        }
+    }
+}
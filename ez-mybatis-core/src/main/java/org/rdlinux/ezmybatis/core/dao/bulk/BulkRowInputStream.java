@@ -0,0 +1,85 @@
+package org.rdlinux.ezmybatis.core.dao.bulk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+/**
+ * 批量装载输入流, 读取时才从迭代器中取出实体并编码, 只缓存少量已编码的行
+ */
+public class BulkRowInputStream extends InputStream {
+    /**
+     * 缓存的编码数据达到该大小后停止编码
+     */
+    private static final int FILL_SIZE = 64 * 1024;
+    private final Iterator<?> models;
+    private final BulkRowEncoder encoder;
+    private final BulkTextFormat format;
+    private final Object[] row;
+    private final RowBuffer buffer = new RowBuffer();
+    private int position;
+    private long rows;
+
+    public BulkRowInputStream(Iterator<?> models, BulkRowEncoder encoder, BulkTextFormat format) {
+        this.models = models;
+        this.encoder = encoder;
+        this.format = format;
+        this.row = new Object[encoder.getColumnCount()];
+    }
+
+    /**
+     * 已编码的行数
+     */
+    public long getRows() {
+        return this.rows;
+    }
+
+    private boolean fill() throws IOException {
+        this.buffer.reset();
+        this.position = 0;
+        try {
+            while (this.buffer.size() < FILL_SIZE && this.models.hasNext()) {
+                this.encoder.encode(this.models.next(), this.row);
+                this.format.writeRow(this.buffer, this.row);
+                this.rows++;
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+        return this.buffer.size() > 0;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (this.position >= this.buffer.size() && !this.fill()) {
+            return -1;
+        }
+        return this.buffer.bytes()[this.position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (this.position >= this.buffer.size() && !this.fill()) {
+            return -1;
+        }
+        int count = Math.min(len, this.buffer.size() - this.position);
+        System.arraycopy(this.buffer.bytes(), this.position, b, off, count);
+        this.position += count;
+        return count;
+    }
+
+    private static class RowBuffer extends ByteArrayOutputStream {
+        private RowBuffer() {
+            super(FILL_SIZE + 1024);
+        }
+
+        private byte[] bytes() {
+            return this.buf;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.rdlinux.ezmybatis.core.dao.bulk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * 批量装载文本格式, 将一行jdbc值写为数据库批量协议可以识别的utf-8文本
+ */
+public abstract class BulkTextFormat {
+    /**
+     * 写入一行
+     */
+    public abstract void writeRow(ByteArrayOutputStream out, Object[] row) throws IOException, SQLException;
+
+    /**
+     * 值是否为二进制
+     */
+    protected static boolean isBinary(Object value) {
+        return value instanceof byte[] || value instanceof InputStream || value instanceof Blob;
+    }
+
+    /**
+     * 获取二进制值
+     */
+    protected static byte[] toBytes(Object value) throws IOException, SQLException {
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        if (value instanceof Blob) {
+            Blob blob = (Blob) value;
+            return blob.getBytes(1, (int) blob.length());
+        }
+        InputStream in = (InputStream) value;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int len;
+        while ((len = in.read(buffer)) != -1) {
+            out.write(buffer, 0, len);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 获取文本值
+     */
+    protected static String toText(Object value) throws IOException, SQLException {
+        if (value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof java.util.Date && !(value instanceof Timestamp) && !(value instanceof java.sql.Date)
+                && !(value instanceof java.sql.Time)) {
+            return new Timestamp(((java.util.Date) value).getTime()).toString();
+        }
+        if (value instanceof Clob) {
+            Clob clob = (Clob) value;
+            return clob.getSubString(1, (int) clob.length());
+        }
+        if (value instanceof Reader) {
+            Reader reader = (Reader) value;
+            StringBuilder sb = new StringBuilder();
+            char[] buffer = new char[2048];
+            int len;
+            while ((len = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, len);
+            }
+            return sb.toString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * 写入utf-8文本
+     */
+    protected static void writeText(ByteArrayOutputStream out, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,75 @@
+package org.rdlinux.ezmybatis.core.dao.bulk;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+
+/**
+ * oracle与达梦批量装载, 使用带APPEND_VALUES提示的数组插入进行直接路径写入. 直接路径写入后同一事务内不能再次写入该表,
+ * 所以只有自动提交时才添加提示, 否则退化为普通的数组插入
+ */
+public class DirectPathBulkLoader implements BulkLoader {
+    private static volatile DirectPathBulkLoader instance;
+
+    protected DirectPathBulkLoader() {
+    }
+
+    public static DirectPathBulkLoader getInstance() {
+        if (instance == null) {
+            synchronized (DirectPathBulkLoader.class) {
+                if (instance == null) {
+                    instance = new DirectPathBulkLoader();
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public long load(Connection connection, Configuration configuration, EzJdbcInsertSql insertSql,
+                     Iterator<?> models) throws SQLException {
+        String sql = insertSql.getSql();
+        if (connection.getAutoCommit()) {
+            sql = sql.replaceFirst("^INSERT INTO ", "INSERT /*+ APPEND_VALUES */ INTO ");
+        }
+        int batchSize = EzMybatisContent.getContentConfig(configuration).getEzMybatisConfig().getJdbcBatchSize();
+        if (batchSize <= 0) {
+            batchSize = Integer.MAX_VALUE;
+        }
+        BulkRowEncoder encoder = new BulkRowEncoder(connection, configuration, insertSql);
+        long ret = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int rows = 0;
+            while (models.hasNext()) {
+                encoder.setParameters(statement, models.next());
+                statement.addBatch();
+                rows++;
+                if (rows >= batchSize || !models.hasNext()) {
+                    ret += this.getUpdateCount(statement.executeBatch(), rows);
+                    rows = 0;
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * 统计更新数, 驱动未返回具体行数时按行数计算
+     */
+    private long getUpdateCount(int[] updateCounts, int rows) {
+        long ret = 0;
+        for (int updateCount : updateCounts) {
+            if (updateCount == Statement.SUCCESS_NO_INFO) {
+                return rows;
+            }
+            ret = ret + updateCount;
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,178 @@
+package org.rdlinux.ezmybatis.core.dao.bulk;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * MySql批量装载, 使用LOAD DATA LOCAL INFILE从内存流中读取数据, 需要连接开启allowLoadLocalInfile,
+ * 通过反射设置驱动的本地文件输入流, 不依赖驱动编译.<br/>
+ * LOCAL装载具有IGNORE语义, 主键冲突的行被跳过, 无法转换的值被截断, 数据库只产生警告而不报错,
+ * 因此装载后比较写入行数与影响行数并检查SHOW WARNINGS, 不一致或存在警告时抛出异常,
+ * 已写入的行不会回滚, 需要原子性时应在事务中调用
+ */
+public class MySqlLoadDataBulkLoader implements BulkLoader {
+    /**
+     * 异常信息中最多包含的警告数量
+     */
+    private static final int MAX_WARNINGS = 10;
+    private static final String[] STATEMENT_CLASSES = {"com.mysql.cj.jdbc.JdbcStatement", "com.mysql.jdbc.Statement"};
+    private static volatile MySqlLoadDataBulkLoader instance;
+
+    protected MySqlLoadDataBulkLoader() {
+    }
+
+    public static MySqlLoadDataBulkLoader getInstance() {
+        if (instance == null) {
+            synchronized (MySqlLoadDataBulkLoader.class) {
+                if (instance == null) {
+                    instance = new MySqlLoadDataBulkLoader();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 生成LOAD DATA语句
+     */
+    protected String getLoadSql(Configuration configuration, EzJdbcInsertSql insertSql) {
+        String keywordQM = EzMybatisContent.getKeywordQM(configuration);
+        StringBuilder sql = new StringBuilder("LOAD DATA LOCAL INFILE 'ez-mybatis-bulk' INTO TABLE ")
+                .append(insertSql.getTableName())
+                .append(" CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'")
+                .append(" LINES TERMINATED BY '\\n' (");
+        String[] columns = insertSql.getColumns();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(keywordQM).append(columns[i]).append(keywordQM);
+        }
+        return sql.append(")").toString();
+    }
+
+    @Override
+    public long load(Connection connection, Configuration configuration, EzJdbcInsertSql insertSql,
+                     Iterator<?> models) throws SQLException {
+        String sql = this.getLoadSql(configuration, insertSql);
+        BulkRowEncoder encoder = new BulkRowEncoder(connection, configuration, insertSql);
+        BulkRowInputStream in = new BulkRowInputStream(models, encoder, new TabFormat());
+        try (Statement statement = connection.createStatement()) {
+            this.setLocalInfileInputStream(statement, in);
+            long ret = statement.executeUpdate(sql);
+            List<String> warnings = this.getWarnings(statement);
+            if (ret != in.getRows() || !warnings.isEmpty()) {
+                throw new SQLException(String.format("LOAD DATA wrote %d rows but loaded %d rows, warnings: %s",
+                        in.getRows(), ret, warnings));
+            }
+            return ret;
+        }
+    }
+
+    /**
+     * 获取上一条语句产生的警告
+     */
+    protected List<String> getWarnings(Statement statement) throws SQLException {
+        List<String> warnings = new LinkedList<>();
+        try (ResultSet rs = statement.executeQuery("SHOW WARNINGS LIMIT " + MAX_WARNINGS)) {
+            while (rs.next()) {
+                warnings.add(rs.getString(1) + " " + rs.getInt(2) + ": " + rs.getString(3));
+            }
+        }
+        return warnings;
+    }
+
+    private void setLocalInfileInputStream(Statement statement, InputStream in) throws SQLException {
+        for (String className : STATEMENT_CLASSES) {
+            Class<?> statementClass;
+            try {
+                statementClass = Class.forName(className);
+            } catch (ClassNotFoundException e) {
+                continue;
+            }
+            if (!statement.isWrapperFor(statementClass)) {
+                continue;
+            }
+            Object mysqlStatement = statement.unwrap(statementClass);
+            try {
+                statementClass.getMethod("setLocalInfileInputStream", InputStream.class).invoke(mysqlStatement, in);
+                return;
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new UnsupportedOperationException("MySql driver does not support LOAD DATA LOCAL stream", e);
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException(e.getTargetException());
+            }
+        }
+        throw new UnsupportedOperationException("MySql driver does not support LOAD DATA LOCAL stream");
+    }
+
+    /**
+     * 制表符分隔格式, 空值写为\N, 特殊字符使用反斜杠转义
+     */
+    protected static class TabFormat extends BulkTextFormat {
+        @Override
+        public void writeRow(ByteArrayOutputStream out, Object[] row) throws IOException, SQLException {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    out.write('\t');
+                }
+                Object value = row[i];
+                if (value == null) {
+                    out.write('\\');
+                    out.write('N');
+                    continue;
+                }
+                byte[] bytes;
+                if (isBinary(value)) {
+                    bytes = toBytes(value);
+                } else if (value instanceof Boolean) {
+                    bytes = (Boolean) value ? new byte[]{'1'} : new byte[]{'0'};
+                } else {
+                    bytes = toText(value).getBytes(StandardCharsets.UTF_8);
+                }
+                //utf-8多字节字符中不会出现以下字节, 可以按字节转义
+                for (byte b : bytes) {
+                    switch (b) {
+                        case '\\':
+                            out.write('\\');
+                            out.write('\\');
+                            break;
+                        case '\t':
+                            out.write('\\');
+                            out.write('t');
+                            break;
+                        case '\n':
+                            out.write('\\');
+                            out.write('n');
+                            break;
+                        case '\r':
+                            out.write('\\');
+                            out.write('r');
+                            break;
+                        case 0:
+                            out.write('\\');
+                            out.write('0');
+                            break;
+                        default:
+                            out.write(b);
+                    }
+                }
+            }
+            out.write('\n');
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.rdlinux.ezmybatis.core.dao.bulk;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+/**
+ * PostgreSql批量装载, 使用COPY FROM STDIN以csv格式流式写入, 通过反射调用驱动的CopyManager, 不依赖驱动编译
+ */
+public class PostgreSqlCopyBulkLoader implements BulkLoader {
+    private static volatile PostgreSqlCopyBulkLoader instance;
+
+    protected PostgreSqlCopyBulkLoader() {
+    }
+
+    public static PostgreSqlCopyBulkLoader getInstance() {
+        if (instance == null) {
+            synchronized (PostgreSqlCopyBulkLoader.class) {
+                if (instance == null) {
+                    instance = new PostgreSqlCopyBulkLoader();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 生成COPY语句
+     */
+    protected String getCopySql(Configuration configuration, EzJdbcInsertSql insertSql) {
+        String keywordQM = EzMybatisContent.getKeywordQM(configuration);
+        StringBuilder sql = new StringBuilder("COPY ").append(insertSql.getTableName()).append(" (");
+        String[] columns = insertSql.getColumns();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(keywordQM).append(columns[i]).append(keywordQM);
+        }
+        return sql.append(") FROM STDIN WITH (FORMAT csv)").toString();
+    }
+
+    @Override
+    public long load(Connection connection, Configuration configuration, EzJdbcInsertSql insertSql,
+                     Iterator<?> models) throws SQLException {
+        String sql = this.getCopySql(configuration, insertSql);
+        BulkRowEncoder encoder = new BulkRowEncoder(connection, configuration, insertSql);
+        InputStream in = new BulkRowInputStream(models, encoder, new CsvFormat());
+        try {
+            Class<?> pgConnectionClass = Class.forName("org.postgresql.PGConnection");
+            Object pgConnection = connection.unwrap(pgConnectionClass);
+            Object copyManager = pgConnectionClass.getMethod("getCopyAPI").invoke(pgConnection);
+            Object ret = copyManager.getClass().getMethod("copyIn", String.class, InputStream.class)
+                    .invoke(copyManager, sql, in);
+            return (Long) ret;
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            throw new UnsupportedOperationException("PostgreSql driver does not support COPY", e);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getTargetException();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * csv格式, 空值不加引号, 其余值全部加引号以区分空字符串
+     */
+    protected static class CsvFormat extends BulkTextFormat {
+        private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+        @Override
+        public void writeRow(ByteArrayOutputStream out, Object[] row) throws IOException, SQLException {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                Object value = row[i];
+                if (value == null) {
+                    continue;
+                }
+                String text;
+                if (isBinary(value)) {
+                    byte[] bytes = toBytes(value);
+                    char[] hex = new char[bytes.length * 2 + 2];
+                    hex[0] = '\\';
+                    hex[1] = 'x';
+                    for (int j = 0; j < bytes.length; j++) {
+                        hex[j * 2 + 2] = HEX[(bytes[j] >> 4) & 0xf];
+                        hex[j * 2 + 3] = HEX[bytes[j] & 0xf];
+                    }
+                    text = new String(hex);
+                } else if (value instanceof Boolean) {
+                    text = (Boolean) value ? "t" : "f";
+                } else {
+                    text = toText(value);
+                }
+                out.write('"');
+                writeText(out, text.indexOf('"') < 0 ? text : text.replace("\"", "\"\""));
+                out.write('"');
+            }
+            out.write('\n');
+        }
+    }
+}
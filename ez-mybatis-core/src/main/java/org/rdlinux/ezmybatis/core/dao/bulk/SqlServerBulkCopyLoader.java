@@ -0,0 +1,179 @@
+package org.rdlinux.ezmybatis.core.dao.bulk;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * SqlServer批量装载, 使用驱动的SQLServerBulkCopy写入, 数据源是按需从迭代器读取的ISQLServerBulkRecord,
+ * 列类型, 精度与小数位取自目标表的元数据, 通过反射调用驱动, 不依赖驱动编译
+ */
+public class SqlServerBulkCopyLoader implements BulkLoader {
+    private static final String BULK_COPY_CLASS = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopy";
+    private static final String BULK_RECORD_CLASS = "com.microsoft.sqlserver.jdbc.ISQLServerBulkRecord";
+    private static volatile SqlServerBulkCopyLoader instance;
+
+    protected SqlServerBulkCopyLoader() {
+    }
+
+    public static SqlServerBulkCopyLoader getInstance() {
+        if (instance == null) {
+            synchronized (SqlServerBulkCopyLoader.class) {
+                if (instance == null) {
+                    instance = new SqlServerBulkCopyLoader();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 查询目标表的列元数据
+     */
+    private int[][] getColumnMetas(Connection connection, Configuration configuration, EzJdbcInsertSql insertSql)
+            throws SQLException {
+        String keywordQM = EzMybatisContent.getKeywordQM(configuration);
+        StringBuilder sql = new StringBuilder("SELECT ");
+        String[] columns = insertSql.getColumns();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(keywordQM).append(columns[i]).append(keywordQM);
+        }
+        sql.append(" FROM ").append(insertSql.getTableName()).append(" WHERE 1 = 0");
+        int[][] metas = new int[columns.length][];
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql.toString())) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 0; i < columns.length; i++) {
+                metas[i] = new int[]{metaData.getColumnType(i + 1), metaData.getPrecision(i + 1),
+                        metaData.getScale(i + 1)};
+            }
+        }
+        return metas;
+    }
+
+    @Override
+    public long load(Connection connection, Configuration configuration, EzJdbcInsertSql insertSql,
+                     Iterator<?> models) throws SQLException {
+        BulkRecord record = new BulkRecord(models, new BulkRowEncoder(connection, configuration, insertSql),
+                this.getColumnMetas(connection, configuration, insertSql));
+        Object bulkCopy = null;
+        try {
+            Class<?> bulkCopyClass = Class.forName(BULK_COPY_CLASS);
+            Class<?> recordClass = Class.forName(BULK_RECORD_CLASS);
+            Object recordProxy = Proxy.newProxyInstance(recordClass.getClassLoader(), new Class[]{recordClass},
+                    record);
+            bulkCopy = bulkCopyClass.getConstructor(Connection.class).newInstance(connection);
+            bulkCopyClass.getMethod("setDestinationTableName", String.class).invoke(bulkCopy,
+                    insertSql.getTableName());
+            //驱动默认按序号对应目标表的列, 目标表列顺序与插入列顺序不同时会写错列, 需要按列名显式映射
+            Method addColumnMapping = bulkCopyClass.getMethod("addColumnMapping", int.class, String.class);
+            String[] columns = insertSql.getColumns();
+            for (int i = 0; i < columns.length; i++) {
+                addColumnMapping.invoke(bulkCopy, i + 1, columns[i]);
+            }
+            Method writeToServer = null;
+            for (Method method : bulkCopyClass.getMethods()) {
+                if (method.getName().equals("writeToServer") && method.getParameterCount() == 1
+                        && method.getParameterTypes()[0].isAssignableFrom(recordClass)) {
+                    writeToServer = method;
+                    break;
+                }
+            }
+            if (writeToServer == null) {
+                throw new UnsupportedOperationException("SqlServer driver does not support bulk copy");
+            }
+            writeToServer.invoke(bulkCopy, recordProxy);
+            return record.rows;
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException |
+                 InstantiationException e) {
+            throw new UnsupportedOperationException("SqlServer driver does not support bulk copy", e);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getTargetException();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            if (bulkCopy != null) {
+                try {
+                    bulkCopy.getClass().getMethod("close").invoke(bulkCopy);
+                } catch (Exception ignore) {
+                    //关闭失败不影响结果
+                }
+            }
+        }
+    }
+
+    /**
+     * 批量记录, 实现ISQLServerBulkRecord中被驱动调用的方法
+     */
+    private static class BulkRecord implements InvocationHandler {
+        private final Iterator<?> models;
+        private final BulkRowEncoder encoder;
+        private final int[][] metas;
+        private final Object[] row;
+        private long rows;
+
+        private BulkRecord(Iterator<?> models, BulkRowEncoder encoder, int[][] metas) {
+            this.models = models;
+            this.encoder = encoder;
+            this.metas = metas;
+            this.row = new Object[metas.length];
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    if (!this.models.hasNext()) {
+                        return false;
+                    }
+                    this.encoder.encode(this.models.next(), this.row);
+                    this.rows++;
+                    return true;
+                case "getRowData":
+                    return this.row.clone();
+                case "getColumnOrdinals":
+                    Set<Integer> ordinals = new LinkedHashSet<>();
+                    for (int i = 1; i <= this.metas.length; i++) {
+                        ordinals.add(i);
+                    }
+                    return ordinals;
+                case "getColumnName":
+                    return this.encoder.getInsertSql().getColumns()[(Integer) args[0] - 1];
+                case "getColumnType":
+                    return this.metas[(Integer) args[0] - 1][0];
+                case "getPrecision":
+                    return this.metas[(Integer) args[0] - 1][1];
+                case "getScale":
+                    return this.metas[(Integer) args[0] - 1][2];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "SqlServerBulkCopyLoader.BulkRecord";
+                default:
+                    Class<?> returnType = method.getReturnType();
+                    if (returnType == boolean.class) {
+                        return false;
+                    } else if (returnType == int.class) {
+                        return 0;
+                    }
+                    return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package org.rdlinux.ezmybatis.core.interceptor;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.rdlinux.ezmybatis.constant.EzMybatisConstant;
+import org.rdlinux.ezmybatis.core.EzDelete;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.EzExecutionContext;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.EzUpdate;
+import org.rdlinux.ezmybatis.core.cache.CacheInvalidation;
+import org.rdlinux.ezmybatis.core.cache.EntityCache;
+import org.rdlinux.ezmybatis.core.cache.QueryResultCache;
+import org.rdlinux.ezmybatis.core.interceptor.executor.MapperMethodDispatch;
+import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.core.sqlstruct.Join;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 缓存拦截器, 处理实体缓存与查询结果缓存, 位于执行器拦截器内层, 参数与结果类型已经初始化.<br/>
+ * 根据主键查询时优先读取实体缓存, selectByIds只查询缓存中不存在的主键; 设置了缓存选项的EzQuery优先读取查询结果缓存;
+ * 写入时失效相关缓存, 并在事务提交, 回滚或者关闭时再次失效, 事务未结束前该会话的相关查询不使用缓存,<br/>
+ * 事务由外部管理(例如spring)时会话提交早于数据库提交, 通过{@link org.rdlinux.ezmybatis.core.cache.AfterCompletionExecutor}
+ * 在事务真正结束后再次失效
+ */
+@Intercepts({
+        @Signature(
+                type = Executor.class,
+                method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class,
+                        BoundSql.class}
+        ),
+        @Signature(
+                type = Executor.class,
+                method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}
+        ),
+        @Signature(
+                type = Executor.class,
+                method = "update",
+                args = {MappedStatement.class, Object.class}
+        ),
+        @Signature(
+                type = Executor.class,
+                method = "commit",
+                args = {boolean.class}
+        ),
+        @Signature(
+                type = Executor.class,
+                method = "rollback",
+                args = {boolean.class}
+        ),
+        @Signature(
+                type = Executor.class,
+                method = "close",
+                args = {boolean.class}
+        )
+})
+public class EzMybatisCacheInterceptor implements Interceptor {
+    /**
+     * 会话未结束的写入产生的失效信息, 以执行器区分会话, 会话提交, 回滚或者关闭时移除
+     */
+    private final Map<Executor, CacheInvalidation> pendingInvalidations = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        String method = invocation.getMethod().getName();
+        if (method.equals("query")) {
+            return this.query(invocation);
+        } else if (method.equals("update")) {
+            return this.update(invocation);
+        } else {
+            CacheInvalidation pending = this.pendingInvalidations.remove((Executor) invocation.getTarget());
+            try {
+                return invocation.proceed();
+            } finally {
+                if (pending != null) {
+                    pending.applyAndAfterCompletion();
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object query(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        if (ms.getSqlCommandType() != SqlCommandType.SELECT || !(args[1] instanceof Map) ||
+                args[2] != RowBounds.DEFAULT || args[3] != null) {
+            return invocation.proceed();
+        }
+        MapperMethodDispatch dispatch = MapperMethodDispatch.forStatement(ms);
+        if (!dispatch.isEzMapper()) {
+            return invocation.proceed();
+        }
+        Map<String, Object> param = (Map<String, Object>) args[1];
+        String methodName = dispatch.getMethodName();
+        if (methodName.equals(EzMapper.SELECT_BY_ID_METHOD) || methodName.equals(EzMapper.SELECT_BY_IDS_METHOD)) {
+            return this.queryEntity(invocation, ms, dispatch, param);
+        }
+        if (param.containsKey(EzMybatisConstant.MAPPER_PARAM_EZPARAM) &&
+                param.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM) instanceof EzQuery) {
+            EzQuery<?> query = (EzQuery<?>) param.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM);
+            QueryResultCache cache = EzMybatisContent.getContentConfig(ms.getConfiguration()).getQueryResultCache();
+            if (query.getCacheOption() != null && cache != null) {
+                return this.queryResult(invocation, ms, query, cache);
+            }
+        }
+        return invocation.proceed();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object queryEntity(Invocation invocation, MappedStatement ms, MapperMethodDispatch dispatch,
+                               Map<String, Object> param) throws Throwable {
+        Class<?> entityClass = dispatch.getEntityClass();
+        if (entityClass == null && param.containsKey(EzMybatisConstant.MAPPER_PARAM_ENTITY_CLASS)) {
+            entityClass = (Class<?>) param.get(EzMybatisConstant.MAPPER_PARAM_ENTITY_CLASS);
+        }
+        EntityCache cache = EzMybatisContent.getContentConfig(ms.getConfiguration()).getEntityCacheManager()
+                .getCache(entityClass);
+        if (cache == null) {
+            return invocation.proceed();
+        }
+        CacheInvalidation pending = this.getPending((Executor) invocation.getTarget());
+        if (pending != null && pending.affects(entityClass)) {
+            return invocation.proceed();
+        }
+        if (dispatch.getMethodName().equals(EzMapper.SELECT_BY_ID_METHOD)) {
+            Object entity = cache.get(param.get(EzMybatisConstant.MAPPER_PARAM_ID));
+            if (entity != null) {
+                List<Object> ret = new ArrayList<>(1);
+                ret.add(entity);
+                return ret;
+            }
+            long version = cache.getVersion();
+            List<Object> ret = (List<Object>) invocation.proceed();
+            for (Object row : ret) {
+                cache.put(version, row);
+            }
+            return ret;
+        }
+        Collection<Object> ids = (Collection<Object>) param.get(EzMybatisConstant.MAPPER_PARAM_IDS);
+        if (ids == null || ids.isEmpty()) {
+            return invocation.proceed();
+        }
+        List<Object> ret = new ArrayList<>(ids.size());
+        List<Object> missingIds = new ArrayList<>(ids.size());
+        for (Object id : new LinkedHashSet<>(ids)) {
+            Object entity = cache.get(id);
+            if (entity != null) {
+                ret.add(entity);
+            } else if (id != null) {
+                missingIds.add(id);
+            }
+        }
+        if (missingIds.isEmpty()) {
+            return ret;
+        }
+        long version = cache.getVersion();
+        List<Object> rows;
+        param.put(EzMybatisConstant.MAPPER_PARAM_IDS, missingIds);
+        try {
+            this.rebuildBoundSql(invocation, ms, param);
+            rows = (List<Object>) invocation.proceed();
+        } finally {
+            param.put(EzMybatisConstant.MAPPER_PARAM_IDS, ids);
+        }
+        for (Object row : rows) {
+            cache.put(version, row);
+        }
+        ret.addAll(rows);
+        return ret;
+    }
+
+    private Object queryResult(Invocation invocation, MappedStatement ms, EzQuery<?> query,
+                               QueryResultCache cache) throws Throwable {
+        Set<String> tags = QueryResultCache.collectTags(ms.getConfiguration(), query);
+        Executor executor = (Executor) invocation.getTarget();
+        CacheInvalidation pending = this.getPending(executor);
+        if (pending != null && pending.affects(tags)) {
+            return invocation.proceed();
+        }
+        Object[] args = invocation.getArgs();
+        BoundSql boundSql;
+        CacheKey key;
+        if (args.length == 6) {
+            key = (CacheKey) args[4];
+            boundSql = (BoundSql) args[5];
+        } else {
+            boundSql = ms.getBoundSql(args[1]);
+            key = executor.createCacheKey(ms, args[1], RowBounds.DEFAULT, boundSql);
+        }
+        List<?> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long version = cache.getVersion(tags);
+        List<?> ret;
+        try {
+            if (args.length == 6) {
+                ret = (List<?>) invocation.proceed();
+            } else {
+                ret = executor.query(ms, args[1], RowBounds.DEFAULT, null, key, boundSql);
+            }
+        } catch (Throwable e) {
+            cache.cancelRefresh(key);
+            throw e;
+        }
+        cache.put(key, ret, tags, query.getCacheOption(), version);
+        return ret;
+    }
+
+    /**
+     * 参数修改后重新生成sql与一级缓存key
+     */
+    private void rebuildBoundSql(Invocation invocation, MappedStatement ms, Object param) {
+        Object[] args = invocation.getArgs();
+        if (args.length != 6) {
+            return;
+        }
+        Executor executor = (Executor) invocation.getTarget();
+        BoundSql boundSql = ms.getBoundSql(param);
+        CacheKey cacheKey = executor.createCacheKey(ms, param, (RowBounds) args[2], boundSql);
+        EzExecutionContext context = EzExecutionContext.find(param);
+        Class<?> retType = context == null ? null : context.getRetType();
+        if (retType != null) {
+            cacheKey.update(retType.getName());
+        }
+        args[4] = cacheKey;
+        args[5] = boundSql;
+    }
+
+    private Object update(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        CacheInvalidation invalidation = new CacheInvalidation(ms.getConfiguration());
+        this.resolveInvalidation(ms, invocation.getArgs()[1], invalidation);
+        Executor executor = (Executor) invocation.getTarget();
+        //同一执行器只会被一个线程使用, 无需加锁
+        CacheInvalidation pending = this.pendingInvalidations.get(executor);
+        if (pending == null) {
+            pending = new CacheInvalidation(ms.getConfiguration());
+            this.pendingInvalidations.put(executor, pending);
+        }
+        pending.merge(invalidation);
+        try {
+            return invocation.proceed();
+        } finally {
+            invalidation.apply();
+        }
+    }
+
+    private CacheInvalidation getPending(Executor executor) {
+        return this.pendingInvalidations.get(executor);
+    }
+
+    /**
+     * 解析写入需要失效的缓存, 非ez方法的写入根据执行的sql解析目标表,
+     * 开启unknownWriteInvalidatesAll或者无法确定影响范围时失效全部缓存
+     */
+    @SuppressWarnings("unchecked")
+    private void resolveInvalidation(MappedStatement ms, Object parameter, CacheInvalidation invalidation)
+            throws ClassNotFoundException {
+        MapperMethodDispatch dispatch = MapperMethodDispatch.forStatement(ms);
+        if (!dispatch.isEzMapper()) {
+            if (EzMybatisContent.getContentConfig(ms.getConfiguration()).getEzMybatisConfig()
+                    .isUnknownWriteInvalidatesAll()) {
+                invalidation.addAll();
+            } else {
+                invalidation.addSql(ms.getBoundSql(parameter).getSql());
+            }
+            return;
+        }
+        if (!(parameter instanceof Map)) {
+            invalidation.addAll();
+            return;
+        }
+        Map<String, Object> param = (Map<String, Object>) parameter;
+        Class<?> entityClass = dispatch.getEntityClass();
+        if (entityClass == null && param.containsKey(EzMybatisConstant.MAPPER_PARAM_ENTITY_CLASS)) {
+            entityClass = (Class<?>) param.get(EzMybatisConstant.MAPPER_PARAM_ENTITY_CLASS);
+        }
+        Table table = param.containsKey(EzMybatisConstant.MAPPER_PARAM_TABLE) ?
+                (Table) param.get(EzMybatisConstant.MAPPER_PARAM_TABLE) : null;
+        if (param.containsKey(EzMybatisConstant.MAPPER_PARAM_ENTITY)) {
+            invalidation.addEntity(table, param.get(EzMybatisConstant.MAPPER_PARAM_ENTITY));
+        } else if (param.containsKey(EzMybatisConstant.MAPPER_PARAM_ENTITYS)) {
+            invalidation.addEntities(table, (Collection<Object>) param.get(EzMybatisConstant.MAPPER_PARAM_ENTITYS));
+        } else if (param.containsKey(EzMybatisConstant.MAPPER_PARAM_ID) && entityClass != null) {
+            invalidation.addId(entityClass, table, param.get(EzMybatisConstant.MAPPER_PARAM_ID));
+        } else if (param.containsKey(EzMybatisConstant.MAPPER_PARAM_IDS) && entityClass != null) {
+            Collection<Object> ids = (Collection<Object>) param.get(EzMybatisConstant.MAPPER_PARAM_IDS);
+            if (ids != null) {
+                for (Object id : ids) {
+                    invalidation.addId(entityClass, table, id);
+                }
+            }
+        } else if (param.containsKey(EzMybatisConstant.MAPPER_PARAM_EZPARAM)) {
+            Object ezParam = param.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM);
+            if (ezParam instanceof Collection) {
+                for (Object item : (Collection<Object>) ezParam) {
+                    this.resolveEzParamInvalidation(item, invalidation);
+                }
+            } else {
+                this.resolveEzParamInvalidation(ezParam, invalidation);
+            }
+        } else {
+            invalidation.addAll();
+        }
+    }
+
+    private void resolveEzParamInvalidation(Object ezParam, CacheInvalidation invalidation) {
+        if (ezParam instanceof EzUpdate) {
+            EzUpdate update = (EzUpdate) ezParam;
+            invalidation.addTable(update.getTable());
+            this.addJoinTables(update.getJoins(), invalidation);
+        } else if (ezParam instanceof EzDelete) {
+            EzDelete delete = (EzDelete) ezParam;
+            if (delete.getDeletes().isEmpty()) {
+                invalidation.addTable(delete.getTable());
+            } else {
+                for (Table table : delete.getDeletes()) {
+                    invalidation.addTable(table);
+                }
+            }
+        } else {
+            invalidation.addAll();
+        }
+    }
+
+    private void addJoinTables(List<Join> joins, CacheInvalidation invalidation) {
+        if (joins == null) {
+            return;
+        }
+        for (Join join : joins) {
+            invalidation.addTable(join.getJoinTable());
+            this.addJoinTables(join.getJoins(), invalidation);
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.apache.ibatis.plugin.Intercepts;
 import org.apache.ibatis.plugin.Signature;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.rdlinux.ezmybatis.core.interceptor.executor.BatchInsertSplitLogic;
+import org.rdlinux.ezmybatis.core.interceptor.executor.BatchUpdateSplitLogic;
 import org.rdlinux.ezmybatis.core.interceptor.executor.MapperParamInitLogic;
 import org.rdlinux.ezmybatis.core.interceptor.executor.ResultMapInitLogic;
 
@@ -47,6 +49,10 @@ public class EzMybatisExecutorInterceptor extends AbstractInterceptor {
         //添加参数处理, 然后添加结果类型处理, 二者顺序不能颠倒
         this.logics.add(new MapperParamInitLogic());
         this.logics.add(new ResultMapInitLogic());
+        //批量插入超出单条sql参数限制时拆分执行
+        this.logics.add(new BatchInsertSplitLogic());
+        //批量更新超出单条sql参数限制时拆分执行
+        this.logics.add(new BatchUpdateSplitLogic());
     }
 
     @Override
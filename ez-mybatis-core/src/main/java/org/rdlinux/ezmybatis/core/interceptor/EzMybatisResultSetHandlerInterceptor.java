@@ -17,6 +17,11 @@ import java.util.List;
                 type = ResultSetHandler.class,
                 method = "handleResultSets",
                 args = {Statement.class}
+        ),
+        @Signature(
+                type = ResultSetHandler.class,
+                method = ResultSetLogic.HANDLE_CURSOR_RESULT_SETS_METHOD,
+                args = {Statement.class}
         )
 })
 public class EzMybatisResultSetHandlerInterceptor extends AbstractInterceptor {
@@ -0,0 +1,79 @@
+package org.rdlinux.ezmybatis.core.interceptor.executor;
+
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.constant.EzMybatisConstant;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.interceptor.InterceptorLogic;
+import org.rdlinux.ezmybatis.core.interceptor.InterceptorLogicResult;
+import org.rdlinux.ezmybatis.core.sqlgenerate.SqlGenerateFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量更新拆分, 实体数量超出数据库单条sql参数限制时, 按块拆分为多条批量更新sql执行.<br/>
+ * 各块依次单独执行, 整体不是原子操作: 没有外部事务(例如开启了自动提交)时, 某一块失败后之前的块已经更新,
+ * 异常原样抛出, 需要整体成功或失败时请在事务中调用
+ */
+public class BatchUpdateSplitLogic implements InterceptorLogic {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public InterceptorLogicResult invokeBefore(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        if (ms.getSqlCommandType() != SqlCommandType.UPDATE) {
+            return new InterceptorLogicResult(true, null);
+        }
+        MapperMethodDispatch dispatch = MapperMethodDispatch.forStatement(ms);
+        if (!dispatch.isBatchUpdate()) {
+            return new InterceptorLogicResult(true, null);
+        }
+        Map<String, Object> param = (Map<String, Object>) invocation.getArgs()[1];
+        Collection<Object> models = (Collection<Object>) param.get(EzMybatisConstant.MAPPER_PARAM_ENTITYS);
+        if (models == null || models.isEmpty()) {
+            return new InterceptorLogicResult(true, null);
+        }
+        Configuration configuration = ms.getConfiguration();
+        int chunkSize = SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
+                .getBatchUpdateChunkSize(configuration, models.iterator().next());
+        if (models.size() <= chunkSize) {
+            return new InterceptorLogicResult(true, null);
+        }
+        int ret = 0;
+        List<Object> chunk = new ArrayList<>(chunkSize);
+        for (Object model : models) {
+            chunk.add(model);
+            if (chunk.size() >= chunkSize) {
+                ret += this.updateChunk(invocation, ms, param, chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            ret += this.updateChunk(invocation, ms, param, chunk);
+        }
+        return new InterceptorLogicResult(false, ret);
+    }
+
+    /**
+     * 使用参数副本执行一块数据的更新, 避免生成sql时写入的参数相互干扰
+     */
+    private int updateChunk(Invocation invocation, MappedStatement ms, Map<String, Object> param,
+                            List<Object> chunk) throws Throwable {
+        MapperMethod.ParamMap<Object> chunkParam = new MapperMethod.ParamMap<>();
+        chunkParam.putAll(param);
+        chunkParam.put(EzMybatisConstant.MAPPER_PARAM_ENTITYS, chunk);
+        try {
+            Object ret = invocation.getMethod().invoke(invocation.getTarget(), ms, chunkParam);
+            return ret == null ? 0 : (Integer) ret;
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
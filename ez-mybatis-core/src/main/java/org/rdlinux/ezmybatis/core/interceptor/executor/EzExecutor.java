@@ -0,0 +1,284 @@
+package org.rdlinux.ezmybatis.core.interceptor.executor;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 直接安装的ez执行器, 将拦截器声明拦截的方法交给拦截器处理, 代替{@link org.apache.ibatis.plugin.Plugin}生成的jdk代理,
+ * 拦截器中调用{@link Invocation#proceed()}时直接调用下层执行器, 不使用反射
+ */
+public class EzExecutor implements Executor {
+    private static final int UPDATE = 0;
+    private static final int QUERY_WITH_KEY = 1;
+    private static final int QUERY = 2;
+    private static final int QUERY_CURSOR = 3;
+    private static final int FLUSH_STATEMENTS = 4;
+    private static final int COMMIT = 5;
+    private static final int ROLLBACK = 6;
+    private static final int CLOSE = 7;
+    private static final Method[] METHODS = new Method[8];
+    /**
+     * 拦截器类型 映射 拦截的方法
+     */
+    private static final Map<Class<?>, boolean[]> SIGNATURE_CACHE = new ConcurrentHashMap<>();
+
+    static {
+        try {
+            METHODS[UPDATE] = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+            METHODS[QUERY_WITH_KEY] = Executor.class.getMethod("query", MappedStatement.class, Object.class,
+                    RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class);
+            METHODS[QUERY] = Executor.class.getMethod("query", MappedStatement.class, Object.class,
+                    RowBounds.class, ResultHandler.class);
+            METHODS[QUERY_CURSOR] = Executor.class.getMethod("queryCursor", MappedStatement.class, Object.class,
+                    RowBounds.class);
+            METHODS[FLUSH_STATEMENTS] = Executor.class.getMethod("flushStatements");
+            METHODS[COMMIT] = Executor.class.getMethod("commit", boolean.class);
+            METHODS[ROLLBACK] = Executor.class.getMethod("rollback", boolean.class);
+            METHODS[CLOSE] = Executor.class.getMethod("close", boolean.class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Executor delegate;
+    private final Interceptor interceptor;
+    private final boolean[] intercepted;
+
+    public EzExecutor(Executor delegate, Interceptor interceptor) {
+        this.delegate = delegate;
+        this.interceptor = interceptor;
+        this.intercepted = SIGNATURE_CACHE.computeIfAbsent(interceptor.getClass(), EzExecutor::resolveSignature);
+    }
+
+    /**
+     * 解析拦截器声明拦截的执行器方法
+     */
+    private static boolean[] resolveSignature(Class<?> interceptorClass) {
+        boolean[] intercepted = new boolean[METHODS.length];
+        Intercepts intercepts = interceptorClass.getAnnotation(Intercepts.class);
+        if (intercepts == null) {
+            throw new IllegalArgumentException("No @Intercepts annotation was found in interceptor " +
+                    interceptorClass.getName());
+        }
+        for (Signature signature : intercepts.value()) {
+            if (signature.type() != Executor.class) {
+                continue;
+            }
+            for (int i = 0; i < METHODS.length; i++) {
+                if (METHODS[i].getName().equals(signature.method()) &&
+                        Arrays.equals(METHODS[i].getParameterTypes(), signature.args())) {
+                    intercepted[i] = true;
+                }
+            }
+        }
+        return intercepted;
+    }
+
+    private static SQLException unwrap(Throwable e) {
+        Throwable cause = ExceptionUtil.unwrapThrowable(e);
+        if (cause instanceof SQLException) {
+            return (SQLException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new UndeclaredThrowableException(cause);
+    }
+
+    private Object intercept(int method, Object... args) throws SQLException {
+        try {
+            return this.interceptor.intercept(new EzInvocation(this.delegate, method, args));
+        } catch (Throwable e) {
+            throw unwrap(e);
+        }
+    }
+
+    @Override
+    public int update(MappedStatement ms, Object parameter) throws SQLException {
+        if (!this.intercepted[UPDATE]) {
+            return this.delegate.update(ms, parameter);
+        }
+        return (Integer) this.intercept(UPDATE, ms, parameter);
+    }
+
+    @Override
+    @SuppressWarnings(value = {"unchecked"})
+    public <E> List<E> query(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler,
+                             CacheKey cacheKey, BoundSql boundSql) throws SQLException {
+        if (!this.intercepted[QUERY_WITH_KEY]) {
+            return this.delegate.query(ms, parameter, rowBounds, resultHandler, cacheKey, boundSql);
+        }
+        return (List<E>) this.intercept(QUERY_WITH_KEY, ms, parameter, rowBounds, resultHandler, cacheKey,
+                boundSql);
+    }
+
+    @Override
+    @SuppressWarnings(value = {"unchecked"})
+    public <E> List<E> query(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler)
+            throws SQLException {
+        if (!this.intercepted[QUERY]) {
+            return this.delegate.query(ms, parameter, rowBounds, resultHandler);
+        }
+        return (List<E>) this.intercept(QUERY, ms, parameter, rowBounds, resultHandler);
+    }
+
+    @Override
+    @SuppressWarnings(value = {"unchecked"})
+    public <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds) throws SQLException {
+        if (!this.intercepted[QUERY_CURSOR]) {
+            return this.delegate.queryCursor(ms, parameter, rowBounds);
+        }
+        return (Cursor<E>) this.intercept(QUERY_CURSOR, ms, parameter, rowBounds);
+    }
+
+    @Override
+    @SuppressWarnings(value = {"unchecked"})
+    public List<BatchResult> flushStatements() throws SQLException {
+        if (!this.intercepted[FLUSH_STATEMENTS]) {
+            return this.delegate.flushStatements();
+        }
+        return (List<BatchResult>) this.intercept(FLUSH_STATEMENTS);
+    }
+
+    @Override
+    public void commit(boolean required) throws SQLException {
+        if (!this.intercepted[COMMIT]) {
+            this.delegate.commit(required);
+            return;
+        }
+        this.intercept(COMMIT, required);
+    }
+
+    @Override
+    public void rollback(boolean required) throws SQLException {
+        if (!this.intercepted[ROLLBACK]) {
+            this.delegate.rollback(required);
+            return;
+        }
+        this.intercept(ROLLBACK, required);
+    }
+
+    @Override
+    public CacheKey createCacheKey(MappedStatement ms, Object parameterObject, RowBounds rowBounds,
+                                   BoundSql boundSql) {
+        return this.delegate.createCacheKey(ms, parameterObject, rowBounds, boundSql);
+    }
+
+    @Override
+    public boolean isCached(MappedStatement ms, CacheKey key) {
+        return this.delegate.isCached(ms, key);
+    }
+
+    @Override
+    public void clearLocalCache() {
+        this.delegate.clearLocalCache();
+    }
+
+    @Override
+    public void deferLoad(MappedStatement ms, MetaObject resultObject, String property, CacheKey key,
+                          Class<?> targetType) {
+        this.delegate.deferLoad(ms, resultObject, property, key, targetType);
+    }
+
+    @Override
+    public Transaction getTransaction() {
+        return this.delegate.getTransaction();
+    }
+
+    @Override
+    public void close(boolean forceRollback) {
+        if (!this.intercepted[CLOSE]) {
+            this.delegate.close(forceRollback);
+            return;
+        }
+        try {
+            this.intercept(CLOSE, forceRollback);
+        } catch (SQLException e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return this.delegate.isClosed();
+    }
+
+    @Override
+    public void setExecutorWrapper(Executor executor) {
+        this.delegate.setExecutorWrapper(executor);
+    }
+
+    /**
+     * 直接调用下层执行器的调用信息
+     */
+    private static class EzInvocation extends Invocation {
+        private final int method;
+
+        private EzInvocation(Executor target, int method, Object[] args) {
+            super(target, METHODS[method], args);
+            this.method = method;
+        }
+
+        @Override
+        @SuppressWarnings(value = {"rawtypes"})
+        public Object proceed() throws InvocationTargetException {
+            Executor target = (Executor) this.getTarget();
+            Object[] args = this.getArgs();
+            try {
+                switch (this.method) {
+                    case UPDATE:
+                        return target.update((MappedStatement) args[0], args[1]);
+                    case QUERY_WITH_KEY:
+                        return target.query((MappedStatement) args[0], args[1], (RowBounds) args[2],
+                                (ResultHandler) args[3], (CacheKey) args[4], (BoundSql) args[5]);
+                    case QUERY:
+                        return target.query((MappedStatement) args[0], args[1], (RowBounds) args[2],
+                                (ResultHandler) args[3]);
+                    case QUERY_CURSOR:
+                        return target.queryCursor((MappedStatement) args[0], args[1], (RowBounds) args[2]);
+                    case FLUSH_STATEMENTS:
+                        return target.flushStatements();
+                    case COMMIT:
+                        target.commit((Boolean) args[0]);
+                        return null;
+                    case ROLLBACK:
+                        target.rollback((Boolean) args[0]);
+                        return null;
+                    case CLOSE:
+                        target.close((Boolean) args[0]);
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException("unsupported method " + this.getMethod());
+                }
+            } catch (Throwable e) {
+                //与反射调用保持一致, 由外层统一解包
+                throw new InvocationTargetException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package org.rdlinux.ezmybatis.core.interceptor.executor;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.rdlinux.ezmybatis.core.EzContentConfig;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.mapper.EzBaseMapper;
+import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.core.mapper.provider.EzDeleteProvider;
+import org.rdlinux.ezmybatis.core.mapper.provider.EzInsertProvider;
+import org.rdlinux.ezmybatis.core.mapper.provider.EzUpdateProvider;
+import org.rdlinux.ezmybatis.core.scripting.EzLanguageDriver;
+import org.rdlinux.ezmybatis.utils.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * mapper方法调度信息, 每个MappedStatement只解析一次
+ */
+public class MapperMethodDispatch {
+    private static final Set<String> BASE_MAPPER_METHOD_NAMES = Arrays.stream(
+            EzBaseMapper.class.getDeclaredMethods()).map(Method::getName).collect(Collectors.toSet());
+    private static final Field HAS_NESTED_RESULT_MAPS_FIELD = ReflectionUtils.getField(ResultMap.class,
+            "hasNestedResultMaps");
+    /**
+     * mapper类型
+     */
+    private final Class<?> mapperClass;
+    /**
+     * 方法名称
+     */
+    private final String methodName;
+    /**
+     * 实体类型, 仅EzBaseMapper的方法有值
+     */
+    private final Class<?> entityClass;
+    /**
+     * 参数初始化方式
+     */
+    private final ParamInitType paramInitType;
+    /**
+     * 结果类型来源
+     */
+    private final RetTypeSource retTypeSource;
+    /**
+     * 是否是EzMapper或者EzBaseMapper的子接口, 结果集需要由ez处理
+     */
+    private final boolean ezMapper;
+    /**
+     * 是否是批量插入方法
+     */
+    private final boolean batchInsert;
+    /**
+     * 是否是根据实体批量更新或者批量替换方法
+     */
+    private final boolean batchUpdate;
+
+    private MapperMethodDispatch(Class<?> mapperClass, String methodName, Class<?> entityClass,
+                                 ParamInitType paramInitType, RetTypeSource retTypeSource, boolean ezMapper,
+                                 boolean batchInsert, boolean batchUpdate) {
+        this.mapperClass = mapperClass;
+        this.methodName = methodName;
+        this.entityClass = entityClass;
+        this.paramInitType = paramInitType;
+        this.retTypeSource = retTypeSource;
+        this.ezMapper = ezMapper;
+        this.batchInsert = batchInsert;
+        this.batchUpdate = batchUpdate;
+    }
+
+    /**
+     * 获取调度信息, 缓存在MappedStatement所属配置的{@link EzContentConfig}中, 解析过程不修改MappedStatement
+     */
+    public static MapperMethodDispatch forStatement(MappedStatement ms) throws ClassNotFoundException {
+        Map<MappedStatement, MapperMethodDispatch> dispatches = EzMybatisContent.getContentConfig(
+                ms.getConfiguration()).getMapperMethodDispatches();
+        MapperMethodDispatch dispatch = dispatches.get(ms);
+        if (dispatch != null) {
+            return dispatch;
+        }
+        try {
+            return dispatches.computeIfAbsent(ms, k -> {
+                try {
+                    return resolve(k);
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof ClassNotFoundException) {
+                throw (ClassNotFoundException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 注册ez mapper方法时调整MappedStatement: 替换语言驱动, 设置流式查询的fetchSize,
+     * 将需要动态设置结果类型的resultMap的hasNestedResultMaps设置为false; 在初始化与注册mapper时调用, 重复调用不做处理
+     */
+    public static void prepare(MappedStatement ms) {
+        String methodId = ms.getId();
+        int index = methodId.lastIndexOf(".");
+        if (index < 0) {
+            return;
+        }
+        Class<?> mapperClass;
+        try {
+            mapperClass = Class.forName(methodId.substring(0, index));
+        } catch (ClassNotFoundException e) {
+            return;
+        }
+        if (!EzBaseMapper.class.isAssignableFrom(mapperClass) && !EzMapper.class.isAssignableFrom(mapperClass)) {
+            return;
+        }
+        EzLanguageDriver.install(ms);
+        String methodName = methodId.substring(index + 1);
+        if (EzMapper.class.isAssignableFrom(mapperClass) && (methodName.equals(EzMapper.QUERY_CURSOR_METHOD) ||
+                methodName.equals(EzMapper.QUERY_STREAM_METHOD))) {
+            initStreamFetchSize(ms);
+        }
+        if (ms.getResultMaps() != null) {
+            for (ResultMap resultMap : ms.getResultMaps()) {
+                if (resultMap.hasNestedResultMaps() && retTypeSource(resultMap) != null) {
+                    ReflectionUtils.setFieldValue(resultMap, HAS_NESTED_RESULT_MAPS_FIELD, false);
+                }
+            }
+        }
+    }
+
+    private static MapperMethodDispatch resolve(MappedStatement ms) throws ClassNotFoundException {
+        String methodId = ms.getId();
+        int index = methodId.lastIndexOf(".");
+        String methodName = methodId.substring(index + 1);
+        String className = methodId.substring(0, index);
+        Class<?> mapperClass = Class.forName(className);
+        Class<?> entityClass = null;
+        ParamInitType paramInitType = ParamInitType.NONE;
+        //如果是EzBaseMapper的方法
+        if (EzBaseMapper.class.isAssignableFrom(mapperClass) && BASE_MAPPER_METHOD_NAMES.contains(methodName)) {
+            entityClass = ReflectionUtils.getGenericSuperinterface(mapperClass, 0, 0);
+            paramInitType = ParamInitType.BASE_MAPPER;
+        }
+        //如果是EzMapper
+        else if (EzMapper.class.isAssignableFrom(mapperClass)) {
+            //如果是根据实体删除
+            if (methodName.equals(EzDeleteProvider.DELETE_METHOD) ||
+                    methodName.equals(EzDeleteProvider.DELETE_BY_TABLE_METHOD)) {
+                paramInitType = ParamInitType.EZ_MAPPER_DELETE_ENTITY;
+            }
+            //如果是根据实体批量删除
+            else if (methodName.equals(EzDeleteProvider.BATCH_DELETE_METHOD) ||
+                    methodName.equals(EzDeleteProvider.BATCH_DELETE_BY_TABLE_METHOD)) {
+                paramInitType = ParamInitType.EZ_MAPPER_BATCH_DELETE_ENTITY;
+            } else {
+                paramInitType = ParamInitType.EZ_MAPPER;
+            }
+        }
+        boolean ezMapper = EzBaseMapper.class.isAssignableFrom(mapperClass) ||
+                EzMapper.class.isAssignableFrom(mapperClass);
+        boolean batchInsert = paramInitType != ParamInitType.NONE &&
+                (methodName.equals(EzInsertProvider.BATCH_INSERT_METHOD) ||
+                        methodName.equals(EzInsertProvider.BATCH_INSERT_BY_TABLE_METHOD));
+        boolean batchUpdate = paramInitType != ParamInitType.NONE &&
+                (methodName.equals(EzUpdateProvider.BATCH_UPDATE_METHOD) ||
+                        methodName.equals(EzUpdateProvider.BATCH_UPDATE_BY_TABLE_METHOD) ||
+                        methodName.equals(EzUpdateProvider.BATCH_REPLACE_METHOD) ||
+                        methodName.equals(EzUpdateProvider.BATCH_REPLACE_BY_TABLE_METHOD));
+        RetTypeSource retTypeSource = RetTypeSource.NONE;
+        if (ms.getResultMaps() != null) {
+            for (ResultMap resultMap : ms.getResultMaps()) {
+                RetTypeSource source = retTypeSource(resultMap);
+                if (source != null && source != RetTypeSource.NONE) {
+                    retTypeSource = source;
+                }
+            }
+        }
+        return new MapperMethodDispatch(mapperClass, methodName, entityClass, paramInitType, retTypeSource,
+                ezMapper, batchInsert, batchUpdate);
+    }
+
+    /**
+     * 设置流式查询的fetchSize, 注解上已指定时不做处理
+     */
+    private static void initStreamFetchSize(MappedStatement ms) {
+        if (ms.getFetchSize() != null) {
+            return;
+        }
+        int fetchSize = EzMybatisContent.getContentConfig(ms.getConfiguration()).getEzMybatisConfig()
+                .getStreamFetchSize();
+        if (fetchSize > 0) {
+            ReflectionUtils.setFieldValue(ms, "fetchSize", fetchSize);
+        }
+    }
+
+    /**
+     * 解析ez方法resultMap的结果类型来源, 需要将hasNestedResultMaps设置为false的resultMap返回非null
+     */
+    private static RetTypeSource retTypeSource(ResultMap resultMap) {
+        if (resultMap.getResultMappings() != null && !resultMap.getResultMappings().isEmpty()) {
+            return null;
+        }
+        String prefix = EzMapper.class.getName() + ".";
+        String id = resultMap.getId();
+        //泛型接口, 需要动态的设置返回结果类型，这两个接口的返回类型由query参数传入
+        if (id.startsWith(prefix + EzMapper.QUERY_METHOD + "-") ||
+                id.startsWith(prefix + EzMapper.QUERY_ONE_METHOD + "-") ||
+                id.startsWith(prefix + EzMapper.QUERY_CURSOR_METHOD + "-") ||
+                id.startsWith(prefix + EzMapper.QUERY_STREAM_METHOD + "-") ||
+                id.startsWith(prefix + EzMapper.QUERY_WITH_TOTAL_METHOD + "-")) {
+            return RetTypeSource.EZ_PARAM;
+        }
+        //泛型接口, 需要动态的设置返回结果类型，这两个接口的返回类型由参数传入
+        else if (id.startsWith(prefix + EzMapper.SELECT_ONE_OBJECT_BY_SQL_METHOD + "-") ||
+                id.startsWith(prefix + EzMapper.SELECT_OBJECT_BY_SQL_METHOD + "-")) {
+            return RetTypeSource.RET_PARAM;
+        }
+        //泛型接口, 需要动态的设置返回结果类型，这两个接口的返回类型是由参数参入的
+        else if (id.startsWith(prefix + EzMapper.SELECT_BY_ID_METHOD + "-") ||
+                id.startsWith(prefix + EzMapper.SELECT_BY_TABLE_AND_ID_METHOD + "-") ||
+                id.startsWith(prefix + EzMapper.SELECT_BY_IDS_METHOD + "-") ||
+                id.startsWith(prefix + EzMapper.SELECT_BY_TABLE_AND_IDS_METHOD + "-")) {
+            return RetTypeSource.ENTITY_CLASS;
+        }
+        //查询count、是否存在与估算总数, 需要把hasNestedResultMaps设置为false, 才能解析结果
+        else if (id.startsWith(prefix + EzMapper.QUERY_COUNT_METHOD + "-") ||
+                id.startsWith(prefix + EzMapper.QUERY_EXISTS_METHOD + "-") ||
+                id.startsWith(prefix + EzMapper.QUERY_APPROXIMATE_COUNT_METHOD + "-")) {
+            return RetTypeSource.NONE;
+        }
+        return null;
+    }
+
+    public Class<?> getMapperClass() {
+        return this.mapperClass;
+    }
+
+    public String getMethodName() {
+        return this.methodName;
+    }
+
+    public Class<?> getEntityClass() {
+        return this.entityClass;
+    }
+
+    public ParamInitType getParamInitType() {
+        return this.paramInitType;
+    }
+
+    public RetTypeSource getRetTypeSource() {
+        return this.retTypeSource;
+    }
+
+    public boolean isEzMapper() {
+        return this.ezMapper;
+    }
+
+    public boolean isBatchInsert() {
+        return this.batchInsert;
+    }
+
+    public boolean isBatchUpdate() {
+        return this.batchUpdate;
+    }
+
+    /**
+     * 参数初始化方式
+     */
+    public enum ParamInitType {
+        /**
+         * 不需要初始化
+         */
+        NONE,
+        /**
+         * EzBaseMapper的方法
+         */
+        BASE_MAPPER,
+        /**
+         * EzMapper的方法
+         */
+        EZ_MAPPER,
+        /**
+         * EzMapper根据实体删除
+         */
+        EZ_MAPPER_DELETE_ENTITY,
+        /**
+         * EzMapper根据实体批量删除
+         */
+        EZ_MAPPER_BATCH_DELETE_ENTITY
+    }
+
+    /**
+     * 结果类型来源
+     */
+    public enum RetTypeSource {
+        /**
+         * 使用resultMap自身的类型
+         */
+        NONE,
+        /**
+         * 由EzParam的结果类型决定
+         */
+        EZ_PARAM,
+        /**
+         * 由结果类型参数决定
+         */
+        RET_PARAM,
+        /**
+         * 由实体类型参数决定
+         */
+        ENTITY_CLASS
+    }
+}
@@ -1,98 +1,69 @@
 package org.rdlinux.ezmybatis.core.interceptor.executor;
 
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
-import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
 import org.rdlinux.ezmybatis.constant.EzMybatisConstant;
+import org.rdlinux.ezmybatis.core.EzExecutionContext;
 import org.rdlinux.ezmybatis.core.EzParam;
 import org.rdlinux.ezmybatis.core.interceptor.InterceptorLogic;
 import org.rdlinux.ezmybatis.core.interceptor.InterceptorLogicResult;
-import org.rdlinux.ezmybatis.core.mapper.EzMapper;
-import org.rdlinux.ezmybatis.utils.ReflectionUtils;
 
-import java.lang.reflect.Field;
+import java.sql.SQLException;
 import java.util.Map;
 
 public class ResultMapInitLogic implements InterceptorLogic {
-    /**
-     * 返回结果
-     */
-    public static final ThreadLocal<Class<?>> RET_TYPE_TL = new ThreadLocal<>();
-    private static final Field hasNestedResultMapsFiled = ReflectionUtils.getField(ResultMap.class,
-            "hasNestedResultMaps");
-
-    /**
-     * 获取结果类型
-     */
-    public static Class<?> getRetType(ResultMap resultMap) {
-        Class<?> retType = RET_TYPE_TL.get();
-        if (retType == null) {
-            retType = resultMap.getType();
-        }
-        return retType;
-    }
-
-    /**
-     * 清空结果类型
-     */
-    public static void cleanRetType() {
-        RET_TYPE_TL.remove();
-    }
-
     @Override
     @SuppressWarnings(value = {"rawtype", "unchecked"})
-    public InterceptorLogicResult invokeBefore(Invocation invocation) {
-        cleanRetType();
+    public InterceptorLogicResult invokeBefore(Invocation invocation) throws Throwable {
         if (!(invocation.getTarget() instanceof Executor)) {
             return new InterceptorLogicResult(true, null);
         }
         MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
-        if (ms.getResultMaps() == null) {
+        MapperMethodDispatch.RetTypeSource retTypeSource = MapperMethodDispatch.forStatement(ms).getRetTypeSource();
+        if (retTypeSource == MapperMethodDispatch.RetTypeSource.NONE) {
+            return new InterceptorLogicResult(true, null);
+        }
+        Map<String, Object> param = (Map<String, Object>) invocation.getArgs()[1];
+        Class<?> retType = null;
+        if (retTypeSource == MapperMethodDispatch.RetTypeSource.EZ_PARAM) {
+            EzParam<?> ezParam = (EzParam<?>) param.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM);
+            retType = ezParam.getRetType();
+        } else if (retTypeSource == MapperMethodDispatch.RetTypeSource.RET_PARAM) {
+            retType = (Class<?>) param.get(EzMybatisConstant.MAPPER_PARAM_RET);
+        } else if (retTypeSource == MapperMethodDispatch.RetTypeSource.ENTITY_CLASS) {
+            retType = (Class<?>) param.get(EzMybatisConstant.MAPPER_PARAM_ENTITY_CLASS);
+        }
+        //结果类型保存在本次调用的执行上下文中, 由结果集处理器从参数中读取
+        EzExecutionContext.of(param).setRetType(retType);
+        return this.appendRetTypeToCacheKey(invocation, ms, retType);
+    }
+
+    /**
+     * 相同的sql可能对应不同的结果类型, 需要将结果类型加入缓存key, 避免命中其它结果类型的一级缓存.<br/>
+     * 四个参数的查询由执行器内部创建缓存key, 此时与执行器的四个参数查询一样创建缓存key,
+     * 加入结果类型后调用下层执行器的六个参数查询, 后续逻辑只处理更新, 不受影响
+     */
+    private InterceptorLogicResult appendRetTypeToCacheKey(Invocation invocation, MappedStatement ms,
+                                                           Class<?> retType) throws SQLException {
+        Object[] args = invocation.getArgs();
+        if (retType == null || !invocation.getMethod().getName().equals("query")) {
             return new InterceptorLogicResult(true, null);
         }
-        for (ResultMap resultMap : ms.getResultMaps()) {
-            if (resultMap.getResultMappings() != null && !resultMap.getResultMappings().isEmpty()) {
-                continue;
-            }
-            //泛型接口, 需要动态的设置返回结果类型，这两个接口的返回类型由query参数传入
-            if (resultMap.getId().startsWith(EzMapper.class.getName() + "." + EzMapper.QUERY_METHOD + "-") ||
-                    resultMap.getId().startsWith(EzMapper.class.getName() + "." + EzMapper.QUERY_ONE_METHOD + "-")) {
-                Map<String, Object> param = (Map<String, Object>) invocation.getArgs()[1];
-                EzParam<?> ezParam = (EzParam<?>) param.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM);
-                RET_TYPE_TL.set(ezParam.getRetType());
-                ReflectionUtils.setFieldValue(resultMap, hasNestedResultMapsFiled, false);
-            }
-            //泛型接口, 需要动态的设置返回结果类型，这两个接口的返回类型由参数传入
-            if (resultMap.getId().startsWith(EzMapper.class.getName() + "." +
-                    EzMapper.SELECT_ONE_OBJECT_BY_SQL_METHOD + "-") ||
-                    resultMap.getId().startsWith(EzMapper.class.getName() + "." +
-                            EzMapper.SELECT_OBJECT_BY_SQL_METHOD + "-")) {
-                Map<String, Object> param = (Map<String, Object>) invocation.getArgs()[1];
-                Class<?> ezParam = (Class<?>) param.get(EzMybatisConstant.MAPPER_PARAM_RET);
-                RET_TYPE_TL.set(ezParam);
-                ReflectionUtils.setFieldValue(resultMap, hasNestedResultMapsFiled, false);
-            }
-            //泛型接口, 需要动态的设置返回结果类型，这两个接口的返回类型是由参数参入的
-            else if (resultMap.getId().startsWith(EzMapper.class.getName() + "." + EzMapper.SELECT_BY_ID_METHOD
-                    + "-") ||
-                    resultMap.getId().startsWith(EzMapper.class.getName() + "." +
-                            EzMapper.SELECT_BY_TABLE_AND_ID_METHOD + "-") ||
-                    resultMap.getId().startsWith(EzMapper.class.getName() + "." + EzMapper.SELECT_BY_IDS_METHOD
-                            + "-") ||
-                    resultMap.getId().startsWith(EzMapper.class.getName() + "." +
-                            EzMapper.SELECT_BY_TABLE_AND_IDS_METHOD + "-")) {
-                Map<String, Object> param = (Map<String, Object>) invocation.getArgs()[1];
-                Class<?> entityClass = (Class<?>) param.get(EzMybatisConstant.MAPPER_PARAM_ENTITY_CLASS);
-                RET_TYPE_TL.set(entityClass);
-                ReflectionUtils.setFieldValue(resultMap, hasNestedResultMapsFiled, false);
-            }
-            //查询count, 需要把hasNestedResultMaps设置为false, 才能解析结果
-            else if (resultMap.getId().startsWith(EzMapper.class.getName() + "." + EzMapper.QUERY_COUNT_METHOD
-                    + "-")) {
-                ReflectionUtils.setFieldValue(resultMap, hasNestedResultMapsFiled, false);
-            }
+        if (args.length == 6) {
+            ((CacheKey) args[4]).update(retType.getName());
+            return new InterceptorLogicResult(true, null);
         }
-        return new InterceptorLogicResult(true, null);
+        Executor executor = (Executor) invocation.getTarget();
+        RowBounds rowBounds = (RowBounds) args[2];
+        BoundSql boundSql = ms.getBoundSql(args[1]);
+        CacheKey cacheKey = executor.createCacheKey(ms, args[1], rowBounds, boundSql);
+        cacheKey.update(retType.getName());
+        return new InterceptorLogicResult(false, executor.query(ms, args[1], rowBounds, (ResultHandler<?>) args[3],
+                cacheKey, boundSql));
     }
 }
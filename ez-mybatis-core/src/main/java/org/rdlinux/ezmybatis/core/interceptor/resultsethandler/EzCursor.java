@@ -0,0 +1,97 @@
+package org.rdlinux.ezmybatis.core.interceptor.resultsethandler;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 游标包装, 按块从游标中预取结果并触发结果批量构建完成事件
+ */
+public class EzCursor<T> implements Cursor<T> {
+    private final Configuration configuration;
+    private final Cursor<T> delegate;
+    /**
+     * 每块结果数量
+     */
+    private final int chunkSize;
+    private boolean iteratorRetrieved = false;
+    /**
+     * 已取出的结果下标
+     */
+    private int currentIndex = -1;
+    private List<Object> chunk = new ArrayList<>();
+    private int chunkIndex = 0;
+
+    public EzCursor(Configuration configuration, Cursor<T> delegate, int chunkSize) {
+        this.configuration = configuration;
+        this.delegate = delegate;
+        this.chunkSize = Math.max(chunkSize, 1);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.delegate.isOpen();
+    }
+
+    @Override
+    public boolean isConsumed() {
+        return this.delegate.isConsumed() && this.chunkIndex >= this.chunk.size();
+    }
+
+    @Override
+    public int getCurrentIndex() {
+        return this.currentIndex;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.delegate.close();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        if (this.iteratorRetrieved) {
+            throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+        }
+        this.iteratorRetrieved = true;
+        Iterator<T> it = this.delegate.iterator();
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                if (EzCursor.this.chunkIndex < EzCursor.this.chunk.size()) {
+                    return true;
+                }
+                this.fetchChunk();
+                return EzCursor.this.chunkIndex < EzCursor.this.chunk.size();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                EzCursor.this.currentIndex++;
+                return (T) EzCursor.this.chunk.get(EzCursor.this.chunkIndex++);
+            }
+
+            private void fetchChunk() {
+                List<Object> chunk = new ArrayList<>(EzCursor.this.chunkSize);
+                while (chunk.size() < EzCursor.this.chunkSize && it.hasNext()) {
+                    chunk.add(it.next());
+                }
+                EzCursor.this.chunk = chunk;
+                EzCursor.this.chunkIndex = 0;
+                if (!chunk.isEmpty()) {
+                    EzMybatisContent.onBatchRetBuildDone(EzCursor.this.configuration, chunk);
+                }
+            }
+        };
+    }
+}
@@ -29,11 +29,13 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
 import org.apache.ibatis.util.MapUtil;
 import org.rdlinux.ezmybatis.constant.EzMybatisConstant;
 import org.rdlinux.ezmybatis.constant.MapRetKeyPattern;
+import org.rdlinux.ezmybatis.core.EzExecutionContext;
 import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.TotalCountList;
 import org.rdlinux.ezmybatis.core.classinfo.EzEntityClassInfoFactory;
+import org.rdlinux.ezmybatis.core.classinfo.FieldAccessor;
 import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityClassInfo;
 import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityFieldInfo;
-import org.rdlinux.ezmybatis.core.interceptor.executor.ResultMapInitLogic;
 import org.rdlinux.ezmybatis.utils.HumpLineStringUtils;
 
 import java.lang.reflect.Constructor;
@@ -58,6 +60,32 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
     private final TypeHandlerRegistry typeHandlerRegistry;
     private final ObjectFactory objectFactory;
     private final ReflectorFactory reflectorFactory;
+    /**
+     * 动态结果类型, 构造时从上下文中取出, 避免游标或者流式查询期间被其他查询覆盖
+     */
+    private final Class<?> retType;
+    /**
+     * 是否是游标查询, 游标查询的结果批量事件由{@link EzCursor}触发
+     */
+    private boolean cursorMode;
+    /**
+     * 预编译行映射器缓存
+     */
+    private final EzRowMapperCache rowMapperCache;
+    /**
+     * 当前结果集使用的行映射器, 同一结果集只解析一次
+     */
+    private ResultSetWrapper rowMapperRsw;
+    private Class<?> rowMapperType;
+    private EzRowMapper rowMapper;
+    /**
+     * 当前结果集中的分页总数列, 不存在时为null
+     */
+    private String pageTotalColumn;
+    /**
+     * 分页总数, 从第一行数据中读取, 没有数据时为-1
+     */
+    private long pageTotal = -1;
 
     // nested resultmaps
     private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
@@ -85,12 +113,16 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
         private final String property;
         private final TypeHandler<?> typeHandler;
         private final boolean primitive;
+        //TODO 预编译的属性访问器, 为空时使用MetaObject设置属性
+        private final FieldAccessor accessor;
 
-        public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
+        public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive,
+                                         FieldAccessor accessor) {
             this.column = column;
             this.property = property;
             this.typeHandler = typeHandler;
             this.primitive = primitive;
+            this.accessor = accessor;
         }
     }
 
@@ -107,6 +139,19 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
         this.objectFactory = this.configuration.getObjectFactory();
         this.reflectorFactory = this.configuration.getReflectorFactory();
         this.resultHandler = resultHandler;
+        EzExecutionContext context = EzExecutionContext.find(boundSql.getParameterObject());
+        this.retType = context == null ? null : context.getRetType();
+        this.rowMapperCache = EzMybatisContent.getContentConfig(this.configuration).getRowMapperCache();
+    }
+
+    /**
+     * 获取结果类型
+     */
+    private Class<?> getRetType(ResultMap resultMap) {
+        if (this.retType != null) {
+            return this.retType;
+        }
+        return resultMap.getType();
     }
 
     //
@@ -192,7 +237,6 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
         }
         //TODO，清理返回结果
         List<Object> objects = this.collapseSingleResultList(multipleResults);
-        ResultMapInitLogic.cleanRetType();
         return objects;
     }
 
@@ -211,7 +255,9 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
         }
 
         ResultMap resultMap = resultMaps.get(0);
-        return new DefaultCursor<>(this, resultMap, rsw, this.rowBounds);
+        this.cursorMode = true;
+        return new EzCursor<>(this.configuration, new DefaultCursor<>(this, resultMap, rsw, this.rowBounds),
+                EzMybatisContent.getContentConfig(this.configuration).getEzMybatisConfig().getStreamRetChunkSize());
     }
 
     private ResultSetWrapper getFirstResultSet(Statement stmt) throws SQLException {
@@ -280,8 +326,15 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
                 this.handleRowValues(rsw, resultMap, null, RowBounds.DEFAULT, parentMapping);
             } else if (this.resultHandler == null) {
                 DefaultResultHandler defaultResultHandler = new DefaultResultHandler(this.objectFactory);
+                this.pageTotalColumn = this.getPageTotalColumn(rsw);
                 this.handleRowValues(rsw, resultMap, defaultResultHandler, this.rowBounds, null);
-                multipleResults.add(defaultResultHandler.getResultList());
+                if (this.pageTotalColumn != null) {
+                    multipleResults.add(new TotalCountList<>(defaultResultHandler.getResultList(), this.pageTotal));
+                    this.pageTotalColumn = null;
+                    this.pageTotal = -1;
+                } else {
+                    multipleResults.add(defaultResultHandler.getResultList());
+                }
             } else {
                 this.handleRowValues(rsw, resultMap, this.resultHandler, this.rowBounds, null);
             }
@@ -291,6 +344,20 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
         }
     }
 
+    /**
+     * 获取结果集中的分页总数列
+     */
+    private String getPageTotalColumn(ResultSetWrapper rsw) {
+        //总数列追加在查询项之后, oracle分页时其后还可能有rownum列, 从后向前查找
+        List<String> columnNames = rsw.getColumnNames();
+        for (int i = columnNames.size() - 1; i >= 0 && i >= columnNames.size() - 2; i--) {
+            if (EzMybatisConstant.PAGE_TOTAL_ALIAS.equalsIgnoreCase(columnNames.get(i))) {
+                return columnNames.get(i);
+            }
+        }
+        return null;
+    }
+
     @SuppressWarnings("unchecked")
     private List<Object> collapseSingleResultList(List<Object> multipleResults) {
         return multipleResults.size() == 1 ? (List<Object>) multipleResults.get(0) : multipleResults;
@@ -336,15 +403,35 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
         DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
         ResultSet resultSet = rsw.getResultSet();
         this.skipRows(resultSet, rowBounds);
+        //自定义结果处理器不会持有全部结果, 结果批量事件按块触发, 游标查询的结果批量事件由游标触发
+        int chunkSize = Integer.MAX_VALUE;
+        if (this.cursorMode) {
+            chunkSize = 0;
+        } else if (!(resultHandler instanceof DefaultResultHandler)) {
+            int streamRetChunkSize = EzMybatisContent.getContentConfig(this.configuration).getEzMybatisConfig()
+                    .getStreamRetChunkSize();
+            if (streamRetChunkSize > 0) {
+                chunkSize = streamRetChunkSize;
+            }
+        }
         List<Object> ret = new ArrayList<>();
         while (this.shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
+            if (this.pageTotalColumn != null && this.pageTotal < 0) {
+                this.pageTotal = resultSet.getLong(this.pageTotalColumn);
+            }
             ResultMap discriminatedResultMap = this.resolveDiscriminatedResultMap(resultSet, resultMap, null);
             Object rowValue = this.getRowValue(rsw, discriminatedResultMap, null);
             //TODO 调用单条组结果对象装完成事件
             rowValue = EzMybatisContent.onRetBuildDone(this.configuration, rowValue);
             this.storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
-            //TODO 暂存结果等待调用事件
-            ret.add(rowValue);
+            if (chunkSize > 0) {
+                //TODO 暂存结果等待调用事件
+                ret.add(rowValue);
+                if (ret.size() >= chunkSize) {
+                    EzMybatisContent.onBatchRetBuildDone(this.configuration, ret);
+                    ret = new ArrayList<>();
+                }
+            }
         }
         if (!ret.isEmpty()) {
             //TODO 调用全部组结果对象装完成事件
@@ -394,8 +481,15 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
         final ResultLoaderMap lazyLoader = new ResultLoaderMap();
         Object rowValue = this.createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
         //TODO 获取结果类型
-        Class<?> retType = ResultMapInitLogic.getRetType(resultMap);
+        Class<?> retType = this.getRetType(resultMap);
         if (rowValue != null && !this.hasTypeHandlerForResultObject(rsw, retType)) {
+            //TODO 优先使用预编译的行映射器
+            EzRowMapper rowMapper = this.getRowMapper(rsw, resultMap, rowValue, columnPrefix);
+            if (rowMapper != null) {
+                boolean foundValues = rowMapper.map(rsw.getResultSet(), rowValue,
+                        this.configuration.isCallSettersOnNulls());
+                return foundValues || this.configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
+            }
             final MetaObject metaObject = this.configuration.newMetaObject(rowValue);
             boolean foundValues = this.useConstructorMappings;
             if (this.shouldApplyAutomaticMappings(resultMap, false)) {
@@ -408,6 +502,72 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
         return rowValue;
     }
 
+    /**
+     * TODO 获取预编译的行映射器, 只有完全自动映射的普通对象才能使用, 否则返回null
+     */
+    private EzRowMapper getRowMapper(ResultSetWrapper rsw, ResultMap resultMap, Object rowValue, String columnPrefix)
+            throws SQLException {
+        if (this.rowMapperCache == null || this.useConstructorMappings || columnPrefix != null
+                || !resultMap.getResultMappings().isEmpty() || rowValue instanceof Map
+                || !this.shouldApplyAutomaticMappings(resultMap, false)
+                || this.configuration.getObjectWrapperFactory().hasWrapperFor(rowValue)) {
+            return null;
+        }
+        if (this.rowMapperRsw != rsw || this.rowMapperType != rowValue.getClass()) {
+            String columnSignature = this.getColumnSignature(rsw);
+            EzRowMapper rowMapper = this.rowMapperCache.get(rowValue.getClass(), columnSignature);
+            if (rowMapper == null) {
+                rowMapper = this.compileRowMapper(rsw, resultMap, rowValue);
+                this.rowMapperCache.put(rowValue.getClass(), columnSignature, rowMapper);
+            }
+            this.rowMapperRsw = rsw;
+            this.rowMapperType = rowValue.getClass();
+            this.rowMapper = rowMapper;
+        }
+        return this.rowMapper == EzRowMapper.NONE ? null : this.rowMapper;
+    }
+
+    /**
+     * 结果集列签名, 由列名、jdbc类型与java类型组成
+     */
+    private String getColumnSignature(ResultSetWrapper rsw) {
+        List<String> columnNames = rsw.getColumnNames();
+        List<JdbcType> jdbcTypes = rsw.getJdbcTypes();
+        List<String> classNames = rsw.getClassNames();
+        StringBuilder signature = new StringBuilder(columnNames.size() * 24);
+        for (int i = 0; i < columnNames.size(); i++) {
+            signature.append(columnNames.get(i)).append(':').append(jdbcTypes.get(i)).append(':')
+                    .append(classNames.get(i)).append(';');
+        }
+        return signature.toString();
+    }
+
+    /**
+     * 根据自动映射信息编译行映射器, 存在无法直接设置的属性时返回{@link EzRowMapper#NONE}
+     */
+    private EzRowMapper compileRowMapper(ResultSetWrapper rsw, ResultMap resultMap, Object rowValue)
+            throws SQLException {
+        final MetaObject metaObject = this.configuration.newMetaObject(rowValue);
+        List<UnMappedColumnAutoMapping> autoMapping = this.createAutomaticMappings(rsw, resultMap, metaObject, null);
+        List<String> columnNames = rsw.getColumnNames();
+        int[] columnIndexes = new int[autoMapping.size()];
+        TypeHandler<?>[] typeHandlers = new TypeHandler<?>[autoMapping.size()];
+        FieldAccessor[] accessors = new FieldAccessor[autoMapping.size()];
+        boolean[] primitives = new boolean[autoMapping.size()];
+        for (int i = 0; i < autoMapping.size(); i++) {
+            UnMappedColumnAutoMapping mapping = autoMapping.get(i);
+            int columnIndex = columnNames.indexOf(mapping.column);
+            if (mapping.accessor == null || columnIndex < 0) {
+                return EzRowMapper.NONE;
+            }
+            columnIndexes[i] = columnIndex + 1;
+            typeHandlers[i] = mapping.typeHandler;
+            accessors[i] = mapping.accessor;
+            primitives[i] = mapping.primitive;
+        }
+        return new EzRowMapper(columnIndexes, typeHandlers, accessors, primitives);
+    }
+
     //
     // GET VALUE FROM ROW FOR NESTED RESULT MAP
     //
@@ -425,7 +585,7 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
             final ResultLoaderMap lazyLoader = new ResultLoaderMap();
             rowValue = this.createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
             //TODO 获取结果类型
-            Class<?> retType = ResultMapInitLogic.getRetType(resultMap);
+            Class<?> retType = this.getRetType(resultMap);
             if (rowValue != null && !this.hasTypeHandlerForResultObject(rsw, retType)) {
                 final MetaObject metaObject = this.configuration.newMetaObject(rowValue);
                 boolean foundValues = this.useConstructorMappings;
@@ -561,8 +721,8 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
                     }
                     //TODO 修改类型处理器
                     if (typeHandler != null) {
-                        autoMapping
-                                .add(new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive()));
+                        autoMapping.add(new UnMappedColumnAutoMapping(columnName, property, typeHandler,
+                                propertyType.isPrimitive(), this.getFieldAccessor(metaObject, property)));
                     } else {
                         this.configuration.getAutoMappingUnknownColumnBehavior().doAction(this.mappedStatement, columnName, property,
                                 propertyType);
@@ -577,6 +737,22 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
         return autoMapping;
     }
 
+    /**
+     * 获取结果对象的属性访问器, map、自定义包装对象以及嵌套属性返回null
+     */
+    private FieldAccessor getFieldAccessor(MetaObject metaObject, String property) {
+        Object object = metaObject.getOriginalObject();
+        if (object instanceof Map || property.indexOf('.') >= 0
+                || this.configuration.getObjectWrapperFactory().hasWrapperFor(object)) {
+            return null;
+        }
+        FieldAccessor accessor = FieldAccessor.forProperty(object.getClass(), property);
+        if (accessor == null || !accessor.canSet()) {
+            return null;
+        }
+        return accessor;
+    }
+
     private boolean applyAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject,
                                            String columnPrefix) throws SQLException {
         List<UnMappedColumnAutoMapping> autoMapping = this.createAutomaticMappings(rsw, resultMap, metaObject, columnPrefix);
@@ -589,7 +765,12 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
                 }
                 if (value != null || this.configuration.isCallSettersOnNulls() && !mapping.primitive) {
                     // gcode issue #377, call setter on nulls (value is not 'found')
-                    metaObject.setValue(mapping.property, value);
+                    //TODO 优先使用预编译的属性访问器
+                    if (mapping.accessor != null) {
+                        mapping.accessor.set(metaObject.getOriginalObject(), value);
+                    } else {
+                        metaObject.setValue(mapping.property, value);
+                    }
                 }
             }
         }
@@ -658,7 +839,7 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
         final List<Object> constructorArgs = new ArrayList<>();
         Object resultObject = this.createResultObject(rsw, resultMap, constructorArgTypes, constructorArgs, columnPrefix);
         //TODO 获取结果类型
-        Class<?> retType = ResultMapInitLogic.getRetType(resultMap);
+        Class<?> retType = this.getRetType(resultMap);
         if (resultObject != null && !this.hasTypeHandlerForResultObject(rsw, retType)) {
             final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
             for (ResultMapping propertyMapping : propertyMappings) {
@@ -678,7 +859,7 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
                                       List<Object> constructorArgs, String columnPrefix) throws SQLException {
         //TODO 获取结果类型
         //final Class<?> resultType = resultMap.getType();
-        Class<?> resultType = ResultMapInitLogic.getRetType(resultMap);
+        Class<?> resultType = this.getRetType(resultMap);
         final MetaClass metaType = MetaClass.forClass(resultType, this.reflectorFactory);
         final List<ResultMapping> constructorMappings = resultMap.getConstructorResultMappings();
         if (this.hasTypeHandlerForResultObject(rsw, resultType)) {
@@ -854,7 +1035,7 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
             throws SQLException {
         //TODO 获取结果类型
         //final Class<?> resultType = resultMap.getType();
-        Class<?> resultType = ResultMapInitLogic.getRetType(resultMap);
+        Class<?> resultType = this.getRetType(resultMap);
         final String columnName;
         if (!resultMap.getResultMappings().isEmpty()) {
             final List<ResultMapping> resultMappingList = resultMap.getResultMappings();
@@ -1141,7 +1322,7 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
         List<ResultMapping> resultMappings = this.getResultMappingsForRowKey(resultMap);
         if (resultMappings.isEmpty()) {
             //TODO 获取结果类型
-            Class<?> resultType = ResultMapInitLogic.getRetType(resultMap);
+            Class<?> resultType = this.getRetType(resultMap);
             if (Map.class.isAssignableFrom(resultType)) {
                 this.createRowKeyForMap(rsw, cacheKey);
             } else {
@@ -1200,7 +1381,7 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
     private void createRowKeyForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey,
                                                    String columnPrefix) throws SQLException {
         //TODO 获取结果类型
-        Class<?> resultType = ResultMapInitLogic.getRetType(resultMap);
+        Class<?> resultType = this.getRetType(resultMap);
         final MetaClass metaType = MetaClass.forClass(resultType, this.reflectorFactory);
         List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
         for (String column : unmappedColumnNames) {
@@ -1279,7 +1460,8 @@ public class EzResultSetHandler extends DefaultResultSetHandler {
      * TODO 结果列转为结果对象属性
      */
     private String retColumnToField(String column, MetaObject metaObject) {
-        if (EzMybatisConstant.ORACLE_ROW_NUM_ALIAS.equals(column)) {
+        if (EzMybatisConstant.ORACLE_ROW_NUM_ALIAS.equals(column) ||
+                EzMybatisConstant.PAGE_TOTAL_ALIAS.equalsIgnoreCase(column)) {
             return null;
         }
         String property;
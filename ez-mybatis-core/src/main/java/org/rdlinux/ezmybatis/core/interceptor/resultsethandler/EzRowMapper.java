@@ -0,0 +1,53 @@
+package org.rdlinux.ezmybatis.core.interceptor.resultsethandler;
+
+import org.apache.ibatis.type.TypeHandler;
+import org.rdlinux.ezmybatis.core.classinfo.FieldAccessor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 预编译的行映射器, 按列下标取值并直接通过属性访问器设置到结果对象
+ */
+public class EzRowMapper {
+    /**
+     * 无法预编译时的占位
+     */
+    static final EzRowMapper NONE = new EzRowMapper(new int[0], new TypeHandler<?>[0], new FieldAccessor[0],
+            new boolean[0]);
+    /**
+     * 列下标, 从1开始
+     */
+    private final int[] columnIndexes;
+    private final TypeHandler<?>[] typeHandlers;
+    private final FieldAccessor[] accessors;
+    private final boolean[] primitives;
+
+    EzRowMapper(int[] columnIndexes, TypeHandler<?>[] typeHandlers, FieldAccessor[] accessors,
+                boolean[] primitives) {
+        this.columnIndexes = columnIndexes;
+        this.typeHandlers = typeHandlers;
+        this.accessors = accessors;
+        this.primitives = primitives;
+    }
+
+    /**
+     * 将当前行映射到结果对象
+     *
+     * @param callSettersOnNulls 空值是否调用set方法
+     * @return 是否有非空值
+     */
+    boolean map(ResultSet rs, Object rowValue, boolean callSettersOnNulls) throws SQLException {
+        boolean foundValues = false;
+        for (int i = 0; i < this.columnIndexes.length; i++) {
+            Object value = this.typeHandlers[i].getResult(rs, this.columnIndexes[i]);
+            if (value != null) {
+                foundValues = true;
+            }
+            if (value != null || callSettersOnNulls && !this.primitives[i]) {
+                this.accessors[i].set(rowValue, value);
+            }
+        }
+        return foundValues;
+    }
+}
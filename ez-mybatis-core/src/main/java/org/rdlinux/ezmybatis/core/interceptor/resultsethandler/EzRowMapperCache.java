@@ -0,0 +1,67 @@
+package org.rdlinux.ezmybatis.core.interceptor.resultsethandler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 预编译行映射器缓存, 按结果类型与结果集列签名缓存, 在多次查询之间共享
+ */
+public class EzRowMapperCache {
+    /**
+     * 最大缓存数量, 超出后清空重建
+     */
+    private static final int MAX_SIZE = 4096;
+    private final Map<Key, EzRowMapper> rowMappers = new ConcurrentHashMap<>();
+
+    EzRowMapper get(Class<?> retType, String columnSignature) {
+        return this.rowMappers.get(new Key(retType, columnSignature));
+    }
+
+    void put(Class<?> retType, String columnSignature, EzRowMapper rowMapper) {
+        if (this.rowMappers.size() >= MAX_SIZE) {
+            this.rowMappers.clear();
+        }
+        this.rowMappers.put(new Key(retType, columnSignature), rowMapper);
+    }
+
+    /**
+     * 获取当前缓存数量
+     */
+    public int size() {
+        return this.rowMappers.size();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        this.rowMappers.clear();
+    }
+
+    private static class Key {
+        private final Class<?> retType;
+        private final String columnSignature;
+
+        private Key(Class<?> retType, String columnSignature) {
+            this.retType = retType;
+            this.columnSignature = columnSignature;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return this.retType == key.retType && this.columnSignature.equals(key.columnSignature);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.retType.hashCode() + this.columnSignature.hashCode();
+        }
+    }
+}
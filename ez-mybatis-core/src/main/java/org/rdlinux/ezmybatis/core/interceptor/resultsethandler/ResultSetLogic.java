@@ -10,14 +10,14 @@ import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.rdlinux.ezmybatis.core.interceptor.InterceptorLogic;
 import org.rdlinux.ezmybatis.core.interceptor.InterceptorLogicResult;
-import org.rdlinux.ezmybatis.core.mapper.EzBaseMapper;
-import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.core.interceptor.executor.MapperMethodDispatch;
 import org.rdlinux.ezmybatis.utils.ReflectionUtils;
 
 import java.lang.reflect.Field;
 import java.sql.Statement;
 
 public class ResultSetLogic implements InterceptorLogic {
+    public static final String HANDLE_CURSOR_RESULT_SETS_METHOD = "handleCursorResultSets";
     private static final Field executorField = ReflectionUtils.getField(DefaultResultSetHandler.class,
             "executor");
     private static final Field mappedStatementField = ReflectionUtils.getField(DefaultResultSetHandler.class,
@@ -35,17 +35,11 @@ public class ResultSetLogic implements InterceptorLogic {
     public InterceptorLogicResult invokeBefore(Invocation invocation) throws Throwable {
         if (invocation.getTarget() instanceof DefaultResultSetHandler) {
             DefaultResultSetHandler resultSetHandler = (DefaultResultSetHandler) invocation.getTarget();
-            MappedStatement mappedStatement = ReflectionUtils.getFieldValue(resultSetHandler,
-                    "mappedStatement");
-            String methodId = mappedStatement.getId();
-            int index = methodId.lastIndexOf(".");
-            String className = methodId.substring(0, index);
-            Class<?> mapperClass = Class.forName(className);
-            if (!EzBaseMapper.class.isAssignableFrom(mapperClass) && !EzMapper.class.isAssignableFrom(mapperClass)) {
+            MappedStatement ms = ReflectionUtils.getFieldValue(resultSetHandler, mappedStatementField);
+            if (!MapperMethodDispatch.forStatement(ms).isEzMapper()) {
                 return new InterceptorLogicResult(true, null);
             }
             Executor executor = ReflectionUtils.getFieldValue(resultSetHandler, executorField);
-            MappedStatement ms = ReflectionUtils.getFieldValue(resultSetHandler, mappedStatementField);
             ParameterHandler parameterHandler = ReflectionUtils.getFieldValue(resultSetHandler, parameterHandlerField);
             ResultHandler<?> resultHandler = ReflectionUtils.getFieldValue(resultSetHandler, resultHandlerField);
             BoundSql boundSql = ReflectionUtils.getFieldValue(resultSetHandler, boundSqlField);
@@ -53,6 +47,9 @@ public class ResultSetLogic implements InterceptorLogic {
             EzResultSetHandler ezResultSetHandler = new EzResultSetHandler(executor, ms, parameterHandler,
                     resultHandler, boundSql, rowBounds);
             Statement statement = (Statement) invocation.getArgs()[0];
+            if (HANDLE_CURSOR_RESULT_SETS_METHOD.equals(invocation.getMethod().getName())) {
+                return new InterceptorLogicResult(false, ezResultSetHandler.handleCursorResultSets(statement));
+            }
             return new InterceptorLogicResult(false, ezResultSetHandler.handleResultSets(statement));
         }
         return new InterceptorLogicResult(true, null);
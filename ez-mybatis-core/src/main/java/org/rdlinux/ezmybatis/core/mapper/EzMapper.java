@@ -1,11 +1,16 @@
 package org.rdlinux.ezmybatis.core.mapper;
 
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 import org.rdlinux.ezmybatis.annotation.MethodName;
 import org.rdlinux.ezmybatis.constant.EzMybatisConstant;
 import org.rdlinux.ezmybatis.core.EzDelete;
 import org.rdlinux.ezmybatis.core.EzQuery;
 import org.rdlinux.ezmybatis.core.EzUpdate;
+import org.rdlinux.ezmybatis.core.PageResult;
+import org.rdlinux.ezmybatis.core.TotalCountList;
 import org.rdlinux.ezmybatis.core.mapper.provider.EzDeleteProvider;
 import org.rdlinux.ezmybatis.core.mapper.provider.EzInsertProvider;
 import org.rdlinux.ezmybatis.core.mapper.provider.EzSelectProvider;
@@ -26,6 +31,11 @@ public interface EzMapper {
     String QUERY_METHOD = "query";
     String QUERY_ONE_METHOD = "queryOne";
     String QUERY_COUNT_METHOD = "queryCount";
+    String QUERY_EXISTS_METHOD = "queryExists";
+    String QUERY_WITH_TOTAL_METHOD = "queryWithTotal";
+    String QUERY_APPROXIMATE_COUNT_METHOD = "queryApproximateCount";
+    String QUERY_CURSOR_METHOD = "queryCursor";
+    String QUERY_STREAM_METHOD = "queryStream";
     String SELECT_BY_ID_METHOD = "selectById";
     String SELECT_BY_TABLE_AND_ID_METHOD = "selectByTableAndId";
     String SELECT_BY_IDS_METHOD = "selectByIds";
@@ -112,6 +122,26 @@ public interface EzMapper {
     @SelectProvider(type = EzSelectProvider.class, method = EzSelectProvider.QUERY_METHOD)
     <Rt> Rt queryOne(@Param(EzMybatisConstant.MAPPER_PARAM_EZPARAM) EzQuery<Rt> query);
 
+    /**
+     * 游标查询, 结果集为只进只读, 需要在事务或者SqlSession打开期间遍历,
+     * 使用{@link org.rdlinux.ezmybatis.EzMybatisConfig#getStreamFetchSize()}作为jdbc fetchSize
+     */
+    @MethodName(QUERY_CURSOR_METHOD)
+    @SelectProvider(type = EzSelectProvider.class, method = EzSelectProvider.QUERY_METHOD)
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY)
+    <Rt> Cursor<Rt> queryCursor(@Param(EzMybatisConstant.MAPPER_PARAM_EZPARAM) EzQuery<Rt> query);
+
+    /**
+     * 流式查询, 每条结果交由resultHandler处理, 不会在内存中保留全部结果,
+     * 使用{@link org.rdlinux.ezmybatis.EzMybatisConfig#getStreamFetchSize()}作为jdbc fetchSize
+     */
+    @MethodName(QUERY_STREAM_METHOD)
+    @SelectProvider(type = EzSelectProvider.class, method = EzSelectProvider.QUERY_METHOD)
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY)
+    @ResultType(Object.class)
+    <Rt> void queryStream(@Param(EzMybatisConstant.MAPPER_PARAM_EZPARAM) EzQuery<Rt> query,
+                          ResultHandler<Rt> resultHandler);
+
     /**
      * 根据ezQuery查询count
      */
@@ -119,6 +149,52 @@ public interface EzMapper {
     @SelectProvider(type = EzSelectProvider.class, method = EzSelectProvider.QUERY_COUNT_METHOD)
     int queryCount(@Param(EzMybatisConstant.MAPPER_PARAM_EZPARAM) EzQuery<?> query);
 
+    /**
+     * 根据ezQuery判断是否存在数据, 存在时返回1, 否则返回null, 推荐使用{@link #exists(EzQuery)}
+     */
+    @MethodName(QUERY_EXISTS_METHOD)
+    @SelectProvider(type = EzSelectProvider.class, method = EzSelectProvider.QUERY_EXISTS_METHOD)
+    Integer queryExists(@Param(EzMybatisConstant.MAPPER_PARAM_EZPARAM) EzQuery<?> query);
+
+    /**
+     * 根据ezQuery判断是否存在数据, 只查询一行, 不统计总数
+     */
+    default boolean exists(EzQuery<?> query) {
+        return this.queryExists(query) != null;
+    }
+
+    /**
+     * 分页查询, 数据库支持窗口函数时使用COUNT(*) OVER()在同一条sql中返回总数, 返回的列表为{@link TotalCountList},
+     * 不支持时列表不携带总数, 推荐使用{@link #queryPage(EzQuery)}
+     */
+    @MethodName(QUERY_WITH_TOTAL_METHOD)
+    @SelectProvider(type = EzSelectProvider.class, method = EzSelectProvider.QUERY_WITH_TOTAL_METHOD)
+    <Rt> List<Rt> queryWithTotal(@Param(EzMybatisConstant.MAPPER_PARAM_EZPARAM) EzQuery<Rt> query);
+
+    /**
+     * 从数据库统计信息中读取表的估算行数, 没有统计信息或者估算行数小于
+     * {@link org.rdlinux.ezmybatis.EzMybatisConfig#getApproximateCountThreshold()}时返回null
+     */
+    @MethodName(QUERY_APPROXIMATE_COUNT_METHOD)
+    @SelectProvider(type = EzSelectProvider.class, method = EzSelectProvider.QUERY_APPROXIMATE_COUNT_METHOD)
+    Long queryApproximateCount(@Param(EzMybatisConstant.MAPPER_PARAM_TABLE) Table table);
+
+    /**
+     * 分页查询数据与总数, 本页数据不满一页时直接推算总数, 不再查询count
+     */
+    default <Rt> PageResult<Rt> queryPage(EzQuery<Rt> query) {
+        return EzPageQueryExecutor.queryPage(this, query, false);
+    }
+
+    /**
+     * 分页查询数据与总数
+     *
+     * @param approximateCount 是否估算总数, 开启后没有过滤条件的单表查询从数据库统计信息中读取总数
+     */
+    default <Rt> PageResult<Rt> queryPage(EzQuery<Rt> query, boolean approximateCount) {
+        return EzPageQueryExecutor.queryPage(this, query, approximateCount);
+    }
+
     /**
      * 根据更新参数更新
      */
@@ -179,13 +255,15 @@ public interface EzMapper {
                       @Param(EzMybatisConstant.MAPPER_PARAM_ENTITY) Object model);
 
     /**
-     * 批量插入, 实体总属性控制在5000个以下, 一个批次保存效率最高
+     * 批量插入, 实体总属性控制在5000个以下, 一个批次保存效率最高.<br/>
+     * 超出数据库单条sql参数限制时按块拆分为多条sql执行, 不在事务中调用时某一块失败不会回滚之前的块
      */
     @InsertProvider(type = EzInsertProvider.class, method = EzInsertProvider.BATCH_INSERT_METHOD)
     int batchInsert(@Param(EzMybatisConstant.MAPPER_PARAM_ENTITYS) Collection<?> models);
 
     /**
-     * 批量插入, 指定表, 实体总属性控制在5000个以下, 一个批次保存效率最高
+     * 批量插入, 指定表, 实体总属性控制在5000个以下, 一个批次保存效率最高.<br/>
+     * 超出数据库单条sql参数限制时按块拆分为多条sql执行, 不在事务中调用时某一块失败不会回滚之前的块
      */
     @InsertProvider(type = EzInsertProvider.class, method = EzInsertProvider.BATCH_INSERT_BY_TABLE_METHOD)
     int batchInsertByTable(@Param(EzMybatisConstant.MAPPER_PARAM_TABLE) Table table,
@@ -219,13 +297,15 @@ public interface EzMapper {
                       @Param(EzMybatisConstant.MAPPER_PARAM_ENTITY) Object entity);
 
     /**
-     * 批量更新, 只更新非空字段
+     * 批量更新, 只更新非空字段.<br/>
+     * 超出数据库单条sql参数限制时按块拆分为多条sql执行, 不在事务中调用时某一块失败不会回滚之前的块
      */
     @UpdateProvider(type = EzUpdateProvider.class, method = EzUpdateProvider.BATCH_UPDATE_METHOD)
     int batchUpdate(@Param(EzMybatisConstant.MAPPER_PARAM_ENTITYS) Collection<?> entitys);
 
     /**
-     * 批量更新, 只更新非空字段
+     * 批量更新, 只更新非空字段.<br/>
+     * 超出数据库单条sql参数限制时按块拆分为多条sql执行, 不在事务中调用时某一块失败不会回滚之前的块
      */
     @UpdateProvider(type = EzUpdateProvider.class, method = EzUpdateProvider.BATCH_UPDATE_BY_TABLE_METHOD)
     int batchUpdateByTable(@Param(EzMybatisConstant.MAPPER_PARAM_TABLE) Table table,
@@ -245,13 +325,15 @@ public interface EzMapper {
                        @Param(EzMybatisConstant.MAPPER_PARAM_ENTITY) Object entity);
 
     /**
-     * 批量更新, 更新所有字段
+     * 批量更新, 更新所有字段.<br/>
+     * 超出数据库单条sql参数限制时按块拆分为多条sql执行, 不在事务中调用时某一块失败不会回滚之前的块
      */
     @UpdateProvider(type = EzUpdateProvider.class, method = EzUpdateProvider.BATCH_REPLACE_METHOD)
     int batchReplace(@Param(EzMybatisConstant.MAPPER_PARAM_ENTITYS) Collection<?> entitys);
 
     /**
-     * 批量更新, 更新所有字段
+     * 批量更新, 更新所有字段.<br/>
+     * 超出数据库单条sql参数限制时按块拆分为多条sql执行, 不在事务中调用时某一块失败不会回滚之前的块
      */
     @UpdateProvider(type = EzUpdateProvider.class, method = EzUpdateProvider.BATCH_REPLACE_BY_TABLE_METHOD)
     int batchReplaceByTable(@Param(EzMybatisConstant.MAPPER_PARAM_TABLE) Table table,
@@ -0,0 +1,86 @@
+package org.rdlinux.ezmybatis.core.mapper;
+
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.PageResult;
+import org.rdlinux.ezmybatis.core.TotalCountList;
+import org.rdlinux.ezmybatis.core.sqlstruct.KeysetPage;
+import org.rdlinux.ezmybatis.core.sqlstruct.Page;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.DbTable;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
+import org.rdlinux.ezmybatis.utils.Assert;
+
+import java.util.List;
+
+/**
+ * 分页查询执行器, 按以下顺序确定总数: 结果集中携带的窗口函数总数、不满一页时推算的总数、估算总数、count查询.<br/>
+ * 键集分页的窗口函数统计的是定位条件之后的行数, 跳过行数也始终为0, 所以只有第一页不满一页时推算总数, 其余使用count查询,
+ * count查询不包含定位条件
+ */
+public class EzPageQueryExecutor {
+    private EzPageQueryExecutor() {
+    }
+
+    public static <Rt> PageResult<Rt> queryPage(EzMapper mapper, EzQuery<Rt> query, boolean approximateCount) {
+        Assert.notNull(query, "query can not be null");
+        Page page = query.getPage();
+        if (page == null) {
+            List<Rt> records = mapper.query(query);
+            return new PageResult<>(records, records.size(), false);
+        }
+        Long approximateTotal = null;
+        if (approximateCount && isUnfiltered(query)) {
+            approximateTotal = mapper.queryApproximateCount(query.getFrom().getTable());
+        }
+        KeysetPage keysetPage = query.getKeysetPage();
+        if (keysetPage != null) {
+            List<Rt> records = mapper.query(query);
+            if (keysetPage.isFirstPage() && records.size() < page.getSize()) {
+                return new PageResult<>(records, records.size(), false);
+            }
+            if (approximateTotal != null) {
+                return new PageResult<>(records, Math.max(approximateTotal, records.size()), true);
+            }
+            return new PageResult<>(records, mapper.queryCount(query), false);
+        }
+        //估算总数时不需要窗口函数统计总数
+        List<Rt> records = approximateTotal == null ? mapper.queryWithTotal(query) : mapper.query(query);
+        if (records instanceof TotalCountList && ((TotalCountList<?>) records).hasTotal()) {
+            return new PageResult<>(records, ((TotalCountList<?>) records).getTotal(), false);
+        }
+        //不满一页时, 除了跳过全部数据的情况, 总数都可以直接推算
+        if (records.size() < page.getSize() && (!records.isEmpty() || page.getSkip() == 0)) {
+            return new PageResult<>(records, (long) page.getSkip() + records.size(), false);
+        }
+        if (approximateTotal != null) {
+            long total = Math.max(approximateTotal, (long) page.getSkip() + records.size());
+            return new PageResult<>(records, total, true);
+        }
+        return new PageResult<>(records, mapper.queryCount(query), false);
+    }
+
+    /**
+     * 是否是没有过滤条件的单表查询
+     */
+    private static boolean isUnfiltered(EzQuery<?> query) {
+        Table table = query.getFrom().getTable();
+        if (!(table instanceof EntityTable || table instanceof DbTable) || table.getPartition() != null) {
+            return false;
+        }
+        if (query.getWhere() != null && query.getWhere().getConditions() != null &&
+                !query.getWhere().getConditions().isEmpty()) {
+            return false;
+        }
+        if (query.getJoins() != null && !query.getJoins().isEmpty()) {
+            return false;
+        }
+        if (query.getGroupBy() != null && query.getGroupBy().getItems() != null &&
+                !query.getGroupBy().getItems().isEmpty()) {
+            return false;
+        }
+        if (query.getUnions() != null && !query.getUnions().isEmpty()) {
+            return false;
+        }
+        return !query.getSelect().isDistinct();
+    }
+}
@@ -9,10 +9,9 @@ import org.rdlinux.ezmybatis.core.classinfo.EzEntityClassInfoFactory;
 import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityClassInfo;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
 import org.rdlinux.ezmybatis.core.sqlgenerate.SqlGenerateFactory;
+import org.rdlinux.ezmybatis.core.sqlgenerate.SqlTemplateCache;
 import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
-import org.rdlinux.ezmybatis.utils.ReflectionUtils;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
@@ -37,8 +36,7 @@ public class EzDeleteProvider {
         Class<?> ntClass = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_ENTITY_CLASS);
         Object entity = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_ENTITY);
         EntityClassInfo entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, ntClass);
-        Method fieldGetMethod = entityClassInfo.getPrimaryKeyInfo().getFieldGetMethod();
-        Object id = ReflectionUtils.invokeMethod(entity, fieldGetMethod);
+        Object id = entityClassInfo.getPrimaryKeyInfo().getFieldValue(entity);
         param.put("id", id);
         return SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
                 .getDeleteByIdSql(configuration, paramHolder, null, ntClass, id);
@@ -51,8 +49,7 @@ public class EzDeleteProvider {
         Class<?> ntClass = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_ENTITY_CLASS);
         Object entity = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_ENTITY);
         EntityClassInfo entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, ntClass);
-        Method fieldGetMethod = entityClassInfo.getPrimaryKeyInfo().getFieldGetMethod();
-        Object id = ReflectionUtils.invokeMethod(entity, fieldGetMethod);
+        Object id = entityClassInfo.getPrimaryKeyInfo().getFieldValue(entity);
         param.put("id", id);
         Table table = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_TABLE);
         return SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
@@ -68,8 +65,7 @@ public class EzDeleteProvider {
         Collection<Object> ids = new ArrayList<>(models.size());
         for (Object entity : models) {
             EntityClassInfo entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, ntClass);
-            Method fieldGetMethod = entityClassInfo.getPrimaryKeyInfo().getFieldGetMethod();
-            Object id = ReflectionUtils.invokeMethod(entity, fieldGetMethod);
+            Object id = entityClassInfo.getPrimaryKeyInfo().getFieldValue(entity);
             ids.add(id);
         }
         param.put("ids", ids);
@@ -86,8 +82,7 @@ public class EzDeleteProvider {
         Collection<Object> ids = new ArrayList<>(models.size());
         for (Object entity : models) {
             EntityClassInfo entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, ntClass);
-            Method fieldGetMethod = entityClassInfo.getPrimaryKeyInfo().getFieldGetMethod();
-            Object id = ReflectionUtils.invokeMethod(entity, fieldGetMethod);
+            Object id = entityClassInfo.getPrimaryKeyInfo().getFieldValue(entity);
             ids.add(id);
         }
         param.put("ids", ids);
@@ -143,8 +138,9 @@ public class EzDeleteProvider {
         Configuration configuration = (Configuration) param.get(EzMybatisConstant.MAPPER_PARAM_CONFIGURATION);
         MybatisParamHolder paramHolder = new MybatisParamHolder(configuration, param);
         EzDelete delete = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM);
-        return SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
-                .getDeleteSql(configuration, paramHolder, delete);
+        return SqlTemplateCache.getSql(configuration, paramHolder, DELETE_BY_EZ_DELETE_METHOD, delete,
+                () -> SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
+                        .getDeleteSql(configuration, paramHolder, delete));
     }
 
     @MethodName(BATCH_DELETE_BY_EZ_DELETE_METHOD)
@@ -152,8 +148,9 @@ public class EzDeleteProvider {
         Configuration configuration = (Configuration) param.get(EzMybatisConstant.MAPPER_PARAM_CONFIGURATION);
         MybatisParamHolder paramHolder = new MybatisParamHolder(configuration, param);
         Collection<EzDelete> deletes = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM);
-        return SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
-                .getDeleteSql(configuration, paramHolder, deletes);
+        return SqlTemplateCache.getSql(configuration, paramHolder, BATCH_DELETE_BY_EZ_DELETE_METHOD, deletes,
+                () -> SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
+                        .getDeleteSql(configuration, paramHolder, deletes));
     }
 
     @MethodName(DELETE_BY_SQL_METHOD)
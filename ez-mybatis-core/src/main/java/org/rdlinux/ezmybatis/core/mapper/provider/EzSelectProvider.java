@@ -7,6 +7,7 @@ import org.rdlinux.ezmybatis.core.EzMybatisContent;
 import org.rdlinux.ezmybatis.core.EzQuery;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
 import org.rdlinux.ezmybatis.core.sqlgenerate.SqlGenerateFactory;
+import org.rdlinux.ezmybatis.core.sqlgenerate.SqlTemplateCache;
 import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
 
 import java.util.Collection;
@@ -23,6 +24,9 @@ public class EzSelectProvider {
     public static final String SELECT_BY_SQL_METHOD = "selectBySql";
     public static final String QUERY_METHOD = "query";
     public static final String QUERY_COUNT_METHOD = "queryCount";
+    public static final String QUERY_EXISTS_METHOD = "queryExists";
+    public static final String QUERY_WITH_TOTAL_METHOD = "queryWithTotal";
+    public static final String QUERY_APPROXIMATE_COUNT_METHOD = "queryApproximateCount";
 
     /**
      * 处理in参数
@@ -119,8 +123,9 @@ public class EzSelectProvider {
         Configuration configuration = (Configuration) param.get(EzMybatisConstant.MAPPER_PARAM_CONFIGURATION);
         MybatisParamHolder paramHolder = new MybatisParamHolder(configuration, param);
         EzQuery<?> query = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM);
-        return SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
-                .getQuerySql(configuration, paramHolder, query);
+        return SqlTemplateCache.getSql(configuration, paramHolder, QUERY_METHOD, query,
+                () -> SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
+                        .getQuerySql(configuration, paramHolder, query));
     }
 
     @MethodName(QUERY_COUNT_METHOD)
@@ -128,7 +133,37 @@ public class EzSelectProvider {
         Configuration configuration = (Configuration) param.get(EzMybatisConstant.MAPPER_PARAM_CONFIGURATION);
         MybatisParamHolder paramHolder = new MybatisParamHolder(configuration, param);
         EzQuery<?> query = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM);
+        return SqlTemplateCache.getSql(configuration, paramHolder, QUERY_COUNT_METHOD, query,
+                () -> SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
+                        .getQueryCountSql(configuration, paramHolder, query));
+    }
+
+    @MethodName(QUERY_EXISTS_METHOD)
+    public String queryExists(Map<String, Object> param) {
+        Configuration configuration = (Configuration) param.get(EzMybatisConstant.MAPPER_PARAM_CONFIGURATION);
+        MybatisParamHolder paramHolder = new MybatisParamHolder(configuration, param);
+        EzQuery<?> query = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM);
+        return SqlTemplateCache.getSql(configuration, paramHolder, QUERY_EXISTS_METHOD, query,
+                () -> SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
+                        .getExistsSql(configuration, paramHolder, query));
+    }
+
+    @MethodName(QUERY_WITH_TOTAL_METHOD)
+    public String queryWithTotal(Map<String, Object> param) {
+        Configuration configuration = (Configuration) param.get(EzMybatisConstant.MAPPER_PARAM_CONFIGURATION);
+        MybatisParamHolder paramHolder = new MybatisParamHolder(configuration, param);
+        EzQuery<?> query = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM);
+        return SqlTemplateCache.getSql(configuration, paramHolder, QUERY_WITH_TOTAL_METHOD, query,
+                () -> SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
+                        .getQueryWithTotalSql(configuration, paramHolder, query));
+    }
+
+    @MethodName(QUERY_APPROXIMATE_COUNT_METHOD)
+    public String queryApproximateCount(Map<String, Object> param) {
+        Configuration configuration = (Configuration) param.get(EzMybatisConstant.MAPPER_PARAM_CONFIGURATION);
+        MybatisParamHolder paramHolder = new MybatisParamHolder(configuration, param);
+        Table table = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_TABLE);
         return SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
-                .getQueryCountSql(configuration, paramHolder, query);
+                .getApproximateCountSql(configuration, paramHolder, table);
     }
 }
@@ -7,9 +7,12 @@ import org.rdlinux.ezmybatis.core.EzMybatisContent;
 import org.rdlinux.ezmybatis.core.EzUpdate;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
 import org.rdlinux.ezmybatis.core.sqlgenerate.SqlGenerateFactory;
+import org.rdlinux.ezmybatis.core.sqlgenerate.SqlTemplateCache;
+import org.rdlinux.ezmybatis.core.sqlgenerate.SqlWriter;
 import org.rdlinux.ezmybatis.core.sqlstruct.SqlExpand;
 import org.rdlinux.ezmybatis.core.sqlstruct.converter.Converter;
 import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
+import org.rdlinux.ezmybatis.utils.AliasGenerate;
 
 import java.util.Collection;
 import java.util.Map;
@@ -111,8 +114,9 @@ public class EzUpdateProvider {
         Configuration configuration = (Configuration) param.get(EzMybatisConstant.MAPPER_PARAM_CONFIGURATION);
         MybatisParamHolder paramHolder = new MybatisParamHolder(configuration, param);
         EzUpdate update = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM);
-        return SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
-                .getUpdateSql(configuration, paramHolder, update);
+        return SqlTemplateCache.getSql(configuration, paramHolder, UPDATE_BY_EZ_UPDATE_METHOD, update,
+                () -> SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
+                        .getUpdateSql(configuration, paramHolder, update));
     }
 
     @MethodName(BATCH_UPDATE_BY_EZ_UPDATE_METHOD)
@@ -120,8 +124,9 @@ public class EzUpdateProvider {
         Configuration configuration = (Configuration) param.get(EzMybatisConstant.MAPPER_PARAM_CONFIGURATION);
         MybatisParamHolder paramHolder = new MybatisParamHolder(configuration, param);
         Collection<EzUpdate> updates = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM);
-        return SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
-                .getUpdateSql(configuration, paramHolder, updates);
+        return SqlTemplateCache.getSql(configuration, paramHolder, BATCH_UPDATE_BY_EZ_UPDATE_METHOD, updates,
+                () -> SqlGenerateFactory.getSqlGenerate(EzMybatisContent.getDbType(configuration))
+                        .getUpdateSql(configuration, paramHolder, updates));
     }
 
     @MethodName(UPDATE_BY_SQL_METHOD)
@@ -140,8 +145,14 @@ public class EzUpdateProvider {
         MybatisParamHolder paramHolder = new MybatisParamHolder(configuration, param);
         SqlExpand expand = paramHolder.get(EzMybatisConstant.MAPPER_PARAM_UPDATE_EXPAND);
         Converter<? extends SqlExpand> converter = EzMybatisContent.getConverter(configuration, expand.getClass());
-        StringBuilder sqlB = converter.buildSql(Converter.Type.UPDATE, new StringBuilder(), configuration, expand,
-                paramHolder);
-        return sqlB.toString();
+        StringBuilder buffer = SqlWriter.acquire();
+        AliasGenerate.beginRender();
+        try {
+            StringBuilder sqlB = converter.buildSql(Converter.Type.UPDATE, buffer, configuration, expand, paramHolder);
+            return sqlB.toString();
+        } finally {
+            AliasGenerate.endRender();
+            SqlWriter.recycle(buffer);
+        }
     }
 }
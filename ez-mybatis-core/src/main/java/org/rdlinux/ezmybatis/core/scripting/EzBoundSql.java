@@ -0,0 +1,27 @@
+package org.rdlinux.ezmybatis.core.scripting;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.List;
+
+/**
+ * 已解析完成的BoundSql, 按占位符顺序持有参数值, 由{@link EzParameterHandler}按位置绑定
+ */
+public class EzBoundSql extends BoundSql {
+    /**
+     * 参数值, 与参数映射一一对应
+     */
+    private final Object[] values;
+
+    public EzBoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings,
+                      Object parameterObject, Object[] values) {
+        super(configuration, sql, parameterMappings, parameterObject);
+        this.values = values;
+    }
+
+    public Object[] getValues() {
+        return this.values;
+    }
+}
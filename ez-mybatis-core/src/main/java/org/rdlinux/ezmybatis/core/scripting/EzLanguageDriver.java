@@ -0,0 +1,240 @@
+package org.rdlinux.ezmybatis.core.scripting;
+
+import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.builder.annotation.ProviderSqlSource;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.LanguageDriverRegistry;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.rdlinux.ezmybatis.constant.EzMybatisConstant;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.mapper.EzBaseMapper;
+import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.utils.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ez mapper方法的语言驱动, 直接将{@link org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder}生成的参数占位符
+ * 替换为?, 参数值按下标从参数数组中读取, 同时生成已确定类型处理器的参数映射, 跳过mybatis的占位符解析与MetaObject取值.<br/>
+ * sql中存在其他占位符时使用mybatis默认的解析方式
+ */
+public class EzLanguageDriver extends XMLLanguageDriver {
+    private static final String PARAM_PREFIX = EzMybatisConstant.MAPPER_PARAM_EZPARAM + "_";
+    private static final String TYPE_HANDLER_OPTION = ",typeHandler=";
+    private static final Object[] EMPTY_VALUES = new Object[0];
+    private static final Field MAPPER_METHOD_FIELD = ReflectionUtils.getField(ProviderSqlSource.class,
+            "mapperMethod");
+    private static final Field LANGUAGE_DRIVER_FIELD = ReflectionUtils.getField(ProviderSqlSource.class,
+            "languageDriver");
+    private static final Field MS_LANG_FIELD = ReflectionUtils.getField(MappedStatement.class, "lang");
+    /**
+     * 占位符中指定的类型处理器
+     */
+    private final Map<String, TypeHandler<?>> typeHandlers = new ConcurrentHashMap<>();
+
+    /**
+     * ez方法使用mybatis默认语言驱动时替换为{@link EzLanguageDriver}, 在初始化与注册MappedStatement时调用,
+     * 已替换或者未开启directParamBind时不做处理
+     */
+    public static void install(MappedStatement ms) {
+        Configuration configuration = ms.getConfiguration();
+        if (!EzMybatisContent.getContentConfig(configuration).getEzMybatisConfig().isDirectParamBind()) {
+            return;
+        }
+        SqlSource sqlSource = ms.getSqlSource();
+        if (!(sqlSource instanceof ProviderSqlSource)) {
+            return;
+        }
+        Method mapperMethod = ReflectionUtils.getFieldValue(sqlSource, MAPPER_METHOD_FIELD);
+        if (mapperMethod == null || mapperMethod.getDeclaringClass() != EzMapper.class &&
+                mapperMethod.getDeclaringClass() != EzBaseMapper.class) {
+            return;
+        }
+        LanguageDriver languageDriver = ReflectionUtils.getFieldValue(sqlSource, LANGUAGE_DRIVER_FIELD);
+        if (languageDriver == null || languageDriver.getClass() != XMLLanguageDriver.class) {
+            return;
+        }
+        LanguageDriverRegistry languageRegistry = configuration.getLanguageRegistry();
+        languageRegistry.register(EzLanguageDriver.class);
+        LanguageDriver ezLanguageDriver = languageRegistry.getDriver(EzLanguageDriver.class);
+        ReflectionUtils.setFieldValue(sqlSource, LANGUAGE_DRIVER_FIELD, ezLanguageDriver);
+        if (ms.getLang() == languageDriver) {
+            ReflectionUtils.setFieldValue(ms, MS_LANG_FIELD, ezLanguageDriver);
+        }
+    }
+
+    @Override
+    public ParameterHandler createParameterHandler(MappedStatement mappedStatement, Object parameterObject,
+                                                   BoundSql boundSql) {
+        if (boundSql instanceof EzBoundSql &&
+                boundSql.getParameterMappings().size() == ((EzBoundSql) boundSql).getValues().length) {
+            return new EzParameterHandler(mappedStatement, parameterObject, (EzBoundSql) boundSql);
+        }
+        return super.createParameterHandler(mappedStatement, parameterObject, boundSql);
+    }
+
+    @Override
+    public SqlSource createSqlSource(Configuration configuration, String script, Class<?> parameterType) {
+        if (script.startsWith("<script>")) {
+            return super.createSqlSource(configuration, script, parameterType);
+        }
+        return new DirectSqlSource(configuration, script, parameterType);
+    }
+
+    /**
+     * 解析数字下标, 不是数字时返回-1
+     */
+    private static int parseIndex(String sql, int start, int end) {
+        if (start >= end) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            char c = sql.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    @SuppressWarnings(value = {"unchecked"})
+    private TypeHandler<?> resolveTypeHandler(Configuration configuration, Object value, String typeHandlerName) {
+        TypeHandlerRegistry registry = configuration.getTypeHandlerRegistry();
+        if (typeHandlerName != null) {
+            return this.typeHandlers.computeIfAbsent(typeHandlerName, name -> {
+                Class<?> type = configuration.getTypeAliasRegistry().resolveAlias(name);
+                TypeHandler<?> typeHandler = registry.getMappingTypeHandler((Class<? extends TypeHandler<?>>) type);
+                if (typeHandler == null) {
+                    typeHandler = registry.getInstance(Object.class, type);
+                }
+                return typeHandler;
+            });
+        }
+        TypeHandler<?> typeHandler = value == null ? null : registry.getTypeHandler(value.getClass());
+        return typeHandler == null ? registry.getUnknownTypeHandler() : typeHandler;
+    }
+
+    /**
+     * 每次调用时由provider方法生成的sql创建
+     */
+    private class DirectSqlSource implements SqlSource {
+        private final Configuration configuration;
+        private final String script;
+        private final Class<?> parameterType;
+
+        private DirectSqlSource(Configuration configuration, String script, Class<?> parameterType) {
+            this.configuration = configuration;
+            this.script = script;
+            this.parameterType = parameterType;
+        }
+
+        @Override
+        public BoundSql getBoundSql(Object parameterObject) {
+            if (parameterObject instanceof Map) {
+                BoundSql boundSql = this.parse((Map<?, ?>) parameterObject);
+                if (boundSql != null) {
+                    return boundSql;
+                }
+            }
+            return EzLanguageDriver.super.createSqlSource(this.configuration, this.script, this.parameterType)
+                    .getBoundSql(parameterObject);
+        }
+
+        /**
+         * 解析sql, 存在不是由参数持有器生成的占位符时返回null
+         */
+        private BoundSql parse(Map<?, ?> param) {
+            String sql = this.script;
+            StringBuilder sb = null;
+            List<ParameterMapping> parameterMappings = new ArrayList<>();
+            Object[] values = EMPTY_VALUES;
+            int copyFrom = 0;
+            int chunkIndex = -1;
+            List<?> chunk = null;
+            for (int i = sql.indexOf('{'); i >= 0; i = sql.indexOf('{', i + 1)) {
+                char escape = i == 0 ? 0 : sql.charAt(i - 1);
+                if (escape != '#' && escape != '$') {
+                    continue;
+                }
+                int end = sql.indexOf('}', i);
+                if (end < 0 || i > 1 && sql.charAt(i - 2) == '\\' || !sql.startsWith(PARAM_PREFIX, i + 1)) {
+                    return null;
+                }
+                int open = sql.indexOf('[', i);
+                int close = sql.indexOf(']', i);
+                if (open < 0 || close < open || close > end) {
+                    return null;
+                }
+                int arrayIndex = parseIndex(sql, i + 1 + PARAM_PREFIX.length(), open);
+                int valueIndex = parseIndex(sql, open + 1, close);
+                if (arrayIndex < 0 || valueIndex < 0) {
+                    return null;
+                }
+                String typeHandlerName = null;
+                if (close + 1 < end) {
+                    if (escape != '#' || !sql.startsWith(TYPE_HANDLER_OPTION, close + 1)) {
+                        return null;
+                    }
+                    typeHandlerName = sql.substring(close + 1 + TYPE_HANDLER_OPTION.length(), end);
+                }
+                if (arrayIndex != chunkIndex) {
+                    Object array = param.get(PARAM_PREFIX + arrayIndex);
+                    if (!(array instanceof List)) {
+                        return null;
+                    }
+                    chunkIndex = arrayIndex;
+                    chunk = (List<?>) array;
+                }
+                if (valueIndex >= chunk.size()) {
+                    return null;
+                }
+                Object value = chunk.get(valueIndex);
+                if (sb == null) {
+                    sb = new StringBuilder(sql.length());
+                }
+                sb.append(sql, copyFrom, i - 1);
+                if (escape == '$') {
+                    sb.append(value);
+                } else {
+                    sb.append('?');
+                    TypeHandler<?> typeHandler = EzLanguageDriver.this.resolveTypeHandler(this.configuration, value,
+                            typeHandlerName);
+                    parameterMappings.add(new ParameterMapping.Builder(this.configuration,
+                            sql.substring(i + 1, close + 1), typeHandler).build());
+                    if (values.length == parameterMappings.size() - 1) {
+                        values = Arrays.copyOf(values, Math.max(16, values.length * 2));
+                    }
+                    values[parameterMappings.size() - 1] = value;
+                }
+                copyFrom = end + 1;
+                i = end;
+            }
+            if (sb != null) {
+                sql = sb.append(sql, copyFrom, sql.length()).toString();
+            }
+            if (this.configuration.isShrinkWhitespacesInSql()) {
+                sql = SqlSourceBuilder.removeExtraWhitespaces(sql);
+            }
+            if (values.length != parameterMappings.size()) {
+                values = Arrays.copyOf(values, parameterMappings.size());
+            }
+            return new EzBoundSql(this.configuration, sql, parameterMappings, param, values);
+        }
+    }
+}
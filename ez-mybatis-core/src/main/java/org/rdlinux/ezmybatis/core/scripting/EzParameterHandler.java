@@ -0,0 +1,57 @@
+package org.rdlinux.ezmybatis.core.scripting;
+
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeException;
+import org.apache.ibatis.type.TypeHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 按位置绑定参数, 参数值直接取自{@link EzBoundSql}, 不再通过MetaObject按属性名称取值
+ */
+public class EzParameterHandler implements ParameterHandler {
+    private final Configuration configuration;
+    private final Object parameterObject;
+    private final EzBoundSql boundSql;
+
+    public EzParameterHandler(MappedStatement mappedStatement, Object parameterObject, EzBoundSql boundSql) {
+        this.configuration = mappedStatement.getConfiguration();
+        this.parameterObject = parameterObject;
+        this.boundSql = boundSql;
+        ErrorContext.instance().activity("setting parameters").object(mappedStatement.getParameterMap().getId());
+    }
+
+    @Override
+    public Object getParameterObject() {
+        return this.parameterObject;
+    }
+
+    @Override
+    @SuppressWarnings(value = {"rawtypes", "unchecked"})
+    public void setParameters(PreparedStatement ps) {
+        List<ParameterMapping> parameterMappings = this.boundSql.getParameterMappings();
+        Object[] values = this.boundSql.getValues();
+        for (int i = 0; i < values.length; i++) {
+            ParameterMapping parameterMapping = parameterMappings.get(i);
+            Object value = values[i];
+            JdbcType jdbcType = parameterMapping.getJdbcType();
+            if (value == null && jdbcType == null) {
+                jdbcType = this.configuration.getJdbcTypeForNull();
+            }
+            TypeHandler typeHandler = parameterMapping.getTypeHandler();
+            try {
+                typeHandler.setParameter(ps, i + 1, value, jdbcType);
+            } catch (TypeException | SQLException e) {
+                throw new TypeException("Could not set parameters for mapping: " + parameterMapping + ". Cause: " + e,
+                        e);
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.rdlinux.ezmybatis.core.sqlstruct.From;
 import org.rdlinux.ezmybatis.core.sqlstruct.Join;
 import org.rdlinux.ezmybatis.core.sqlstruct.Where;
 import org.rdlinux.ezmybatis.core.sqlstruct.converter.Converter;
+import org.rdlinux.ezmybatis.utils.AliasGenerate;
 import org.rdlinux.ezmybatis.utils.Assert;
 
 import java.util.Collection;
@@ -20,20 +21,41 @@ public abstract class AbstractEzDeleteToSql implements EzDeleteToSql {
 
     @Override
     public String toSql(Configuration configuration, MybatisParamHolder paramHolder, Collection<EzDelete> deletes) {
-        StringBuilder sql = new StringBuilder();
-        for (EzDelete delete : deletes) {
-            sql.append(this.toSql(configuration, delete, paramHolder)).append(";\n");
+        StringBuilder buffer = SqlWriter.acquire();
+        try {
+            StringBuilder sql = buffer;
+            for (EzDelete delete : deletes) {
+                sql = this.toSql(sql, configuration, delete, paramHolder).append(";\n");
+            }
+            return sql.toString();
+        } finally {
+            SqlWriter.recycle(buffer);
         }
-        return sql.toString();
     }
 
     protected String toSql(Configuration configuration, EzDelete delete, MybatisParamHolder mybatisParamHolder) {
-        StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder = this.deleteToSql(sqlBuilder, delete);
-        sqlBuilder = this.fromToSql(sqlBuilder, configuration, delete, mybatisParamHolder);
-        sqlBuilder = this.joinsToSql(sqlBuilder, configuration, delete, mybatisParamHolder);
-        sqlBuilder = this.whereToSql(sqlBuilder, configuration, delete, mybatisParamHolder);
-        return sqlBuilder.toString();
+        StringBuilder buffer = SqlWriter.acquire();
+        try {
+            return this.toSql(buffer, configuration, delete, mybatisParamHolder).toString();
+        } finally {
+            SqlWriter.recycle(buffer);
+        }
+    }
+
+    /**
+     * 将删除sql直接写入sqlBuilder
+     */
+    protected StringBuilder toSql(StringBuilder sqlBuilder, Configuration configuration, EzDelete delete,
+                                  MybatisParamHolder mybatisParamHolder) {
+        AliasGenerate.beginRender();
+        try {
+            sqlBuilder = this.deleteToSql(sqlBuilder, delete);
+            sqlBuilder = this.fromToSql(sqlBuilder, configuration, delete, mybatisParamHolder);
+            sqlBuilder = this.joinsToSql(sqlBuilder, configuration, delete, mybatisParamHolder);
+            return this.whereToSql(sqlBuilder, configuration, delete, mybatisParamHolder);
+        } finally {
+            AliasGenerate.endRender();
+        }
     }
 
     protected StringBuilder deleteToSql(StringBuilder sqlBuilder, EzDelete delete) {
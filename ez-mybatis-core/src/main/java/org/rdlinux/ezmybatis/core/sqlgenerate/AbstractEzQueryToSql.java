@@ -1,63 +1,140 @@
 package org.rdlinux.ezmybatis.core.sqlgenerate;
 
 import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.constant.EzMybatisConstant;
 import org.rdlinux.ezmybatis.core.EzMybatisContent;
 import org.rdlinux.ezmybatis.core.EzQuery;
 import org.rdlinux.ezmybatis.core.sqlstruct.*;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.Condition;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.GroupCondition;
 import org.rdlinux.ezmybatis.core.sqlstruct.converter.Converter;
+import org.rdlinux.ezmybatis.core.sqlstruct.selectitem.SelectAllItem;
+import org.rdlinux.ezmybatis.core.sqlstruct.selectitem.SelectItem;
+import org.rdlinux.ezmybatis.enumeration.AndOr;
 import org.rdlinux.ezmybatis.utils.AliasGenerate;
 import org.rdlinux.ezmybatis.utils.Assert;
 
+import java.util.LinkedList;
 import java.util.List;
 
 public abstract class AbstractEzQueryToSql implements EzQueryToSql {
     @Override
     public String toSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return this.toSql(configuration, paramHolder, query, false);
+    }
+
+    @Override
+    public String toSqlWithTotal(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
         Assert.notNull(query, "query can not be null");
-        StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder = this.selectToSql(sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.fromToSql(sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.joinsToSql(sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.whereToSql(true, sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.onWhereToSqlEnd(true, sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.groupByToSql(sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.havingToSql(sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.orderByToSql(sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.pageToSql(sqlBuilder, configuration, query, paramHolder);
-        if (query.getPage() == null) {
-            sqlBuilder = this.limitToSql(sqlBuilder, configuration, query, paramHolder);
-        }
-        if (query.getUnions() != null && !query.getUnions().isEmpty()) {
-            if (query.getOrderBy() != null) {
-                sqlBuilder = new StringBuilder().append(" (SELECT * FROM (").append(sqlBuilder).append(") ")
-                        .append(AliasGenerate.getAlias()).append(") ");
-            } else {
-                sqlBuilder = new StringBuilder().append(" (").append(sqlBuilder).append(") ");
+        return this.toSql(configuration, paramHolder, query, this.supportWindowCount(configuration, query));
+    }
+
+    /**
+     * @param withTotal 是否在查询项中追加COUNT(*) OVER()总数列
+     */
+    protected String toSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query,
+                           boolean withTotal) {
+        Assert.notNull(query, "query can not be null");
+        StringBuilder buffer = SqlWriter.acquire();
+        AliasGenerate.beginRender();
+        try {
+            StringBuilder sqlBuilder = buffer;
+            sqlBuilder = this.selectToSql(sqlBuilder, configuration, query, paramHolder);
+            if (withTotal) {
+                sqlBuilder = this.selectTotalToSql(sqlBuilder, configuration, query, paramHolder);
+            }
+            sqlBuilder = this.fromToSql(sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.joinsToSql(sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.whereToSql(true, sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.onWhereToSqlEnd(true, sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.groupByToSql(sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.havingToSql(sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.orderByToSql(sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.pageToSql(sqlBuilder, configuration, query, paramHolder);
+            if (query.getPage() == null) {
+                sqlBuilder = this.limitToSql(sqlBuilder, configuration, query, paramHolder);
             }
+            if (query.getUnions() != null && !query.getUnions().isEmpty()) {
+                if (query.getOrderBy() != null) {
+                    sqlBuilder.insert(0, " (SELECT * FROM (").append(") ").append(AliasGenerate.getAlias())
+                            .append(") ");
+                } else {
+                    sqlBuilder.insert(0, " (").append(") ");
+                }
+            }
+            sqlBuilder = this.unionToSql(sqlBuilder, configuration, query, paramHolder);
+            return sqlBuilder.toString();
+        } finally {
+            AliasGenerate.endRender();
+            SqlWriter.recycle(buffer);
         }
-        sqlBuilder = this.unionToSql(sqlBuilder, configuration, query, paramHolder);
-        return sqlBuilder.toString();
     }
 
 
     @Override
     public String toCountSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
         Assert.notNull(query, "query can not be null");
-        StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder = this.selectCountToSql(sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.fromToSql(sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.joinsToSql(sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.whereToSql(false, sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.onWhereToSqlEnd(false, sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.groupByToSql(sqlBuilder, configuration, query, paramHolder);
-        sqlBuilder = this.havingToSql(sqlBuilder, configuration, query, paramHolder);
-        if (query.getGroupBy() != null && !query.getGroupBy().getItems().isEmpty()) {
-            return "SELECT COUNT(*) FROM ( " + sqlBuilder.toString() + " ) " + AliasGenerate.getAlias();
-        } else {
+        StringBuilder buffer = SqlWriter.acquire();
+        AliasGenerate.beginRender();
+        try {
+            StringBuilder sqlBuilder = buffer;
+            Operand distinctCountItem = CountQueryOptimizer.getDistinctCountItem(query);
+            if (distinctCountItem != null) {
+                sqlBuilder = this.selectDistinctCountToSql(sqlBuilder, configuration, distinctCountItem,
+                        paramHolder);
+            } else {
+                sqlBuilder = this.selectCountToSql(sqlBuilder, configuration, query, paramHolder);
+            }
+            sqlBuilder = this.fromToSql(sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.joinsToSql(sqlBuilder, configuration, CountQueryOptimizer.getCountJoins(configuration,
+                    query), paramHolder);
+            sqlBuilder = this.whereToSql(false, sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.onWhereToSqlEnd(false, sqlBuilder, configuration, query, paramHolder);
+            if (distinctCountItem == null) {
+                sqlBuilder = this.groupByToSql(sqlBuilder, configuration, query, paramHolder);
+                sqlBuilder = this.havingToSql(sqlBuilder, configuration, query, paramHolder);
+                if (query.getGroupBy() != null && !query.getGroupBy().getItems().isEmpty()) {
+                    sqlBuilder.insert(0, "SELECT COUNT(*) FROM ( ").append(" ) ").append(AliasGenerate.getAlias());
+                }
+            }
+            return sqlBuilder.toString();
+        } finally {
+            AliasGenerate.endRender();
+            SqlWriter.recycle(buffer);
+        }
+    }
+
+    @Override
+    public String toExistsSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        Assert.notNull(query, "query can not be null");
+        StringBuilder buffer = SqlWriter.acquire();
+        AliasGenerate.beginRender();
+        try {
+            StringBuilder sqlBuilder = buffer;
+            sqlBuilder.append("SELECT 1 ");
+            sqlBuilder = this.fromToSql(sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.joinsToSql(sqlBuilder, configuration, CountQueryOptimizer.getCountJoins(configuration,
+                    query), paramHolder);
+            sqlBuilder = this.whereToSql(false, sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.onWhereToSqlEnd(false, sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.groupByToSql(sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.havingToSql(sqlBuilder, configuration, query, paramHolder);
+            sqlBuilder = this.existsLimitToSql(sqlBuilder, configuration, query, paramHolder);
             return sqlBuilder.toString();
+        } finally {
+            AliasGenerate.endRender();
+            SqlWriter.recycle(buffer);
         }
     }
 
+    /**
+     * 限制是否存在查询只返回一行
+     */
+    protected StringBuilder existsLimitToSql(StringBuilder sqlBuilder, Configuration configuration, EzQuery<?> query,
+                                             MybatisParamHolder paramHolder) {
+        return sqlBuilder.append(" LIMIT 1 ");
+    }
+
     /**
      * @param isPage 是否分页
      */
@@ -72,6 +149,52 @@ public abstract class AbstractEzQueryToSql implements EzQueryToSql {
         return sqlBuilder;
     }
 
+    /**
+     * 是否可以使用窗口函数在分页查询中同时返回总数, 去重、联合查询以及查询项包含不带表别名的*时,
+     * 窗口函数无法得到正确的总数或者无法追加查询项
+     */
+    protected boolean supportWindowCount(Configuration configuration, EzQuery<?> query) {
+        if (query.getPage() == null || !EzMybatisContent.getContentConfig(configuration).getEzMybatisConfig()
+                .isEnableWindowCountPage()) {
+            return false;
+        }
+        if (query.getUnions() != null && !query.getUnions().isEmpty()) {
+            return false;
+        }
+        Select select = query.getSelect();
+        if (select == null || select.isDistinct()) {
+            return false;
+        }
+        if (select.getSelectFields() != null) {
+            for (SelectItem selectItem : select.getSelectFields()) {
+                if (selectItem instanceof SelectAllItem) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    protected StringBuilder selectTotalToSql(StringBuilder sqlBuilder, Configuration configuration, EzQuery<?> query,
+                                             MybatisParamHolder paramHolder) {
+        String kwQM = EzMybatisContent.getKeywordQM(configuration);
+        return sqlBuilder.append(", COUNT(*) OVER() ").append(kwQM).append(EzMybatisConstant.PAGE_TOTAL_ALIAS)
+                .append(kwQM).append(" ");
+    }
+
+    /**
+     * 使用COUNT(DISTINCT)统计分组数量, COUNT(DISTINCT)不统计空值, 分组时空值单独成组, 所以需要额外统计是否存在空值
+     */
+    protected StringBuilder selectDistinctCountToSql(StringBuilder sqlBuilder, Configuration configuration,
+                                                     Operand groupItem, MybatisParamHolder paramHolder) {
+        Converter<? extends Operand> converter = EzMybatisContent.getConverter(configuration, groupItem.getClass());
+        sqlBuilder.append("SELECT COUNT(DISTINCT ");
+        sqlBuilder = converter.buildSql(Converter.Type.SELECT, sqlBuilder, configuration, groupItem, paramHolder);
+        sqlBuilder.append(") + COUNT(DISTINCT CASE WHEN ");
+        sqlBuilder = converter.buildSql(Converter.Type.SELECT, sqlBuilder, configuration, groupItem, paramHolder);
+        return sqlBuilder.append(" IS NULL THEN 1 END) ");
+    }
+
     protected StringBuilder selectToSql(StringBuilder sqlBuilder, Configuration configuration, EzQuery<?> query,
                                         MybatisParamHolder paramHolder) {
         Select select = query.getSelect();
@@ -133,11 +256,34 @@ public abstract class AbstractEzQueryToSql implements EzQueryToSql {
      */
     protected StringBuilder whereToSql(boolean isPage, StringBuilder sqlBuilder, Configuration configuration,
                                        EzQuery<?> query, MybatisParamHolder paramHolder) {
-        Where where = query.getWhere();
+        Where where = this.getWhere(isPage, query);
         Converter<Where> converter = EzMybatisContent.getConverter(configuration, Where.class);
         return converter.buildSql(Converter.Type.SELECT, sqlBuilder, configuration, where, paramHolder);
     }
 
+    /**
+     * 获取查询条件, 分页查询时合并键集分页的定位条件, 查询总数时不需要定位条件
+     *
+     * @param isPage 是否分页
+     */
+    protected Where getWhere(boolean isPage, EzQuery<?> query) {
+        KeysetPage keysetPage = query.getKeysetPage();
+        if (!isPage || keysetPage == null) {
+            return query.getWhere();
+        }
+        Condition seekCondition = keysetPage.getSeekCondition();
+        if (seekCondition == null) {
+            return query.getWhere();
+        }
+        List<Condition> conditions = new LinkedList<>();
+        Where where = query.getWhere();
+        if (where != null && where.getConditions() != null && !where.getConditions().isEmpty()) {
+            conditions.add(new GroupCondition(true, where.getConditions(), AndOr.AND));
+        }
+        conditions.add(seekCondition);
+        return new Where(conditions);
+    }
+
     protected StringBuilder havingToSql(StringBuilder sqlBuilder, Configuration configuration, EzQuery<?> query,
                                         MybatisParamHolder paramHolder) {
         Having having = query.getHaving();
@@ -147,9 +293,14 @@ public abstract class AbstractEzQueryToSql implements EzQueryToSql {
 
     protected StringBuilder joinsToSql(StringBuilder sqlBuilder, Configuration configuration, EzQuery<?> query,
                                        MybatisParamHolder paramHolder) {
-        if (query.getJoins() != null) {
+        return this.joinsToSql(sqlBuilder, configuration, query.getJoins(), paramHolder);
+    }
+
+    protected StringBuilder joinsToSql(StringBuilder sqlBuilder, Configuration configuration, List<Join> joins,
+                                       MybatisParamHolder paramHolder) {
+        if (joins != null) {
             Converter<Join> converter = EzMybatisContent.getConverter(configuration, Join.class);
-            for (Join join : query.getJoins()) {
+            for (Join join : joins) {
                 sqlBuilder = converter.buildSql(Converter.Type.SELECT, sqlBuilder, configuration, join,
                         paramHolder);
             }
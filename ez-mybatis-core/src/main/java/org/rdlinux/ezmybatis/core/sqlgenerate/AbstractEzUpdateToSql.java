@@ -9,6 +9,7 @@ import org.rdlinux.ezmybatis.core.sqlstruct.UpdateSet;
 import org.rdlinux.ezmybatis.core.sqlstruct.Where;
 import org.rdlinux.ezmybatis.core.sqlstruct.converter.Converter;
 import org.rdlinux.ezmybatis.core.sqlstruct.update.UpdateItem;
+import org.rdlinux.ezmybatis.utils.AliasGenerate;
 import org.rdlinux.ezmybatis.utils.Assert;
 
 import java.util.Collection;
@@ -25,21 +26,42 @@ public abstract class AbstractEzUpdateToSql implements EzUpdateToSql {
     public String toSql(Configuration configuration, MybatisParamHolder mybatisParamHolder,
                         Collection<EzUpdate> updates) {
         Assert.notEmpty(updates, "updates can not be empty");
-        StringBuilder sql = new StringBuilder();
-        for (EzUpdate update : updates) {
-            sql.append(this.toSql(configuration, update, mybatisParamHolder)).append(";\n");
+        StringBuilder buffer = SqlWriter.acquire();
+        try {
+            StringBuilder sql = buffer;
+            for (EzUpdate update : updates) {
+                sql = this.toSql(sql, configuration, update, mybatisParamHolder).append(";\n");
+            }
+            return sql.toString();
+        } finally {
+            SqlWriter.recycle(buffer);
         }
-        return sql.toString();
     }
 
     protected String toSql(Configuration configuration, EzUpdate update, MybatisParamHolder mybatisParamHolder) {
-        StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder = this.updateToSql(sqlBuilder);
-        sqlBuilder = this.fromToSql(sqlBuilder, configuration, update, mybatisParamHolder);
-        sqlBuilder = this.setToSql(sqlBuilder, configuration, update, mybatisParamHolder);
-        sqlBuilder = this.joinsToSql(sqlBuilder, configuration, update, mybatisParamHolder);
-        sqlBuilder = this.whereToSql(sqlBuilder, configuration, update, mybatisParamHolder);
-        return sqlBuilder.toString();
+        StringBuilder buffer = SqlWriter.acquire();
+        try {
+            return this.toSql(buffer, configuration, update, mybatisParamHolder).toString();
+        } finally {
+            SqlWriter.recycle(buffer);
+        }
+    }
+
+    /**
+     * 将更新sql直接写入sqlBuilder
+     */
+    protected StringBuilder toSql(StringBuilder sqlBuilder, Configuration configuration, EzUpdate update,
+                                  MybatisParamHolder mybatisParamHolder) {
+        AliasGenerate.beginRender();
+        try {
+            sqlBuilder = this.updateToSql(sqlBuilder);
+            sqlBuilder = this.fromToSql(sqlBuilder, configuration, update, mybatisParamHolder);
+            sqlBuilder = this.setToSql(sqlBuilder, configuration, update, mybatisParamHolder);
+            sqlBuilder = this.joinsToSql(sqlBuilder, configuration, update, mybatisParamHolder);
+            return this.whereToSql(sqlBuilder, configuration, update, mybatisParamHolder);
+        } finally {
+            AliasGenerate.endRender();
+        }
     }
 
     protected StringBuilder updateToSql(StringBuilder sqlBuilder) {
@@ -4,6 +4,7 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
 import org.rdlinux.ezmybatis.core.EzJdbcBatchSql;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
 import org.rdlinux.ezmybatis.core.EzJdbcSqlParam;
 import org.rdlinux.ezmybatis.core.EzMybatisContent;
 import org.rdlinux.ezmybatis.core.EzQuery;
@@ -13,10 +14,9 @@ import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityFieldInfo;
 import org.rdlinux.ezmybatis.core.sqlstruct.converter.Converter;
 import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
 import org.rdlinux.ezmybatis.utils.Assert;
-import org.rdlinux.ezmybatis.utils.ReflectionUtils;
 import org.rdlinux.ezmybatis.utils.TypeHandlerUtils;
 
-import java.lang.reflect.Method;
+import java.lang.reflect.Field;
 import java.util.*;
 
 public abstract class AbstractInsertSqlGenerate implements InsertSqlGenerate {
@@ -48,54 +48,126 @@ public abstract class AbstractInsertSqlGenerate implements InsertSqlGenerate {
         String keywordQM = EzMybatisContent.getKeywordQM(configuration);
         Map<String, EntityFieldInfo> columnMapFieldInfo = entityClassInfo.getColumnMapFieldInfo();
         StringBuilder sqlBuilder = new StringBuilder("INSERT INTO ").append(tableName).append(" ");
-        StringBuilder columnBuilder = new StringBuilder("( ");
-        StringBuilder paramBuilder = new StringBuilder("( ");
+        this.appendInsertColumns(sqlBuilder, keywordQM, columnMapFieldInfo);
+        sqlBuilder.append(" VALUES ");
+        this.appendInsertValues(sqlBuilder, mybatisParamHolder, columnMapFieldInfo, entity);
+        return sqlBuilder.toString();
+    }
+
+    /**
+     * 多行VALUES批量插入, 列只生成一次, 每个实体直接生成一行参数
+     */
+    @Override
+    public String getBatchInsertSql(Configuration configuration, MybatisParamHolder mybatisParamHolder,
+                                    Table table, Collection<Object> models) {
+        Assert.notEmpty(models, "models cannot be empty");
+        Object firstEntity = models.iterator().next();
+        String tableName = AbstractInsertSqlGenerate.getTableName(configuration, mybatisParamHolder, table,
+                firstEntity);
+        EntityClassInfo entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, firstEntity.getClass());
+        String keywordQM = EzMybatisContent.getKeywordQM(configuration);
+        Map<String, EntityFieldInfo> columnMapFieldInfo = entityClassInfo.getColumnMapFieldInfo();
+        StringBuilder sqlBuilder = new StringBuilder(64 + models.size() * columnMapFieldInfo.size() * 16);
+        sqlBuilder.append("INSERT INTO ").append(tableName).append(" ");
+        this.appendInsertColumns(sqlBuilder, keywordQM, columnMapFieldInfo);
+        sqlBuilder.append(" VALUES ");
+        int i = 0;
+        for (Object entity : models) {
+            this.checkEntityType(firstEntity, entity);
+            if (i > 0) {
+                sqlBuilder.append(", \n");
+            }
+            this.appendInsertValues(sqlBuilder, mybatisParamHolder, columnMapFieldInfo, entity);
+            i++;
+        }
+        return sqlBuilder.toString();
+    }
+
+    @Override
+    public int getBatchInsertChunkSize(Configuration configuration, Object model) {
+        Assert.notNull(model, "model can not be null");
+        EntityClassInfo entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, model.getClass());
+        int columns = Math.max(entityClassInfo.getColumnMapFieldInfo().size(), 1);
+        return Math.max(Math.min(this.getBatchInsertMaxParams() / columns, this.getBatchInsertMaxRows()), 1);
+    }
+
+    /**
+     * 单条批量插入sql允许的最大参数数量
+     */
+    protected int getBatchInsertMaxParams() {
+        return 65535;
+    }
+
+    /**
+     * 单条批量插入sql允许的最大行数
+     */
+    protected int getBatchInsertMaxRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * 检查批量插入的实体类型是否一致
+     */
+    protected void checkEntityType(Object firstEntity, Object entity) {
+        if (entity == null || firstEntity.getClass() != entity.getClass()) {
+            throw new IllegalArgumentException("Inconsistent object types within the container");
+        }
+    }
+
+    /**
+     * 添加插入列, 格式为( col1, col2 )
+     */
+    protected void appendInsertColumns(StringBuilder sqlBuilder, String keywordQM,
+                                       Map<String, EntityFieldInfo> columnMapFieldInfo) {
+        sqlBuilder.append("( ");
         int i = 1;
         for (String column : columnMapFieldInfo.keySet()) {
-            EntityFieldInfo fieldInfo = columnMapFieldInfo.get(column);
-            Method fieldGetMethod = fieldInfo.getFieldGetMethod();
-            Object fieldValue = ReflectionUtils.invokeMethod(entity, fieldGetMethod);
-            columnBuilder.append(keywordQM).append(column).append(keywordQM);
-            paramBuilder.append(mybatisParamHolder.simpleGetMybatisParamName(entity.getClass(), fieldInfo.getField(),
+            sqlBuilder.append(keywordQM).append(column).append(keywordQM);
+            if (i < columnMapFieldInfo.size()) {
+                sqlBuilder.append(", ");
+            }
+            i++;
+        }
+        sqlBuilder.append(" )");
+    }
+
+    /**
+     * 添加一行插入参数, 格式为( #{p1}, #{p2} ), 顺序与{@link #appendInsertColumns}一致
+     */
+    protected void appendInsertValues(StringBuilder sqlBuilder, MybatisParamHolder mybatisParamHolder,
+                                      Map<String, EntityFieldInfo> columnMapFieldInfo, Object entity) {
+        sqlBuilder.append("( ");
+        int i = 1;
+        for (EntityFieldInfo fieldInfo : columnMapFieldInfo.values()) {
+            Object fieldValue = fieldInfo.getFieldValue(entity);
+            sqlBuilder.append(mybatisParamHolder.simpleGetMybatisParamName(entity.getClass(), fieldInfo.getField(),
                     fieldValue));
             if (i < columnMapFieldInfo.size()) {
-                columnBuilder.append(", ");
-                paramBuilder.append(", ");
-            } else {
-                columnBuilder.append(" )");
-                paramBuilder.append(" )");
+                sqlBuilder.append(", ");
             }
             i++;
         }
-        sqlBuilder.append(columnBuilder).append(" VALUES ").append(paramBuilder);
-        return sqlBuilder.toString();
+        sqlBuilder.append(" )");
     }
 
     @Override
-    public EzJdbcBatchSql getJdbcBatchInsertSql(Configuration configuration, Table table, Collection<?> models) {
-        Assert.notEmpty(models, "models can not be empty");
+    public EzJdbcInsertSql getJdbcInsertSql(Configuration configuration, Table table, Object model) {
         String keywordQM = EzMybatisContent.getKeywordQM(configuration);
         MybatisParamHolder mybatisParamHolder = new MybatisParamHolder(configuration, new HashMap<>());
-        Object firstEntity = models.iterator().next();
-        String tableName = AbstractInsertSqlGenerate.getTableName(configuration, mybatisParamHolder, table, firstEntity);
+        String tableName = AbstractInsertSqlGenerate.getTableName(configuration, mybatisParamHolder, table, model);
         StringBuilder sqlBuilder = new StringBuilder("INSERT INTO ").append(tableName).append(" ");
         StringBuilder columnBuilder = new StringBuilder("( ");
         StringBuilder paramBuilder = new StringBuilder("( ");
-        EntityClassInfo entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, firstEntity.getClass());
+        EntityClassInfo entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, model.getClass());
         Map<String, EntityFieldInfo> columnMapFieldInfo = entityClassInfo.getColumnMapFieldInfo();
-        EzJdbcBatchSql ret = new EzJdbcBatchSql();
-        int i = 1;
-        List<List<EzJdbcSqlParam>> params = new ArrayList<>(models.size());
-        for (Object model : models) {
-            if (!firstEntity.getClass().getName().equals(model.getClass().getName())) {
-                throw new IllegalArgumentException("Inconsistent object types within the container");
-            }
-            params.add(new ArrayList<>(columnMapFieldInfo.size()));
-        }
+        EntityFieldInfo[] fieldInfos = new EntityFieldInfo[columnMapFieldInfo.size()];
+        TypeHandler<?>[] typeHandlers = new TypeHandler<?>[columnMapFieldInfo.size()];
+        String[] columns = new String[columnMapFieldInfo.size()];
+        int i = 0;
         for (String column : columnMapFieldInfo.keySet()) {
             columnBuilder.append(keywordQM).append(column).append(keywordQM);
             paramBuilder.append("?");
-            if (i < columnMapFieldInfo.size()) {
+            if (i < columnMapFieldInfo.size() - 1) {
                 columnBuilder.append(", ");
                 paramBuilder.append(", ");
             } else {
@@ -103,22 +175,128 @@ public abstract class AbstractInsertSqlGenerate implements InsertSqlGenerate {
                 paramBuilder.append(" )");
             }
             EntityFieldInfo fieldInfo = columnMapFieldInfo.get(column);
-            Method fieldGetMethod = fieldInfo.getFieldGetMethod();
-            TypeHandler<?> typeHandler = TypeHandlerUtils.getTypeHandle(configuration, fieldInfo.getField());
-            int eti = 0;
-            for (Object entity : models) {
-                Object fieldValue = ReflectionUtils.invokeMethod(entity, fieldGetMethod);
+            fieldInfos[i] = fieldInfo;
+            columns[i] = column;
+            typeHandlers[i] = TypeHandlerUtils.getTypeHandle(configuration, fieldInfo.getField());
+            i++;
+        }
+        sqlBuilder.append(columnBuilder).append(" VALUES ").append(paramBuilder);
+        return new EzJdbcInsertSql(sqlBuilder.toString(), tableName, columns, model.getClass(), fieldInfos,
+                typeHandlers);
+    }
+
+    @Override
+    public EzJdbcInsertSql getJdbcUpsertSql(Configuration configuration, Table table, Object model,
+                                            Collection<String> conflictFields, Collection<String> updateFields) {
+        Assert.notNull(model, "model can not be null");
+        EzJdbcInsertSql insertSql = this.getJdbcInsertSql(configuration, table, model);
+        EntityClassInfo entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, model.getClass());
+        List<String> conflictColumns = this.getUpsertColumns(model.getClass(), entityClassInfo, conflictFields);
+        if (conflictColumns.isEmpty()) {
+            conflictColumns.add(entityClassInfo.getPrimaryKeyInfo().getColumnName());
+        }
+        List<String> updateColumns;
+        if (updateFields == null || updateFields.isEmpty()) {
+            updateColumns = new ArrayList<>(Arrays.asList(insertSql.getColumns()));
+        } else {
+            updateColumns = this.getUpsertColumns(model.getClass(), entityClassInfo, updateFields);
+        }
+        updateColumns.removeAll(conflictColumns);
+        String sql = this.getUpsertSql(EzMybatisContent.getKeywordQM(configuration), insertSql, conflictColumns,
+                updateColumns);
+        return new EzJdbcInsertSql(sql, insertSql.getTableName(), insertSql.getColumns(), insertSql.getModelType(),
+                insertSql.getFieldInfos(), insertSql.getTypeHandlers());
+    }
+
+    private List<String> getUpsertColumns(Class<?> entityClass, EntityClassInfo entityClassInfo,
+                                          Collection<String> fields) {
+        List<String> columns = new ArrayList<>();
+        if (fields == null) {
+            return columns;
+        }
+        for (String field : fields) {
+            if (field == null || field.isEmpty()) {
+                continue;
+            }
+            EntityFieldInfo fieldInfo = entityClassInfo.getFieldInfo(field);
+            Assert.notNull(fieldInfo, "field " + field + " not found in " + entityClass);
+            String column = fieldInfo.getColumnName();
+            if (!columns.contains(column)) {
+                columns.add(column);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * 生成存在则更新不存在则插入的sql, 参数顺序必须与插入sql的列顺序一致
+     *
+     * @param conflictColumns 判断数据是否存在的列
+     * @param updateColumns   数据存在时更新的列, 可能为空
+     */
+    protected abstract String getUpsertSql(String keywordQM, EzJdbcInsertSql insertSql, List<String> conflictColumns,
+                                           List<String> updateColumns);
+
+    /**
+     * 添加MERGE语句的匹配条件与更新插入部分, 目标表别名为T, 数据源别名为S
+     */
+    protected void appendMergeClauses(StringBuilder sqlBuilder, String keywordQM, String[] columns,
+                                      List<String> conflictColumns, List<String> updateColumns) {
+        sqlBuilder.append(" ON ( ");
+        for (int i = 0; i < conflictColumns.size(); i++) {
+            if (i > 0) {
+                sqlBuilder.append(" AND ");
+            }
+            String column = keywordQM + conflictColumns.get(i) + keywordQM;
+            sqlBuilder.append("T.").append(column).append(" = S.").append(column);
+        }
+        sqlBuilder.append(" )");
+        if (!updateColumns.isEmpty()) {
+            sqlBuilder.append(" WHEN MATCHED THEN UPDATE SET ");
+            for (int i = 0; i < updateColumns.size(); i++) {
+                if (i > 0) {
+                    sqlBuilder.append(", ");
+                }
+                String column = keywordQM + updateColumns.get(i) + keywordQM;
+                sqlBuilder.append("T.").append(column).append(" = S.").append(column);
+            }
+        }
+        StringBuilder valueBuilder = new StringBuilder();
+        sqlBuilder.append(" WHEN NOT MATCHED THEN INSERT ( ");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sqlBuilder.append(", ");
+                valueBuilder.append(", ");
+            }
+            sqlBuilder.append(keywordQM).append(columns[i]).append(keywordQM);
+            valueBuilder.append("S.").append(keywordQM).append(columns[i]).append(keywordQM);
+        }
+        sqlBuilder.append(" ) VALUES ( ").append(valueBuilder).append(" )");
+    }
+
+    @Override
+    public EzJdbcBatchSql getJdbcBatchInsertSql(Configuration configuration, Table table, Collection<?> models) {
+        Assert.notEmpty(models, "models can not be empty");
+        Object firstEntity = models.iterator().next();
+        EzJdbcInsertSql insertSql = this.getJdbcInsertSql(configuration, table, firstEntity);
+        EntityFieldInfo[] fieldInfos = insertSql.getFieldInfos();
+        TypeHandler<?>[] typeHandlers = insertSql.getTypeHandlers();
+        List<List<EzJdbcSqlParam>> params = new ArrayList<>(models.size());
+        for (Object entity : models) {
+            this.checkEntityType(firstEntity, entity);
+            List<EzJdbcSqlParam> entityParams = new ArrayList<>(fieldInfos.length);
+            for (int i = 0; i < fieldInfos.length; i++) {
+                Field field = fieldInfos[i].getField();
+                Object fieldValue = fieldInfos[i].getFieldValue(entity);
                 JdbcType jdbcType = TypeHandlerUtils.getJdbcType(fieldValue);
                 fieldValue = EzMybatisContent.onBuildSqlGetField(configuration, Boolean.TRUE, entity.getClass(),
-                        fieldInfo.getField(), fieldValue);
-                EzJdbcSqlParam param = new EzJdbcSqlParam(fieldValue, typeHandler, jdbcType);
-                params.get(eti).add(param);
-                eti++;
+                        field, fieldValue);
+                entityParams.add(new EzJdbcSqlParam(fieldValue, typeHandlers[i], jdbcType));
             }
-            i++;
+            params.add(entityParams);
         }
-        sqlBuilder.append(columnBuilder).append(" VALUES ").append(paramBuilder);
-        ret.setSql(sqlBuilder.toString());
+        EzJdbcBatchSql ret = new EzJdbcBatchSql();
+        ret.setSql(insertSql.getSql());
         ret.setBatchParams(params);
         return ret;
     }
@@ -4,6 +4,9 @@ import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.core.EzMybatisContent;
 import org.rdlinux.ezmybatis.core.classinfo.EzEntityClassInfoFactory;
 import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityClassInfo;
+import org.rdlinux.ezmybatis.core.sqlgenerate.inlist.FieldInListParams;
+import org.rdlinux.ezmybatis.core.sqlgenerate.inlist.InListStrategy;
+import org.rdlinux.ezmybatis.core.sqlgenerate.inlist.InListStrategyFactory;
 import org.rdlinux.ezmybatis.core.sqlstruct.converter.Converter;
 import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
 import org.rdlinux.ezmybatis.utils.Assert;
@@ -30,6 +33,13 @@ public abstract class AbstractSelectSqlGenerate implements SelectSqlGenerate {
                 paramHolder.getMybatisParamName(ntClass, entityClassInfo.getPrimaryKeyInfo().getField(), id);
     }
 
+    /**
+     * 获取估算总数的阈值
+     */
+    protected long getApproximateCountThreshold(Configuration configuration) {
+        return EzMybatisContent.getContentConfig(configuration).getEzMybatisConfig().getApproximateCountThreshold();
+    }
+
     @Override
     public String getSelectByIdsSql(Configuration configuration, MybatisParamHolder paramHolder, Table table,
                                     Class<?> ntClass, Collection<?> ids) {
@@ -45,18 +55,9 @@ public abstract class AbstractSelectSqlGenerate implements SelectSqlGenerate {
             tableName = entityClassInfo.getTableNameWithSchema(kwQM);
         }
         String idColumn = entityClassInfo.getPrimaryKeyInfo().getColumnName();
-        StringBuilder sqlBuilder = new StringBuilder("SELECT * FROM " + tableName + " WHERE " + kwQM +
-                idColumn + kwQM + " IN ( ");
-        int i = 0;
-        for (Object id : ids) {
-            sqlBuilder.append(paramHolder.getMybatisParamName(ntClass, entityClassInfo.getPrimaryKeyInfo().getField(),
-                    id));
-            if (i + 1 != ids.size()) {
-                sqlBuilder.append(", ");
-            }
-            i++;
-        }
-        sqlBuilder.append(" )");
-        return sqlBuilder.toString();
+        StringBuilder sqlBuilder = new StringBuilder("SELECT * FROM " + tableName + " WHERE ");
+        InListStrategy strategy = InListStrategyFactory.getStrategy(configuration, ids.size());
+        return strategy.buildSql(sqlBuilder, kwQM + idColumn + kwQM, false, new FieldInListParams(configuration,
+                paramHolder, ntClass, entityClassInfo.getPrimaryKeyInfo().getField(), ids), paramHolder).toString();
     }
 }
@@ -15,7 +15,6 @@ import org.rdlinux.ezmybatis.utils.Assert;
 import org.rdlinux.ezmybatis.utils.ReflectionUtils;
 import org.rdlinux.ezmybatis.utils.TypeHandlerUtils;
 
-import java.lang.reflect.Method;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,14 +29,7 @@ public abstract class AbstractUpdateSqlGenerate implements UpdateSqlGenerate {
         }
         String keywordQM = EzMybatisContent.getKeywordQM(configuration);
         EntityClassInfo entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, model.getClass());
-        String tableName;
-        if (table != null) {
-            Converter<?> converter = EzMybatisContent.getConverter(configuration, table.getClass());
-            tableName = converter.buildSql(Converter.Type.UPDATE, new StringBuilder(), configuration, table,
-                    mybatisParamHolder).toString();
-        } else {
-            tableName = entityClassInfo.getTableNameWithSchema(keywordQM);
-        }
+        String tableName = this.getTableName(configuration, mybatisParamHolder, table, model);
         Map<String, EntityFieldInfo> columnMapFieldInfo = entityClassInfo.getColumnMapFieldInfo();
         EntityFieldInfo primaryKeyInfo = entityClassInfo.getPrimaryKeyInfo();
         String idColumn = primaryKeyInfo.getColumnName();
@@ -46,8 +38,7 @@ public abstract class AbstractUpdateSqlGenerate implements UpdateSqlGenerate {
         boolean invalidSql = true;
         for (String column : columnMapFieldInfo.keySet()) {
             EntityFieldInfo entityFieldInfo = columnMapFieldInfo.get(column);
-            Method fieldGetMethod = entityFieldInfo.getFieldGetMethod();
-            Object fieldValue = ReflectionUtils.invokeMethod(model, fieldGetMethod);
+            Object fieldValue = entityFieldInfo.getFieldValue(model);
             if ((!isReplace && fieldValue == null) || column.equals(idColumn)) {
                 continue;
             }
@@ -69,14 +60,159 @@ public abstract class AbstractUpdateSqlGenerate implements UpdateSqlGenerate {
     public String getBatchUpdateSql(Configuration configuration, MybatisParamHolder mybatisParamHolder,
                                     Table table, Collection<Object> models, boolean isReplace) {
         Assert.notEmpty(models, "models can not be empty");
+        List<String> sqls = new ArrayList<>();
+        if (!EzMybatisContent.getContentConfig(configuration).getEzMybatisConfig().isSetBasedBatchUpdate()) {
+            for (Object entity : models) {
+                sqls.add(this.getUpdateSql(configuration, mybatisParamHolder, table, entity, isReplace));
+            }
+            return this.joinBatchUpdateSql(sqls);
+        }
+        //按块生成更新语句, 块内实体类型一致且主键不重复, 重复主键放到下一块以保持按顺序更新的语义
+        List<Object> chunk = new ArrayList<>();
+        Set<Object> chunkIds = new HashSet<>();
+        int chunkSize = 0;
+        for (Object model : models) {
+            Assert.notNull(model, "model can not be null");
+            EntityFieldInfo primaryKeyInfo = EzEntityClassInfoFactory.forClass(configuration, model.getClass())
+                    .getPrimaryKeyInfo();
+            Object idValue = ReflectionUtils.getFieldValue(model, primaryKeyInfo.getField());
+            if (!chunk.isEmpty() && (chunk.size() >= chunkSize || chunk.get(0).getClass() != model.getClass() ||
+                    chunkIds.contains(idValue))) {
+                sqls.add(this.getSetBasedUpdateSql(configuration, mybatisParamHolder, table, chunk, isReplace));
+                chunk = new ArrayList<>();
+                chunkIds.clear();
+            }
+            if (chunk.isEmpty()) {
+                chunkSize = this.getBatchUpdateChunkSize(configuration, model);
+            }
+            chunk.add(model);
+            chunkIds.add(idValue);
+        }
+        sqls.add(this.getSetBasedUpdateSql(configuration, mybatisParamHolder, table, chunk, isReplace));
+        return this.joinBatchUpdateSql(sqls);
+    }
+
+    /**
+     * 生成一块实体的更新语句, 格式为UPDATE t SET c = CASE id WHEN ? THEN ? ... ELSE c END WHERE id IN ( ... ),
+     * 非replace模式下实体的空字段不会出现在对应的WHEN中
+     */
+    protected String getSetBasedUpdateSql(Configuration configuration, MybatisParamHolder mybatisParamHolder,
+                                          Table table, List<Object> models, boolean isReplace) {
+        if (models.size() == 1) {
+            return this.getUpdateSql(configuration, mybatisParamHolder, table, models.get(0), isReplace);
+        }
+        Object firstEntity = models.get(0);
+        Class<?> modelType = firstEntity.getClass();
+        String keywordQM = EzMybatisContent.getKeywordQM(configuration);
+        EntityClassInfo entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, modelType);
+        EntityFieldInfo primaryKeyInfo = entityClassInfo.getPrimaryKeyInfo();
+        String idColumn = keywordQM + primaryKeyInfo.getColumnName() + keywordQM;
+        String[] idParams = new String[models.size()];
+        for (int i = 0; i < models.size(); i++) {
+            Object idValue = ReflectionUtils.getFieldValue(models.get(i), primaryKeyInfo.getField());
+            idParams[i] = mybatisParamHolder.simpleGetMybatisParamName(modelType, primaryKeyInfo.getField(),
+                    idValue);
+        }
+        StringBuilder sqlBuilder = new StringBuilder(64 + models.size() * 32)
+                .append("UPDATE ").append(this.getTableName(configuration, mybatisParamHolder, table, firstEntity))
+                .append(" SET ");
+        boolean[] updatedRows = new boolean[models.size()];
+        boolean invalidSql = true;
+        for (EntityFieldInfo fieldInfo : entityClassInfo.getColumnMapFieldInfo().values()) {
+            if (fieldInfo.isPrimaryKey()) {
+                continue;
+            }
+            String column = keywordQM + fieldInfo.getColumnName() + keywordQM;
+            int mark = sqlBuilder.length();
+            sqlBuilder.append(column).append(" = CASE ").append(idColumn);
+            boolean hasWhen = false;
+            for (int i = 0; i < models.size(); i++) {
+                Object fieldValue = fieldInfo.getFieldValue(models.get(i));
+                if (!isReplace && fieldValue == null) {
+                    continue;
+                }
+                sqlBuilder.append(" WHEN ").append(idParams[i]).append(" THEN ")
+                        .append(mybatisParamHolder.simpleGetMybatisParamName(modelType, fieldInfo.getField(),
+                                fieldValue));
+                updatedRows[i] = true;
+                hasWhen = true;
+            }
+            if (!hasWhen) {
+                sqlBuilder.setLength(mark);
+                continue;
+            }
+            //保留ELSE分支, 使CASE表达式的类型由字段类型决定, 避免所有分支都为NULL时类型推断错误
+            sqlBuilder.append(" ELSE ").append(column).append(" END, ");
+            invalidSql = false;
+        }
+        Assert.isTrue(!invalidSql, "cannot update empty entity");
+        for (boolean updatedRow : updatedRows) {
+            Assert.isTrue(updatedRow, "cannot update empty entity");
+        }
+        sqlBuilder.setLength(sqlBuilder.length() - 2);
+        sqlBuilder.append(" WHERE ").append(idColumn).append(" IN ( ");
+        for (int i = 0; i < idParams.length; i++) {
+            if (i > 0) {
+                sqlBuilder.append(", ");
+            }
+            sqlBuilder.append(idParams[i]);
+        }
+        return sqlBuilder.append(" )").toString();
+    }
+
+    /**
+     * 拼接多块更新语句
+     */
+    protected String joinBatchUpdateSql(List<String> sqls) {
+        if (sqls.size() == 1) {
+            return sqls.get(0);
+        }
         StringBuilder sqlBuilder = new StringBuilder();
-        for (Object entity : models) {
-            String sqlTmpl = this.getUpdateSql(configuration, mybatisParamHolder, table, entity, isReplace);
-            sqlBuilder.append(sqlTmpl).append(";\n");
+        for (String sql : sqls) {
+            sqlBuilder.append(sql).append(";\n");
         }
         return sqlBuilder.toString();
     }
 
+    @Override
+    public int getBatchUpdateChunkSize(Configuration configuration, Object model) {
+        Assert.notNull(model, "model can not be null");
+        EntityClassInfo entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, model.getClass());
+        if (!EzMybatisContent.getContentConfig(configuration).getEzMybatisConfig().isSetBasedBatchUpdate()) {
+            //逐条拼接时每行每个字段占用一个参数
+            int rowParams = Math.max(entityClassInfo.getColumnMapFieldInfo().size(), 1);
+            return Math.max(this.getBatchUpdateMaxParams() / rowParams, 1);
+        }
+        //每行每个更新字段占用主键与值两个参数, 另外in条件中的主键占用一个参数
+        int rowParams = Math.max(entityClassInfo.getColumnMapFieldInfo().size() - 1, 1) * 2 + 1;
+        return Math.max(Math.min(this.getBatchUpdateMaxParams() / rowParams, this.getBatchUpdateMaxRows()), 1);
+    }
+
+    /**
+     * 单条批量更新sql允许的最大参数数量
+     */
+    protected int getBatchUpdateMaxParams() {
+        return 65535;
+    }
+
+    /**
+     * 单条批量更新sql允许的最大行数, 同时也是in条件中主键的最大数量
+     */
+    protected int getBatchUpdateMaxRows() {
+        return 1000;
+    }
+
+    private String getTableName(Configuration configuration, MybatisParamHolder mybatisParamHolder, Table table,
+                                Object model) {
+        if (table != null) {
+            Converter<?> converter = EzMybatisContent.getConverter(configuration, table.getClass());
+            return converter.buildSql(Converter.Type.UPDATE, new StringBuilder(), configuration, table,
+                    mybatisParamHolder).toString();
+        }
+        return EzEntityClassInfoFactory.forClass(configuration, model.getClass())
+                .getTableNameWithSchema(EzMybatisContent.getKeywordQM(configuration));
+    }
+
     @Override
     public EzJdbcBatchSql getJdbcBatchUpdateSql(Configuration configuration, Table table, Collection<?> models,
                                                 Collection<String> updateFields, boolean isReplace) {
@@ -121,12 +257,11 @@ public abstract class AbstractUpdateSqlGenerate implements UpdateSqlGenerate {
                 }
             } else {
                 for (EntityFieldInfo fieldInfo : allColumnMapFieldInfo.values()) {
-                    Method fieldGetMethod = fieldInfo.getFieldGetMethod();
                     for (Object model : models) {
                         if (!firstEntity.getClass().getName().equals(model.getClass().getName())) {
                             throw new IllegalArgumentException("Inconsistent object types within the container");
                         }
-                        Object fieldValue = ReflectionUtils.invokeMethod(model, fieldGetMethod);
+                        Object fieldValue = fieldInfo.getFieldValue(model);
                         if (fieldValue != null && !fieldInfo.isPrimaryKey()) {
                             if (!existsUpdateFieldInfos.contains(fieldInfo.getFieldName())) {
                                 updateFieldInfo.add(fieldInfo);
@@ -154,10 +289,9 @@ public abstract class AbstractUpdateSqlGenerate implements UpdateSqlGenerate {
                 sqlBuilder.append(", ");
             }
             TypeHandler<?> typeHandler = TypeHandlerUtils.getTypeHandle(configuration, fieldInfo.getField());
-            Method fieldGetMethod = fieldInfo.getFieldGetMethod();
             int eti = 0;
             for (Object model : models) {
-                Object fieldValue = ReflectionUtils.invokeMethod(model, fieldGetMethod);
+                Object fieldValue = fieldInfo.getFieldValue(model);
                 fieldValue = EzMybatisContent.onBuildSqlGetField(configuration, Boolean.TRUE, model.getClass(),
                         fieldInfo.getField(), fieldValue);
                 JdbcType jdbcType = TypeHandlerUtils.getJdbcType(fieldValue);
@@ -0,0 +1,268 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.classinfo.EzEntityClassInfoFactory;
+import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityFieldInfo;
+import org.rdlinux.ezmybatis.core.sqlstruct.*;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.ArgCompareArgCondition;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.Condition;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.GroupCondition;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
+import org.rdlinux.ezmybatis.enumeration.AndOr;
+import org.rdlinux.ezmybatis.enumeration.JoinType;
+import org.rdlinux.ezmybatis.enumeration.Operator;
+
+import java.util.*;
+
+/**
+ * count查询优化, 移除不会改变结果行数的左连接, 只有一个分组项且没有having时使用COUNT(DISTINCT)代替分组子查询
+ */
+public class CountQueryOptimizer {
+    private CountQueryOptimizer() {
+    }
+
+    /**
+     * 获取count查询需要保留的连表.<br/>
+     * 左连接的on条件中包含被连接表主键的等值条件时, 每一行最多连接到一行数据, 如果被连接表没有在查询条件、分组、having
+     * 以及其他保留的连表条件中被引用, 则该连接不会改变结果行数, 可以移除. 条件中存在无法分析的结构时不做优化
+     */
+    public static List<Join> getCountJoins(Configuration configuration, EzQuery<?> query) {
+        List<Join> joins = query.getJoins();
+        if (joins == null || joins.isEmpty()) {
+            return joins;
+        }
+        Set<Table> referenced = newIdentitySet();
+        if (query.getWhere() != null && !collectConditions(query.getWhere().getConditions(), referenced)) {
+            return joins;
+        }
+        if (query.getGroupBy() != null && !collectOperands(query.getGroupBy().getItems(), referenced)) {
+            return joins;
+        }
+        if (query.getHaving() != null && !collectConditions(query.getHaving().getConditions(), referenced)) {
+            return joins;
+        }
+        List<Join> allJoins = new ArrayList<>();
+        flatten(joins, allJoins);
+        Set<Join> removed = newIdentitySet();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Join join : allJoins) {
+                if (!removed.contains(join) && isRemovable(configuration, join, allJoins, referenced, removed)) {
+                    removed.add(join);
+                    changed = true;
+                }
+            }
+        }
+        if (removed.isEmpty()) {
+            return joins;
+        }
+        return retain(joins, removed);
+    }
+
+    /**
+     * 获取可以使用COUNT(DISTINCT)统计分组数量的分组项, 只有一个列分组且没有having条件时返回该分组项, 否则返回null
+     */
+    public static Operand getDistinctCountItem(EzQuery<?> query) {
+        GroupBy groupBy = query.getGroupBy();
+        if (groupBy == null || groupBy.getItems() == null || groupBy.getItems().size() != 1) {
+            return null;
+        }
+        Having having = query.getHaving();
+        if (having != null && having.getConditions() != null && !having.getConditions().isEmpty()) {
+            return null;
+        }
+        Operand item = groupBy.getItems().get(0);
+        if (item instanceof EntityField || item instanceof TableColumn) {
+            return item;
+        }
+        return null;
+    }
+
+    private static boolean isRemovable(Configuration configuration, Join join, List<Join> allJoins,
+                                       Set<Table> referenced, Set<Join> removed) {
+        if (!join.isSure() || join.getJoinType() != JoinType.LeftJoin ||
+                !(join.getJoinTable() instanceof EntityTable)) {
+            return false;
+        }
+        Table joinTable = join.getJoinTable();
+        if (referenced.contains(joinTable)) {
+            return false;
+        }
+        if (join.getJoins() != null) {
+            for (Join sonJoin : join.getJoins()) {
+                if (!removed.contains(sonJoin)) {
+                    return false;
+                }
+            }
+        }
+        if (!hasPrimaryKeyCondition(configuration, (EntityTable) joinTable, join.getOnConditions())) {
+            return false;
+        }
+        for (Join other : allJoins) {
+            if (other == join || removed.contains(other) || !other.isSure()) {
+                continue;
+            }
+            Set<Table> onTables = newIdentitySet();
+            if (!collectConditions(other.getOnConditions(), onTables) || onTables.contains(joinTable)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * on条件全部使用and连接, 并且包含被连接表主键与其他表列或者常量的等值条件
+     */
+    private static boolean hasPrimaryKeyCondition(Configuration configuration, EntityTable joinTable,
+                                                  List<Condition> onConditions) {
+        if (onConditions == null || onConditions.isEmpty()) {
+            return false;
+        }
+        EntityFieldInfo primaryKeyInfo = EzEntityClassInfoFactory.forClass(configuration, joinTable.getEtType())
+                .getPrimaryKeyInfo();
+        if (primaryKeyInfo == null) {
+            return false;
+        }
+        boolean found = false;
+        for (int i = 0; i < onConditions.size(); i++) {
+            Condition condition = onConditions.get(i);
+            if (i > 0 && condition.getAndOr() != AndOr.AND) {
+                return false;
+            }
+            if (found || !(condition instanceof ArgCompareArgCondition)) {
+                continue;
+            }
+            ArgCompareArgCondition compare = (ArgCompareArgCondition) condition;
+            if (compare.getOperator() != Operator.eq) {
+                continue;
+            }
+            found = isPrimaryKey(joinTable, primaryKeyInfo, compare.getLeftValue()) &&
+                    isOuterValue(joinTable, compare.getRightValue()) ||
+                    isPrimaryKey(joinTable, primaryKeyInfo, compare.getRightValue()) &&
+                            isOuterValue(joinTable, compare.getLeftValue());
+        }
+        return found;
+    }
+
+    private static boolean isPrimaryKey(EntityTable joinTable, EntityFieldInfo primaryKeyInfo, Operand operand) {
+        if (operand instanceof EntityField) {
+            EntityField field = (EntityField) operand;
+            return field.getTable() == joinTable && field.getField().equals(primaryKeyInfo.getFieldName());
+        }
+        if (operand instanceof TableColumn) {
+            TableColumn column = (TableColumn) operand;
+            return column.getTable() == joinTable &&
+                    column.getColumn().equalsIgnoreCase(primaryKeyInfo.getColumnName());
+        }
+        return false;
+    }
+
+    /**
+     * 是否是其他表的列或者常量
+     */
+    private static boolean isOuterValue(Table joinTable, Operand operand) {
+        if (operand instanceof EntityField) {
+            return ((EntityField) operand).getTable() != joinTable;
+        }
+        if (operand instanceof TableColumn) {
+            return ((TableColumn) operand).getTable() != joinTable;
+        }
+        return operand instanceof ObjArg && !(((ObjArg) operand).getArg() instanceof Collection);
+    }
+
+    /**
+     * 收集条件中引用的表, 存在无法分析的条件时返回false
+     */
+    private static boolean collectConditions(List<Condition> conditions, Set<Table> tables) {
+        if (conditions == null) {
+            return true;
+        }
+        for (Condition condition : conditions) {
+            if (condition instanceof GroupCondition) {
+                GroupCondition groupCondition = (GroupCondition) condition;
+                if (groupCondition.isSure() && !collectConditions(groupCondition.getConditions(), tables)) {
+                    return false;
+                }
+            } else if (condition instanceof ArgCompareArgCondition) {
+                ArgCompareArgCondition compare = (ArgCompareArgCondition) condition;
+                if (!collectOperand(compare.getLeftValue(), tables) ||
+                        !collectOperand(compare.getRightValue(), tables) ||
+                        !collectOperand(compare.getMinValue(), tables) ||
+                        !collectOperand(compare.getMaxValue(), tables) ||
+                        !collectOperands(compare.getRightValues(), tables)) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean collectOperands(List<Operand> operands, Set<Table> tables) {
+        if (operands == null) {
+            return true;
+        }
+        for (Operand operand : operands) {
+            if (!collectOperand(operand, tables)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 收集参数中引用的表, 函数、公式、子查询等无法分析的参数返回false
+     */
+    private static boolean collectOperand(Operand operand, Set<Table> tables) {
+        if (operand == null || operand instanceof ObjArg || operand instanceof Keywords) {
+            return true;
+        }
+        if (operand instanceof EntityField) {
+            tables.add(((EntityField) operand).getTable());
+            return true;
+        }
+        if (operand instanceof TableColumn) {
+            tables.add(((TableColumn) operand).getTable());
+            return true;
+        }
+        return false;
+    }
+
+    private static void flatten(List<Join> joins, List<Join> allJoins) {
+        for (Join join : joins) {
+            allJoins.add(join);
+            if (join.getJoins() != null) {
+                flatten(join.getJoins(), allJoins);
+            }
+        }
+    }
+
+    /**
+     * 复制保留的连表, 不修改原始查询
+     */
+    private static List<Join> retain(List<Join> joins, Set<Join> removed) {
+        List<Join> ret = new ArrayList<>(joins.size());
+        for (Join join : joins) {
+            if (removed.contains(join)) {
+                continue;
+            }
+            if (join.getJoins() == null || join.getJoins().isEmpty()) {
+                ret.add(join);
+                continue;
+            }
+            Join copy = new Join().setTable(join.getTable()).setJoinType(join.getJoinType())
+                    .setJoinTable(join.getJoinTable()).setOnConditions(join.getOnConditions())
+                    .setJoins(retain(join.getJoins(), removed)).setSure(join.isSure());
+            ret.add(copy);
+        }
+        return ret;
+    }
+
+    private static <T> Set<T> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
@@ -6,5 +6,15 @@ import org.rdlinux.ezmybatis.core.EzQuery;
 public interface EzQueryToSql {
     String toSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query);
 
+    /**
+     * 生成分页查询sql, 数据库支持时在结果集中同时返回总数
+     */
+    String toSqlWithTotal(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query);
+
     String toCountSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query);
+
+    /**
+     * 生成判断是否存在数据的sql, 最多返回一行
+     */
+    String toExistsSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query);
 }
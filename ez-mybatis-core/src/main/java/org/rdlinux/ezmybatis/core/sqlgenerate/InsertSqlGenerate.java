@@ -2,6 +2,7 @@ package org.rdlinux.ezmybatis.core.sqlgenerate;
 
 import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.core.EzJdbcBatchSql;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
 import org.rdlinux.ezmybatis.core.EzQuery;
 import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
 
@@ -14,11 +15,30 @@ public interface InsertSqlGenerate {
     String getBatchInsertSql(Configuration configuration, MybatisParamHolder mybatisParamHolder,
                              Table table, Collection<Object> models);
 
+    /**
+     * 获取单条批量插入sql最多插入的行数, 超出时需要拆分为多条sql执行
+     */
+    int getBatchInsertChunkSize(Configuration configuration, Object model);
+
     /**
      * 获取jdbc批量插入sql
      */
     EzJdbcBatchSql getJdbcBatchInsertSql(Configuration configuration, Table table, Collection<?> models);
 
+    /**
+     * 获取jdbc插入sql, 参数由调用方按列顺序从实体中取值绑定
+     */
+    EzJdbcInsertSql getJdbcInsertSql(Configuration configuration, Table table, Object model);
+
+    /**
+     * 获取jdbc存在则更新不存在则插入sql, 参数与{@link #getJdbcInsertSql}一致, 由调用方按列顺序从实体中取值绑定
+     *
+     * @param conflictFields 判断数据是否存在的属性, 为空时使用主键
+     * @param updateFields   数据存在时更新的属性, 为空时更新除判断属性外的全部属性
+     */
+    EzJdbcInsertSql getJdbcUpsertSql(Configuration configuration, Table table, Object model,
+                                     Collection<String> conflictFields, Collection<String> updateFields);
+
     String getInsertByQuerySql(Configuration configuration, MybatisParamHolder mybatisParamHolder,
                                Table table, EzQuery<?> query);
 }
@@ -1,12 +1,17 @@
 package org.rdlinux.ezmybatis.core.sqlgenerate;
 
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.ArrayTypeHandler;
 import org.rdlinux.ezmybatis.constant.EzMybatisConstant;
+import org.rdlinux.ezmybatis.core.EzExecutionContext;
 import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.sqlstruct.ObjArg;
+import org.rdlinux.ezmybatis.core.sqlstruct.SqlStruct;
 import org.rdlinux.ezmybatis.utils.Assert;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -32,19 +37,66 @@ public class MybatisParamHolder {
      */
     private Map<String, Object> mybatisParam;
     private Configuration configuration;
+    /**
+     * 数字参数也使用预编译参数绑定
+     */
+    private boolean bindNumberParam;
+    /**
+     * 录制的参数槽位, 为null时表示未开启录制
+     */
+    private List<SqlTemplate.Slot> recordSlots;
+    /**
+     * 录制期间是否出现了无法回放的参数
+     */
+    private boolean recordBroken;
+    /**
+     * 执行上下文
+     */
+    private final EzExecutionContext context;
 
     public MybatisParamHolder(Configuration configuration, Map<String, Object> mybatisParam) {
         Assert.notNull(mybatisParam, "mybatisParam can not be null");
         this.configuration = configuration;
         this.mybatisParam = mybatisParam;
+        this.context = EzExecutionContext.of(mybatisParam);
+        if (configuration != null) {
+            this.bindNumberParam = EzMybatisContent.getContentConfig(configuration).getEzMybatisConfig()
+                    .isBindNumberParam();
+        }
         this.transposeArray();
     }
 
+    /**
+     * 获取执行上下文
+     */
+    public EzExecutionContext getContext() {
+        return this.context;
+    }
+
+    /**
+     * 触发属性获取事件, 执行上下文跳过监听器时返回原值
+     *
+     * @param isSimple 是否是简单模式
+     */
+    public Object onBuildSqlGetField(boolean isSimple, Class<?> modelType, Field field, Object value) {
+        if (this.configuration == null || modelType == null || field == null || this.context.isSkipFieldListeners()) {
+            return value;
+        }
+        return EzMybatisContent.onBuildSqlGetField(this.configuration, isSimple, modelType, field, value);
+    }
+
+    /**
+     * 是否开启数字参数绑定
+     */
+    public boolean isBindNumberParam() {
+        return this.bindNumberParam;
+    }
+
     /**
      * 获取mybatis参数占位符
      */
-    private static String getEscapeChar(Object param) {
-        if (param instanceof Number) {
+    String getEscapeChar(Object param) {
+        if (!this.bindNumberParam && param instanceof Number) {
             return "$";
         } else {
             return "#";
@@ -82,32 +134,95 @@ public class MybatisParamHolder {
      * @param paramValue 参数值
      */
     public String getMybatisParamName(Class<?> modelType, Field field, Object paramValue) {
-        if (this.configuration != null && modelType != null && field != null) {
-            paramValue = EzMybatisContent.onBuildSqlGetField(this.configuration, Boolean.FALSE, modelType, field,
-                    paramValue);
-        }
+        paramValue = this.onBuildSqlGetField(Boolean.FALSE, modelType, field, paramValue);
         return this.getMybatisParamName(paramValue);
     }
 
+    /**
+     * 获取对象参数的参数名称，触发非简单模式事件, 开启录制时会记录参数槽位
+     *
+     * @param objArg 对象参数
+     */
+    public String getMybatisParamName(Class<?> modelType, Field field, ObjArg objArg) {
+        Object paramValue = objArg.getArg();
+        paramValue = this.onBuildSqlGetField(Boolean.FALSE, modelType, field, paramValue);
+        return this.getConvertedMybatisParamName(modelType, field, objArg, paramValue);
+    }
+
+    /**
+     * 获取对象参数的参数名称, 参数值已经触发过非简单模式事件, 不再重复触发, 开启录制时会记录参数槽位
+     *
+     * @param objArg     对象参数
+     * @param paramValue 已触发事件的参数值
+     */
+    public String getConvertedMybatisParamName(Class<?> modelType, Field field, ObjArg objArg, Object paramValue) {
+        if (this.recordSlots != null) {
+            this.recordSlots.add(new SqlTemplate.Slot(objArg, modelType, field, paramValue));
+        }
+        return this.addParam(paramValue);
+    }
+
     /**
      * 获取一个参数名称, 触发简单模式事件
      *
      * @param paramValue 参数值
      */
     public String simpleGetMybatisParamName(Class<?> modelType, Field field, Object paramValue) {
-        if (this.configuration != null && modelType != null && field != null) {
-            paramValue = EzMybatisContent.onBuildSqlGetField(this.configuration, Boolean.TRUE, modelType, field,
-                    paramValue);
-        }
+        paramValue = this.onBuildSqlGetField(Boolean.TRUE, modelType, field, paramValue);
         return this.getMybatisParamName(paramValue);
     }
 
+    /**
+     * 获取结构体数字属性(例如分页的skip, size)的参数名称, 未开启数字参数绑定时直接返回数字字面量,
+     * 开启录制时会记录参数槽位. 使用该方法绑定的属性, 渲染出的sql文本不能依赖属性值
+     *
+     * @param struct   结构体
+     * @param property 属性名称
+     * @param value    属性值
+     */
+    public String getNumberParamName(SqlStruct struct, String property, Number value) {
+        Assert.notNull(value, "value can not be null");
+        if (!this.bindNumberParam) {
+            return value.toString();
+        }
+        if (this.recordSlots != null) {
+            this.recordSlots.add(new SqlTemplate.Slot(struct, property, value));
+        }
+        return this.addParam(value);
+    }
+
     /**
      * 获取一个参数名称
      *
      * @param paramValue 参数值
      */
     public String getMybatisParamName(Object paramValue) {
+        if (this.recordSlots != null) {
+            this.recordBroken = true;
+        }
+        return this.addParam(paramValue);
+    }
+
+    /**
+     * 获取一个数组参数名称, 使用{@link ArrayTypeHandler}绑定为jdbc数组
+     *
+     * @param array 数组
+     */
+    public String getMybatisArrayParamName(Object array) {
+        if (this.recordSlots != null) {
+            this.recordBroken = true;
+        }
+        String paramName = this.addParam(array);
+        return paramName.substring(0, paramName.length() - 1) + ",typeHandler=" +
+                ArrayTypeHandler.class.getName() + "}";
+    }
+
+    /**
+     * 添加参数并返回参数名称
+     *
+     * @param paramValue 参数值
+     */
+    private String addParam(Object paramValue) {
         if (paramValue == null) {
             return "NULL";
         }
@@ -115,8 +230,37 @@ public class MybatisParamHolder {
             this.transposeArray();
         }
         this.currentArray.add(paramValue);
-        String escape = getEscapeChar(paramValue);
+        String escape = this.getEscapeChar(paramValue);
         String mybatisParamName = this.getCurrentHashKeyName() + "[" + (this.currentArray.size() - 1) + "]";
         return escape + "{" + mybatisParamName + "}";
     }
+
+    /**
+     * 是否还未持有任何参数
+     */
+    boolean isEmpty() {
+        return this.currentArrayIndex == 0 && this.currentArray.isEmpty();
+    }
+
+    /**
+     * 开始录制参数槽位
+     */
+    void startRecord() {
+        this.recordSlots = new ArrayList<>();
+        this.recordBroken = false;
+    }
+
+    /**
+     * 结束录制参数槽位
+     *
+     * @return 录制的参数槽位, 如果录制期间出现了无法回放的参数则返回null
+     */
+    List<SqlTemplate.Slot> stopRecord() {
+        List<SqlTemplate.Slot> slots = this.recordSlots;
+        this.recordSlots = null;
+        if (this.recordBroken) {
+            return null;
+        }
+        return slots;
+    }
 }
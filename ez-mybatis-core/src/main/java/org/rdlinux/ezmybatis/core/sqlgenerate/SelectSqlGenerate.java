@@ -16,4 +16,20 @@ public interface SelectSqlGenerate {
     String getQuerySql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query);
 
     String getQueryCountSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query);
+
+    /**
+     * 判断是否存在数据的sql
+     */
+    String getExistsSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query);
+
+    /**
+     * 分页查询sql, 数据库支持时在结果集中同时返回总数
+     */
+    String getQueryWithTotalSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query);
+
+    /**
+     * 从数据库统计信息中读取表的估算行数, 估算行数小于{@link org.rdlinux.ezmybatis.EzMybatisConfig#getApproximateCountThreshold()}
+     * 或者没有统计信息时查询结果为空
+     */
+    String getApproximateCountSql(Configuration configuration, MybatisParamHolder paramHolder, Table table);
 }
@@ -0,0 +1,297 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate;
+
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.sqlstruct.ObjArg;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.AbstractTable;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * sql结构, 由sql结构体的对象图生成, 对象参数只记录类型不记录值, 表别名只记录出现顺序, 作为缓存key时不引用用户对象.<br/>
+ * 开启数字参数绑定时, 结构体的数字属性(例如分页的skip, size)只记录位置与是否为0, 不记录值, 由模板绑定或校验.
+ * 第一页(skip为0)的sql结构通常与其他页不同, 因此单独记录是否为0
+ */
+public class SqlShape {
+    /**
+     * 类型的结构信息, 每个类型只解析一次, 类卸载时随之回收
+     */
+    private static final ClassValue<ShapeType> SHAPE_TYPES = new ClassValue<ShapeType>() {
+        @Override
+        protected ShapeType computeValue(Class<?> type) {
+            return new ShapeType(type);
+        }
+    };
+    /**
+     * 结构键, 由类型, 长度, 字符串等结构元素组成, 不包含对象参数的值, 作为缓存key长期保存
+     */
+    private final Object[] key;
+    private final int hash;
+
+    private SqlShape(Object[] key) {
+        this.key = key;
+        this.hash = Arrays.hashCode(key);
+    }
+
+    /**
+     * 生成sql结构
+     *
+     * @param dbType          数据库类型
+     * @param bindNumberParam 是否开启数字参数绑定
+     * @param statement       语句名称
+     * @param struct          sql结构体
+     * @return 结构体中存在无法识别的对象时返回null
+     */
+    public static SqlShape of(DbType dbType, boolean bindNumberParam, String statement, Object struct) {
+        Binding binding = collect(dbType, bindNumberParam, statement, struct);
+        return binding == null ? null : binding.shape;
+    }
+
+    /**
+     * 生成sql结构, 同时收集本次调用的对象参数与结构体数字属性
+     *
+     * @return 结构体中存在无法识别的对象时返回null
+     */
+    static Binding collect(DbType dbType, boolean bindNumberParam, String statement, Object struct) {
+        Walker walker = new Walker(bindNumberParam);
+        walker.key.add(dbType);
+        walker.key.add(statement);
+        if (!walker.walk(struct)) {
+            return null;
+        }
+        return new Binding(new SqlShape(walker.key.toArray()), walker.args, walker.argIndexes, walker.values);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SqlShape)) {
+            return false;
+        }
+        SqlShape other = (SqlShape) o;
+        return this.hash == other.hash && Arrays.equals(this.key, other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    /**
+     * 结构键中的标记
+     */
+    private enum Token {
+        NULL, VALUE, ZERO_VALUE, REF, ARG, LIST, MAP, ARRAY
+    }
+
+    /**
+     * 单次调用从结构体中收集的对象参数与结构体数字属性, 只在本次调用中用于录制与绑定模板, 不放入缓存
+     */
+    static class Binding {
+        private final SqlShape shape;
+        /**
+         * 按遍历顺序排列的对象参数
+         */
+        private final List<ObjArg> args;
+        /**
+         * 对象参数在遍历顺序中的下标
+         */
+        private final Map<ObjArg, Integer> argIndexes;
+        /**
+         * 按遍历顺序排列的结构体数字属性
+         */
+        private final List<ValueRef> values;
+
+        private Binding(SqlShape shape, List<ObjArg> args, Map<ObjArg, Integer> argIndexes, List<ValueRef> values) {
+            this.shape = shape;
+            this.args = args;
+            this.argIndexes = argIndexes;
+            this.values = values;
+        }
+
+        SqlShape getShape() {
+            return this.shape;
+        }
+
+        ObjArg getArg(int index) {
+            return this.args.get(index);
+        }
+
+        int indexOf(ObjArg objArg) {
+            Integer index = this.argIndexes.get(objArg);
+            return index == null ? -1 : index;
+        }
+
+        int getValueCount() {
+            return this.values.size();
+        }
+
+        Object getValue(int index) {
+            return this.values.get(index).value;
+        }
+
+        /**
+         * 获取结构体数字属性的下标
+         *
+         * @param struct   结构体
+         * @param property 属性名称
+         */
+        int indexOfValue(Object struct, String property) {
+            for (int i = 0; i < this.values.size(); i++) {
+                ValueRef ref = this.values.get(i);
+                if (ref.owner == struct && ref.property.equals(property)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 结构体的数字属性
+     */
+    private static class ValueRef {
+        private final Object owner;
+        private final String property;
+        private final Object value;
+
+        private ValueRef(Object owner, String property, Object value) {
+            this.owner = owner;
+            this.property = property;
+            this.value = value;
+        }
+    }
+
+    /**
+     * 类型的结构信息
+     */
+    private static class ShapeType {
+        /**
+         * 无法确定jdk内部对象如何参与渲染, 不进行缓存
+         */
+        private final boolean unsupported;
+        private final Field[] fields;
+
+        private ShapeType(Class<?> type) {
+            String typeName = type.getName();
+            this.unsupported = typeName.startsWith("java.") || typeName.startsWith("javax.")
+                    || typeName.startsWith("sun.");
+            List<Field> fields = new ArrayList<>();
+            if (!this.unsupported) {
+                for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers())) {
+                            continue;
+                        }
+                        //表别名只用于sql内部引用, 由对象引用关系表达即可
+                        if (c == AbstractTable.class && field.getName().equals("alias")) {
+                            continue;
+                        }
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            this.fields = fields.toArray(new Field[0]);
+        }
+    }
+
+    private static class Walker {
+        private final boolean bindNumberParam;
+        private final List<Object> key = new ArrayList<>(64);
+        private final List<ObjArg> args = new ArrayList<>();
+        private final Map<ObjArg, Integer> argIndexes = new IdentityHashMap<>();
+        private final List<ValueRef> values = new ArrayList<>(4);
+        private final Map<Object, Integer> visited = new IdentityHashMap<>();
+
+        private Walker(boolean bindNumberParam) {
+            this.bindNumberParam = bindNumberParam;
+        }
+
+        private boolean walk(Object obj) {
+            if (obj == null) {
+                this.key.add(Token.NULL);
+                return true;
+            }
+            if (obj instanceof String || obj instanceof Number || obj instanceof Boolean
+                    || obj instanceof Character || obj instanceof Enum || obj instanceof Class) {
+                this.key.add(obj);
+                return true;
+            }
+            //对象参数是叶子节点, 不需要记录引用关系, 重复出现时按最后一次出现的位置绑定, 值相同
+            if (obj instanceof ObjArg) {
+                Object arg = ((ObjArg) obj).getArg();
+                this.argIndexes.put((ObjArg) obj, this.args.size());
+                this.args.add((ObjArg) obj);
+                this.key.add(Token.ARG);
+                this.key.add(arg == null ? Token.NULL : arg.getClass());
+                return true;
+            }
+            Integer visitedIndex = this.visited.get(obj);
+            if (visitedIndex != null) {
+                this.key.add(Token.REF);
+                this.key.add(visitedIndex);
+                return true;
+            }
+            this.visited.put(obj, this.visited.size());
+            if (obj instanceof Collection) {
+                Collection<?> collection = (Collection<?>) obj;
+                this.key.add(Token.LIST);
+                this.key.add(collection.size());
+                for (Object element : collection) {
+                    if (!this.walk(element)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (obj instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) obj;
+                this.key.add(Token.MAP);
+                this.key.add(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (!this.walk(entry.getKey()) || !this.walk(entry.getValue())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            Class<?> type = obj.getClass();
+            if (type.isArray()) {
+                int length = Array.getLength(obj);
+                this.key.add(Token.ARRAY);
+                this.key.add(length);
+                for (int i = 0; i < length; i++) {
+                    if (!this.walk(Array.get(obj, i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            ShapeType shapeType = SHAPE_TYPES.get(type);
+            if (shapeType.unsupported) {
+                return false;
+            }
+            this.key.add(type);
+            try {
+                for (Field field : shapeType.fields) {
+                    Object value = field.get(obj);
+                    if (this.bindNumberParam && value instanceof Number) {
+                        this.values.add(new ValueRef(obj, field.getName(), value));
+                        this.key.add(((Number) value).doubleValue() == 0 ? Token.ZERO_VALUE : Token.VALUE);
+                        this.key.add(value.getClass());
+                    } else if (!this.walk(value)) {
+                        return false;
+                    }
+                }
+            } catch (IllegalAccessException e) {
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate;
+
+import org.rdlinux.ezmybatis.core.sqlstruct.ObjArg;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 已编译的sql模板, 相同结构的sql只需要将新的参数值按顺序绑定即可复用
+ */
+public class SqlTemplate {
+    /**
+     * 空值占位符
+     */
+    private static final String NULL_ESCAPE = "N";
+    /**
+     * 渲染好的sql
+     */
+    private final String sql;
+    /**
+     * 每个参数槽位对应的对象参数下标, 结构体数字属性槽位为-1
+     */
+    private final int[] argIndexes;
+    /**
+     * 每个参数槽位对应的结构体数字属性下标, 对象参数槽位为-1
+     */
+    private final int[] valueIndexes;
+    /**
+     * 每个参数槽位对应的实体类型
+     */
+    private final Class<?>[] modelTypes;
+    /**
+     * 每个参数槽位对应的实体属性
+     */
+    private final Field[] fields;
+    /**
+     * 每个参数槽位渲染时的占位符
+     */
+    private final String[] escapes;
+    /**
+     * 未绑定为参数的结构体数字属性渲染时的值, 绑定为参数的属性为null, 复用模板时这些值必须相同
+     */
+    private final Object[] guardValues;
+
+    private SqlTemplate(String sql, int size, int valueCount) {
+        this.sql = sql;
+        this.argIndexes = new int[size];
+        this.valueIndexes = new int[size];
+        this.modelTypes = new Class<?>[size];
+        this.fields = new Field[size];
+        this.escapes = new String[size];
+        this.guardValues = new Object[valueCount];
+    }
+
+    private static String getEscape(MybatisParamHolder paramHolder, Object value) {
+        if (value == null) {
+            return NULL_ESCAPE;
+        }
+        return paramHolder.getEscapeChar(value);
+    }
+
+    /**
+     * 根据录制的参数槽位创建模板
+     *
+     * @param paramHolder 渲染时使用的参数持有器
+     * @param sql         渲染好的sql
+     * @param binding     本次调用的sql结构与参数
+     * @param slots       录制的参数槽位
+     * @return 如果存在无法定位的参数则返回null
+     */
+    static SqlTemplate of(MybatisParamHolder paramHolder, String sql, SqlShape.Binding binding,
+                           List<Slot> slots) {
+        SqlTemplate template = new SqlTemplate(sql, slots.size(), binding.getValueCount());
+        boolean[] boundValues = new boolean[binding.getValueCount()];
+        for (int i = 0; i < slots.size(); i++) {
+            Slot slot = slots.get(i);
+            if (slot.objArg != null) {
+                template.argIndexes[i] = binding.indexOf(slot.objArg);
+                template.valueIndexes[i] = -1;
+                if (template.argIndexes[i] < 0) {
+                    return null;
+                }
+            } else {
+                template.argIndexes[i] = -1;
+                template.valueIndexes[i] = binding.indexOfValue(slot.struct, slot.property);
+                if (template.valueIndexes[i] < 0) {
+                    return null;
+                }
+                boundValues[template.valueIndexes[i]] = true;
+            }
+            template.modelTypes[i] = slot.modelType;
+            template.fields[i] = slot.field;
+            template.escapes[i] = getEscape(paramHolder, slot.value);
+        }
+        for (int i = 0; i < boundValues.length; i++) {
+            if (!boundValues[i]) {
+                template.guardValues[i] = binding.getValue(i);
+            }
+        }
+        return template;
+    }
+
+    public String getSql() {
+        return this.sql;
+    }
+
+    /**
+     * 将新的参数值绑定到参数持有器
+     *
+     * @return 参数值与模板不兼容(例如空值变化, 未绑定的数字属性变化)时返回false, 此时不会修改参数持有器
+     */
+    boolean bind(MybatisParamHolder paramHolder, SqlShape.Binding binding) {
+        for (int i = 0; i < this.guardValues.length; i++) {
+            if (this.guardValues[i] != null && !Objects.equals(this.guardValues[i], binding.getValue(i))) {
+                return false;
+            }
+        }
+        Object[] values = new Object[this.argIndexes.length];
+        for (int i = 0; i < this.argIndexes.length; i++) {
+            Object value;
+            if (this.argIndexes[i] >= 0) {
+                value = binding.getArg(this.argIndexes[i]).getArg();
+                value = paramHolder.onBuildSqlGetField(Boolean.FALSE, this.modelTypes[i], this.fields[i], value);
+            } else {
+                value = binding.getValue(this.valueIndexes[i]);
+            }
+            if (!this.escapes[i].equals(getEscape(paramHolder, value))) {
+                return false;
+            }
+            values[i] = value;
+        }
+        for (Object value : values) {
+            if (value != null) {
+                paramHolder.getMybatisParamName(value);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 录制时的参数槽位
+     */
+    static class Slot {
+        private final ObjArg objArg;
+        private final Object struct;
+        private final String property;
+        private final Class<?> modelType;
+        private final Field field;
+        private final Object value;
+
+        /**
+         * 对象参数槽位
+         */
+        Slot(ObjArg objArg, Class<?> modelType, Field field, Object value) {
+            this.objArg = objArg;
+            this.struct = null;
+            this.property = null;
+            this.modelType = modelType;
+            this.field = field;
+            this.value = value;
+        }
+
+        /**
+         * 结构体数字属性槽位
+         */
+        Slot(Object struct, String property, Object value) {
+            this.objArg = null;
+            this.struct = struct;
+            this.property = property;
+            this.modelType = null;
+            this.field = null;
+            this.value = value;
+        }
+    }
+}
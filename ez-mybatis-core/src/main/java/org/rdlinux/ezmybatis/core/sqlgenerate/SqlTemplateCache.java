@@ -0,0 +1,176 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.utils.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * sql模板缓存, 按sql结构缓存已渲染的sql, 读取不加锁, 超出容量时由一个线程批量淘汰最久未使用的模板(近似lru)
+ */
+public class SqlTemplateCache {
+    /**
+     * 模板映射
+     */
+    private final Map<SqlShape, Node> templates = new ConcurrentHashMap<>();
+    /**
+     * 淘汰锁, 同一时间只允许一个线程执行淘汰, 其他线程不等待
+     */
+    private final ReentrantLock evictLock = new ReentrantLock();
+    /**
+     * 访问时钟, 只用于比较访问先后, 并发递增丢失计数不影响正确性
+     */
+    private volatile long clock;
+    /**
+     * 命中次数
+     */
+    private final LongAdder hitCount = new LongAdder();
+    /**
+     * 未命中次数
+     */
+    private final LongAdder missCount = new LongAdder();
+    /**
+     * 最大模板数量
+     */
+    private final int maxSize;
+
+    public SqlTemplateCache(int maxSize) {
+        Assert.isTrue(maxSize > 0, "maxSize must be greater than 0");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 获取sql, 未开启模板缓存时直接渲染
+     *
+     * @param configuration mybatis配置
+     * @param paramHolder   参数持有器
+     * @param statement     语句名称
+     * @param struct        sql结构体
+     * @param render        渲染sql
+     */
+    public static String getSql(Configuration configuration, MybatisParamHolder paramHolder, String statement,
+                                Object struct, Supplier<String> render) {
+        SqlTemplateCache cache = EzMybatisContent.getContentConfig(configuration).getSqlTemplateCache();
+        if (cache == null) {
+            return render.get();
+        }
+        return cache.getOrRender(configuration, paramHolder, statement, struct, render);
+    }
+
+    private String getOrRender(Configuration configuration, MybatisParamHolder paramHolder, String statement,
+                               Object struct, Supplier<String> render) {
+        if (!paramHolder.isEmpty()) {
+            return render.get();
+        }
+        SqlShape.Binding binding = SqlShape.collect(EzMybatisContent.getDbType(configuration), EzMybatisContent
+                .getContentConfig(configuration).getEzMybatisConfig().isBindNumberParam(), statement, struct);
+        if (binding == null) {
+            return render.get();
+        }
+        Node node = this.templates.get(binding.getShape());
+        if (node != null && node.template.bind(paramHolder, binding)) {
+            node.lastAccess = this.clock++;
+            this.hitCount.increment();
+            return node.template.getSql();
+        }
+        this.missCount.increment();
+        paramHolder.startRecord();
+        String sql;
+        List<SqlTemplate.Slot> slots;
+        try {
+            sql = render.get();
+        } finally {
+            slots = paramHolder.stopRecord();
+        }
+        if (slots != null) {
+            SqlTemplate template = SqlTemplate.of(paramHolder, sql, binding, slots);
+            if (template != null) {
+                this.templates.put(binding.getShape(), new Node(template, this.clock++));
+                if (this.templates.size() > this.maxSize) {
+                    this.evict();
+                }
+            }
+        }
+        return sql;
+    }
+
+    /**
+     * 淘汰最久未使用的模板, 每次多淘汰十分之一的容量, 避免容量满时每次插入都触发淘汰
+     */
+    private void evict() {
+        if (!this.evictLock.tryLock()) {
+            return;
+        }
+        try {
+            int removeCount = this.templates.size() - this.maxSize + Math.max(1, this.maxSize / 10);
+            if (removeCount <= 0) {
+                return;
+            }
+            //访问时间在排序期间可能变化, 先取快照再排序
+            List<long[]> accesses = new ArrayList<>(this.templates.size());
+            List<Map.Entry<SqlShape, Node>> entries = new ArrayList<>(this.templates.entrySet());
+            for (int i = 0; i < entries.size(); i++) {
+                accesses.add(new long[]{entries.get(i).getValue().lastAccess, i});
+            }
+            accesses.sort((o1, o2) -> Long.compare(o1[0], o2[0]));
+            for (int i = 0; i < removeCount && i < accesses.size(); i++) {
+                Map.Entry<SqlShape, Node> entry = entries.get((int) accesses.get(i)[1]);
+                this.templates.remove(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            this.evictLock.unlock();
+        }
+    }
+
+    /**
+     * 获取命中次数
+     */
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    /**
+     * 获取未命中次数
+     */
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    /**
+     * 获取当前模板数量
+     */
+    public int size() {
+        return this.templates.size();
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * 清空模板
+     */
+    public void clear() {
+        this.templates.clear();
+    }
+
+    private static class Node {
+        private final SqlTemplate template;
+        /**
+         * 最后访问时间, 取自访问时钟
+         */
+        private volatile long lastAccess;
+
+        private Node(SqlTemplate template, long lastAccess) {
+            this.template = template;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * sql缓冲区, 按线程复用渲染sql使用的StringBuilder, 容量保持为之前渲染的大小, 避免每次渲染时扩容产生的临时数组,
+ * 嵌套渲染(例如子查询)时从池中获取新的缓冲区.<br/>
+ * 获取的缓冲区必须在finally中调用{@link #recycle(StringBuilder)}归还, 归还后不能再使用
+ */
+public class SqlWriter {
+    /**
+     * 缓冲区初始容量
+     */
+    private static final int INIT_CAPACITY = 256;
+    /**
+     * 可复用缓冲区的最大容量, 超过时不放回池中, 避免长期持有超大sql的内存
+     */
+    private static final int MAX_RETAIN_CAPACITY = 64 * 1024;
+    /**
+     * 每个线程池中最多保留的缓冲区数量
+     */
+    private static final int MAX_POOL_SIZE = 8;
+    private static final ThreadLocal<Deque<StringBuilder>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private SqlWriter() {
+    }
+
+    /**
+     * 获取一个空的缓冲区
+     */
+    public static StringBuilder acquire() {
+        StringBuilder sqlBuilder = POOL.get().poll();
+        if (sqlBuilder == null) {
+            return new StringBuilder(INIT_CAPACITY);
+        }
+        return sqlBuilder;
+    }
+
+    /**
+     * 归还缓冲区
+     */
+    public static void recycle(StringBuilder sqlBuilder) {
+        if (sqlBuilder == null || sqlBuilder.capacity() > MAX_RETAIN_CAPACITY) {
+            return;
+        }
+        Deque<StringBuilder> pool = POOL.get();
+        if (pool.size() < MAX_POOL_SIZE) {
+            sqlBuilder.setLength(0);
+            pool.push(sqlBuilder);
+        }
+    }
+
+    /**
+     * 清空当前线程的缓冲区
+     */
+    static void clear() {
+        POOL.get().clear();
+    }
+}
@@ -14,6 +14,11 @@ public interface UpdateSqlGenerate {
     String getBatchUpdateSql(Configuration configuration, MybatisParamHolder mybatisParamHolder,
                              Table table, Collection<Object> models, boolean isReplace);
 
+    /**
+     * 获取批量更新每块的实体数量, 批量更新的实体数量超过该值时会拆分为多条sql执行
+     */
+    int getBatchUpdateChunkSize(Configuration configuration, Object model);
+
     String getUpdateSql(Configuration configuration, MybatisParamHolder mybatisParamHolder, EzUpdate update);
 
     String getUpdateSql(Configuration configuration, MybatisParamHolder mybatisParamHolder,
@@ -37,6 +37,11 @@ public class DmSqlGenerate extends OracleSqlGenerate {
         return DmEzQueryToSql.getInstance().toCountSql(configuration, paramHolder, query);
     }
 
+    @Override
+    public String getExistsSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return DmEzQueryToSql.getInstance().toExistsSql(configuration, paramHolder, query);
+    }
+
     @Override
     public String getUpdateSql(Configuration configuration, MybatisParamHolder mybatisParamHolder, Table table,
                                Object entity, boolean isReplace) {
@@ -51,6 +56,11 @@ public class DmSqlGenerate extends OracleSqlGenerate {
                 models, isReplace);
     }
 
+    @Override
+    public int getBatchUpdateChunkSize(Configuration configuration, Object model) {
+        return DmUpdateSqlGenerate.getInstance().getBatchUpdateChunkSize(configuration, model);
+    }
+
     @Override
     public String getUpdateSql(Configuration configuration, MybatisParamHolder mybatisParamHolder, EzUpdate update) {
         return DmUpdateSqlGenerate.getInstance().getUpdateSql(configuration, mybatisParamHolder, update);
@@ -85,4 +95,9 @@ public class DmSqlGenerate extends OracleSqlGenerate {
                                Collection<EzDelete> deletes) {
         return DmDeleteSqlGenerate.getInstance().getDeleteSql(configuration, paramHolder, deletes);
     }
+
+    @Override
+    public String getQueryWithTotalSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return DmEzQueryToSql.getInstance().toSqlWithTotal(configuration, paramHolder, query);
+    }
 }
@@ -0,0 +1,63 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate.inlist;
+
+import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 数组绑定in条件构建策略, 生成col = ANY(?)并将全部参数作为一个数组绑定, sql文本与参数数量无关,
+ * 参数类型不一致, 不支持或者属性指定了类型处理器时使用备用策略, 备用策略渲染时复用已经获取的参数值
+ */
+public class ArrayInListStrategy implements InListStrategy {
+    /**
+     * 支持数组绑定的参数类型
+     */
+    private static final Set<Class<?>> SUPPORT_TYPES = new HashSet<>(Arrays.asList(String.class, Integer.class,
+            Long.class, Short.class, BigDecimal.class, Boolean.class));
+    /**
+     * 备用策略
+     */
+    private final InListStrategy fallback;
+
+    public ArrayInListStrategy(InListStrategy fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public StringBuilder buildSql(StringBuilder sqlBuilder, String leftSql, boolean notIn, InListParams params,
+                                  MybatisParamHolder mybatisParamHolder) {
+        Object array = this.toArray(params);
+        if (array == null) {
+            return this.fallback.buildSql(sqlBuilder, leftSql, notIn, params, mybatisParamHolder);
+        }
+        return sqlBuilder.append(leftSql).append(notIn ? " <> ALL(" : " = ANY(")
+                .append(mybatisParamHolder.getMybatisArrayParamName(array)).append(")");
+    }
+
+    /**
+     * 将参数转换为类型一致的数组, 无法转换时返回null
+     */
+    protected Object toArray(InListParams params) {
+        if (!params.isArrayBindable() || params.size() == 0) {
+            return null;
+        }
+        Object first = params.getValue(0);
+        if (first == null || !SUPPORT_TYPES.contains(first.getClass())) {
+            return null;
+        }
+        Class<?> type = first.getClass();
+        Object array = Array.newInstance(type, params.size());
+        for (int i = 0; i < params.size(); i++) {
+            Object value = params.getValue(i);
+            if (value == null || value.getClass() != type) {
+                return null;
+            }
+            Array.set(array, i, value);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,74 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate.inlist;
+
+import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+import org.rdlinux.ezmybatis.utils.Assert;
+
+/**
+ * 分块in条件构建策略, 将参数拆分为多个in条件使用OR连接(not in使用AND连接), 每块的参数数量补齐到2的幂次,
+ * 补齐时重复块内最后一个参数的占位符, 这样不同数量的参数只会生成少量不同的sql文本, 有利于执行计划复用
+ */
+public class ChunkedInListStrategy implements InListStrategy {
+    /**
+     * 补齐的最小块大小
+     */
+    private static final int MIN_CHUNK_SIZE = 16;
+    /**
+     * 每块最大参数数量, 必须是2的幂次
+     */
+    private final int maxChunkSize;
+
+    public ChunkedInListStrategy(int maxChunkSize) {
+        Assert.isTrue(maxChunkSize > 0 && (maxChunkSize & (maxChunkSize - 1)) == 0,
+                "maxChunkSize must be a power of two");
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    /**
+     * 获取补齐后的块大小
+     */
+    protected int getPaddedSize(int size) {
+        int padded = Math.min(MIN_CHUNK_SIZE, this.maxChunkSize);
+        while (padded < size) {
+            padded <<= 1;
+        }
+        return padded;
+    }
+
+    @Override
+    public StringBuilder buildSql(StringBuilder sqlBuilder, String leftSql, boolean notIn, InListParams params,
+                                  MybatisParamHolder mybatisParamHolder) {
+        int size = params.size();
+        boolean multiChunk = size > this.maxChunkSize;
+        if (multiChunk) {
+            sqlBuilder.append("( ");
+        }
+        for (int start = 0; start < size; start += this.maxChunkSize) {
+            int end = Math.min(start + this.maxChunkSize, size);
+            if (start > 0) {
+                sqlBuilder.append(notIn ? " AND " : " OR ");
+            }
+            sqlBuilder.append(leftSql).append(notIn ? " NOT IN ( " : " IN ( ");
+            int paddedSize = this.getPaddedSize(end - start);
+            int lastStart = sqlBuilder.length();
+            for (int i = start; i < end; i++) {
+                if (i > start) {
+                    sqlBuilder.append(", ");
+                }
+                lastStart = sqlBuilder.length();
+                params.render(sqlBuilder, i);
+            }
+            if (paddedSize > end - start) {
+                //补齐的部分引用最后一个参数的占位符, 不再重复绑定参数与触发事件
+                String last = sqlBuilder.substring(lastStart);
+                for (int i = end - start; i < paddedSize; i++) {
+                    sqlBuilder.append(", ").append(last);
+                }
+            }
+            sqlBuilder.append(" )");
+        }
+        if (multiChunk) {
+            sqlBuilder.append(" )");
+        }
+        return sqlBuilder;
+    }
+}
@@ -0,0 +1,37 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate.inlist;
+
+import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+
+/**
+ * 默认in条件构建策略, 每个参数一个占位符
+ */
+public class DefaultInListStrategy implements InListStrategy {
+    private static volatile DefaultInListStrategy instance;
+
+    protected DefaultInListStrategy() {
+    }
+
+    public static DefaultInListStrategy getInstance() {
+        if (instance == null) {
+            synchronized (DefaultInListStrategy.class) {
+                if (instance == null) {
+                    instance = new DefaultInListStrategy();
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public StringBuilder buildSql(StringBuilder sqlBuilder, String leftSql, boolean notIn, InListParams params,
+                                  MybatisParamHolder mybatisParamHolder) {
+        sqlBuilder.append(leftSql).append(notIn ? " NOT IN ( " : " IN ( ");
+        for (int i = 0; i < params.size(); i++) {
+            params.render(sqlBuilder, i);
+            if (i + 1 < params.size()) {
+                sqlBuilder.append(", ");
+            }
+        }
+        return sqlBuilder.append(" )");
+    }
+}
@@ -0,0 +1,69 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate.inlist;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.classinfo.EzEntityClassInfoFactory;
+import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityClassInfo;
+import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityFieldInfo;
+import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 实体属性的in条件参数
+ */
+public class FieldInListParams implements InListParams {
+    private final Configuration configuration;
+    private final MybatisParamHolder mybatisParamHolder;
+    private final Class<?> modelType;
+    private final Field field;
+    private final List<?> values;
+    /**
+     * 已触发事件的参数值, 未获取时为null
+     */
+    private Object[] convertedValues;
+
+    public FieldInListParams(Configuration configuration, MybatisParamHolder mybatisParamHolder, Class<?> modelType,
+                             Field field, Collection<?> values) {
+        this.configuration = configuration;
+        this.mybatisParamHolder = mybatisParamHolder;
+        this.modelType = modelType;
+        this.field = field;
+        this.values = values instanceof List ? (List<?>) values : new ArrayList<>(values);
+    }
+
+    @Override
+    public int size() {
+        return this.values.size();
+    }
+
+    @Override
+    public StringBuilder render(StringBuilder sqlBuilder, int index) {
+        if (this.convertedValues != null) {
+            return sqlBuilder.append(this.mybatisParamHolder.getMybatisParamName(this.convertedValues[index]));
+        }
+        return sqlBuilder.append(this.mybatisParamHolder.getMybatisParamName(this.modelType, this.field,
+                this.values.get(index)));
+    }
+
+    @Override
+    public Object getValue(int index) {
+        if (this.convertedValues == null) {
+            this.convertedValues = new Object[this.values.size()];
+            for (int i = 0; i < this.values.size(); i++) {
+                this.convertedValues[i] = this.mybatisParamHolder.onBuildSqlGetField(Boolean.FALSE, this.modelType,
+                        this.field, this.values.get(i));
+            }
+        }
+        return this.convertedValues[index];
+    }
+
+    @Override
+    public boolean isArrayBindable() {
+        EntityClassInfo etInfo = EzEntityClassInfoFactory.forClass(this.configuration, this.modelType);
+        EntityFieldInfo fieldInfo = etInfo == null ? null : etInfo.getFieldInfo(this.field.getName());
+        return fieldInfo == null || fieldInfo.getTypeHandler() == null;
+    }
+}
@@ -0,0 +1,28 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate.inlist;
+
+/**
+ * in条件的参数
+ */
+public interface InListParams {
+    /**
+     * 参数数量
+     */
+    int size();
+
+    /**
+     * 将第index个参数的占位符追加到sql中
+     */
+    StringBuilder render(StringBuilder sqlBuilder, int index);
+
+    /**
+     * 获取第index个参数绑定时的值, 已触发构建sql获取属性值事件, 参数不是对象参数时返回null.<br/>
+     * 每个参数只触发一次事件, 之后渲染该参数时使用同一个值
+     */
+    Object getValue(int index);
+
+    /**
+     * 是否可以作为数组绑定, 全部是对象参数并且属性没有指定{@link org.rdlinux.ezmybatis.annotation.ColumnHandler}时
+     * 才能使用数组绑定, 否则数组绑定会绕过属性的类型处理器
+     */
+    boolean isArrayBindable();
+}
@@ -0,0 +1,20 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate.inlist;
+
+import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+
+/**
+ * in条件构建策略
+ */
+public interface InListStrategy {
+    /**
+     * 构建in条件
+     *
+     * @param sqlBuilder         sql
+     * @param leftSql            左值sql
+     * @param notIn              是否是not in
+     * @param params             参数
+     * @param mybatisParamHolder 参数持有器
+     */
+    StringBuilder buildSql(StringBuilder sqlBuilder, String leftSql, boolean notIn, InListParams params,
+                           MybatisParamHolder mybatisParamHolder);
+}
@@ -0,0 +1,51 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate.inlist;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.utils.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * in条件构建策略工厂, 参数数量超过{@link org.rdlinux.ezmybatis.EzMybatisConfig#getInListThreshold()}时使用数据库对应的
+ * 大in列表策略
+ */
+public class InListStrategyFactory {
+    private static final Map<DbType, InListStrategy> LARGE_STRATEGY_MAP = new ConcurrentHashMap<>();
+
+    static {
+        //oracle与达梦的in列表最多1000个元素
+        InListStrategy oracleStrategy = new ChunkedInListStrategy(512);
+        InListStrategy defaultStrategy = new ChunkedInListStrategy(1024);
+        LARGE_STRATEGY_MAP.put(DbType.MYSQL, defaultStrategy);
+        LARGE_STRATEGY_MAP.put(DbType.ORACLE, oracleStrategy);
+        LARGE_STRATEGY_MAP.put(DbType.DM, oracleStrategy);
+        LARGE_STRATEGY_MAP.put(DbType.POSTGRE_SQL, new ArrayInListStrategy(defaultStrategy));
+        LARGE_STRATEGY_MAP.put(DbType.SQL_SERVER, defaultStrategy);
+    }
+
+    /**
+     * 注册数据库的大in列表策略
+     */
+    public static void registerLargeStrategy(DbType dbType, InListStrategy strategy) {
+        Assert.notNull(dbType, "dbType can not be null");
+        Assert.notNull(strategy, "strategy can not be null");
+        LARGE_STRATEGY_MAP.put(dbType, strategy);
+    }
+
+    /**
+     * 获取in条件构建策略
+     *
+     * @param size 参数数量
+     */
+    public static InListStrategy getStrategy(Configuration configuration, int size) {
+        int threshold = EzMybatisContent.getContentConfig(configuration).getEzMybatisConfig().getInListThreshold();
+        if (threshold <= 0 || size <= threshold) {
+            return DefaultInListStrategy.getInstance();
+        }
+        InListStrategy strategy = LARGE_STRATEGY_MAP.get(EzMybatisContent.getDbType(configuration));
+        return strategy == null ? DefaultInListStrategy.getInstance() : strategy;
+    }
+}
@@ -0,0 +1,108 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate.inlist;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.classinfo.EzEntityClassInfoFactory;
+import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityClassInfo;
+import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityFieldInfo;
+import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+import org.rdlinux.ezmybatis.core.sqlstruct.EntityField;
+import org.rdlinux.ezmybatis.core.sqlstruct.ObjArg;
+import org.rdlinux.ezmybatis.core.sqlstruct.Operand;
+import org.rdlinux.ezmybatis.core.sqlstruct.converter.Converter;
+
+import java.util.List;
+
+/**
+ * 条件右值的in条件参数, 渲染时使用各参数对应的转换器, 已经获取过值的对象参数直接使用该值绑定
+ */
+public class OperandInListParams implements InListParams {
+    private final Converter.Type type;
+    private final Configuration configuration;
+    private final MybatisParamHolder mybatisParamHolder;
+    private final List<Operand> operands;
+    /**
+     * 当前访问的属性信息, 不是实体属性时为null
+     */
+    private final EntityFieldInfo fieldInfo;
+    private final Class<?> modelType;
+    /**
+     * 已触发事件的参数值, 未获取时为null
+     */
+    private Object[] values;
+
+    public OperandInListParams(Converter.Type type, Configuration configuration,
+                               MybatisParamHolder mybatisParamHolder, List<Operand> operands) {
+        this.type = type;
+        this.configuration = configuration;
+        this.mybatisParamHolder = mybatisParamHolder;
+        this.operands = operands;
+        EntityField currentAccessField = mybatisParamHolder.getContext().getCurrentAccessField();
+        EntityFieldInfo fieldInfo = null;
+        Class<?> modelType = null;
+        if (currentAccessField != null) {
+            modelType = currentAccessField.getTable().getEtType();
+            EntityClassInfo etInfo = EzEntityClassInfoFactory.forClass(configuration, modelType);
+            if (etInfo != null) {
+                fieldInfo = etInfo.getFieldInfo(currentAccessField.getField());
+            }
+        }
+        this.fieldInfo = fieldInfo;
+        this.modelType = fieldInfo == null ? null : modelType;
+    }
+
+    @Override
+    public int size() {
+        return this.operands.size();
+    }
+
+    @Override
+    public StringBuilder render(StringBuilder sqlBuilder, int index) {
+        Operand operand = this.operands.get(index);
+        if (this.values != null && operand instanceof ObjArg) {
+            return sqlBuilder.append(this.mybatisParamHolder.getConvertedMybatisParamName(this.modelType,
+                    this.fieldInfo == null ? null : this.fieldInfo.getField(), (ObjArg) operand,
+                    this.values[index]));
+        }
+        Converter<? extends Operand> converter = EzMybatisContent.getConverter(this.configuration,
+                operand.getClass());
+        return converter.buildSql(this.type, sqlBuilder, this.configuration, operand, this.mybatisParamHolder);
+    }
+
+    @Override
+    public Object getValue(int index) {
+        Operand operand = this.operands.get(index);
+        if (!(operand instanceof ObjArg)) {
+            return null;
+        }
+        if (this.values == null) {
+            this.values = new Object[this.operands.size()];
+            for (int i = 0; i < this.operands.size(); i++) {
+                Operand item = this.operands.get(i);
+                if (!(item instanceof ObjArg)) {
+                    continue;
+                }
+                Object value = ((ObjArg) item).getArg();
+                if (this.fieldInfo != null) {
+                    value = this.mybatisParamHolder.onBuildSqlGetField(Boolean.FALSE, this.modelType,
+                            this.fieldInfo.getField(), value);
+                }
+                this.values[i] = value;
+            }
+        }
+        return this.values[index];
+    }
+
+    @Override
+    public boolean isArrayBindable() {
+        if (this.fieldInfo != null && this.fieldInfo.getTypeHandler() != null) {
+            return false;
+        }
+        for (Operand operand : this.operands) {
+            if (!(operand instanceof ObjArg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,30 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate.mssql;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.sqlgenerate.AbstractEzQueryToSql;
+import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+
+public class SqlServerEzQueryToSql extends AbstractEzQueryToSql {
+    private static volatile SqlServerEzQueryToSql instance;
+
+    private SqlServerEzQueryToSql() {
+    }
+
+    public static SqlServerEzQueryToSql getInstance() {
+        if (instance == null) {
+            synchronized (SqlServerEzQueryToSql.class) {
+                if (instance == null) {
+                    instance = new SqlServerEzQueryToSql();
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    protected StringBuilder existsLimitToSql(StringBuilder sqlBuilder, Configuration configuration, EzQuery<?> query,
+                                             MybatisParamHolder paramHolder) {
+        return sqlBuilder.insert(0, "SELECT 1 WHERE EXISTS ( ").append(" ) ");
+    }
+}
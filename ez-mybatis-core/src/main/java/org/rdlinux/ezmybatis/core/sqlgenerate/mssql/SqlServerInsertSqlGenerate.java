@@ -1,7 +1,10 @@
 package org.rdlinux.ezmybatis.core.sqlgenerate.mssql;
 
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
 import org.rdlinux.ezmybatis.core.sqlgenerate.mysql.MySqlInsertSqlGenerate;
 
+import java.util.List;
+
 public class SqlServerInsertSqlGenerate extends MySqlInsertSqlGenerate {
     private static volatile SqlServerInsertSqlGenerate instance;
 
@@ -19,8 +22,47 @@ public class SqlServerInsertSqlGenerate extends MySqlInsertSqlGenerate {
         return instance;
     }
 
+    /**
+     * sql server单条语句最多2100个参数, 预留部分给驱动
+     */
+    @Override
+    protected int getBatchInsertMaxParams() {
+        return 2000;
+    }
+
+    /**
+     * sql server的VALUES最多1000行
+     */
+    @Override
+    protected int getBatchInsertMaxRows() {
+        return 1000;
+    }
+
     @Override
     protected boolean insertByQueryAppendParenthesis() {
         return false;
     }
+
+    /**
+     * 使用MERGE INTO ... USING ( VALUES ( ... ) ), sql server的MERGE语句必须以分号结尾
+     */
+    @Override
+    protected String getUpsertSql(String keywordQM, EzJdbcInsertSql insertSql, List<String> conflictColumns,
+                                  List<String> updateColumns) {
+        String[] columns = insertSql.getColumns();
+        StringBuilder sqlBuilder = new StringBuilder("MERGE INTO ").append(insertSql.getTableName())
+                .append(" AS T USING ( VALUES ( ");
+        StringBuilder columnBuilder = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sqlBuilder.append(", ");
+                columnBuilder.append(", ");
+            }
+            sqlBuilder.append("?");
+            columnBuilder.append(keywordQM).append(columns[i]).append(keywordQM);
+        }
+        sqlBuilder.append(" ) ) AS S ( ").append(columnBuilder).append(" )");
+        this.appendMergeClauses(sqlBuilder, keywordQM, columns, conflictColumns, updateColumns);
+        return sqlBuilder.append(";").toString();
+    }
 }
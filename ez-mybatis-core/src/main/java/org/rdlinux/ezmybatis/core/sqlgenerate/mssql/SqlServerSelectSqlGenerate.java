@@ -4,8 +4,8 @@ import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.core.EzQuery;
 import org.rdlinux.ezmybatis.core.sqlgenerate.AbstractSelectSqlGenerate;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
-import org.rdlinux.ezmybatis.core.sqlgenerate.mysql.MySqlEzQueryToSql;
 import org.rdlinux.ezmybatis.core.sqlgenerate.mysql.MySqlInsertSqlGenerate;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
 
 public class SqlServerSelectSqlGenerate extends AbstractSelectSqlGenerate {
     private static volatile SqlServerSelectSqlGenerate instance;
@@ -26,11 +26,33 @@ public class SqlServerSelectSqlGenerate extends AbstractSelectSqlGenerate {
 
     @Override
     public String getQuerySql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
-        return MySqlEzQueryToSql.getInstance().toSql(configuration, paramHolder, query);
+        return SqlServerEzQueryToSql.getInstance().toSql(configuration, paramHolder, query);
     }
 
     @Override
     public String getQueryCountSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
-        return MySqlEzQueryToSql.getInstance().toCountSql(configuration, paramHolder, query);
+        return SqlServerEzQueryToSql.getInstance().toCountSql(configuration, paramHolder, query);
+    }
+
+    @Override
+    public String getExistsSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return SqlServerEzQueryToSql.getInstance().toExistsSql(configuration, paramHolder, query);
+    }
+
+    @Override
+    public String getQueryWithTotalSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return SqlServerEzQueryToSql.getInstance().toSqlWithTotal(configuration, paramHolder, query);
+    }
+
+    @Override
+    public String getApproximateCountSql(Configuration configuration, MybatisParamHolder paramHolder, Table table) {
+        String schema = table.getSchema(configuration);
+        String tableName = "[" + table.getTableName(configuration) + "]";
+        if (schema != null && !schema.isEmpty()) {
+            tableName = "[" + schema + "]." + tableName;
+        }
+        return "SELECT SUM(p.rows) FROM sys.partitions p WHERE p.object_id = OBJECT_ID(" +
+                paramHolder.getMybatisParamName(tableName) + ") AND p.index_id IN (0, 1) HAVING SUM(p.rows) >= " +
+                this.getApproximateCountThreshold(configuration);
     }
 }
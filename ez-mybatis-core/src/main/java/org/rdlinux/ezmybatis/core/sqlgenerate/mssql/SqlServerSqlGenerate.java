@@ -3,6 +3,7 @@ package org.rdlinux.ezmybatis.core.sqlgenerate.mssql;
 import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.core.EzDelete;
 import org.rdlinux.ezmybatis.core.EzJdbcBatchSql;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
 import org.rdlinux.ezmybatis.core.EzQuery;
 import org.rdlinux.ezmybatis.core.EzUpdate;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
@@ -42,11 +43,28 @@ public class SqlServerSqlGenerate implements SqlGenerate {
                 models);
     }
 
+    @Override
+    public int getBatchInsertChunkSize(Configuration configuration, Object model) {
+        return SqlServerInsertSqlGenerate.getInstance().getBatchInsertChunkSize(configuration, model);
+    }
+
+    @Override
+    public EzJdbcInsertSql getJdbcUpsertSql(Configuration configuration, Table table, Object model,
+                                            Collection<String> conflictFields, Collection<String> updateFields) {
+        return SqlServerInsertSqlGenerate.getInstance().getJdbcUpsertSql(configuration, table, model, conflictFields,
+                updateFields);
+    }
+
     @Override
     public EzJdbcBatchSql getJdbcBatchInsertSql(Configuration configuration, Table table, Collection<?> models) {
         return SqlServerInsertSqlGenerate.getInstance().getJdbcBatchInsertSql(configuration, table, models);
     }
 
+    @Override
+    public EzJdbcInsertSql getJdbcInsertSql(Configuration configuration, Table table, Object model) {
+        return SqlServerInsertSqlGenerate.getInstance().getJdbcInsertSql(configuration, table, model);
+    }
+
     @Override
     public String getInsertByQuerySql(Configuration configuration, MybatisParamHolder mybatisParamHolder, Table table,
                                       EzQuery<?> query) {
@@ -75,6 +93,11 @@ public class SqlServerSqlGenerate implements SqlGenerate {
         return SqlServerSelectSqlGenerate.getInstance().getQueryCountSql(configuration, paramHolder, query);
     }
 
+    @Override
+    public String getExistsSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return SqlServerSelectSqlGenerate.getInstance().getExistsSql(configuration, paramHolder, query);
+    }
+
     @Override
     public String getUpdateSql(Configuration configuration, MybatisParamHolder mybatisParamHolder, Table table,
                                Object entity, boolean isReplace) {
@@ -89,6 +112,11 @@ public class SqlServerSqlGenerate implements SqlGenerate {
                 isReplace);
     }
 
+    @Override
+    public int getBatchUpdateChunkSize(Configuration configuration, Object model) {
+        return SqlServerUpdateSqlGenerate.getInstance().getBatchUpdateChunkSize(configuration, model);
+    }
+
     @Override
     public String getUpdateSql(Configuration configuration, MybatisParamHolder mybatisParamHolder, EzUpdate update) {
         return SqlServerUpdateSqlGenerate.getInstance().getUpdateSql(configuration, mybatisParamHolder, update);
@@ -130,4 +158,14 @@ public class SqlServerSqlGenerate implements SqlGenerate {
                                Collection<EzDelete> deletes) {
         return SqlServerDeleteSqlGenerate.getInstance().getDeleteSql(configuration, paramHolder, deletes);
     }
+
+    @Override
+    public String getQueryWithTotalSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return SqlServerSelectSqlGenerate.getInstance().getQueryWithTotalSql(configuration, paramHolder, query);
+    }
+
+    @Override
+    public String getApproximateCountSql(Configuration configuration, MybatisParamHolder paramHolder, Table table) {
+        return SqlServerSelectSqlGenerate.getInstance().getApproximateCountSql(configuration, paramHolder, table);
+    }
 }
@@ -34,4 +34,12 @@ public class SqlServerUpdateSqlGenerate extends AbstractUpdateSqlGenerate {
                                Collection<EzUpdate> updates) {
         return SqlServerEzUpdateToSql.getInstance().toSql(configuration, mybatisParamHolder, updates);
     }
+
+    /**
+     * sql server单条语句最多2100个参数, 预留部分给驱动
+     */
+    @Override
+    protected int getBatchUpdateMaxParams() {
+        return 2000;
+    }
 }
@@ -1,12 +1,9 @@
 package org.rdlinux.ezmybatis.core.sqlgenerate.mysql;
 
-import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
 import org.rdlinux.ezmybatis.core.sqlgenerate.AbstractInsertSqlGenerate;
-import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
-import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
-import org.rdlinux.ezmybatis.utils.Assert;
 
-import java.util.Collection;
+import java.util.List;
 
 public class MySqlInsertSqlGenerate extends AbstractInsertSqlGenerate {
     private static volatile MySqlInsertSqlGenerate instance;
@@ -25,26 +22,23 @@ public class MySqlInsertSqlGenerate extends AbstractInsertSqlGenerate {
         return instance;
     }
 
+    /**
+     * mysql根据主键或唯一索引判断数据是否存在, 忽略判断列
+     */
     @Override
-    public String getBatchInsertSql(Configuration configuration, MybatisParamHolder mybatisParamHolder,
-                                    Table table, Collection<Object> models) {
-        Assert.notEmpty(models, "models cannot be empty");
-        StringBuilder sqlBuilder = new StringBuilder();
-        int i = 0;
-        for (Object entity : models) {
-            String insertSql = this.getInsertSql(configuration, mybatisParamHolder, table, entity);
-            String flag = "VALUES ";
-            int vIndex = insertSql.indexOf(flag);
-            String valve = insertSql.substring(vIndex + flag.length());
-            if (i == 0) {
-                String prefix = insertSql.substring(0, vIndex + flag.length());
-                sqlBuilder.append(prefix);
-            }
-            sqlBuilder.append(valve);
-            if (i + 1 < models.size()) {
-                sqlBuilder.append(", \n");
+    protected String getUpsertSql(String keywordQM, EzJdbcInsertSql insertSql, List<String> conflictColumns,
+                                  List<String> updateColumns) {
+        StringBuilder sqlBuilder = new StringBuilder(insertSql.getSql()).append(" ON DUPLICATE KEY UPDATE ");
+        if (updateColumns.isEmpty()) {
+            String column = keywordQM + conflictColumns.get(0) + keywordQM;
+            return sqlBuilder.append(column).append(" = ").append(column).toString();
+        }
+        for (int i = 0; i < updateColumns.size(); i++) {
+            if (i > 0) {
+                sqlBuilder.append(", ");
             }
-            i++;
+            String column = keywordQM + updateColumns.get(i) + keywordQM;
+            sqlBuilder.append(column).append(" = VALUES(").append(column).append(")");
         }
         return sqlBuilder.toString();
     }
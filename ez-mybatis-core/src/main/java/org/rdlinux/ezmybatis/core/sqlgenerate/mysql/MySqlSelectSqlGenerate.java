@@ -4,6 +4,7 @@ import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.core.EzQuery;
 import org.rdlinux.ezmybatis.core.sqlgenerate.AbstractSelectSqlGenerate;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
 
 public class MySqlSelectSqlGenerate extends AbstractSelectSqlGenerate {
     private static volatile MySqlSelectSqlGenerate instance;
@@ -31,4 +32,27 @@ public class MySqlSelectSqlGenerate extends AbstractSelectSqlGenerate {
     public String getQueryCountSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
         return MySqlEzQueryToSql.getInstance().toCountSql(configuration, paramHolder, query);
     }
+
+    @Override
+    public String getExistsSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return MySqlEzQueryToSql.getInstance().toExistsSql(configuration, paramHolder, query);
+    }
+
+    @Override
+    public String getQueryWithTotalSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return MySqlEzQueryToSql.getInstance().toSqlWithTotal(configuration, paramHolder, query);
+    }
+
+    @Override
+    public String getApproximateCountSql(Configuration configuration, MybatisParamHolder paramHolder, Table table) {
+        String schema = table.getSchema(configuration);
+        String sql = "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = ";
+        if (schema == null || schema.isEmpty()) {
+            sql += "DATABASE()";
+        } else {
+            sql += paramHolder.getMybatisParamName(schema);
+        }
+        return sql + " AND TABLE_NAME = " + paramHolder.getMybatisParamName(table.getTableName(configuration)) +
+                " AND TABLE_ROWS >= " + this.getApproximateCountThreshold(configuration);
+    }
 }
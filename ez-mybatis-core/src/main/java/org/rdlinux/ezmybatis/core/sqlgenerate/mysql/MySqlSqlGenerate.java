@@ -3,6 +3,7 @@ package org.rdlinux.ezmybatis.core.sqlgenerate.mysql;
 import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.core.EzDelete;
 import org.rdlinux.ezmybatis.core.EzJdbcBatchSql;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
 import org.rdlinux.ezmybatis.core.EzQuery;
 import org.rdlinux.ezmybatis.core.EzUpdate;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
@@ -42,11 +43,28 @@ public class MySqlSqlGenerate implements SqlGenerate {
                 models);
     }
 
+    @Override
+    public int getBatchInsertChunkSize(Configuration configuration, Object model) {
+        return MySqlInsertSqlGenerate.getInstance().getBatchInsertChunkSize(configuration, model);
+    }
+
+    @Override
+    public EzJdbcInsertSql getJdbcUpsertSql(Configuration configuration, Table table, Object model,
+                                            Collection<String> conflictFields, Collection<String> updateFields) {
+        return MySqlInsertSqlGenerate.getInstance().getJdbcUpsertSql(configuration, table, model, conflictFields,
+                updateFields);
+    }
+
     @Override
     public EzJdbcBatchSql getJdbcBatchInsertSql(Configuration configuration, Table table, Collection<?> models) {
         return MySqlInsertSqlGenerate.getInstance().getJdbcBatchInsertSql(configuration, table, models);
     }
 
+    @Override
+    public EzJdbcInsertSql getJdbcInsertSql(Configuration configuration, Table table, Object model) {
+        return MySqlInsertSqlGenerate.getInstance().getJdbcInsertSql(configuration, table, model);
+    }
+
     @Override
     public String getInsertByQuerySql(Configuration configuration, MybatisParamHolder mybatisParamHolder, Table table,
                                       EzQuery<?> query) {
@@ -75,6 +93,11 @@ public class MySqlSqlGenerate implements SqlGenerate {
         return MySqlSelectSqlGenerate.getInstance().getQueryCountSql(configuration, paramHolder, query);
     }
 
+    @Override
+    public String getExistsSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return MySqlSelectSqlGenerate.getInstance().getExistsSql(configuration, paramHolder, query);
+    }
+
     @Override
     public String getUpdateSql(Configuration configuration, MybatisParamHolder mybatisParamHolder, Table table,
                                Object entity, boolean isReplace) {
@@ -89,6 +112,11 @@ public class MySqlSqlGenerate implements SqlGenerate {
                 isReplace);
     }
 
+    @Override
+    public int getBatchUpdateChunkSize(Configuration configuration, Object model) {
+        return MySqlUpdateSqlGenerate.getInstance().getBatchUpdateChunkSize(configuration, model);
+    }
+
     @Override
     public String getUpdateSql(Configuration configuration, MybatisParamHolder mybatisParamHolder, EzUpdate update) {
         return MySqlUpdateSqlGenerate.getInstance().getUpdateSql(configuration, mybatisParamHolder, update);
@@ -131,5 +159,13 @@ public class MySqlSqlGenerate implements SqlGenerate {
         return MySqlDeleteSqlGenerate.getInstance().getDeleteSql(configuration, paramHolder, deletes);
     }
 
+    @Override
+    public String getQueryWithTotalSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return MySqlSelectSqlGenerate.getInstance().getQueryWithTotalSql(configuration, paramHolder, query);
+    }
 
+    @Override
+    public String getApproximateCountSql(Configuration configuration, MybatisParamHolder paramHolder, Table table) {
+        return MySqlSelectSqlGenerate.getInstance().getApproximateCountSql(configuration, paramHolder, table);
+    }
 }
@@ -10,7 +10,7 @@ import java.util.Collection;
 public class MySqlUpdateSqlGenerate extends AbstractUpdateSqlGenerate {
     private static volatile MySqlUpdateSqlGenerate instance;
 
-    private MySqlUpdateSqlGenerate() {
+    protected MySqlUpdateSqlGenerate() {
     }
 
     public static MySqlUpdateSqlGenerate getInstance() {
@@ -11,6 +11,7 @@ import org.rdlinux.ezmybatis.core.sqlstruct.Limit;
 import org.rdlinux.ezmybatis.core.sqlstruct.OrderBy;
 import org.rdlinux.ezmybatis.core.sqlstruct.Page;
 import org.rdlinux.ezmybatis.core.sqlstruct.converter.Converter;
+import org.rdlinux.ezmybatis.core.sqlstruct.converter.oracle.OraclePageConverter;
 
 public class OracleEzQueryToSql extends AbstractEzQueryToSql {
     private static volatile OracleEzQueryToSql instance;
@@ -57,16 +58,39 @@ public class OracleEzQueryToSql extends AbstractEzQueryToSql {
         if (isPage && !ezMybatisConfig.isEnableOracleOffsetFetchPage() && page != null &&
                 (groupBy == null || groupBy.getItems() == null || groupBy.getItems().isEmpty())
                 && (orderBy == null || orderBy.getItems() == null || orderBy.getItems().isEmpty())) {
-            if (query.getWhere() == null) {
+            if (this.getWhere(isPage, query) == null) {
                 sql.append(" WHERE ");
             } else {
                 sql.append(" AND ");
             }
-            sql.append(" ROWNUM <= ").append(page.getSkip() + page.getSize());
+            sql.append(" ROWNUM <= ");
+            OraclePageConverter.appendRowNumBound(sql, page, mybatisParamHolder);
         }
         return sql;
     }
 
+    /**
+     * 不排序不分组时, rownum分页条件写在where中, 窗口函数只能统计到rownum范围内的数据
+     */
+    @Override
+    protected boolean supportWindowCount(Configuration configuration, EzQuery<?> query) {
+        if (!super.supportWindowCount(configuration, query)) {
+            return false;
+        }
+        GroupBy groupBy = query.getGroupBy();
+        OrderBy orderBy = query.getOrderBy();
+        EzMybatisConfig ezMybatisConfig = EzMybatisContent.getContentConfig(configuration).getEzMybatisConfig();
+        return ezMybatisConfig.isEnableOracleOffsetFetchPage() ||
+                (groupBy != null && groupBy.getItems() != null && !groupBy.getItems().isEmpty()) ||
+                (orderBy != null && orderBy.getItems() != null && !orderBy.getItems().isEmpty());
+    }
+
+    @Override
+    protected StringBuilder existsLimitToSql(StringBuilder sqlBuilder, Configuration configuration, EzQuery<?> query,
+                                             MybatisParamHolder paramHolder) {
+        return sqlBuilder.insert(0, "SELECT 1 FROM DUAL WHERE EXISTS ( ").append(" ) ");
+    }
+
     @Override
     protected StringBuilder limitToSql(StringBuilder sqlBuilder, Configuration configuration, EzQuery<?> query,
                                        MybatisParamHolder paramHolder) {
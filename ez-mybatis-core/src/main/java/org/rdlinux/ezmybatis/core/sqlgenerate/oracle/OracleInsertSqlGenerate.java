@@ -1,14 +1,25 @@
 package org.rdlinux.ezmybatis.core.sqlgenerate.oracle;
 
 import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.classinfo.EzEntityClassInfoFactory;
+import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityClassInfo;
+import org.rdlinux.ezmybatis.core.classinfo.entityinfo.EntityFieldInfo;
 import org.rdlinux.ezmybatis.core.sqlgenerate.AbstractInsertSqlGenerate;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
 import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
 import org.rdlinux.ezmybatis.utils.Assert;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public class OracleInsertSqlGenerate extends AbstractInsertSqlGenerate {
+    /**
+     * INSERT ALL单条语句最多支持的列数
+     */
+    private static final int INSERT_ALL_MAX_COLUMNS = 999;
     private static volatile OracleInsertSqlGenerate instance;
 
     private OracleInsertSqlGenerate() {
@@ -25,16 +36,57 @@ public class OracleInsertSqlGenerate extends AbstractInsertSqlGenerate {
         return instance;
     }
 
+    /**
+     * INSERT ALL的总列数有限制, 按列数拆分批量插入, 见{@link #getBatchInsertChunkSize}
+     */
+    @Override
+    protected int getBatchInsertMaxParams() {
+        return INSERT_ALL_MAX_COLUMNS;
+    }
+
+    /**
+     * 使用INSERT ALL, 超过总列数限制的批量插入由拦截器按{@link #getBatchInsertChunkSize}拆分后调用
+     */
     @Override
     public String getBatchInsertSql(Configuration configuration, MybatisParamHolder mybatisParamHolder,
                                     Table table, Collection<Object> models) {
         Assert.notEmpty(models, "models cannot be empty");
-        StringBuilder sqlBuilder = new StringBuilder("BEGIN \n");
+        Object firstEntity = models.iterator().next();
+        EntityClassInfo entityClassInfo = EzEntityClassInfoFactory.forClass(configuration, firstEntity.getClass());
+        Map<String, EntityFieldInfo> columnMapFieldInfo = entityClassInfo.getColumnMapFieldInfo();
+        String tableName = AbstractInsertSqlGenerate.getTableName(configuration, mybatisParamHolder, table,
+                firstEntity);
+        String keywordQM = EzMybatisContent.getKeywordQM(configuration);
+        StringBuilder sqlBuilder = new StringBuilder("INSERT ALL \n");
         for (Object entity : models) {
-            String insertSql = this.getInsertSql(configuration, mybatisParamHolder, table, entity);
-            sqlBuilder.append(insertSql).append(";\n");
+            this.checkEntityType(firstEntity, entity);
+            sqlBuilder.append("INTO ").append(tableName).append(" ");
+            this.appendInsertColumns(sqlBuilder, keywordQM, columnMapFieldInfo);
+            sqlBuilder.append(" VALUES ");
+            this.appendInsertValues(sqlBuilder, mybatisParamHolder, columnMapFieldInfo, entity);
+            sqlBuilder.append(" \n");
+        }
+        sqlBuilder.append("SELECT 1 FROM DUAL");
+        return sqlBuilder.toString();
+    }
+
+    /**
+     * 使用MERGE INTO ... USING ( SELECT ... FROM DUAL )
+     */
+    @Override
+    protected String getUpsertSql(String keywordQM, EzJdbcInsertSql insertSql, List<String> conflictColumns,
+                                  List<String> updateColumns) {
+        String[] columns = insertSql.getColumns();
+        StringBuilder sqlBuilder = new StringBuilder("MERGE INTO ").append(insertSql.getTableName())
+                .append(" T USING ( SELECT ");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sqlBuilder.append(", ");
+            }
+            sqlBuilder.append("? ").append(keywordQM).append(columns[i]).append(keywordQM);
         }
-        sqlBuilder.append("END;");
+        sqlBuilder.append(" FROM DUAL ) S");
+        this.appendMergeClauses(sqlBuilder, keywordQM, columns, conflictColumns, updateColumns);
         return sqlBuilder.toString();
     }
 }
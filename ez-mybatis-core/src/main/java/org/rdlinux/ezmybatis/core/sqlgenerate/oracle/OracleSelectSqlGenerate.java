@@ -4,6 +4,7 @@ import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.core.EzQuery;
 import org.rdlinux.ezmybatis.core.sqlgenerate.AbstractSelectSqlGenerate;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
 
 public class OracleSelectSqlGenerate extends AbstractSelectSqlGenerate {
     private static volatile OracleSelectSqlGenerate instance;
@@ -31,4 +32,28 @@ public class OracleSelectSqlGenerate extends AbstractSelectSqlGenerate {
     public String getQueryCountSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
         return OracleEzQueryToSql.getInstance().toCountSql(configuration, paramHolder, query);
     }
+
+    @Override
+    public String getExistsSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return OracleEzQueryToSql.getInstance().toExistsSql(configuration, paramHolder, query);
+    }
+
+    @Override
+    public String getQueryWithTotalSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return OracleEzQueryToSql.getInstance().toSqlWithTotal(configuration, paramHolder, query);
+    }
+
+    @Override
+    public String getApproximateCountSql(Configuration configuration, MybatisParamHolder paramHolder, Table table) {
+        String schema = table.getSchema(configuration);
+        String sql;
+        if (schema == null || schema.isEmpty()) {
+            sql = "SELECT NUM_ROWS FROM USER_TABLES WHERE ";
+        } else {
+            sql = "SELECT NUM_ROWS FROM ALL_TABLES WHERE OWNER = " + paramHolder.getMybatisParamName(schema) +
+                    " AND ";
+        }
+        return sql + "TABLE_NAME = " + paramHolder.getMybatisParamName(table.getTableName(configuration)) +
+                " AND NUM_ROWS >= " + this.getApproximateCountThreshold(configuration);
+    }
 }
@@ -4,9 +4,9 @@ import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.core.EzUpdate;
 import org.rdlinux.ezmybatis.core.sqlgenerate.AbstractUpdateSqlGenerate;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
-import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
 
 import java.util.Collection;
+import java.util.List;
 
 public class OracleUpdateSqlGenerate extends AbstractUpdateSqlGenerate {
     private static volatile OracleUpdateSqlGenerate instance;
@@ -25,11 +25,15 @@ public class OracleUpdateSqlGenerate extends AbstractUpdateSqlGenerate {
         return instance;
     }
 
+    /**
+     * 多条更新语句使用匿名块执行
+     */
     @Override
-    public String getBatchUpdateSql(Configuration configuration, MybatisParamHolder mybatisParamHolder,
-                                    Table table, Collection<Object> models, boolean isReplace) {
-        return "BEGIN \n" + super.getBatchUpdateSql(configuration, mybatisParamHolder, table, models, isReplace)
-                + " END;";
+    protected String joinBatchUpdateSql(List<String> sqls) {
+        if (sqls.size() == 1) {
+            return sqls.get(0);
+        }
+        return "BEGIN \n" + super.joinBatchUpdateSql(sqls) + " END;";
     }
 
     @Override
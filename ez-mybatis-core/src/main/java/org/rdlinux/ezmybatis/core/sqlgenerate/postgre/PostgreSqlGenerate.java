@@ -2,6 +2,7 @@ package org.rdlinux.ezmybatis.core.sqlgenerate.postgre;
 
 import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.core.EzDelete;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
 import org.rdlinux.ezmybatis.core.EzQuery;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
 import org.rdlinux.ezmybatis.core.sqlgenerate.SqlGenerate;
@@ -32,6 +33,37 @@ public class PostgreSqlGenerate extends MySqlSqlGenerate implements SqlGenerate
         return PostgreSqlEzQueryToSql.getInstance().toSql(configuration, paramHolder, query);
     }
 
+    @Override
+    public String getBatchInsertSql(Configuration configuration, MybatisParamHolder mybatisParamHolder,
+                                    Table table, Collection<Object> models) {
+        return PostgreSqlInsertSqlGenerate.getInstance().getBatchInsertSql(configuration, mybatisParamHolder, table,
+                models);
+    }
+
+    @Override
+    public int getBatchInsertChunkSize(Configuration configuration, Object model) {
+        return PostgreSqlInsertSqlGenerate.getInstance().getBatchInsertChunkSize(configuration, model);
+    }
+
+    @Override
+    public EzJdbcInsertSql getJdbcUpsertSql(Configuration configuration, Table table, Object model,
+                                            Collection<String> conflictFields, Collection<String> updateFields) {
+        return PostgreSqlInsertSqlGenerate.getInstance().getJdbcUpsertSql(configuration, table, model, conflictFields,
+                updateFields);
+    }
+
+    @Override
+    public String getBatchUpdateSql(Configuration configuration, MybatisParamHolder mybatisParamHolder,
+                                    Table table, Collection<Object> models, boolean isReplace) {
+        return PostgreSqlUpdateSqlGenerate.getInstance().getBatchUpdateSql(configuration, mybatisParamHolder, table,
+                models, isReplace);
+    }
+
+    @Override
+    public int getBatchUpdateChunkSize(Configuration configuration, Object model) {
+        return PostgreSqlUpdateSqlGenerate.getInstance().getBatchUpdateChunkSize(configuration, model);
+    }
+
     @Override
     public String getDeleteByIdSql(Configuration configuration, MybatisParamHolder paramHolder, Table table,
                                    Class<?> ntClass, Object id) {
@@ -55,4 +87,19 @@ public class PostgreSqlGenerate extends MySqlSqlGenerate implements SqlGenerate
                                Collection<EzDelete> deletes) {
         return PostgreSqlDeleteSqlGenerate.getInstance().getDeleteSql(configuration, paramHolder, deletes);
     }
+
+    @Override
+    public String getExistsSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return PostgreSqlSelectSqlGenerate.getInstance().getExistsSql(configuration, paramHolder, query);
+    }
+
+    @Override
+    public String getQueryWithTotalSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return PostgreSqlSelectSqlGenerate.getInstance().getQueryWithTotalSql(configuration, paramHolder, query);
+    }
+
+    @Override
+    public String getApproximateCountSql(Configuration configuration, MybatisParamHolder paramHolder, Table table) {
+        return PostgreSqlSelectSqlGenerate.getInstance().getApproximateCountSql(configuration, paramHolder, table);
+    }
 }
@@ -0,0 +1,60 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate.postgre;
+
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
+import org.rdlinux.ezmybatis.core.sqlgenerate.mysql.MySqlInsertSqlGenerate;
+
+import java.util.List;
+
+public class PostgreSqlInsertSqlGenerate extends MySqlInsertSqlGenerate {
+    private static volatile PostgreSqlInsertSqlGenerate instance;
+
+    protected PostgreSqlInsertSqlGenerate() {
+    }
+
+    public static PostgreSqlInsertSqlGenerate getInstance() {
+        if (instance == null) {
+            synchronized (PostgreSqlInsertSqlGenerate.class) {
+                if (instance == null) {
+                    instance = new PostgreSqlInsertSqlGenerate();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * postgresql协议中参数数量为两个字节的有符号数
+     */
+    @Override
+    protected int getBatchInsertMaxParams() {
+        return 32767;
+    }
+
+    /**
+     * 判断列上必须存在主键或唯一索引
+     */
+    @Override
+    protected String getUpsertSql(String keywordQM, EzJdbcInsertSql insertSql, List<String> conflictColumns,
+                                  List<String> updateColumns) {
+        StringBuilder sqlBuilder = new StringBuilder(insertSql.getSql()).append(" ON CONFLICT ( ");
+        for (int i = 0; i < conflictColumns.size(); i++) {
+            if (i > 0) {
+                sqlBuilder.append(", ");
+            }
+            sqlBuilder.append(keywordQM).append(conflictColumns.get(i)).append(keywordQM);
+        }
+        sqlBuilder.append(" ) DO ");
+        if (updateColumns.isEmpty()) {
+            return sqlBuilder.append("NOTHING").toString();
+        }
+        sqlBuilder.append("UPDATE SET ");
+        for (int i = 0; i < updateColumns.size(); i++) {
+            if (i > 0) {
+                sqlBuilder.append(", ");
+            }
+            String column = keywordQM + updateColumns.get(i) + keywordQM;
+            sqlBuilder.append(column).append(" = EXCLUDED.").append(column);
+        }
+        return sqlBuilder.toString();
+    }
+}
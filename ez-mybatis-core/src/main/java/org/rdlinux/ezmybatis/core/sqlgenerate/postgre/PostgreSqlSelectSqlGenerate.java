@@ -0,0 +1,61 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate.postgre;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.sqlgenerate.AbstractSelectSqlGenerate;
+import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+import org.rdlinux.ezmybatis.core.sqlgenerate.mysql.MySqlEzQueryToSql;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
+
+public class PostgreSqlSelectSqlGenerate extends AbstractSelectSqlGenerate {
+    private static volatile PostgreSqlSelectSqlGenerate instance;
+
+    private PostgreSqlSelectSqlGenerate() {
+    }
+
+    public static PostgreSqlSelectSqlGenerate getInstance() {
+        if (instance == null) {
+            synchronized (PostgreSqlSelectSqlGenerate.class) {
+                if (instance == null) {
+                    instance = new PostgreSqlSelectSqlGenerate();
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public String getQuerySql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return PostgreSqlEzQueryToSql.getInstance().toSql(configuration, paramHolder, query);
+    }
+
+    @Override
+    public String getQueryCountSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return MySqlEzQueryToSql.getInstance().toCountSql(configuration, paramHolder, query);
+    }
+
+    @Override
+    public String getExistsSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return PostgreSqlEzQueryToSql.getInstance().toExistsSql(configuration, paramHolder, query);
+    }
+
+    @Override
+    public String getQueryWithTotalSql(Configuration configuration, MybatisParamHolder paramHolder, EzQuery<?> query) {
+        return PostgreSqlEzQueryToSql.getInstance().toSqlWithTotal(configuration, paramHolder, query);
+    }
+
+    /**
+     * reltuples为-1时表示表从未被分析过
+     */
+    @Override
+    public String getApproximateCountSql(Configuration configuration, MybatisParamHolder paramHolder, Table table) {
+        String schema = table.getSchema(configuration);
+        String tableName = "\"" + table.getTableName(configuration) + "\"";
+        if (schema != null && !schema.isEmpty()) {
+            tableName = "\"" + schema + "\"." + tableName;
+        }
+        return "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = to_regclass(" +
+                paramHolder.getMybatisParamName(tableName) + ") AND reltuples >= " +
+                this.getApproximateCountThreshold(configuration);
+    }
+}
@@ -0,0 +1,29 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate.postgre;
+
+import org.rdlinux.ezmybatis.core.sqlgenerate.mysql.MySqlUpdateSqlGenerate;
+
+public class PostgreSqlUpdateSqlGenerate extends MySqlUpdateSqlGenerate {
+    private static volatile PostgreSqlUpdateSqlGenerate instance;
+
+    protected PostgreSqlUpdateSqlGenerate() {
+    }
+
+    public static PostgreSqlUpdateSqlGenerate getInstance() {
+        if (instance == null) {
+            synchronized (PostgreSqlUpdateSqlGenerate.class) {
+                if (instance == null) {
+                    instance = new PostgreSqlUpdateSqlGenerate();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * postgresql协议中参数数量为两个字节的有符号数
+     */
+    @Override
+    protected int getBatchUpdateMaxParams() {
+        return 32767;
+    }
+}
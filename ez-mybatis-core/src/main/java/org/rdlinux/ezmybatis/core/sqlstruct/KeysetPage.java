@@ -0,0 +1,159 @@
+package org.rdlinux.ezmybatis.core.sqlstruct;
+
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.classinfo.FieldAccessor;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.ArgCompareArgCondition;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.Condition;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.GroupCondition;
+import org.rdlinux.ezmybatis.enumeration.AndOr;
+import org.rdlinux.ezmybatis.enumeration.Operator;
+import org.rdlinux.ezmybatis.enumeration.OrderType;
+import org.rdlinux.ezmybatis.utils.Assert;
+import org.rdlinux.ezmybatis.utils.HumpLineStringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 键集分页, 根据上一页最后一行排序列的值定位下一页, 数据库不需要扫描被跳过的行, 排序列的组合需要唯一
+ */
+public class KeysetPage implements SqlStruct {
+    private EzQuery<?> query;
+    private int size;
+    /**
+     * 上一页最后一行排序列的值, 与排序项一一对应, 为空时查询第一页
+     */
+    private List<ObjArg> lastValues;
+
+    public KeysetPage(EzQuery<?> query, int size, List<?> lastValues) {
+        Assert.isTrue(size >= 1, "keyset page size must be greater than or equal 1");
+        this.query = query;
+        this.size = size;
+        this.lastValues = new ArrayList<>(lastValues == null ? 0 : lastValues.size());
+        if (lastValues != null) {
+            for (Object lastValue : lastValues) {
+                Assert.notNull(lastValue, "keyset last value can not be null");
+                this.lastValues.add(ObjArg.of(lastValue));
+            }
+        }
+    }
+
+    public EzQuery<?> getQuery() {
+        return this.query;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public List<ObjArg> getLastValues() {
+        return Collections.unmodifiableList(this.lastValues);
+    }
+
+    /**
+     * 是否查询第一页
+     */
+    public boolean isFirstPage() {
+        return this.lastValues.isEmpty();
+    }
+
+    private List<OrderBy.OrderItem> getOrderItems() {
+        OrderBy orderBy = this.query.getOrderBy();
+        if (orderBy == null || orderBy.getItems() == null || orderBy.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Keyset page requires order by");
+        }
+        return orderBy.getItems();
+    }
+
+    /**
+     * 生成定位条件, 格式为a >= ? AND (a > ? OR (a = ? AND b > ?)), 降序的排序项使用小于比较, 第一页时返回null
+     */
+    public Condition getSeekCondition() {
+        if (this.isFirstPage()) {
+            return null;
+        }
+        List<OrderBy.OrderItem> items = this.getOrderItems();
+        if (items.size() != this.lastValues.size()) {
+            throw new IllegalArgumentException("The number of keyset values must be equal to the number of order " +
+                    "items");
+        }
+        List<Condition> seekConditions = new LinkedList<>();
+        for (int i = 0; i < items.size(); i++) {
+            List<Condition> andConditions = new LinkedList<>();
+            for (int j = 0; j < i; j++) {
+                andConditions.add(new ArgCompareArgCondition(AndOr.AND, items.get(j).getValue(), Operator.eq,
+                        this.lastValues.get(j)));
+            }
+            OrderBy.OrderItem item = items.get(i);
+            andConditions.add(new ArgCompareArgCondition(AndOr.AND, item.getValue(),
+                    item.getOrderType() == OrderType.DESC ? Operator.lt : Operator.gt, this.lastValues.get(i)));
+            seekConditions.add(new GroupCondition(true, andConditions, AndOr.OR));
+        }
+        List<Condition> conditions = new LinkedList<>();
+        //首个排序列的范围条件, 用于数据库使用索引进行范围扫描
+        OrderBy.OrderItem first = items.get(0);
+        conditions.add(new ArgCompareArgCondition(AndOr.AND, first.getValue(),
+                first.getOrderType() == OrderType.DESC ? Operator.le : Operator.ge, this.lastValues.get(0)));
+        conditions.add(new GroupCondition(true, seekConditions, AndOr.AND));
+        return new GroupCondition(true, conditions, AndOr.AND);
+    }
+
+    /**
+     * 从结果行中获取排序列的值
+     */
+    public List<Object> getRowValues(Object row) {
+        Assert.notNull(row, "row can not be null");
+        List<OrderBy.OrderItem> items = this.getOrderItems();
+        List<Object> values = new ArrayList<>(items.size());
+        for (OrderBy.OrderItem item : items) {
+            values.add(this.getRowValue(row, item.getValue()));
+        }
+        return values;
+    }
+
+    /**
+     * 获取续页令牌
+     *
+     * @param rows 本页结果
+     * @return 本页结果不足一页时返回null, 表示没有下一页
+     */
+    public String getNextToken(List<?> rows) {
+        if (rows == null || rows.size() < this.size) {
+            return null;
+        }
+        return KeysetToken.encode(this.getRowValues(rows.get(rows.size() - 1)));
+    }
+
+    private Object getRowValue(Object row, Operand operand) {
+        String[] names;
+        if (operand instanceof EntityField) {
+            EntityField entityField = (EntityField) operand;
+            names = new String[]{entityField.getField()};
+        } else if (operand instanceof TableColumn) {
+            String column = ((TableColumn) operand).getColumn();
+            names = new String[]{column, HumpLineStringUtils.lineToHump(column)};
+        } else if (operand instanceof Alias) {
+            names = new String[]{((Alias) operand).getAlias()};
+        } else {
+            throw new IllegalArgumentException("Keyset page unsupported order item: " + operand.getClass().getName());
+        }
+        for (String name : names) {
+            if (row instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) row;
+                if (map.containsKey(name)) {
+                    return map.get(name);
+                }
+            } else {
+                FieldAccessor accessor = FieldAccessor.forProperty(row.getClass(), name);
+                if (accessor != null) {
+                    return accessor.get(row);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Can not get keyset value " + names[0] + " from " +
+                row.getClass().getName());
+    }
+}
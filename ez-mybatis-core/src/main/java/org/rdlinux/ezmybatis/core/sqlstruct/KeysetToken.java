@@ -0,0 +1,167 @@
+package org.rdlinux.ezmybatis.core.sqlstruct;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 键集分页续页令牌, 将排序列的值按类型编码为url安全的字符串, 只支持常用的基础类型, 不使用java序列化
+ */
+public class KeysetToken {
+    private static final byte VERSION = 1;
+    private static final byte STRING = 's';
+    private static final byte INTEGER = 'i';
+    private static final byte LONG = 'l';
+    private static final byte SHORT = 'h';
+    private static final byte BYTE = 'y';
+    private static final byte DOUBLE = 'd';
+    private static final byte FLOAT = 'f';
+    private static final byte BIG_DECIMAL = 'm';
+    private static final byte BIG_INTEGER = 'n';
+    private static final byte BOOLEAN = 'b';
+    private static final byte TIMESTAMP = 't';
+    private static final byte SQL_DATE = 'q';
+    private static final byte DATE = 'D';
+    private static final byte LOCAL_DATE = 'L';
+    private static final byte LOCAL_DATE_TIME = 'T';
+
+    private KeysetToken() {
+    }
+
+    /**
+     * 编码
+     */
+    public static String encode(List<?> values) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            out.writeByte(VERSION);
+            out.writeShort(values.size());
+            for (Object value : values) {
+                writeValue(out, value);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bos.toByteArray());
+    }
+
+    /**
+     * 解码
+     */
+    public static List<Object> decode(String token) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                Base64.getUrlDecoder().decode(token.getBytes(StandardCharsets.US_ASCII))))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported keyset token version");
+            }
+            int size = in.readShort();
+            List<Object> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readValue(in));
+            }
+            return values;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid keyset token: " + token, e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String) {
+            out.writeByte(STRING);
+            out.writeUTF((String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(BIG_DECIMAL);
+            out.writeUTF(value.toString());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(BIG_INTEGER);
+            out.writeUTF(value.toString());
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof java.sql.Timestamp) {
+            out.writeByte(TIMESTAMP);
+            out.writeLong(((java.sql.Timestamp) value).getTime());
+            out.writeInt(((java.sql.Timestamp) value).getNanos());
+        } else if (value instanceof java.sql.Date) {
+            out.writeByte(SQL_DATE);
+            out.writeLong(((java.sql.Date) value).getTime());
+        } else if (value instanceof Date) {
+            out.writeByte(DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof LocalDate) {
+            out.writeByte(LOCAL_DATE);
+            out.writeUTF(value.toString());
+        } else if (value instanceof LocalDateTime) {
+            out.writeByte(LOCAL_DATE_TIME);
+            out.writeUTF(value.toString());
+        } else {
+            throw new IllegalArgumentException("Keyset token unsupported value type: " +
+                    (value == null ? "null" : value.getClass().getName()));
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case STRING:
+                return in.readUTF();
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case SHORT:
+                return in.readShort();
+            case BYTE:
+                return in.readByte();
+            case DOUBLE:
+                return in.readDouble();
+            case FLOAT:
+                return in.readFloat();
+            case BIG_DECIMAL:
+                return new BigDecimal(in.readUTF());
+            case BIG_INTEGER:
+                return new BigInteger(in.readUTF());
+            case BOOLEAN:
+                return in.readBoolean();
+            case TIMESTAMP:
+                java.sql.Timestamp timestamp = new java.sql.Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            case SQL_DATE:
+                return new java.sql.Date(in.readLong());
+            case DATE:
+                return new Date(in.readLong());
+            case LOCAL_DATE:
+                return LocalDate.parse(in.readUTF());
+            case LOCAL_DATE_TIME:
+                return LocalDateTime.parse(in.readUTF());
+            default:
+                throw new IllegalArgumentException("Unsupported keyset token value type: " + (char) type);
+        }
+    }
+}
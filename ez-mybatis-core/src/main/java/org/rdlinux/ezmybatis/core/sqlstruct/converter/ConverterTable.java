@@ -0,0 +1,66 @@
+package org.rdlinux.ezmybatis.core.sqlstruct.converter;
+
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.sqlstruct.SqlStruct;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 转换器分派表, 不可变, 每个sql结构类型分配一个全局下标, 通过下标直接从数组中获取转换器
+ */
+public class ConverterTable {
+    /**
+     * 下一个sql结构类型下标
+     */
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+    /**
+     * sql结构类型下标
+     */
+    private static final ClassValue<Integer> STRUCT_INDEX = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return NEXT_INDEX.getAndIncrement();
+        }
+    };
+    private final DbType dbType;
+    private final Converter<?>[] converters;
+
+    private ConverterTable(DbType dbType, Converter<?>[] converters) {
+        this.dbType = dbType;
+        this.converters = converters;
+    }
+
+    /**
+     * 根据sql结构类型与转换器映射构建分派表
+     */
+    public static ConverterTable of(DbType dbType, Map<Class<?>, Converter<?>> convertMap) {
+        int maxIndex = -1;
+        for (Class<?> sqlStruct : convertMap.keySet()) {
+            maxIndex = Math.max(maxIndex, STRUCT_INDEX.get(sqlStruct));
+        }
+        Converter<?>[] converters = new Converter<?>[maxIndex + 1];
+        for (Map.Entry<Class<?>, Converter<?>> entry : convertMap.entrySet()) {
+            converters[STRUCT_INDEX.get(entry.getKey())] = entry.getValue();
+        }
+        return new ConverterTable(dbType, converters);
+    }
+
+    public DbType getDbType() {
+        return this.dbType;
+    }
+
+    /**
+     * 获取转换器
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends SqlStruct> Converter<T> get(Class<T> sqlStruct) {
+        int index = STRUCT_INDEX.get(sqlStruct);
+        Converter<?> converter = index < this.converters.length ? this.converters[index] : null;
+        if (converter == null) {
+            throw new RuntimeException(String.format("%s cannot find the converter of %s", this.dbType.name(),
+                    sqlStruct.getSimpleName()));
+        }
+        return (Converter<T>) converter;
+    }
+}
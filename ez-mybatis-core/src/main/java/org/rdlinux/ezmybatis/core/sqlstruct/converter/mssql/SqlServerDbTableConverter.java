@@ -38,8 +38,7 @@ public class SqlServerDbTableConverter extends AbstractConverter<DbTable> implem
         sqlBuilder.append(keywordQM).append(SqlEscaping.nameEscaping(table.getTableName(configuration)))
                 .append(keywordQM);
         if (table.getPartition() != null) {
-            sqlBuilder.append(this.partitionToSql(type, new StringBuilder(), configuration, table.getPartition(),
-                    mybatisParamHolder));
+            this.partitionToSql(type, sqlBuilder, configuration, table.getPartition(), mybatisParamHolder);
         }
         if (type == Type.SELECT) {
             sqlBuilder.append(" ").append(table.getAlias()).append(" ");
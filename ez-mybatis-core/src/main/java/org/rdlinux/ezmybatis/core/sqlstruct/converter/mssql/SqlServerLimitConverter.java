@@ -31,7 +31,8 @@ public class SqlServerLimitConverter extends AbstractConverter<Limit> implements
             return sqlBuilder;
         }
         //OFFSET 0 ROWS FETCH NEXT 10 ROWS ONLY
-        return sqlBuilder.append("OFFSET 0 ROWS FETCH NEXT ").append(limit.getSize()).append(" ROWS ONLY ");
+        return sqlBuilder.append("OFFSET 0 ROWS FETCH NEXT ").append(mybatisParamHolder.getNumberParamName(limit, "size", limit.getSize()))
+                .append(" ROWS ONLY ");
     }
 
     @Override
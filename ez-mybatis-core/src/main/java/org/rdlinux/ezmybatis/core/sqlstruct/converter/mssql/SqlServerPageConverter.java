@@ -30,8 +30,11 @@ public class SqlServerPageConverter extends AbstractConverter<Page> implements C
         if (limit == null) {
             return sqlBuilder;
         }
-        return sqlBuilder.append(" OFFSET ").append(limit.getSkip()).append(" ROWS FETCH NEXT ")
-                .append(limit.getSize()).append(" ROWS ONLY ");
+        return sqlBuilder.append(" OFFSET ").append(mybatisParamHolder.getNumberParamName(limit, "skip",
+                        limit.getSkip()))
+                .append(" ROWS FETCH NEXT ").append(mybatisParamHolder.getNumberParamName(limit, "size",
+                        limit.getSize()))
+                .append(" ROWS ONLY ");
     }
 
     @Override
@@ -4,6 +4,9 @@ import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.constant.DbType;
 import org.rdlinux.ezmybatis.core.EzMybatisContent;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+import org.rdlinux.ezmybatis.core.sqlgenerate.inlist.InListStrategy;
+import org.rdlinux.ezmybatis.core.sqlgenerate.inlist.InListStrategyFactory;
+import org.rdlinux.ezmybatis.core.sqlgenerate.inlist.OperandInListParams;
 import org.rdlinux.ezmybatis.core.sqlstruct.EntityField;
 import org.rdlinux.ezmybatis.core.sqlstruct.MultipleRetOperand;
 import org.rdlinux.ezmybatis.core.sqlstruct.Operand;
@@ -39,48 +42,62 @@ public class MySqlArgCompareArgConditionConverter extends AbstractConverter<ArgC
                                        ArgCompareArgCondition obj, MybatisParamHolder mybatisParamHolder) {
         Operand leftValue = obj.getLeftValue();
         if (leftValue instanceof EntityField) {
-            EzMybatisContent.setCurrentAccessField((EntityField) leftValue);
+            mybatisParamHolder.getContext().beginAccessField((EntityField) leftValue);
         }
         Converter<? extends Operand> leftConverter = EzMybatisContent.getConverter(configuration, leftValue.getClass());
-        StringBuilder leftSql = new StringBuilder();
-        leftSql.append(" ").append(leftConverter.buildSql(type, new StringBuilder(), configuration, leftValue,
-                mybatisParamHolder)).append(" ");
         Operator operator = obj.getOperator();
         StringBuilder ret;
-        if (operator == Operator.isNull || operator == Operator.isNotNull) {
-            ret = this.isNullBuild(leftSql, sqlBuilder, obj);
-        } else if (operator == Operator.between || operator == Operator.notBetween) {
-            ret = this.isBetweenBuild(leftSql, type, sqlBuilder, configuration, obj, mybatisParamHolder);
-        } else if (operator == Operator.in || operator == Operator.notIn) {
-            ret = this.inBuild(leftSql, type, sqlBuilder, configuration, obj, mybatisParamHolder);
+        //多个参数的in条件由策略决定左侧的使用方式, 左侧单独渲染, 不依赖转换器返回的sqlBuilder中的位置
+        if ((operator == Operator.in || operator == Operator.notIn) && obj.getRightValues().size() > 1) {
+            String leftSql = leftConverter.buildSql(type, new StringBuilder(" "), configuration, leftValue,
+                    mybatisParamHolder).append(" ").toString();
+            ret = this.inListBuild(leftSql, type, sqlBuilder.append(" "), configuration, obj, mybatisParamHolder);
         } else {
-            ret = this.normalBuild(leftSql, type, sqlBuilder, configuration, obj, mybatisParamHolder);
+            sqlBuilder.append("  ");
+            sqlBuilder = leftConverter.buildSql(type, sqlBuilder, configuration, leftValue, mybatisParamHolder);
+            sqlBuilder.append("  ");
+            if (operator == Operator.isNull || operator == Operator.isNotNull) {
+                ret = this.isNullBuild(sqlBuilder, obj);
+            } else if (operator == Operator.between || operator == Operator.notBetween) {
+                ret = this.isBetweenBuild(type, sqlBuilder, configuration, obj, mybatisParamHolder);
+            } else if (operator == Operator.in || operator == Operator.notIn) {
+                ret = this.inBuild(type, sqlBuilder, configuration, obj, mybatisParamHolder);
+            } else {
+                ret = this.normalBuild(type, sqlBuilder, configuration, obj, mybatisParamHolder);
+            }
         }
         if (leftValue instanceof EntityField) {
-            EzMybatisContent.cleanCurrentAccessField();
+            mybatisParamHolder.getContext().endAccessField();
         }
         return ret;
     }
 
-    private StringBuilder normalBuild(StringBuilder leftSql, Type type, StringBuilder sqlBuilder,
-                                      Configuration configuration, ArgCompareArgCondition obj,
-                                      MybatisParamHolder mybatisParamHolder) {
+    private StringBuilder normalBuild(Type type, StringBuilder sqlBuilder, Configuration configuration,
+                                      ArgCompareArgCondition obj, MybatisParamHolder mybatisParamHolder) {
         Operator operator = obj.getOperator();
         Operand value = obj.getRightValue();
         Converter<? extends Operand> argConverter = EzMybatisContent.getConverter(configuration,
                 value.getClass());
-        return sqlBuilder.append(" ")
-                .append(leftSql)
-                .append(" ")
-                .append(this.getOperatorStr(operator))
-                .append(" ")
-                .append(argConverter.buildSql(type, new StringBuilder(), configuration, value, mybatisParamHolder))
-                .append(" ");
+        sqlBuilder.append(this.getOperatorStr(operator)).append(" ");
+        sqlBuilder = argConverter.buildSql(type, sqlBuilder, configuration, value, mybatisParamHolder);
+        return sqlBuilder.append(" ");
     }
 
-    private StringBuilder inBuild(StringBuilder leftSql, Type type, StringBuilder sqlBuilder,
-                                  Configuration configuration, ArgCompareArgCondition obj,
-                                  MybatisParamHolder mybatisParamHolder) {
+    /**
+     * 多个参数时按参数数量选择in条件构建策略
+     */
+    private StringBuilder inListBuild(String leftSql, Type type, StringBuilder sqlBuilder,
+                                      Configuration configuration, ArgCompareArgCondition obj,
+                                      MybatisParamHolder mybatisParamHolder) {
+        InListStrategy strategy = InListStrategyFactory.getStrategy(configuration, obj.getRightValues().size());
+        sqlBuilder = strategy.buildSql(sqlBuilder, leftSql, obj.getOperator() == Operator.notIn,
+                new OperandInListParams(type, configuration, mybatisParamHolder, obj.getRightValues()),
+                mybatisParamHolder);
+        return sqlBuilder.append(" ");
+    }
+
+    private StringBuilder inBuild(Type type, StringBuilder sqlBuilder, Configuration configuration,
+                                  ArgCompareArgCondition obj, MybatisParamHolder mybatisParamHolder) {
         Operator operator = obj.getOperator();
         if (obj.getRightValues().size() == 1) {
             if (!(obj.getRightValues().get(0) instanceof MultipleRetOperand)) {
@@ -92,24 +109,13 @@ public class MySqlArgCompareArgConditionConverter extends AbstractConverter<ArgC
             }
 
         }
-        sqlBuilder.append(" ")
-                .append(leftSql)
-                .append(" ")
-                .append(this.getOperatorStr(operator))
-                .append(" ");
+        sqlBuilder.append(this.getOperatorStr(operator)).append(" ");
         if (operator == Operator.in || operator == Operator.notIn) {
             sqlBuilder.append("(");
         }
-        for (int i = 0; i < obj.getRightValues().size(); i++) {
-            Operand arg = obj.getRightValues().get(i);
-            Converter<? extends Operand> argConverter = EzMybatisContent.getConverter(configuration,
-                    arg.getClass());
-            sqlBuilder.append(argConverter.buildSql(type, new StringBuilder(), configuration, arg,
-                    mybatisParamHolder));
-            if (i + 1 < obj.getRightValues().size()) {
-                sqlBuilder.append(", ");
-            }
-        }
+        Operand arg = obj.getRightValues().get(0);
+        Converter<? extends Operand> argConverter = EzMybatisContent.getConverter(configuration, arg.getClass());
+        sqlBuilder = argConverter.buildSql(type, sqlBuilder, configuration, arg, mybatisParamHolder);
         if (operator == Operator.in || operator == Operator.notIn) {
             sqlBuilder.append(")");
         }
@@ -117,33 +123,23 @@ public class MySqlArgCompareArgConditionConverter extends AbstractConverter<ArgC
         return sqlBuilder;
     }
 
-    private StringBuilder isBetweenBuild(StringBuilder leftSql, Type type, StringBuilder sqlBuilder,
-                                         Configuration configuration, ArgCompareArgCondition obj,
-                                         MybatisParamHolder mybatisParamHolder) {
+    private StringBuilder isBetweenBuild(Type type, StringBuilder sqlBuilder, Configuration configuration,
+                                         ArgCompareArgCondition obj, MybatisParamHolder mybatisParamHolder) {
         Operator operator = obj.getOperator();
         Converter<? extends Operand> minArgConverter = EzMybatisContent.getConverter(configuration,
                 obj.getMinValue().getClass());
         Converter<? extends Operand> maxArgConverter = EzMybatisContent.getConverter(configuration,
                 obj.getMaxValue().getClass());
-        return sqlBuilder.append(" ")
-                .append(leftSql)
-                .append(" ")
-                .append(this.getOperatorStr(operator))
-                .append(" ")
-                .append(minArgConverter.buildSql(type, new StringBuilder(), configuration, obj.getMinValue(),
-                        mybatisParamHolder))
-                .append(" AND ")
-                .append(maxArgConverter.buildSql(type, new StringBuilder(), configuration, obj.getMaxValue(),
-                        mybatisParamHolder)).append(" ");
+        sqlBuilder.append(this.getOperatorStr(operator)).append(" ");
+        sqlBuilder = minArgConverter.buildSql(type, sqlBuilder, configuration, obj.getMinValue(), mybatisParamHolder);
+        sqlBuilder.append(" AND ");
+        sqlBuilder = maxArgConverter.buildSql(type, sqlBuilder, configuration, obj.getMaxValue(), mybatisParamHolder);
+        return sqlBuilder.append(" ");
     }
 
-    private StringBuilder isNullBuild(StringBuilder leftSql, StringBuilder sqlBuilder, ArgCompareArgCondition obj) {
+    private StringBuilder isNullBuild(StringBuilder sqlBuilder, ArgCompareArgCondition obj) {
         Operator operator = obj.getOperator();
-        return sqlBuilder.append(" ")
-                .append(leftSql)
-                .append(" ")
-                .append(this.getOperatorStr(operator))
-                .append(" ");
+        return sqlBuilder.append(this.getOperatorStr(operator)).append(" ");
     }
 
     @Override
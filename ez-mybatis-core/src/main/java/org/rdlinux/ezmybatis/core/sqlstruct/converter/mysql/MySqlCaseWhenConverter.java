@@ -45,9 +45,9 @@ public class MySqlCaseWhenConverter extends AbstractConverter<CaseWhen> implemen
         List<CaseWhen.CaseWhenData> caseWhenData = caseWhen.getCaseWhenData();
         for (CaseWhen.CaseWhenData caseWhenDatum : caseWhenData) {
             sqlBuilder.append(" WHEN ");
-            StringBuilder whenSql = MySqlWhereConverter.conditionsToSql(type, new StringBuilder(), configuration,
-                    mybatisParamHolder, caseWhenDatum.getConditions());
-            sqlBuilder.append(whenSql).append(" ");
+            MySqlWhereConverter.conditionsToSql(type, sqlBuilder, configuration, mybatisParamHolder,
+                    caseWhenDatum.getConditions());
+            sqlBuilder.append(" ");
             sqlBuilder.append(" THEN ");
             this.handleValue(type, sqlBuilder, configuration, caseWhenDatum, mybatisParamHolder);
         }
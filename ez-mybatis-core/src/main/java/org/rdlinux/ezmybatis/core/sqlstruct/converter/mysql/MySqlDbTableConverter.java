@@ -38,8 +38,7 @@ public class MySqlDbTableConverter extends AbstractConverter<DbTable> implements
         sqlBuilder.append(keywordQM).append(SqlEscaping.nameEscaping(table.getTableName(configuration)))
                 .append(keywordQM);
         if (table.getPartition() != null) {
-            sqlBuilder.append(this.partitionToSql(type, new StringBuilder(), configuration, table.getPartition(),
-                    mybatisParamHolder));
+            this.partitionToSql(type, sqlBuilder, configuration, table.getPartition(), mybatisParamHolder);
         }
         if (type == Converter.Type.SELECT || type == Converter.Type.UPDATE || type == Converter.Type.DELETE) {
             sqlBuilder.append(" ").append(table.getAlias()).append(" ");
@@ -33,19 +33,19 @@ public class MySqlGroupByConverter extends AbstractConverter<GroupBy> implements
         if (groupBy == null || groupBy.getItems() == null || groupBy.getItems().isEmpty()) {
             return sqlBuilder;
         } else {
-            StringBuilder sql = new StringBuilder(" GROUP BY ");
+            sqlBuilder.append(" GROUP BY ");
             for (int i = 0; i < groupBy.getItems().size(); i++) {
                 Operand groupItem = groupBy.getItems().get(i);
                 Converter<? extends Operand> converter = EzMybatisContent.getConverter(configuration,
                         groupItem.getClass());
-                converter.buildSql(type, sql, configuration, groupItem, mybatisParamHolder);
+                sqlBuilder = converter.buildSql(type, sqlBuilder, configuration, groupItem, mybatisParamHolder);
                 if (i + 1 < groupBy.getItems().size()) {
-                    sql.append(", ");
+                    sqlBuilder.append(", ");
                 } else {
-                    sql.append(" ");
+                    sqlBuilder.append(" ");
                 }
             }
-            return sqlBuilder.append(sql);
+            return sqlBuilder;
         }
     }
 
@@ -33,21 +33,18 @@ public class MySqlGroupConditionConverter extends AbstractConverter<GroupConditi
         if (!obj.isSure() || obj.getConditions() == null || obj.getConditions().isEmpty()) {
             return sqlBuilder;
         } else {
-            StringBuilder sonSql = new StringBuilder(" ( ");
+            sqlBuilder.append(" ( ");
             for (int i = 0; i < obj.getConditions().size(); i++) {
                 Condition condition = obj.getConditions().get(i);
                 Assert.notNull(condition, "condition can not be null");
                 if (i != 0) {
-                    sonSql.append(" ").append(condition.getAndOr().name()).append(" ");
+                    sqlBuilder.append(" ").append(condition.getAndOr().name()).append(" ");
                 }
                 Converter<? extends Condition> converter = EzMybatisContent.getConverter(configuration,
                         condition.getClass());
-                StringBuilder conditionSql = converter.buildSql(type, new StringBuilder(), configuration, condition,
-                        mybatisParamHolder);
-                sonSql.append(conditionSql);
+                sqlBuilder = converter.buildSql(type, sqlBuilder, configuration, condition, mybatisParamHolder);
             }
-            sonSql.append(" ) ");
-            return sqlBuilder.append(sonSql);
+            return sqlBuilder.append(" ) ");
         }
     }
 
@@ -1,6 +1,5 @@
 package org.rdlinux.ezmybatis.core.sqlstruct.converter.mysql;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.constant.DbType;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
@@ -37,12 +36,14 @@ public class MySqlHavingConverter extends AbstractConverter<Having> implements C
         if (having.getConditions() == null || having.getConditions().isEmpty()) {
             return sqlBuilder.append(" HAVING 1 = 1 ");
         }
-        String sonSql = MySqlWhereConverter.conditionsToSql(type, new StringBuilder(), configuration,
-                mybatisParamHolder, having.getConditions()).toString();
-        if (StringUtils.isBlank(sonSql)) {
-            sonSql = " 1 = 1 ";
+        sqlBuilder.append(" HAVING ");
+        int mark = sqlBuilder.length();
+        sqlBuilder = MySqlWhereConverter.conditionsToSql(type, sqlBuilder, configuration, mybatisParamHolder,
+                having.getConditions());
+        if (MySqlWhereConverter.isBlank(sqlBuilder, mark)) {
+            sqlBuilder.setLength(mark);
+            sqlBuilder.append(" 1 = 1 ");
         }
-        sqlBuilder.append(" HAVING ").append(sonSql);
         return sqlBuilder;
     }
 
@@ -1,6 +1,5 @@
 package org.rdlinux.ezmybatis.core.sqlstruct.converter.mysql;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.constant.DbType;
 import org.rdlinux.ezmybatis.core.EzMybatisContent;
@@ -36,11 +35,12 @@ public class MySqlJoinConverter extends AbstractConverter<Join> implements Conve
         if (!join.isSure()) {
             return sqlBuilder;
         }
-        String sonSql = "";
+        //on条件需要先于关联表构建以判断是否为空
+        StringBuilder sonSql = null;
         if (join.getJoinType() != JoinType.CrossJoin) {
             sonSql = MySqlWhereConverter.conditionsToSql(type, new StringBuilder(), configuration,
-                    mybatisParamHolder, join.getOnConditions()).toString();
-            if (StringUtils.isBlank(sonSql)) {
+                    mybatisParamHolder, join.getOnConditions());
+            if (MySqlWhereConverter.isBlank(sonSql, 0)) {
                 return sqlBuilder;
             }
         }
@@ -51,11 +51,12 @@ public class MySqlJoinConverter extends AbstractConverter<Join> implements Conve
         if (join.getJoinType() != JoinType.CrossJoin) {
             sqlBuilder.append(" ON ");
         }
-        sqlBuilder.append(sonSql);
+        if (sonSql != null) {
+            sqlBuilder.append(sonSql);
+        }
         if (join.getJoins() != null && !join.getJoins().isEmpty()) {
             for (Join sonJoin : join.getJoins()) {
-                sqlBuilder.append(this.doBuildSql(type, new StringBuilder(), configuration, sonJoin,
-                        mybatisParamHolder));
+                this.doBuildSql(type, sqlBuilder, configuration, sonJoin, mybatisParamHolder);
             }
         }
         return sqlBuilder;
@@ -34,7 +34,7 @@ public class MySqlLimitConverter extends AbstractConverter<Limit> implements Con
             throw new UnsupportedOperationException("MySql does not support the LIMIT clause for " +
                     "UPDATE and DELETE and INSERT operations.");
         }
-        return sqlBuilder.append(" LIMIT ").append(limit.getSize()).append(" ");
+        return sqlBuilder.append(" LIMIT ").append(mybatisParamHolder.getNumberParamName(limit, "size", limit.getSize())).append(" ");
     }
 
     @Override
@@ -36,7 +36,7 @@ public class MySqlObjArgConverter extends AbstractConverter<ObjArg> implements C
                                        ObjArg obj, MybatisParamHolder mybatisParamHolder) {
         Class<?> modelType = null;
         Field field = null;
-        EntityField currentAccessField = EzMybatisContent.getCurrentAccessField();
+        EntityField currentAccessField = mybatisParamHolder.getContext().getCurrentAccessField();
         if (currentAccessField != null) {
             modelType = currentAccessField.getTable().getEtType();
             EntityClassInfo etInfo = EzEntityClassInfoFactory.forClass(configuration, currentAccessField.getTable()
@@ -48,7 +48,7 @@ public class MySqlObjArgConverter extends AbstractConverter<ObjArg> implements C
                 }
             }
         }
-        String paramName = mybatisParamHolder.getMybatisParamName(modelType, field, obj.getArg());
+        String paramName = mybatisParamHolder.getMybatisParamName(modelType, field, obj);
         return sqlBuilder.append(paramName);
     }
 
@@ -31,19 +31,19 @@ public class MySqlOrderByConverter extends AbstractConverter<OrderBy> implements
         if (orderBy == null || orderBy.getItems() == null || orderBy.getItems().isEmpty()) {
             return sqlBuilder;
         } else {
-            StringBuilder sql = new StringBuilder(" ORDER BY ");
+            sqlBuilder.append(" ORDER BY ");
             Converter<OrderBy.OrderItem> converter = EzMybatisContent.getConverter(configuration,
                     OrderBy.OrderItem.class);
             for (int i = 0; i < orderBy.getItems().size(); i++) {
                 OrderBy.OrderItem orderItem = orderBy.getItems().get(i);
-                converter.buildSql(type, sql, configuration, orderItem, mybatisParamHolder);
+                sqlBuilder = converter.buildSql(type, sqlBuilder, configuration, orderItem, mybatisParamHolder);
                 if (i + 1 < orderBy.getItems().size()) {
-                    sql.append(", ");
+                    sqlBuilder.append(", ");
                 } else {
-                    sql.append(" ");
+                    sqlBuilder.append(" ");
                 }
             }
-            return sqlBuilder.append(sql);
+            return sqlBuilder;
         }
     }
 
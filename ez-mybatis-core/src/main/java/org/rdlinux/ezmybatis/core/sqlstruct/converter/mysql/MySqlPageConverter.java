@@ -30,7 +30,9 @@ public class MySqlPageConverter extends AbstractConverter<Page> implements Conve
         if (limit == null) {
             return sqlBuilder;
         }
-        return sqlBuilder.append(" LIMIT ").append(limit.getSkip()).append(", ").append(limit.getSize()).append(" ");
+        return sqlBuilder.append(" LIMIT ")
+                .append(mybatisParamHolder.getNumberParamName(limit, "skip", limit.getSkip())).append(", ")
+                .append(mybatisParamHolder.getNumberParamName(limit, "size", limit.getSize())).append(" ");
     }
 
     @Override
@@ -46,22 +46,21 @@ public class MySqlUpdateColumnItemConverter extends AbstractConverter<UpdateColu
                     ((EntityTable) obj.getTable()).getEtType());
             entityFieldInfo = entityClassInfo.getColumnMapFieldInfo().get(column);
             if (entityFieldInfo != null) {
-                EzMybatisContent.setCurrentAccessField(EntityField.of((EntityTable) obj.getTable(),
+                mybatisParamHolder.getContext().beginAccessField(EntityField.of((EntityTable) obj.getTable(),
                         entityFieldInfo.getFieldName()));
             }
         }
         Converter<? extends Operand> argConverter = EzMybatisContent.getConverter(configuration,
                 obj.getValue().getClass());
-        StringBuilder valueSql = argConverter.buildSql(type, new StringBuilder(), configuration, obj.getValue(),
-                mybatisParamHolder);
         String keywordQM = EzMybatisContent.getKeywordQM(configuration);
         if (this.appendAlias()) {
             sqlBuilder.append(obj.getTable().getAlias()).append(".");
         }
         sqlBuilder.append(keywordQM).append(SqlEscaping.nameEscaping(column))
-                .append(keywordQM).append(" = ").append(valueSql);
+                .append(keywordQM).append(" = ");
+        sqlBuilder = argConverter.buildSql(type, sqlBuilder, configuration, obj.getValue(), mybatisParamHolder);
         if (entityFieldInfo != null) {
-            EzMybatisContent.cleanCurrentAccessField();
+            mybatisParamHolder.getContext().endAccessField();
         }
         return sqlBuilder;
     }
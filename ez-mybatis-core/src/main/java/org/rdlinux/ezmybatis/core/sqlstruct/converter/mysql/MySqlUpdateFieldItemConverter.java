@@ -42,18 +42,17 @@ public class MySqlUpdateFieldItemConverter extends AbstractConverter<UpdateField
         String keywordQM = EzMybatisContent.getKeywordQM(configuration);
         EntityClassInfo etInfo = EzEntityClassInfoFactory.forClass(configuration, obj.getEntityTable().getEtType());
         EntityFieldInfo fieldInfo = etInfo.getFieldInfo(obj.getField());
-        EzMybatisContent.setCurrentAccessField(EntityField.of(obj.getEntityTable(), obj.getField()));
+        mybatisParamHolder.getContext().beginAccessField(EntityField.of(obj.getEntityTable(), obj.getField()));
         Converter<? extends Operand> argConverter = EzMybatisContent.getConverter(configuration,
                 obj.getValue().getClass());
-        StringBuilder valueSql = argConverter.buildSql(type, new StringBuilder(), configuration, obj.getValue(),
-                mybatisParamHolder);
         if (this.appendAlias()) {
             sqlBuilder.append(obj.getTable().getAlias()).append(".");
         }
         String column = fieldInfo.getColumnName();
         sqlBuilder.append(keywordQM).append(SqlEscaping.nameEscaping(column))
-                .append(keywordQM).append(" = ").append(valueSql);
-        EzMybatisContent.cleanCurrentAccessField();
+                .append(keywordQM).append(" = ");
+        sqlBuilder = argConverter.buildSql(type, sqlBuilder, configuration, obj.getValue(), mybatisParamHolder);
+        mybatisParamHolder.getContext().endAccessField();
         return sqlBuilder;
     }
 
@@ -1,6 +1,5 @@
 package org.rdlinux.ezmybatis.core.sqlstruct.converter.mysql;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.constant.DbType;
 import org.rdlinux.ezmybatis.core.EzMybatisContent;
@@ -29,6 +28,18 @@ public class MySqlWhereConverter extends AbstractConverter<Where> implements Con
         return instance;
     }
 
+    /**
+     * sqlBuilder中from之后的内容是否为空白
+     */
+    protected static boolean isBlank(StringBuilder sqlBuilder, int from) {
+        for (int i = from; i < sqlBuilder.length(); i++) {
+            if (!Character.isWhitespace(sqlBuilder.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     protected static StringBuilder conditionsToSql(Type type, StringBuilder sqlBuilder, Configuration configuration,
                                                    MybatisParamHolder mybatisParamHolder,
                                                    List<Condition> conditions) {
@@ -36,14 +47,16 @@ public class MySqlWhereConverter extends AbstractConverter<Where> implements Con
         boolean beforeHasCondition = false;
         for (Condition condition : conditions) {
             Converter<?> converter = EzMybatisContent.getConverter(configuration, condition.getClass());
-            String sqlPart = converter.buildSql(type, new StringBuilder(), configuration, condition, mybatisParamHolder)
-                    .toString();
-            boolean emptySql = sqlPart.trim().isEmpty();
-            if (!emptySql) {
-                if (beforeHasCondition) {
-                    sqlBuilder.append(condition.getAndOr().name()).append(" ");
-                }
-                sqlBuilder.append(sqlPart);
+            //条件直接写入sqlBuilder, 为空时回退
+            int mark = sqlBuilder.length();
+            if (beforeHasCondition) {
+                sqlBuilder.append(condition.getAndOr().name()).append(" ");
+            }
+            int partStart = sqlBuilder.length();
+            sqlBuilder = converter.buildSql(type, sqlBuilder, configuration, condition, mybatisParamHolder);
+            if (MySqlWhereConverter.isBlank(sqlBuilder, partStart)) {
+                sqlBuilder.setLength(mark);
+            } else {
                 //如果当前条件不为空, 则将后续循环的“循环中当前条件的前面是否已经有其它条件”设置为true
                 beforeHasCondition = true;
             }
@@ -63,12 +76,13 @@ public class MySqlWhereConverter extends AbstractConverter<Where> implements Con
         if (where.getConditions() == null || where.getConditions().isEmpty()) {
             return sqlBuilder.append(" WHERE 1 = 1 ");
         }
-        String sonSql = conditionsToSql(type, new StringBuilder(), configuration, mybatisParamHolder,
-                where.getConditions()).toString();
-        if (StringUtils.isBlank(sonSql)) {
-            sonSql = " 1 = 1 ";
+        sqlBuilder.append(" WHERE ");
+        int mark = sqlBuilder.length();
+        sqlBuilder = conditionsToSql(type, sqlBuilder, configuration, mybatisParamHolder, where.getConditions());
+        if (MySqlWhereConverter.isBlank(sqlBuilder, mark)) {
+            sqlBuilder.setLength(mark);
+            sqlBuilder.append(" 1 = 1 ");
         }
-        sqlBuilder.append(" WHERE ").append(sonSql);
         return sqlBuilder;
     }
 
@@ -37,18 +37,20 @@ public class OracleArgCompareArgConditionConverter extends MySqlArgCompareArgCon
         if (operator == Operator.regexp) {
             Operand leftValue = obj.getLeftValue();
             if (leftValue instanceof EntityField) {
-                EzMybatisContent.setCurrentAccessField((EntityField) leftValue);
+                mybatisParamHolder.getContext().beginAccessField((EntityField) leftValue);
             }
             Converter<? extends Operand> leftConverter = EzMybatisContent.getConverter(configuration, leftValue.getClass());
-            StringBuilder leftSql = new StringBuilder();
-            leftSql.append(" REGEXP_LIKE(").append(leftConverter.buildSql(type, new StringBuilder(), configuration, leftValue,
-                    mybatisParamHolder)).append(", ");
+            sqlBuilder.append(" REGEXP_LIKE(");
+            sqlBuilder = leftConverter.buildSql(type, sqlBuilder, configuration, leftValue, mybatisParamHolder);
+            sqlBuilder.append(", ");
             Operand value = obj.getRightValue();
             Converter<? extends Operand> argConverter = EzMybatisContent.getConverter(configuration,
                     value.getClass());
-            leftSql.append(argConverter.buildSql(type, new StringBuilder(), configuration, value, mybatisParamHolder))
-                    .append(") ");
-            return sqlBuilder.append(leftSql);
+            sqlBuilder = argConverter.buildSql(type, sqlBuilder, configuration, value, mybatisParamHolder);
+            if (leftValue instanceof EntityField) {
+                mybatisParamHolder.getContext().endAccessField();
+            }
+            return sqlBuilder.append(") ");
         } else {
             return super.doBuildSql(type, sqlBuilder, configuration, obj, mybatisParamHolder);
         }
@@ -30,7 +30,7 @@ public class OracleLimitConverter extends AbstractConverter<Limit> implements Co
         if (limit == null) {
             return sqlBuilder;
         }
-        return sqlBuilder.append(" AND ROWNUM <= ").append(limit.getSize()).append(" ");
+        return sqlBuilder.append(" AND ROWNUM <= ").append(mybatisParamHolder.getNumberParamName(limit, "size", limit.getSize())).append(" ");
     }
 
     @Override
@@ -46,8 +46,11 @@ public class OraclePageConverter extends AbstractConverter<Page> implements Conv
         }
         EzMybatisConfig ezMybatisConfig = EzMybatisContent.getContentConfig(configuration).getEzMybatisConfig();
         if (ezMybatisConfig.isEnableOracleOffsetFetchPage()) {
-            return sqlBuilder.append(" OFFSET ").append(limit.getSkip()).append(" ROWS FETCH NEXT ")
-                    .append(limit.getSize()).append(" ROWS ONLY ");
+            return sqlBuilder.append(" OFFSET ").append(mybatisParamHolder.getNumberParamName(limit, "skip",
+                            limit.getSkip()))
+                    .append(" ROWS FETCH NEXT ").append(mybatisParamHolder.getNumberParamName(limit, "size",
+                            limit.getSize()))
+                    .append(" ROWS ONLY ");
         }
         //不排序, 不分组时
         if ((groupBy == null || groupBy.getItems() == null || groupBy.getItems().isEmpty())
@@ -59,34 +62,51 @@ public class OraclePageConverter extends AbstractConverter<Page> implements Conv
             //需要判断rownum > 0的问题
             else {
                 String bodyAlias = AliasGenerate.getAlias();
-                return new StringBuilder("SELECT ").append(bodyAlias).append(".* ")
-                        .append(" FROM ( ").append(sqlBuilder).append(" ) ").append(bodyAlias)
+                return sqlBuilder.insert(0, "SELECT " + bodyAlias + ".*  FROM ( ").append(" ) ")
+                        .append(bodyAlias)
                         .append(" WHERE ").append(bodyAlias).append(".\"")
                         .append(EzMybatisConstant.ORACLE_ROW_NUM_ALIAS)
                         .append("\" > ")
-                        .append(limit.getSkip());
+                        .append(mybatisParamHolder.getNumberParamName(limit, "skip", limit.getSkip()));
             }
         }
         //排序和分组时, 需要将原始查询嵌套为子查询后再进行分页操作
         else {
             String bodyAlias = AliasGenerate.getAlias();
-            StringBuilder outSqlBuilder = new StringBuilder("SELECT ").append(bodyAlias).append(".*");
+            //原地包裹原始查询, 不复制缓冲区
+            String outSqlHead = "SELECT " + bodyAlias + ".*";
             //当不查询第一页是, 才查询出rownum
             if (limit.getSkip() > 0) {
-                outSqlBuilder.append(", ROWNUM \"").append(EzMybatisConstant.ORACLE_ROW_NUM_ALIAS).append("\"");
+                outSqlHead += ", ROWNUM \"" + EzMybatisConstant.ORACLE_ROW_NUM_ALIAS + "\"";
             }
-            outSqlBuilder.append(" FROM (").append(sqlBuilder).append(") ").append(bodyAlias)
-                    .append(" WHERE ROWNUM <= ").append(limit.getSkip() + limit.getSize()).append(" ");
-            String outAlias = AliasGenerate.getAlias();
-            String outSqlHead = "";
-            String outSqlTail = "";
+            sqlBuilder.insert(0, outSqlHead + " FROM (").append(") ").append(bodyAlias)
+                    .append(" WHERE ROWNUM <= ");
+            OraclePageConverter.appendRowNumBound(sqlBuilder, limit, mybatisParamHolder).append(" ");
             if (limit.getSkip() > 0) {
-                outSqlHead = "SELECT " + outAlias + ".* FROM ( ";
-                outSqlTail = " ) " + outAlias + " WHERE " + outAlias + ".\""
-                        + EzMybatisConstant.ORACLE_ROW_NUM_ALIAS + "\" > " + limit.getSkip();
+                String outAlias = AliasGenerate.getAlias();
+                sqlBuilder.insert(0, "SELECT " + outAlias + ".* FROM ( ").append(" ) ").append(outAlias)
+                        .append(" WHERE ").append(outAlias).append(".\"")
+                        .append(EzMybatisConstant.ORACLE_ROW_NUM_ALIAS).append("\" > ")
+                        .append(mybatisParamHolder.getNumberParamName(limit, "skip", limit.getSkip()));
             }
-            return new StringBuilder().append(outSqlHead).append(outSqlBuilder).append(outSqlTail);
+            return sqlBuilder;
+        }
+    }
+
+    /**
+     * 追加rownum上限(skip + size), 开启数字参数绑定时绑定为参数. 查询第一页时不引用skip,
+     * 此时sql结构与非第一页不同, 由模板缓存按skip值校验
+     */
+    public static StringBuilder appendRowNumBound(StringBuilder sqlBuilder, Page limit,
+                                                  MybatisParamHolder mybatisParamHolder) {
+        if (!mybatisParamHolder.isBindNumberParam()) {
+            return sqlBuilder.append(limit.getSkip() + limit.getSize());
+        }
+        if (limit.getSkip() == 0) {
+            return sqlBuilder.append(mybatisParamHolder.getNumberParamName(limit, "size", limit.getSize()));
         }
+        return sqlBuilder.append(mybatisParamHolder.getNumberParamName(limit, "skip", limit.getSkip()))
+                .append(" + ").append(mybatisParamHolder.getNumberParamName(limit, "size", limit.getSize()));
     }
 
     @Override
@@ -35,7 +35,7 @@ public class PostgreSqlLimitConverter extends AbstractConverter<Limit> implement
             throw new UnsupportedOperationException("PostgreSQL does not support the LIMIT clause for " +
                     "UPDATE and DELETE and INSERT operations.");
         } else {
-            return sqlBuilder.append(" LIMIT ").append(limit.getSize()).append(" ");
+            return sqlBuilder.append(" LIMIT ").append(mybatisParamHolder.getNumberParamName(limit, "size", limit.getSize())).append(" ");
         }
     }
 
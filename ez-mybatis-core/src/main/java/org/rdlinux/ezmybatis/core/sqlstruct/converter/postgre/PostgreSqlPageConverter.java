@@ -30,7 +30,9 @@ public class PostgreSqlPageConverter extends AbstractConverter<Page> implements
         if (limit == null) {
             return sqlBuilder;
         }
-        return sqlBuilder.append(" LIMIT ").append(limit.getSize()).append(" OFFSET ").append(limit.getSkip())
+        return sqlBuilder.append(" LIMIT ").append(mybatisParamHolder.getNumberParamName(limit, "size",
+                        limit.getSize()))
+                .append(" OFFSET ").append(mybatisParamHolder.getNumberParamName(limit, "skip", limit.getSkip()))
                 .append(" ");
     }
 
@@ -4,12 +4,13 @@ import lombok.Getter;
 import lombok.Setter;
 import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.core.sqlstruct.table.partition.Partition;
+import org.rdlinux.ezmybatis.utils.AliasGenerate;
 
 @Getter
 @Setter
 public abstract class AbstractTable implements Table {
     /**
-     * 别名
+     * 别名, 为空时渲染期间按表在sql中出现的顺序生成
      */
     protected String alias;
     /**
@@ -47,6 +48,20 @@ public abstract class AbstractTable implements Table {
         this.partition = partition;
     }
 
+    @Override
+    public String getAlias() {
+        if (this.alias != null) {
+            return this.alias;
+        }
+        String alias = AliasGenerate.getAlias(this);
+        if (alias == null) {
+            //渲染之外获取的别名可能被用于原生sql, 需要固定下来
+            this.alias = AliasGenerate.getAlias();
+            alias = this.alias;
+        }
+        return alias;
+    }
+
     public String getSchema() {
         return this.schema;
     }
@@ -2,14 +2,13 @@ package org.rdlinux.ezmybatis.core.sqlstruct.table;
 
 import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.core.EzQuery;
-import org.rdlinux.ezmybatis.utils.AliasGenerate;
 import org.rdlinux.ezmybatis.utils.Assert;
 
 public class EzQueryTable extends AbstractTable implements Table {
     private EzQuery<?> ezQuery;
 
     private EzQueryTable(EzQuery<?> ezQuery) {
-        super(AliasGenerate.getAlias(), null);
+        super(null, null);
         Assert.notNull(ezQuery, "ezQuery can not be null");
         this.ezQuery = ezQuery;
     }
@@ -26,14 +25,9 @@ public class EzQueryTable extends AbstractTable implements Table {
         this.ezQuery = ezQuery;
     }
 
-    @Override
-    public String getAlias() {
-        return this.alias;
-    }
-
     @Override
     public String getTableName(Configuration configuration) {
-        return this.alias;
+        return this.getAlias();
     }
 
     @Override
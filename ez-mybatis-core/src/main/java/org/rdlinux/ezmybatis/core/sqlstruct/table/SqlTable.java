@@ -1,14 +1,13 @@
 package org.rdlinux.ezmybatis.core.sqlstruct.table;
 
 import org.apache.ibatis.session.Configuration;
-import org.rdlinux.ezmybatis.utils.AliasGenerate;
 import org.rdlinux.ezmybatis.utils.Assert;
 
 public class SqlTable extends AbstractTable {
     private String sql;
 
     private SqlTable(String sql) {
-        super(AliasGenerate.getAlias());
+        super(null);
         Assert.notEmpty(sql, "sql can not be null");
         this.sql = sql;
     }
@@ -17,14 +16,9 @@ public class SqlTable extends AbstractTable {
         return new SqlTable(sql);
     }
 
-    @Override
-    public String getAlias() {
-        return this.alias;
-    }
-
     @Override
     public String getTableName(Configuration configuration) {
-        return this.alias;
+        return this.getAlias();
     }
 
     @Override
@@ -1,20 +1,23 @@
 package org.rdlinux.ezmybatis.utils;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
- * 别名生成工具
+ * 别名生成工具, 渲染sql期间别名按在sql中出现的顺序编号, 相同结构的查询在任何线程上都生成相同的sql
  */
 public class AliasGenerate {
     private static final int min = 676;
     private static final int max = 17575;
-    private static final ThreadLocal<Integer> currentTl = new ThreadLocal<>();
+    /**
+     * 渲染范围外的别名序号, 所有线程共用, 在min与max之间循环
+     */
+    private static final AtomicInteger current = new AtomicInteger(min);
+    private static final ThreadLocal<RenderScope> scopeTl = new ThreadLocal<>();
 
     public static Integer getCurrent() {
-        Integer current = currentTl.get();
-        if (current == null) {
-            current = min;
-            currentTl.set(current);
-        }
-        return current;
+        return current.get();
     }
 
     private static String toAlphabeticRadix(int num) {
@@ -25,13 +28,76 @@ public class AliasGenerate {
         return new String(str);
     }
 
+    /**
+     * 开始渲染sql, 可嵌套, 需要与{@link #endRender()}成对调用
+     */
+    public static void beginRender() {
+        RenderScope scope = scopeTl.get();
+        if (scope == null) {
+            scope = new RenderScope();
+            scopeTl.set(scope);
+        }
+        scope.depth++;
+    }
+
+    /**
+     * 结束渲染sql
+     */
+    public static void endRender() {
+        RenderScope scope = scopeTl.get();
+        if (scope != null && --scope.depth <= 0) {
+            scopeTl.remove();
+        }
+    }
+
+    /**
+     * 获取表的别名, 渲染期间按表在sql中出现的顺序编号, 不在渲染期间时返回null
+     */
+    public static String getAlias(Object table) {
+        RenderScope scope = scopeTl.get();
+        if (scope == null) {
+            return null;
+        }
+        String alias = scope.aliases.get(table);
+        if (alias == null) {
+            alias = scope.next();
+            scope.aliases.put(table, alias);
+        }
+        return alias;
+    }
+
+    /**
+     * 获取别名, 渲染期间按出现顺序编号
+     */
     public static String getAlias() {
-        Integer cu = getCurrent();
-        if (cu > max) {
-            cu = min;
-            currentTl.set(min);
+        RenderScope scope = scopeTl.get();
+        if (scope != null) {
+            return scope.next();
         }
-        currentTl.set(cu + 1);
+        int cu = current.getAndUpdate(e -> e >= max ? min : e + 1);
         return "t_" + toAlphabeticRadix(cu);
     }
+
+    /**
+     * 渲染范围
+     */
+    private static class RenderScope {
+        /**
+         * 表与别名映射
+         */
+        private final Map<Object, String> aliases = new IdentityHashMap<>();
+        /**
+         * 嵌套深度
+         */
+        private int depth;
+        /**
+         * 下一个别名序号
+         */
+        private int index;
+
+        private String next() {
+            //与渲染范围外生成的别名格式不同, 避免重复
+            return "t_" + this.index++;
+        }
+    }
 }
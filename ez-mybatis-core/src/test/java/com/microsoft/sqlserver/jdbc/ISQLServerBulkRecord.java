@@ -0,0 +1,22 @@
+package com.microsoft.sqlserver.jdbc;
+
+import java.util.Set;
+
+/**
+ * 驱动接口的测试替身, 只包含批量装载使用的方法
+ */
+public interface ISQLServerBulkRecord {
+    Set<Integer> getColumnOrdinals();
+
+    String getColumnName(int column);
+
+    int getColumnType(int column);
+
+    int getPrecision(int column);
+
+    int getScale(int column);
+
+    Object[] getRowData();
+
+    boolean next();
+}
@@ -0,0 +1,47 @@
+package com.microsoft.sqlserver.jdbc;
+
+import java.sql.Connection;
+import java.util.*;
+
+/**
+ * 驱动的测试替身, 与驱动一致: 没有列映射时按序号对应目标表的列, 有列映射时按映射写入
+ */
+public class SQLServerBulkCopy implements AutoCloseable {
+    /**
+     * 目标表的列顺序
+     */
+    public static String[] destinationColumns = {};
+    /**
+     * 写入的行, 按目标列名记录
+     */
+    public static List<Map<String, Object>> rows = new ArrayList<>();
+    public static String destinationTableName;
+    private final Map<Integer, String> mappings = new LinkedHashMap<>();
+
+    public SQLServerBulkCopy(Connection connection) {
+    }
+
+    public void setDestinationTableName(String tableName) {
+        destinationTableName = tableName;
+    }
+
+    public void addColumnMapping(int sourceColumn, String destinationColumn) {
+        this.mappings.put(sourceColumn, destinationColumn);
+    }
+
+    public void writeToServer(ISQLServerBulkRecord record) {
+        while (record.next()) {
+            Object[] data = record.getRowData();
+            Map<String, Object> row = new HashMap<>();
+            for (int i = 0; i < data.length; i++) {
+                String column = this.mappings.isEmpty() ? destinationColumns[i] : this.mappings.get(i + 1);
+                row.put(column, data[i]);
+            }
+            rows.add(row);
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,11 @@
+package com.mysql.cj.jdbc;
+
+import java.io.InputStream;
+import java.sql.Statement;
+
+/**
+ * 驱动接口的测试替身, 只包含批量装载使用的方法
+ */
+public interface JdbcStatement extends Statement {
+    void setLocalInfileInputStream(InputStream stream);
+}
@@ -0,0 +1,52 @@
+package org.rdlinux.ezmybatis.core;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.MockJdbc;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+/**
+ * 单条语句执行开销基准, 对比插件代理与EzConfiguration直接安装, 每次执行都打开新会话, 单位为每毫秒操作数
+ */
+public class EzConfigurationBenchmark {
+    private static final int WARM_UP_MILLIS = 2000;
+    private static final int MEASURE_MILLIS = 3000;
+    private static volatile Object sink;
+
+    private static double measure(SqlSessionFactory factory, int millis) {
+        long count = 0;
+        long end = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < end) {
+            for (int i = 0; i < 1000; i++) {
+                try (SqlSession session = factory.openSession()) {
+                    sink = session.getMapper(EzMapper.class).selectById(User.class, "1");
+                }
+            }
+            //桩会记录每条sql与参数, 定期清理避免占用内存
+            MockJdbc.sqls.clear();
+            MockJdbc.params.clear();
+            count += 1000;
+        }
+        return (double) count / millis;
+    }
+
+    private static SqlSessionFactory factory(Configuration configuration) {
+        SqlSessionFactory factory = BaseTest.newSqlSessionFactory(configuration);
+        MockJdbc.rows.add(new Object[]{"1", "a", 1, 2});
+        return factory;
+    }
+
+    public static void main(String[] args) {
+        Configuration proxy = BaseTest.newConfiguration(DbType.MYSQL, null);
+        Configuration direct = BaseTest.initConfiguration(new EzConfiguration(BaseTest.newEnvironment()),
+                DbType.MYSQL, null);
+        measure(factory(proxy), WARM_UP_MILLIS);
+        measure(factory(direct), WARM_UP_MILLIS);
+        System.out.printf("%-10s %12.1f ops/ms%n", "proxy", measure(factory(proxy), MEASURE_MILLIS));
+        System.out.printf("%-10s %12.1f ops/ms%n", "direct", measure(factory(direct), MEASURE_MILLIS));
+    }
+}
@@ -0,0 +1,106 @@
+package org.rdlinux.ezmybatis.core;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.enumeration.Operator;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.MockJdbc;
+import org.rdlinux.ezmybatis.test.entity.User;
+import org.rdlinux.ezmybatis.test.mapper.UserMapper;
+import org.rdlinux.ezmybatis.utils.ReflectionUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 直接安装执行器拦截器与结果集处理器时, 执行结果必须与插件代理方式一致
+ */
+public class EzConfigurationTest extends BaseTest {
+    private static User user(String id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("n" + id);
+        user.setAge(1);
+        user.setScore(2);
+        return user;
+    }
+
+    private static String describe(Object ret) {
+        if (ret instanceof List) {
+            List<String> items = new ArrayList<>();
+            for (Object item : (List<?>) ret) {
+                items.add(describe(item));
+            }
+            return (ret instanceof TotalCountList ? "total=" + ((TotalCountList<?>) ret).getTotal() : "") + items;
+        }
+        if (ret instanceof User) {
+            User user = (User) ret;
+            return "User(" + user.getId() + "," + user.getName() + "," + user.getAge() + "," + user.getScore() + ")";
+        }
+        return String.valueOf(ret);
+    }
+
+    /**
+     * 执行一组常用操作, 返回执行的sql, 绑定的参数与结果
+     */
+    private static List<Object> run(Configuration configuration) {
+        configuration.addMapper(UserMapper.class);
+        SqlSessionFactory factory = newSqlSessionFactory(configuration);
+        MockJdbc.rows.add(new Object[]{"1", "a", 3, 4});
+        List<Object> ret = new ArrayList<>();
+        try (SqlSession session = factory.openSession()) {
+            EzMapper mapper = session.getMapper(EzMapper.class);
+            UserMapper userMapper = session.getMapper(UserMapper.class);
+            EzQuery<User> query = EzQuery.builder(User.class).from(EntityTable.of(User.class)).select().addAll()
+                    .done().where().addFieldCondition("age", Operator.gt, 1).done().page(1, 10).build();
+            ret.add(describe(mapper.query(query)));
+            ret.add(describe(mapper.queryPage(query).getRecords()));
+            ret.add(describe(mapper.selectById(User.class, "1")));
+            ret.add(describe(userMapper.selectById("1")));
+            ret.add(describe(userMapper.selectByIds(Arrays.asList("1", "2"))));
+            ret.add(mapper.insert(user("2")));
+            ret.add(mapper.batchInsert(Arrays.asList(user("3"), user("4"))));
+            ret.add(mapper.update(user("2")));
+            ret.add(mapper.batchUpdate(Arrays.asList(user("3"), user("4"))));
+            ret.add(userMapper.deleteById("2"));
+            ret.add(mapper.ezDelete(EzDelete.delete(EntityTable.of(User.class)).where()
+                    .addFieldCondition("name", "x").done().build()));
+            session.commit();
+        }
+        ret.add(MockJdbc.sqls);
+        ret.add(MockJdbc.params);
+        ret.add(MockJdbc.commitCount);
+        return ret;
+    }
+
+    @Test
+    public void sameAsPluginProxy() {
+        List<Object> proxy = run(newConfiguration(DbType.MYSQL, null));
+        List<Object> direct = run(initConfiguration(new EzConfiguration(newEnvironment()), DbType.MYSQL, null));
+        Assert.assertEquals(proxy.toString(), direct.toString());
+    }
+
+    @Test
+    public void noPluginProxy() {
+        Configuration configuration = initConfiguration(new EzConfiguration(newEnvironment()), DbType.MYSQL, null);
+        Assert.assertTrue(((EzConfiguration) configuration).isEzNativeInstalled());
+        try (SqlSession session = newSqlSessionFactory(configuration).openSession()) {
+            Executor executor = ReflectionUtils.getFieldValue(session, "executor");
+            Assert.assertFalse(Proxy.isProxyClass(executor.getClass()));
+        }
+        Configuration plain = newConfiguration(DbType.MYSQL, null);
+        try (SqlSession session = newSqlSessionFactory(plain).openSession()) {
+            Executor executor = ReflectionUtils.getFieldValue(session, "executor");
+            Assert.assertTrue(Proxy.isProxyClass(executor.getClass()));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.rdlinux.ezmybatis.core;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.core.sqlstruct.EntityField;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.enumeration.Operator;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+@SuppressWarnings("deprecation")
+public class EzExecutionContextTest extends BaseTest {
+    private static final EntityField NAME = EntityField.of(EntityTable.of(User.class), "name");
+    private static final EntityField AGE = EntityField.of(EntityTable.of(User.class), "age");
+
+    @Test
+    public void accessFieldStack() {
+        EzExecutionContext context = EzExecutionContext.of(new HashMap<>());
+        Assert.assertNull(context.getCurrentAccessField());
+        for (int i = 0; i < 5; i++) {
+            context.beginAccessField(i % 2 == 0 ? NAME : AGE);
+        }
+        Assert.assertSame(NAME, context.getCurrentAccessField());
+        context.endAccessField();
+        Assert.assertSame(AGE, context.getCurrentAccessField());
+        for (int i = 0; i < 5; i++) {
+            context.endAccessField();
+        }
+        Assert.assertNull(context.getCurrentAccessField());
+    }
+
+    @Test
+    public void deprecatedStaticAccessField() {
+        EzMybatisContent.setCurrentAccessField(NAME);
+        Assert.assertSame(NAME, EzMybatisContent.getCurrentAccessField());
+        //旧转换器设置的属性对上下文可见
+        EzExecutionContext context = EzExecutionContext.of(new HashMap<>());
+        Assert.assertSame(NAME, context.getCurrentAccessField());
+        //上下文设置的属性对旧静态方法可见
+        context.beginAccessField(AGE);
+        Assert.assertSame(AGE, EzMybatisContent.getCurrentAccessField());
+        Assert.assertSame(AGE, context.getCurrentAccessField());
+        context.endAccessField();
+        Assert.assertSame(NAME, EzMybatisContent.getCurrentAccessField());
+        EzMybatisContent.cleanCurrentAccessField();
+        Assert.assertNull(EzMybatisContent.getCurrentAccessField());
+        Assert.assertNull(context.getCurrentAccessField());
+        EzMybatisContent.cleanCurrentAccessField();
+    }
+
+    @Test
+    public void deprecatedGetterInListener() {
+        //调用过旧静态方法后, 监听器内可以通过旧静态方法获取当前属性
+        Assert.assertNull(EzMybatisContent.getCurrentAccessField());
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        List<String> accessed = new ArrayList<>();
+        EzMybatisContent.addOnBuildSqlGetFieldListener(EzMybatisContent.getContentConfig(configuration)
+                .getEzMybatisConfig(), (isSimple, ntType, field, value) -> {
+            EntityField current = EzMybatisContent.getCurrentAccessField();
+            accessed.add(current == null ? null : current.getField());
+            return value;
+        });
+        try (SqlSession session = newSqlSessionFactory(configuration).openSession()) {
+            session.getMapper(EzMapper.class).query(EzQuery.builder(User.class).from(EntityTable.of(User.class))
+                    .select().addAll().done().where().addFieldCondition("name", Operator.eq, "a").done()
+                    .build());
+        }
+        Assert.assertTrue(accessed.toString(), accessed.contains("name"));
+        Assert.assertNull(EzMybatisContent.getCurrentAccessField());
+    }
+}
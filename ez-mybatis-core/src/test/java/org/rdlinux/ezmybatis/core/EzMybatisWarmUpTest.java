@@ -0,0 +1,77 @@
+package org.rdlinux.ezmybatis.core;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.entity.Dept;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import javax.persistence.Id;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EzMybatisWarmUpTest extends BaseTest {
+    private static Configuration newConfiguration(AtomicInteger listenerCount) {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        EzMybatisContent.addOnBuildSqlGetFieldListener(EzMybatisContent.getContentConfig(configuration)
+                .getEzMybatisConfig(), (isSimple, ntType, field, value) -> {
+            listenerCount.incrementAndGet();
+            return value;
+        });
+        return configuration;
+    }
+
+    @Test
+    public void skipFieldListeners() {
+        AtomicInteger listenerCount = new AtomicInteger();
+        Configuration configuration = newConfiguration(listenerCount);
+        EzMybatisWarmUp.Result result = EzMybatisWarmUp.warmUp(configuration, Arrays.asList(User.class,
+                Dept.class), true, 2);
+        Assert.assertEquals(2, result.getEntityCount());
+        Assert.assertEquals(6, result.getStatementCount());
+        Assert.assertTrue(result.getFailures().isEmpty());
+        Assert.assertTrue(result.getRenderFailures().toString(), result.getRenderFailures().isEmpty());
+        Assert.assertEquals(0, listenerCount.get());
+    }
+
+    @Test
+    public void renderFailures() {
+        Configuration configuration = newConfiguration(new AtomicInteger());
+        EzMybatisWarmUp.Result result = EzMybatisWarmUp.warmUp(configuration, Arrays.asList(User.class,
+                BrokenGetter.class), true, 1);
+        Assert.assertEquals(2, result.getEntityCount());
+        Assert.assertTrue(result.getFailures().isEmpty());
+        Assert.assertEquals(result.getRenderFailures().keySet().toString(), 1, result.getRenderFailures().size());
+        //插入与更新失败, 根据主键查询不读取属性
+        Assert.assertEquals(2, result.getRenderFailures().get(BrokenGetter.class).size());
+        Assert.assertEquals(4, result.getStatementCount());
+    }
+
+    /**
+     * get方法抛出异常的实体, 无法生成插入与更新sql
+     */
+    public static class BrokenGetter {
+        @Id
+        private String id;
+        private String name;
+
+        public String getId() {
+            return this.id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            throw new IllegalStateException("name is not loaded");
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.rdlinux.ezmybatis.core.cache;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzContentConfig;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.DbTable;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CacheInvalidationTest extends BaseTest {
+    private static User user(String name) {
+        User user = new User();
+        user.setId("1");
+        user.setName(name);
+        return user;
+    }
+
+    /**
+     * 按表名写入时, 表对应实体类型的缓存同样失效
+     */
+    @Test
+    public void dbTableEvictsEntityCache() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        EntityCache cache = EzMybatisContent.getContentConfig(configuration).getEntityCacheManager()
+                .enable(User.class, 100, 0);
+        cache.put(cache.getVersion(), user("a"));
+        Assert.assertNotNull(cache.get("1"));
+        CacheInvalidation invalidation = new CacheInvalidation(configuration);
+        invalidation.addTable(DbTable.of("user"));
+        Assert.assertTrue(invalidation.affects(User.class));
+        invalidation.apply();
+        Assert.assertNull(cache.get("1"));
+    }
+
+    /**
+     * 其它表的写入不影响实体缓存
+     */
+    @Test
+    public void otherDbTableKeepsEntityCache() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        EntityCache cache = EzMybatisContent.getContentConfig(configuration).getEntityCacheManager()
+                .enable(User.class, 100, 0);
+        cache.put(cache.getVersion(), user("a"));
+        CacheInvalidation invalidation = new CacheInvalidation(configuration);
+        invalidation.addTable(DbTable.of("dept"));
+        invalidation.apply();
+        Assert.assertNotNull(cache.get("1"));
+    }
+
+    /**
+     * 事务结束后再次失效, 清除提交前被其它线程重新填充的旧数据
+     */
+    @Test
+    public void afterCompletionReapplies() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        EzContentConfig contentConfig = EzMybatisContent.getContentConfig(configuration);
+        List<Runnable> tasks = new ArrayList<>();
+        contentConfig.setAfterCompletionExecutor(task -> tasks.add(task));
+        EntityCache cache = contentConfig.getEntityCacheManager().enable(User.class, 100, 0);
+        cache.put(cache.getVersion(), user("a"));
+        CacheInvalidation invalidation = new CacheInvalidation(configuration);
+        invalidation.addEntity(null, user("b"));
+        invalidation.applyAndAfterCompletion();
+        Assert.assertNull(cache.get("1"));
+        Assert.assertEquals(1, tasks.size());
+        //提交前其它线程读取到旧数据并重新填充
+        cache.put(cache.getVersion(), user("a"));
+        Assert.assertNotNull(cache.get("1"));
+        tasks.forEach(Runnable::run);
+        Assert.assertNull(cache.get("1"));
+    }
+
+    /**
+     * 没有外部事务时只立即失效
+     */
+    @Test
+    public void noActiveTransaction() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        EzContentConfig contentConfig = EzMybatisContent.getContentConfig(configuration);
+        contentConfig.setAfterCompletionExecutor(task -> false);
+        EntityCache cache = contentConfig.getEntityCacheManager().enable(User.class, 100, 0);
+        cache.put(cache.getVersion(), user("a"));
+        CacheInvalidation invalidation = new CacheInvalidation(configuration);
+        invalidation.addEntity(null, user("b"));
+        invalidation.applyAndAfterCompletion();
+        Assert.assertNull(cache.get("1"));
+    }
+
+    /**
+     * 解析非ez方法写入sql的目标表, 无法确定时返回null
+     */
+    @Test
+    public void parseWriteTable() {
+        Assert.assertEquals("user", CacheInvalidation.parseWriteTable(" insert into user(id) values (?)")
+                .getTableName(null));
+        Assert.assertEquals("user", CacheInvalidation.parseWriteTable("UPDATE `user` SET name = ?")
+                .getTableName(null));
+        DbTable table = CacheInvalidation.parseWriteTable("delete from \"S\".\"USER\" where id = ?;");
+        Assert.assertEquals("S", table.getSchema());
+        Assert.assertEquals("USER", table.getTableName(null));
+        Assert.assertEquals("dept", CacheInvalidation.parseWriteTable("merge into [dept] t using x")
+                .getTableName(null));
+        Assert.assertNull(CacheInvalidation.parseWriteTable("update user set a = 1; delete from dept"));
+        Assert.assertNull(CacheInvalidation.parseWriteTable("update user, dept set user.a = 1"));
+        Assert.assertNull(CacheInvalidation.parseWriteTable("update u set a = 1 from user u"));
+        Assert.assertNull(CacheInvalidation.parseWriteTable("update low_priority user set a = 1"));
+        Assert.assertNull(CacheInvalidation.parseWriteTable("insert all into user values (1) select 1 from dual"));
+        Assert.assertNull(CacheInvalidation.parseWriteTable("call proc()"));
+    }
+}
@@ -0,0 +1,155 @@
+package org.rdlinux.ezmybatis.core.cache;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzDelete;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.TotalCountList;
+import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.core.sqlstruct.Function;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.enumeration.Operator;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.MockJdbc;
+import org.rdlinux.ezmybatis.test.entity.Dept;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+public class QueryResultCacheTest extends BaseTest {
+    private static final QueryCacheOption OPTION = new QueryCacheOption(60000, 0);
+
+    private static User user(String name) {
+        User user = new User();
+        user.setId("1");
+        user.setName(name);
+        return user;
+    }
+
+    private static EzQuery<Dept> deptIds() {
+        EntityTable deptTable = EntityTable.of(Dept.class);
+        return EzQuery.builder(Dept.class).from(deptTable).select().addField("id").done().build();
+    }
+
+    private static EzQuery<User> subQuery() {
+        return EzQuery.builder(User.class).from(EntityTable.of(User.class)).select().addAll().done()
+                .where().addFieldCondition("id", Operator.in, deptIds()).done()
+                .cache(1, TimeUnit.MINUTES).build();
+    }
+
+    /**
+     * 放入后修改原结果, 读取后修改返回结果, 都不影响缓存
+     */
+    @Test
+    public void copyOnPutAndGet() {
+        QueryResultCache cache = new QueryResultCache(1024 * 1024);
+        Set<String> tags = Collections.singleton("user");
+        User user = user("a");
+        List<User> rows = new TotalCountList<>(Collections.singletonList(user), 10);
+        cache.put("k", rows, tags, OPTION, cache.getVersion(tags));
+        user.setName("b");
+        List<?> cached = cache.get("k");
+        Assert.assertTrue(cached instanceof TotalCountList);
+        Assert.assertEquals(10, ((TotalCountList<?>) cached).getTotal());
+        User cachedUser = (User) cached.get(0);
+        Assert.assertNotSame(user, cachedUser);
+        Assert.assertEquals("a", cachedUser.getName());
+        cachedUser.setName("c");
+        User again = (User) cache.get("k").get(0);
+        Assert.assertEquals("a", again.getName());
+    }
+
+    @Test
+    public void copyMapRows() {
+        QueryResultCache cache = new QueryResultCache(1024 * 1024);
+        Set<String> tags = Collections.singleton("user");
+        Map<String, Object> row = new HashMap<>();
+        row.put("names", new ArrayList<>(Collections.singletonList("a")));
+        row.put("time", new Date(0));
+        cache.put("k", Collections.singletonList(row), tags, OPTION, cache.getVersion(tags));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> cached = (Map<String, Object>) cache.get("k").get(0);
+        Assert.assertTrue(cached instanceof HashMap);
+        ((List<?>) cached.get("names")).clear();
+        ((Date) cached.get("time")).setTime(1);
+        cached.put("other", 1);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> again = (Map<String, Object>) cache.get("k").get(0);
+        Assert.assertEquals(2, again.size());
+        Assert.assertEquals(new Date(0), again.get("time"));
+        Assert.assertEquals(Collections.singletonList("a"), again.get("names"));
+    }
+
+    /**
+     * 无法复制的结果不缓存
+     */
+    @Test
+    public void uncopyableNotCached() {
+        QueryResultCache cache = new QueryResultCache(1024 * 1024);
+        Set<String> tags = Collections.singleton("user");
+        cache.put("k", Collections.singletonList(new NoDefaultConstructor("a")), tags, OPTION,
+                cache.getVersion(tags));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.get("k"));
+    }
+
+    @Test
+    public void plainQueryTags() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        EntityTable userTable = EntityTable.of(User.class);
+        EzQuery<User> query = EzQuery.builder(User.class).from(userTable)
+                .select().add(Function.builder(userTable).setFunName("COUNT").addFieldArg("id").build(), "cnt").done()
+                .join(EntityTable.of(Dept.class)).done()
+                .where().addFieldCondition("name", "a").done().build();
+        Assert.assertEquals(new HashSet<>(Arrays.asList("user", "dept")),
+                QueryResultCache.collectTags(configuration, query));
+    }
+
+    /**
+     * 条件中的子查询无法确定涉及的表, 任意写入都需要失效
+     */
+    @Test
+    public void subQueryTaggedAllTables() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        Assert.assertTrue(QueryResultCache.collectTags(configuration, subQuery())
+                .contains(QueryResultCache.ALL_TABLES_TAG));
+        EzQuery<User> exists = EzQuery.builder(User.class).from(EntityTable.of(User.class)).select().addAll().done()
+                .where().exists(deptIds()).done().build();
+        Assert.assertTrue(QueryResultCache.collectTags(configuration, exists)
+                .contains(QueryResultCache.ALL_TABLES_TAG));
+    }
+
+    @Test
+    public void subQueryInvalidatedByOtherTable() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, c -> c.setQueryCacheMaxMemory(1024 * 1024));
+        try (SqlSession session = newSqlSessionFactory(configuration).openSession()) {
+            MockJdbc.rows.add(new Object[]{"1", "a", 1, 2});
+            List<User> users = session.getMapper(EzMapper.class).query(subQuery());
+            users.get(0).setName("changed");
+        }
+        try (SqlSession session = newSqlSessionFactory(configuration).openSession()) {
+            List<User> users = session.getMapper(EzMapper.class).query(subQuery());
+            Assert.assertEquals("a", users.get(0).getName());
+            Assert.assertEquals(0, MockJdbc.sqls.size());
+            session.getMapper(EzMapper.class).ezDelete(EzDelete.delete(EntityTable.of(Dept.class)).build());
+            session.commit();
+        }
+        try (SqlSession session = newSqlSessionFactory(configuration).openSession()) {
+            MockJdbc.rows.add(new Object[]{"1", "b", 1, 2});
+            List<User> users = session.getMapper(EzMapper.class).query(subQuery());
+            Assert.assertEquals("b", users.get(0).getName());
+        }
+    }
+
+    private static class NoDefaultConstructor {
+        private final String name;
+
+        private NoDefaultConstructor(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.rdlinux.ezmybatis.core.classinfo;
+
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * 属性访问基准, 对比访问器, get/set方法反射调用与属性反射读写, 单位为每毫秒操作数
+ */
+public class FieldAccessorBenchmark {
+    private static final int WARM_UP_MILLIS = 2000;
+    private static final int MEASURE_MILLIS = 3000;
+    private static volatile Object sink;
+
+    private interface Access {
+        Object run(User user, int i) throws Exception;
+    }
+
+    private static double measure(Access access, int millis) throws Exception {
+        User user = new User();
+        long count = 0;
+        long end = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < end) {
+            for (int i = 0; i < 1000; i++) {
+                sink = access.run(user, i);
+            }
+            count += 1000;
+        }
+        return (double) count / millis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        FieldAccessor accessor = FieldAccessor.forProperty(User.class, "age");
+        Method getMethod = User.class.getMethod("getAge");
+        Method setMethod = User.class.getMethod("setAge", Integer.class);
+        Field field = User.class.getDeclaredField("age");
+        field.setAccessible(true);
+        String[] names = new String[]{"accessor", "method", "field", "forProperty"};
+        Access[] accesses = new Access[]{
+                (user, i) -> {
+                    accessor.set(user, i);
+                    return accessor.get(user);
+                },
+                (user, i) -> {
+                    setMethod.invoke(user, i);
+                    return getMethod.invoke(user);
+                },
+                (user, i) -> {
+                    field.set(user, i);
+                    return field.get(user);
+                },
+                (user, i) -> {
+                    FieldAccessor found = FieldAccessor.forProperty(User.class, "age");
+                    found.set(user, i);
+                    return found.get(user);
+                }
+        };
+        //先全部预热, 避免先测量的方式承担jit编译的开销
+        for (Access access : accesses) {
+            measure(access, WARM_UP_MILLIS);
+        }
+        for (int i = 0; i < accesses.length; i++) {
+            System.out.printf("%-12s %12.1f ops/ms%n", names[i], measure(accesses[i], MEASURE_MILLIS));
+        }
+    }
+}
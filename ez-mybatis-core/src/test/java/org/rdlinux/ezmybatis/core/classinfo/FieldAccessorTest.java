@@ -0,0 +1,48 @@
+package org.rdlinux.ezmybatis.core.classinfo;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+public class FieldAccessorTest {
+    @Test
+    public void getAndSet() {
+        User user = new User();
+        FieldAccessor name = FieldAccessor.forProperty(User.class, "name");
+        Assert.assertNotNull(name);
+        Assert.assertTrue(name.canSet());
+        name.set(user, "a");
+        Assert.assertEquals("a", user.getName());
+        Assert.assertEquals("a", name.get(user));
+        FieldAccessor score = FieldAccessor.forProperty(User.class, "score");
+        score.set(user, 3);
+        Assert.assertEquals(3, user.getScore());
+        Assert.assertEquals(3, score.get(user));
+    }
+
+    @Test
+    public void cachedPerType() {
+        Assert.assertSame(FieldAccessor.forProperty(User.class, "age"), FieldAccessor.forProperty(User.class, "age"));
+        Assert.assertNull(FieldAccessor.forProperty(User.class, "notExists"));
+        Assert.assertNull(FieldAccessor.forProperty(User.class, "notExists"));
+    }
+
+    @Test
+    public void nonPublicTypeFallsBackToReflection() {
+        Hidden hidden = new Hidden();
+        FieldAccessor value = FieldAccessor.forProperty(Hidden.class, "value");
+        value.set(hidden, "v");
+        Assert.assertEquals("v", hidden.value);
+        Assert.assertEquals("v", value.get(hidden));
+        Assert.assertNull(FieldAccessor.forProperty(Hidden.class, "CONSTANT"));
+        FieldAccessor fixed = FieldAccessor.forProperty(Hidden.class, "fixed");
+        Assert.assertFalse(fixed.canSet());
+        Assert.assertEquals("f", fixed.get(hidden));
+    }
+
+    private static class Hidden {
+        private static final String CONSTANT = "c";
+        private final String fixed = "f";
+        private String value;
+    }
+}
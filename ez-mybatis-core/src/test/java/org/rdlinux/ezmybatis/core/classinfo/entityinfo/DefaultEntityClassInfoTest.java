@@ -0,0 +1,223 @@
+package org.rdlinux.ezmybatis.core.classinfo.entityinfo;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.TableNamePattern;
+import org.rdlinux.ezmybatis.metamodel.EntityMetamodel;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DefaultEntityClassInfoTest {
+    private static final EntityInfoBuildConfig BUILD_CONFIG = new EntityInfoBuildConfig(TableNamePattern.ORIGINAL,
+            EntityInfoBuildConfig.ColumnHandle.TO_UNDER);
+    private static final AtomicInteger METAMODEL_GETS = new AtomicInteger();
+
+    private static List<String> fieldNames(DefaultEntityClassInfo classInfo) {
+        List<String> ret = new ArrayList<>();
+        for (EntityFieldInfo fieldInfo : classInfo.getFieldInfos()) {
+            ret.add(fieldInfo.getFieldName());
+        }
+        return ret;
+    }
+
+    @Test
+    public void generatedMetamodel() throws Exception {
+        //测试编译开启了元数据生成
+        Class<?> metamodelClass = Class.forName(User.class.getName() + EntityMetamodel.CLASS_SUFFIX);
+        Assert.assertTrue(EntityMetamodel.class.isAssignableFrom(metamodelClass));
+        DefaultEntityClassInfo classInfo = new DefaultEntityClassInfo(User.class, BUILD_CONFIG);
+        Assert.assertEquals("user", classInfo.getTableName());
+        Assert.assertEquals("id", classInfo.getPrimaryKeyInfo().getFieldName());
+        User user = new User();
+        classInfo.getFieldInfo("name").setFieldValue(user, "a");
+        Assert.assertEquals("a", classInfo.getFieldInfo("name").getFieldValue(user));
+    }
+
+    @Test
+    public void matchedMetamodel() {
+        DefaultEntityClassInfo classInfo = new DefaultEntityClassInfo(Matched.class, BUILD_CONFIG);
+        Assert.assertEquals("meta_entity", classInfo.getTableName());
+        //没有get方法的属性反射构建时也会跳过
+        Assert.assertEquals("[id, name]", fieldNames(classInfo).toString());
+        Matched matched = new Matched();
+        matched.name = "a";
+        int gets = METAMODEL_GETS.get();
+        Assert.assertEquals("a", classInfo.getFieldInfo("name").getFieldValue(matched));
+        Assert.assertEquals(gets + 1, METAMODEL_GETS.get());
+    }
+
+    @Test
+    public void staleMetamodel() {
+        //实体新增了属性, 元数据已过期
+        DefaultEntityClassInfo classInfo = new DefaultEntityClassInfo(Stale.class, BUILD_CONFIG);
+        Assert.assertEquals("stale", classInfo.getTableName());
+        Assert.assertEquals("[id, name, age]", fieldNames(classInfo).toString());
+        Assert.assertEquals("age", classInfo.getFieldInfo("age").getColumnName());
+        Stale stale = new Stale();
+        stale.age = 1;
+        int gets = METAMODEL_GETS.get();
+        Assert.assertEquals(1, classInfo.getFieldInfo("age").getFieldValue(stale));
+        Assert.assertEquals(gets, METAMODEL_GETS.get());
+    }
+
+    @Test
+    public void movedFieldMetamodel() {
+        //属性移动到了父类, 名称相同但声明类不同
+        DefaultEntityClassInfo classInfo = new DefaultEntityClassInfo(Moved.class, BUILD_CONFIG);
+        Assert.assertEquals("moved", classInfo.getTableName());
+        Assert.assertEquals("[name, id]", fieldNames(classInfo).toString());
+        Assert.assertSame(Base.class, classInfo.getFieldInfo("id").getField().getDeclaringClass());
+    }
+
+    /**
+     * 通过反射读取属性的元数据, 记录读取次数
+     */
+    public abstract static class TestMetamodel<T> implements EntityMetamodel<T> {
+        private final Class<T> entityClass;
+        private final String[] fieldNames;
+        private final Class<?>[] declaringClasses;
+
+        TestMetamodel(Class<T> entityClass, String[] fieldNames, Class<?>[] declaringClasses) {
+            this.entityClass = entityClass;
+            this.fieldNames = fieldNames;
+            this.declaringClasses = declaringClasses;
+        }
+
+        @Override
+        public Class<T> getEntityClass() {
+            return this.entityClass;
+        }
+
+        @Override
+        public String getTableName() {
+            return "meta_entity";
+        }
+
+        @Override
+        public String getSchema() {
+            return "";
+        }
+
+        @Override
+        public String[] getFieldNames() {
+            return this.fieldNames.clone();
+        }
+
+        @Override
+        public Class<?>[] getDeclaringClasses() {
+            return this.declaringClasses.clone();
+        }
+
+        @Override
+        public String[] getColumnNames() {
+            return new String[this.fieldNames.length];
+        }
+
+        @Override
+        public String[] getUnderlineNames() {
+            return this.fieldNames.clone();
+        }
+
+        @Override
+        public Class<?>[] getColumnHandlers() {
+            return new Class<?>[this.fieldNames.length];
+        }
+
+        @Override
+        public int getPrimaryKeyId() {
+            return 0;
+        }
+
+        @Override
+        public boolean hasSetter(int fieldId) {
+            return false;
+        }
+
+        @Override
+        public Object get(T entity, int fieldId) {
+            METAMODEL_GETS.incrementAndGet();
+            try {
+                Field field = this.declaringClasses[fieldId].getDeclaredField(this.fieldNames[fieldId]);
+                field.setAccessible(true);
+                return field.get(entity);
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void set(T entity, int fieldId, Object value) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    public static class Matched {
+        private String id;
+        private String name;
+        private String secret;
+
+        public String getId() {
+            return this.id;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+    }
+
+    public static class Matched_EzMeta extends TestMetamodel<Matched> {
+        public Matched_EzMeta() {
+            super(Matched.class, new String[]{"id", "name"}, new Class<?>[]{Matched.class, Matched.class});
+        }
+    }
+
+    public static class Stale {
+        private String id;
+        private String name;
+        private Integer age;
+
+        public String getId() {
+            return this.id;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public Integer getAge() {
+            return this.age;
+        }
+    }
+
+    public static class Stale_EzMeta extends TestMetamodel<Stale> {
+        public Stale_EzMeta() {
+            super(Stale.class, new String[]{"id", "name"}, new Class<?>[]{Stale.class, Stale.class});
+        }
+    }
+
+    public static class Base {
+        private String id;
+
+        public String getId() {
+            return this.id;
+        }
+    }
+
+    public static class Moved extends Base {
+        private String name;
+
+        public String getName() {
+            return this.name;
+        }
+    }
+
+    public static class Moved_EzMeta extends TestMetamodel<Moved> {
+        public Moved_EzMeta() {
+            super(Moved.class, new String[]{"name", "id"}, new Class<?>[]{Moved.class, Moved.class});
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.rdlinux.ezmybatis.core.dao.bulk;
+
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.mysql.cj.jdbc.JdbcStatement;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzJdbcInsertSql;
+import org.rdlinux.ezmybatis.core.sqlgenerate.SqlGenerateFactory;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.MockJdbc;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+public class BulkLoaderTest extends BaseTest {
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId("id" + i);
+            user.setName("n" + i);
+            user.setAge(i);
+            user.setScore(i * 10);
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static EzJdbcInsertSql insertSql(Configuration configuration, DbType dbType) {
+        return SqlGenerateFactory.getSqlGenerate(dbType).getJdbcInsertSql(configuration, null, users(1).get(0));
+    }
+
+    /**
+     * 目标表列顺序与插入列顺序不同时, 仍按列名写入
+     */
+    @Test
+    public void sqlServerMapsColumnsByName() throws Exception {
+        Configuration configuration = newConfiguration(DbType.SQL_SERVER, null);
+        newSqlSessionFactory(configuration);
+        EzJdbcInsertSql insertSql = insertSql(configuration, DbType.SQL_SERVER);
+        List<String> columns = new ArrayList<>(Arrays.asList(insertSql.getColumns()));
+        Collections.reverse(columns);
+        SQLServerBulkCopy.destinationColumns = columns.toArray(new String[0]);
+        SQLServerBulkCopy.rows.clear();
+        try (Connection connection = MockJdbc.dataSource().getConnection()) {
+            long ret = SqlServerBulkCopyLoader.getInstance().load(connection, configuration, insertSql,
+                    users(3).iterator());
+            Assert.assertEquals(3, ret);
+        }
+        Assert.assertEquals(3, SQLServerBulkCopy.rows.size());
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> row = SQLServerBulkCopy.rows.get(i);
+            Assert.assertEquals("id" + i, row.get("id"));
+            Assert.assertEquals("n" + i, row.get("name"));
+            Assert.assertEquals(i, row.get("age"));
+            Assert.assertEquals(i * 10, row.get("score"));
+        }
+    }
+
+    @Test
+    public void mySqlLoadsAllRows() throws Exception {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        LoadDataConnection handler = new LoadDataConnection(Integer.MAX_VALUE);
+        long ret = MySqlLoadDataBulkLoader.getInstance().load(handler.connection(), configuration,
+                insertSql(configuration, DbType.MYSQL), users(5).iterator());
+        Assert.assertEquals(5, ret);
+        Assert.assertEquals(5, handler.lines.size());
+        Assert.assertTrue(handler.sqls.get(0), handler.sqls.get(0).startsWith("LOAD DATA LOCAL INFILE"));
+        Assert.assertEquals("SHOW WARNINGS LIMIT 10", handler.sqls.get(1));
+    }
+
+    /**
+     * LOCAL装载跳过冲突行时只产生警告, 需要报告为失败
+     */
+    @Test
+    public void mySqlSkippedRowsFail() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        LoadDataConnection handler = new LoadDataConnection(3);
+        handler.warnings.add(new Object[]{"Warning", 1062, "Duplicate entry 'id3' for key 'PRIMARY'"});
+        try {
+            MySqlLoadDataBulkLoader.getInstance().load(handler.connection(), configuration,
+                    insertSql(configuration, DbType.MYSQL), users(5).iterator());
+            Assert.fail("expected SQLException");
+        } catch (SQLException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("LOAD DATA wrote 5 rows but loaded 3 rows"));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Warning 1062: Duplicate entry 'id3'"));
+        }
+    }
+
+    /**
+     * 行数一致但值被截断时同样报告为失败
+     */
+    @Test
+    public void mySqlWarningsFail() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        LoadDataConnection handler = new LoadDataConnection(Integer.MAX_VALUE);
+        handler.warnings.add(new Object[]{"Warning", 1265, "Data truncated for column 'name' at row 1"});
+        try {
+            MySqlLoadDataBulkLoader.getInstance().load(handler.connection(), configuration,
+                    insertSql(configuration, DbType.MYSQL), users(2).iterator());
+            Assert.fail("expected SQLException");
+        } catch (SQLException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Warning 1265: Data truncated"));
+        }
+    }
+
+    /**
+     * 模拟mysql驱动的LOAD DATA LOCAL: 读取本地输入流, 最多装载指定行数, 返回配置的警告
+     */
+    private static class LoadDataConnection {
+        private final int maxRows;
+        private final List<String> sqls = new ArrayList<>();
+        private final List<String> lines = new ArrayList<>();
+        private final List<Object[]> warnings = new ArrayList<>();
+        private InputStream in;
+
+        private LoadDataConnection(int maxRows) {
+            this.maxRows = maxRows;
+        }
+
+        private Connection connection() {
+            return (Connection) Proxy.newProxyInstance(BulkLoaderTest.class.getClassLoader(),
+                    new Class[]{Connection.class}, (p, m, a) -> {
+                        if (m.getName().equals("createStatement")) {
+                            return this.statement();
+                        }
+                        return null;
+                    });
+        }
+
+        private JdbcStatement statement() {
+            return (JdbcStatement) Proxy.newProxyInstance(BulkLoaderTest.class.getClassLoader(),
+                    new Class[]{JdbcStatement.class}, (p, m, a) -> {
+                        switch (m.getName()) {
+                            case "isWrapperFor":
+                                return ((Class<?>) a[0]).isInstance(p);
+                            case "unwrap":
+                                return p;
+                            case "setLocalInfileInputStream":
+                                this.in = (InputStream) a[0];
+                                return null;
+                            case "executeUpdate":
+                                this.sqls.add((String) a[0]);
+                                BufferedReader reader = new BufferedReader(new InputStreamReader(this.in,
+                                        StandardCharsets.UTF_8));
+                                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                                    this.lines.add(line);
+                                }
+                                return Math.min(this.maxRows, this.lines.size());
+                            case "executeQuery":
+                                this.sqls.add((String) a[0]);
+                                return this.warnings();
+                            default:
+                                return null;
+                        }
+                    });
+        }
+
+        private ResultSet warnings() {
+            Iterator<Object[]> iterator = this.warnings.iterator();
+            Object[][] row = {null};
+            return (ResultSet) Proxy.newProxyInstance(BulkLoaderTest.class.getClassLoader(),
+                    new Class[]{ResultSet.class}, (p, m, a) -> {
+                        switch (m.getName()) {
+                            case "next":
+                                row[0] = iterator.hasNext() ? iterator.next() : null;
+                                return row[0] != null;
+                            case "getString":
+                                return String.valueOf(row[0][(Integer) a[0] - 1]);
+                            case "getInt":
+                                return row[0][(Integer) a[0] - 1];
+                            default:
+                                return null;
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.rdlinux.ezmybatis.core.interceptor;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzConfiguration;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.MockJdbc;
+import org.rdlinux.ezmybatis.test.entity.User;
+import org.rdlinux.ezmybatis.utils.ReflectionUtils;
+
+import java.util.Map;
+
+public class EzMybatisCacheInterceptorTest extends BaseTest {
+    /**
+     * 读取主键为1的用户, 返回执行的sql数量
+     */
+    private static int selectUser(SqlSessionFactory factory) {
+        int count = MockJdbc.sqls.size();
+        try (SqlSession session = factory.openSession()) {
+            Assert.assertNotNull(session.getMapper(EzMapper.class).selectById(User.class, "1"));
+        }
+        return MockJdbc.sqls.size() - count;
+    }
+
+    private static void rawWrite(SqlSessionFactory factory, boolean user) {
+        try (SqlSession session = factory.openSession()) {
+            RawMapper mapper = session.getMapper(RawMapper.class);
+            if (user) {
+                mapper.renameUser("1", "b");
+            } else {
+                mapper.renameDept("1", "b");
+            }
+            session.commit();
+        }
+    }
+
+    private static boolean hasCacheInterceptor(Configuration configuration) {
+        for (Interceptor interceptor : configuration.getInterceptors()) {
+            if (interceptor instanceof EzMybatisCacheInterceptor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static User user(String id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("n" + id);
+        return user;
+    }
+
+    /**
+     * 实体缓存与查询结果缓存都未开启时不安装缓存拦截器
+     */
+    @Test
+    public void notInstalledWithoutCache() {
+        Assert.assertFalse(hasCacheInterceptor(newConfiguration(DbType.MYSQL, null)));
+        Configuration ezConfiguration = initConfiguration(new EzConfiguration(newEnvironment()), DbType.MYSQL, null);
+        Interceptor[] interceptors = ReflectionUtils.getFieldValue(ezConfiguration, "ezExecutorInterceptors");
+        Assert.assertEquals(1, interceptors.length);
+        Assert.assertTrue(hasCacheInterceptor(newConfiguration(DbType.MYSQL, c -> c.setEntityCacheEnabled(true))));
+        Assert.assertTrue(hasCacheInterceptor(newConfiguration(DbType.MYSQL,
+                c -> c.setQueryCacheMaxMemory(1024 * 1024))));
+        ezConfiguration = initConfiguration(new EzConfiguration(newEnvironment()), DbType.MYSQL,
+                c -> c.setEntityCacheEnabled(true));
+        interceptors = ReflectionUtils.getFieldValue(ezConfiguration, "ezExecutorInterceptors");
+        Assert.assertEquals(2, interceptors.length);
+    }
+
+    /**
+     * 会话内写入后的查询不使用缓存, 会话提交后移除该会话的失效信息
+     */
+    @Test
+    public void pendingInvalidationPerSession() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, c -> c.setEntityCacheEnabled(true));
+        EzMybatisContent.getContentConfig(configuration).getEntityCacheManager().enable(User.class, 100, 0);
+        EzMybatisCacheInterceptor interceptor = null;
+        for (Interceptor item : configuration.getInterceptors()) {
+            if (item instanceof EzMybatisCacheInterceptor) {
+                interceptor = (EzMybatisCacheInterceptor) item;
+            }
+        }
+        Assert.assertNotNull(interceptor);
+        Map<?, ?> pending = ReflectionUtils.getFieldValue(interceptor, "pendingInvalidations");
+        SqlSessionFactory factory = newSqlSessionFactory(configuration);
+        MockJdbc.rows.add(new Object[]{"1", "a", 3, 4});
+        try (SqlSession session = factory.openSession()) {
+            Assert.assertNotNull(session.getMapper(EzMapper.class).selectById(User.class, "1"));
+        }
+        Assert.assertEquals(1, MockJdbc.sqls.size());
+        try (SqlSession session = factory.openSession()) {
+            EzMapper mapper = session.getMapper(EzMapper.class);
+            Assert.assertNotNull(mapper.selectById(User.class, "1"));
+            Assert.assertEquals(1, MockJdbc.sqls.size());
+            mapper.update(user("1"));
+            Assert.assertEquals(1, pending.size());
+            mapper.selectById(User.class, "1");
+            Assert.assertEquals(3, MockJdbc.sqls.size());
+            session.commit();
+            Assert.assertTrue(pending.isEmpty());
+        }
+    }
+
+    /**
+     * 非ez方法的写入根据sql解析目标表, 只失效该表相关的缓存
+     */
+    @Test
+    public void nonEzWriteInvalidatesTable() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, c -> c.setEntityCacheEnabled(true));
+        configuration.addMapper(RawMapper.class);
+        EzMybatisContent.getContentConfig(configuration).getEntityCacheManager().enable(User.class, 100, 0);
+        SqlSessionFactory factory = newSqlSessionFactory(configuration);
+        MockJdbc.rows.add(new Object[]{"1", "a", 3, 4});
+        Assert.assertEquals(1, selectUser(factory));
+        rawWrite(factory, false);
+        Assert.assertEquals(0, selectUser(factory));
+        rawWrite(factory, true);
+        Assert.assertEquals(1, selectUser(factory));
+    }
+
+    /**
+     * 开启unknownWriteInvalidatesAll时非ez方法的写入失效全部缓存
+     */
+    @Test
+    public void unknownWriteInvalidatesAll() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, c -> {
+            c.setEntityCacheEnabled(true);
+            c.setUnknownWriteInvalidatesAll(true);
+        });
+        configuration.addMapper(RawMapper.class);
+        EzMybatisContent.getContentConfig(configuration).getEntityCacheManager().enable(User.class, 100, 0);
+        SqlSessionFactory factory = newSqlSessionFactory(configuration);
+        MockJdbc.rows.add(new Object[]{"1", "a", 3, 4});
+        Assert.assertEquals(1, selectUser(factory));
+        rawWrite(factory, false);
+        Assert.assertEquals(1, selectUser(factory));
+    }
+
+    public interface RawMapper {
+        @Update("update `user` set name = #{name} where id = #{id}")
+        int renameUser(@Param("id") String id, @Param("name") String name);
+
+        @Update("UPDATE dept SET name = #{name} WHERE id = #{id}")
+        int renameDept(@Param("id") String id, @Param("name") String name);
+    }
+}
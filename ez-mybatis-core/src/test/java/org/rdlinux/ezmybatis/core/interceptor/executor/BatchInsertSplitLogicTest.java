@@ -0,0 +1,104 @@
+package org.rdlinux.ezmybatis.core.interceptor.executor;
+
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.MockJdbc;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchInsertSplitLogicTest extends BaseTest {
+    /**
+     * sql server单条sql最多2000个参数, User有4列, 每块500行
+     */
+    private static final int CHUNK_SIZE = 500;
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId("id" + i);
+            user.setName("n" + i);
+            user.setAge(i);
+            user.setScore(i);
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static SqlSession openSession() {
+        //数字也绑定为参数, 每行4个参数
+        Configuration configuration = newConfiguration(DbType.SQL_SERVER, config -> config.setBindNumberParam(true));
+        return newSqlSessionFactory(configuration).openSession();
+    }
+
+    @Test
+    public void notSplitAtChunkSize() {
+        try (SqlSession session = openSession()) {
+            session.getMapper(EzMapper.class).batchInsert(users(CHUNK_SIZE));
+            Assert.assertEquals(1, MockJdbc.sqls.size());
+            Assert.assertEquals(CHUNK_SIZE * 4, MockJdbc.params.get(0).size());
+        }
+    }
+
+    @Test
+    public void splitAtChunkBoundary() {
+        try (SqlSession session = openSession()) {
+            session.getMapper(EzMapper.class).batchInsert(users(CHUNK_SIZE * 2 + 1));
+            Assert.assertEquals(3, MockJdbc.sqls.size());
+            Assert.assertEquals(CHUNK_SIZE * 4, MockJdbc.params.get(0).size());
+            Assert.assertEquals(CHUNK_SIZE * 4, MockJdbc.params.get(1).size());
+            Assert.assertEquals(4, MockJdbc.params.get(2).size());
+            Assert.assertTrue(MockJdbc.params.get(0).contains("id0"));
+            Assert.assertTrue(MockJdbc.params.get(0).contains("id" + (CHUNK_SIZE - 1)));
+            Assert.assertTrue(MockJdbc.params.get(1).contains("id" + CHUNK_SIZE));
+            Assert.assertTrue(MockJdbc.params.get(2).contains("id" + CHUNK_SIZE * 2));
+        }
+    }
+
+    /**
+     * 拆分后不是原子操作, 某一块失败时异常原样抛出, 之前的块已经执行, 后续的块不再执行
+     */
+    @Test
+    public void partialFailure() {
+        try (SqlSession session = openSession()) {
+            MockJdbc.failOnExecute = 2;
+            try {
+                session.getMapper(EzMapper.class).batchInsert(users(CHUNK_SIZE * 3));
+                Assert.fail("expected failure");
+            } catch (PersistenceException e) {
+                Assert.assertTrue(e.getCause() instanceof SQLException);
+            }
+            Assert.assertEquals(2, MockJdbc.executeCount);
+            Assert.assertEquals(2, MockJdbc.sqls.size());
+            Assert.assertEquals(CHUNK_SIZE * 4, MockJdbc.params.get(0).size());
+        }
+    }
+
+    /**
+     * oracle INSERT ALL单条语句最多999列, User有4列, 每块249行, 每块都使用INSERT ALL
+     */
+    @Test
+    public void oracleSplitUsesInsertAll() {
+        Configuration configuration = newConfiguration(DbType.ORACLE, config -> config.setBindNumberParam(true));
+        try (SqlSession session = newSqlSessionFactory(configuration).openSession()) {
+            session.getMapper(EzMapper.class).batchInsert(users(500));
+            Assert.assertEquals(3, MockJdbc.sqls.size());
+            Assert.assertEquals(249 * 4, MockJdbc.params.get(0).size());
+            Assert.assertEquals(249 * 4, MockJdbc.params.get(1).size());
+            Assert.assertEquals(2 * 4, MockJdbc.params.get(2).size());
+            for (String sql : MockJdbc.sqls) {
+                Assert.assertTrue(sql.startsWith("INSERT ALL"));
+                Assert.assertFalse(sql.contains("BEGIN"));
+            }
+        }
+    }
+}
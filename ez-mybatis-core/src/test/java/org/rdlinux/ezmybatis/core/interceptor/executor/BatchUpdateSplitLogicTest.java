@@ -0,0 +1,128 @@
+package org.rdlinux.ezmybatis.core.interceptor.executor;
+
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.MockJdbc;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BatchUpdateSplitLogicTest extends BaseTest {
+    /**
+     * sql server单条sql最多2000个参数, User每行3个更新字段各占2个参数, 加上in条件中的主键, 每块285行
+     */
+    private static final int CHUNK_SIZE = 2000 / 7;
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId("id" + i);
+            user.setName("n" + i);
+            user.setAge(i);
+            user.setScore(i);
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * sql server逐条拼接时每行4个字段各占1个参数, 每块500行
+     */
+    private static final int ROW_CHUNK_SIZE = 2000 / 4;
+
+    private static SqlSession openSession(DbType dbType) {
+        Configuration configuration = newConfiguration(dbType, config -> config.setSetBasedBatchUpdate(true));
+        return newSqlSessionFactory(configuration).openSession();
+    }
+
+    @Test
+    public void rowBasedUpdateByDefault() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        try (SqlSession session = newSqlSessionFactory(configuration).openSession()) {
+            session.getMapper(EzMapper.class).batchUpdate(users(2));
+            Assert.assertEquals(1, MockJdbc.sqls.size());
+            Assert.assertFalse(MockJdbc.sqls.get(0).contains("CASE"));
+            Assert.assertTrue(MockJdbc.sqls.get(0).contains(";"));
+        }
+    }
+
+    /**
+     * 逐条拼接同样按数据库参数限制拆分
+     */
+    @Test
+    public void rowBasedSplitAtChunkBoundary() {
+        Configuration configuration = newConfiguration(DbType.SQL_SERVER, config -> config.setBindNumberParam(true));
+        try (SqlSession session = newSqlSessionFactory(configuration).openSession()) {
+            session.getMapper(EzMapper.class).batchUpdate(users(ROW_CHUNK_SIZE * 2 + 1));
+            Assert.assertEquals(3, MockJdbc.sqls.size());
+            Assert.assertEquals(ROW_CHUNK_SIZE * 4, MockJdbc.params.get(0).size());
+            Assert.assertEquals(ROW_CHUNK_SIZE * 4, MockJdbc.params.get(1).size());
+            Assert.assertEquals(4, MockJdbc.params.get(2).size());
+            Assert.assertFalse(MockJdbc.sqls.get(0).contains("CASE"));
+            Assert.assertTrue(MockJdbc.params.get(2).contains("id" + ROW_CHUNK_SIZE * 2));
+        }
+    }
+
+    @Test
+    public void setBasedUpdateSql() {
+        try (SqlSession session = openSession(DbType.MYSQL)) {
+            List<User> users = users(2);
+            users.get(0).setName(null);
+            session.getMapper(EzMapper.class).batchUpdate(users);
+            Assert.assertEquals(1, MockJdbc.sqls.size());
+            Assert.assertEquals("UPDATE `user` SET `name` = CASE `id` WHEN ? THEN ? ELSE `name` END, "
+                    + "`score` = CASE `id` WHEN ? THEN 0 WHEN ? THEN 1 ELSE `score` END, "
+                    + "`age` = CASE `id` WHEN ? THEN 0 WHEN ? THEN 1 ELSE `age` END "
+                    + "WHERE `id` IN ( ?, ? )", MockJdbc.sqls.get(0));
+            Assert.assertEquals(Arrays.asList("id1", "n1", "id0", "id1", "id0", "id1", "id0", "id1"),
+                    MockJdbc.params.get(0));
+        }
+    }
+
+    @Test
+    public void splitAtChunkBoundary() {
+        try (SqlSession session = openSession(DbType.SQL_SERVER)) {
+            session.getMapper(EzMapper.class).batchUpdate(users(CHUNK_SIZE));
+            Assert.assertEquals(1, MockJdbc.sqls.size());
+        }
+        try (SqlSession session = openSession(DbType.SQL_SERVER)) {
+            session.getMapper(EzMapper.class).batchReplace(users(CHUNK_SIZE * 2 + 1));
+            Assert.assertEquals(3, MockJdbc.sqls.size());
+            Assert.assertEquals(CHUNK_SIZE * 5, MockJdbc.params.get(0).size());
+            Assert.assertEquals(CHUNK_SIZE * 5, MockJdbc.params.get(1).size());
+            //只有一行的块生成普通的更新语句
+            Assert.assertFalse(MockJdbc.sqls.get(2).contains("CASE"));
+            Assert.assertEquals(2, MockJdbc.params.get(2).size());
+            Assert.assertTrue(MockJdbc.params.get(1).contains("id" + CHUNK_SIZE));
+            Assert.assertTrue(MockJdbc.params.get(2).contains("id" + CHUNK_SIZE * 2));
+        }
+    }
+
+    /**
+     * 拆分后不是原子操作, 某一块失败时异常原样抛出, 之前的块已经执行, 后续的块不再执行
+     */
+    @Test
+    public void partialFailure() {
+        try (SqlSession session = openSession(DbType.SQL_SERVER)) {
+            MockJdbc.failOnExecute = 2;
+            try {
+                session.getMapper(EzMapper.class).batchUpdate(users(CHUNK_SIZE * 3));
+                Assert.fail("expected failure");
+            } catch (PersistenceException e) {
+                Assert.assertTrue(e.getCause() instanceof SQLException);
+            }
+            Assert.assertEquals(2, MockJdbc.executeCount);
+            Assert.assertEquals(2, MockJdbc.sqls.size());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.rdlinux.ezmybatis.core.interceptor.executor;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.mapper.EzBaseMapper;
+import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.mapper.UserMapper;
+import org.rdlinux.ezmybatis.utils.ReflectionUtils;
+
+/**
+ * mapper方法调度基准, 对比每次调用都解析mapper方法与使用缓存的调度信息, 单位为每毫秒操作数
+ */
+public class MapperMethodDispatchBenchmark {
+    private static final int WARM_UP_MILLIS = 2000;
+    private static final int MEASURE_MILLIS = 3000;
+    private static volatile Object sink;
+
+    /**
+     * 缓存之前拦截器在每次调用时所做的解析
+     */
+    private static Object resolvePerCall(MappedStatement ms) throws ClassNotFoundException {
+        String methodId = ms.getId();
+        int index = methodId.lastIndexOf(".");
+        String methodName = methodId.substring(index + 1);
+        Class<?> mapperClass = Class.forName(methodId.substring(0, index));
+        if (EzBaseMapper.class.isAssignableFrom(mapperClass)) {
+            return ReflectionUtils.getGenericSuperinterface(mapperClass, 0, 0);
+        }
+        return EzMapper.class.isAssignableFrom(mapperClass) ? methodName : null;
+    }
+
+    private static double measure(MappedStatement[] statements, boolean cached, int millis) throws Exception {
+        long count = 0;
+        long end = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < end) {
+            for (int i = 0; i < 1000; i++) {
+                MappedStatement ms = statements[i % statements.length];
+                sink = cached ? MapperMethodDispatch.forStatement(ms) : resolvePerCall(ms);
+            }
+            count += 1000;
+        }
+        return (double) count / millis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Configuration configuration = BaseTest.newConfiguration(DbType.MYSQL, null);
+        configuration.addMapper(UserMapper.class);
+        MappedStatement[] statements = new MappedStatement[]{
+                configuration.getMappedStatement(EzMapper.class.getName() + "." + EzMapper.QUERY_METHOD),
+                configuration.getMappedStatement(UserMapper.class.getName() + "." + EzMapper.SELECT_BY_ID_METHOD)
+        };
+        measure(statements, false, WARM_UP_MILLIS);
+        measure(statements, true, WARM_UP_MILLIS);
+        System.out.printf("%-10s %12.1f ops/ms%n", "resolve", measure(statements, false, MEASURE_MILLIS));
+        System.out.printf("%-10s %12.1f ops/ms%n", "cached", measure(statements, true, MEASURE_MILLIS));
+    }
+}
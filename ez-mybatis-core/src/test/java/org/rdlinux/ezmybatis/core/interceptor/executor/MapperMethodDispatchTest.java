@@ -0,0 +1,86 @@
+package org.rdlinux.ezmybatis.core.interceptor.executor;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.core.mapper.provider.EzDeleteProvider;
+import org.rdlinux.ezmybatis.core.mapper.provider.EzInsertProvider;
+import org.rdlinux.ezmybatis.core.scripting.EzLanguageDriver;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.entity.User;
+import org.rdlinux.ezmybatis.test.mapper.UserMapper;
+
+public class MapperMethodDispatchTest extends BaseTest {
+    private static MappedStatement statement(Configuration configuration, Class<?> mapper, String method) {
+        return configuration.getMappedStatement(mapper.getName() + "." + method);
+    }
+
+    @Test
+    public void resolveEzMapper() throws Exception {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        MapperMethodDispatch query = MapperMethodDispatch.forStatement(statement(configuration, EzMapper.class,
+                EzMapper.QUERY_METHOD));
+        Assert.assertTrue(query.isEzMapper());
+        Assert.assertEquals(MapperMethodDispatch.ParamInitType.EZ_MAPPER, query.getParamInitType());
+        Assert.assertNull(query.getEntityClass());
+        MapperMethodDispatch delete = MapperMethodDispatch.forStatement(statement(configuration, EzMapper.class,
+                EzDeleteProvider.DELETE_METHOD));
+        Assert.assertEquals(MapperMethodDispatch.ParamInitType.EZ_MAPPER_DELETE_ENTITY, delete.getParamInitType());
+        MapperMethodDispatch batchInsert = MapperMethodDispatch.forStatement(statement(configuration,
+                EzMapper.class, EzInsertProvider.BATCH_INSERT_METHOD));
+        Assert.assertTrue(batchInsert.isBatchInsert());
+        Assert.assertFalse(batchInsert.isBatchUpdate());
+    }
+
+    @Test
+    public void resolveBaseMapper() throws Exception {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        configuration.addMapper(UserMapper.class);
+        MapperMethodDispatch dispatch = MapperMethodDispatch.forStatement(statement(configuration, UserMapper.class,
+                EzMapper.SELECT_BY_ID_METHOD));
+        Assert.assertTrue(dispatch.isEzMapper());
+        Assert.assertEquals(MapperMethodDispatch.ParamInitType.BASE_MAPPER, dispatch.getParamInitType());
+        Assert.assertEquals(User.class, dispatch.getEntityClass());
+        Assert.assertEquals(UserMapper.class, dispatch.getMapperClass());
+    }
+
+    @Test
+    public void cachedPerConfiguration() throws Exception {
+        Configuration first = newConfiguration(DbType.MYSQL, null);
+        Configuration second = newConfiguration(DbType.MYSQL, null);
+        MappedStatement firstMs = statement(first, EzMapper.class, EzMapper.QUERY_METHOD);
+        MapperMethodDispatch dispatch = MapperMethodDispatch.forStatement(firstMs);
+        Assert.assertSame(dispatch, MapperMethodDispatch.forStatement(firstMs));
+        Assert.assertSame(dispatch, EzMybatisContent.getContentConfig(first).getMapperMethodDispatches()
+                .get(firstMs));
+        Assert.assertTrue(EzMybatisContent.getContentConfig(second).getMapperMethodDispatches().isEmpty());
+        MapperMethodDispatch.forStatement(statement(second, EzMapper.class, EzMapper.QUERY_METHOD));
+        Assert.assertEquals(1, EzMybatisContent.getContentConfig(second).getMapperMethodDispatches().size());
+        Assert.assertFalse(EzMybatisContent.getContentConfig(second).getMapperMethodDispatches()
+                .containsKey(firstMs));
+    }
+
+    /**
+     * 初始化与注册mapper时调整MappedStatement, 解析调度信息时不再修改
+     */
+    @Test
+    public void preparedOnRegistration() throws Exception {
+        Configuration configuration = newConfiguration(DbType.MYSQL, c -> c.setStreamFetchSize(500));
+        Assert.assertTrue(EzMybatisContent.getContentConfig(configuration).getMapperMethodDispatches().isEmpty());
+        MappedStatement count = statement(configuration, EzMapper.class, EzMapper.QUERY_COUNT_METHOD);
+        Assert.assertFalse(count.getResultMaps().get(0).hasNestedResultMaps());
+        Assert.assertEquals(Integer.valueOf(500), statement(configuration, EzMapper.class,
+                EzMapper.QUERY_CURSOR_METHOD).getFetchSize());
+        Assert.assertTrue(count.getLang() instanceof EzLanguageDriver);
+        configuration.addMapper(UserMapper.class);
+        MappedStatement selectById = statement(configuration, UserMapper.class, EzMapper.SELECT_BY_ID_METHOD);
+        Assert.assertTrue(selectById.getLang() instanceof EzLanguageDriver);
+        Assert.assertTrue(configuration.hasMapper(EzMapper.class));
+        Assert.assertEquals(MapperMethodDispatch.RetTypeSource.NONE, MapperMethodDispatch.forStatement(count)
+                .getRetTypeSource());
+    }
+}
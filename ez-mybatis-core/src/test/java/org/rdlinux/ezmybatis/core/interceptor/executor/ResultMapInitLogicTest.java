@@ -0,0 +1,60 @@
+package org.rdlinux.ezmybatis.core.interceptor.executor;
+
+import org.apache.ibatis.session.SqlSession;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.mapper.EzMapper;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.MockJdbc;
+import org.rdlinux.ezmybatis.test.entity.Dept;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.util.List;
+
+public class ResultMapInitLogicTest extends BaseTest {
+    private static <Rt> EzQuery<Rt> query(Class<Rt> retType) {
+        return EzQuery.builder(retType).from(EntityTable.of(User.class)).select().addAll().done()
+                .where().addFieldCondition("name", "a").done().build();
+    }
+
+    private static SqlSession openSession() {
+        SqlSession session = newSqlSessionFactory(newConfiguration(DbType.MYSQL, null)).openSession();
+        MockJdbc.rows.add(new Object[]{"1", "a", 1, 2});
+        return session;
+    }
+
+    @Test
+    public void sameRetTypeHitsLocalCache() {
+        try (SqlSession session = openSession()) {
+            EzMapper mapper = session.getMapper(EzMapper.class);
+            List<User> first = mapper.query(query(User.class));
+            List<User> second = mapper.query(query(User.class));
+            Assert.assertEquals(1, MockJdbc.sqls.size());
+            Assert.assertSame(first, second);
+        }
+    }
+
+    /**
+     * 相同sql不同结果类型时不能命中其它结果类型的一级缓存, 结果类型交替时各自的缓存仍然有效
+     */
+    @Test
+    public void otherRetTypeMissesLocalCache() {
+        try (SqlSession session = openSession()) {
+            EzMapper mapper = session.getMapper(EzMapper.class);
+            List<User> users = mapper.query(query(User.class));
+            List<Dept> depts = mapper.query(query(Dept.class));
+            List<User> usersAgain = mapper.query(query(User.class));
+            List<Dept> deptsAgain = mapper.query(query(Dept.class));
+            Assert.assertEquals(2, MockJdbc.sqls.size());
+            Assert.assertEquals(MockJdbc.sqls.get(0), MockJdbc.sqls.get(1));
+            Assert.assertSame(users, usersAgain);
+            Assert.assertSame(depts, deptsAgain);
+            Assert.assertEquals(User.class, users.get(0).getClass());
+            Assert.assertEquals(Dept.class, ((List<?>) depts).get(0).getClass());
+            Assert.assertEquals(User.class, usersAgain.get(0).getClass());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.rdlinux.ezmybatis.core.mapper;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.constant.EzMybatisConstant;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.PageResult;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.MockJdbc;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.sql.Types;
+import java.util.Collections;
+
+public class EzPageQueryExecutorTest extends BaseTest {
+    private static EzQuery<User> query(int page, int size) {
+        EntityTable table = EntityTable.of(User.class);
+        return EzQuery.builder(User.class).from(table).select().addAll().done()
+                .where().addFieldCondition("name", "a").done().page(page, size).build();
+    }
+
+    private static SqlSession openSession(boolean enableWindowCount) {
+        Configuration configuration = newConfiguration(DbType.MYSQL,
+                config -> config.setEnableWindowCountPage(enableWindowCount));
+        return newSqlSessionFactory(configuration).openSession();
+    }
+
+    private static void addRows(int count) {
+        for (int i = 0; i < count; i++) {
+            MockJdbc.rows.add(new Object[]{i + 42, "a", i, i});
+        }
+    }
+
+    /**
+     * 总数从结果集的窗口函数列中读取, 只执行一条sql
+     */
+    @Test
+    public void windowTotal() {
+        try (SqlSession session = openSession(true)) {
+            MockJdbc.columns = new String[]{"id", "name", "age", "score", EzMybatisConstant.PAGE_TOTAL_ALIAS};
+            MockJdbc.types = new int[]{Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.BIGINT};
+            MockJdbc.rows.add(new Object[]{"1", "a", 1, 2, 35L});
+            MockJdbc.rows.add(new Object[]{"2", "a", 1, 2, 35L});
+            PageResult<User> ret = session.getMapper(EzMapper.class).queryPage(query(2, 2));
+            Assert.assertEquals(35, ret.getTotal());
+            Assert.assertFalse(ret.isApproximate());
+            Assert.assertEquals(2, ret.getRecords().size());
+            Assert.assertEquals("1", ret.getRecords().get(0).getId());
+            Assert.assertEquals(1, MockJdbc.sqls.size());
+            Assert.assertTrue(MockJdbc.sqls.get(0), MockJdbc.sqls.get(0).contains("COUNT(*) OVER()"));
+        }
+    }
+
+    /**
+     * 不满一页时直接推算总数
+     */
+    @Test
+    public void shortPageDerivesTotal() {
+        try (SqlSession session = openSession(false)) {
+            addRows(3);
+            PageResult<User> ret = session.getMapper(EzMapper.class).queryPage(query(3, 10));
+            Assert.assertEquals(23, ret.getTotal());
+            Assert.assertEquals(1, MockJdbc.sqls.size());
+            Assert.assertFalse(MockJdbc.sqls.get(0), MockJdbc.sqls.get(0).contains("OVER()"));
+        }
+    }
+
+    /**
+     * 满页时需要查询总数
+     */
+    @Test
+    public void fullPageQueriesCount() {
+        try (SqlSession session = openSession(false)) {
+            //桩对所有查询返回相同的行, count查询需要只有一行
+            addRows(1);
+            PageResult<User> ret = session.getMapper(EzMapper.class).queryPage(query(1, 1));
+            Assert.assertEquals(2, MockJdbc.sqls.size());
+            Assert.assertTrue(MockJdbc.sqls.get(1), MockJdbc.sqls.get(1).contains("COUNT("));
+            //count查询读取第一列
+            Assert.assertEquals(42, ret.getTotal());
+        }
+    }
+
+    private static EzQuery<User> keysetQuery(int size, String lastId) {
+        EntityTable table = EntityTable.of(User.class);
+        return EzQuery.builder(User.class).from(table).select().addAll().done()
+                .where().addFieldCondition("name", "a").done().orderBy().addField("id").done()
+                .keysetPage(size, lastId == null ? null : Collections.singletonList(lastId)).build();
+    }
+
+    /**
+     * 键集分页非第一页时, 即使不满一页也需要查询总数, 且不使用窗口函数, count查询不包含定位条件
+     */
+    @Test
+    public void keysetPageQueriesCount() {
+        try (SqlSession session = openSession(true)) {
+            addRows(1);
+            PageResult<User> ret = session.getMapper(EzMapper.class).queryPage(keysetQuery(10, "40"));
+            Assert.assertEquals(1, ret.getRecords().size());
+            Assert.assertEquals(42, ret.getTotal());
+            Assert.assertEquals(2, MockJdbc.sqls.size());
+            Assert.assertFalse(MockJdbc.sqls.get(0), MockJdbc.sqls.get(0).contains("OVER()"));
+            Assert.assertTrue(MockJdbc.sqls.get(0), MockJdbc.sqls.get(0).contains(">"));
+            String countSql = MockJdbc.sqls.get(1);
+            Assert.assertTrue(countSql, countSql.contains("COUNT("));
+            Assert.assertFalse(countSql, countSql.contains(">"));
+        }
+    }
+
+    /**
+     * 键集分页第一页不满一页时直接推算总数
+     */
+    @Test
+    public void keysetFirstShortPage() {
+        try (SqlSession session = openSession(true)) {
+            addRows(3);
+            PageResult<User> ret = session.getMapper(EzMapper.class).queryPage(keysetQuery(10, null));
+            Assert.assertEquals(3, ret.getTotal());
+            Assert.assertEquals(1, MockJdbc.sqls.size());
+            Assert.assertFalse(MockJdbc.sqls.get(0), MockJdbc.sqls.get(0).contains("OVER()"));
+        }
+    }
+
+    @Test
+    public void noPage() {
+        try (SqlSession session = openSession(true)) {
+            addRows(3);
+            EzQuery<User> query = EzQuery.builder(User.class).from(EntityTable.of(User.class)).select().addAll()
+                    .done().build();
+            PageResult<User> ret = session.getMapper(EzMapper.class).queryPage(query);
+            Assert.assertEquals(3, ret.getTotal());
+            Assert.assertEquals(1, MockJdbc.sqls.size());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.rdlinux.ezmybatis.core.scripting;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzConfiguration;
+import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.mapper.UserMapper;
+
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 直接绑定参数与mybatis默认解析的结果必须一致
+ */
+public class EzLanguageDriverTest extends BaseTest {
+    private static final String EZ_MAPPER_QUERY = "org.rdlinux.ezmybatis.core.mapper.EzMapper.query";
+
+    /**
+     * 使用语言驱动生成BoundSql并绑定参数, 返回sql与按顺序记录的参数设置调用
+     */
+    private static List<Object> bind(Configuration configuration, LanguageDriver driver, String sql,
+                                     Map<String, Object> param) throws Exception {
+        SqlSource sqlSource = driver.createSqlSource(configuration, sql, Map.class);
+        BoundSql boundSql = sqlSource.getBoundSql(param);
+        MappedStatement ms = new MappedStatement.Builder(configuration, "test", sqlSource, SqlCommandType.SELECT)
+                .lang(driver).build();
+        List<Object> ret = new ArrayList<>();
+        ret.add(boundSql.getSql());
+        Connection connection = (Connection) Proxy.newProxyInstance(EzLanguageDriverTest.class.getClassLoader(),
+                new Class[]{Connection.class}, (p, m, a) -> {
+                    if (m.getName().equals("createArrayOf")) {
+                        return Proxy.newProxyInstance(EzLanguageDriverTest.class.getClassLoader(),
+                                new Class[]{Array.class}, (ap, am, aa) -> null);
+                    }
+                    return null;
+                });
+        PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(
+                EzLanguageDriverTest.class.getClassLoader(), new Class[]{PreparedStatement.class}, (p, m, a) -> {
+                    if (m.getName().equals("getConnection")) {
+                        return connection;
+                    }
+                    if (m.getName().startsWith("set") && a != null) {
+                        Object value = a.length > 1 ? a[1] : null;
+                        ret.add(m.getName() + ":" + a[0] + ":" + (value instanceof Array ? "array" : value));
+                    }
+                    return null;
+                });
+        driver.createParameterHandler(ms, param, boundSql).setParameters(ps);
+        return ret;
+    }
+
+    private static void assertEquivalent(Configuration configuration, Function<MybatisParamHolder, String> render,
+                                         boolean direct) throws Exception {
+        assertEquivalent(configuration, new HashMap<>(), render, direct);
+    }
+
+    private static void assertEquivalent(Configuration configuration, Map<String, Object> param,
+                                         Function<MybatisParamHolder, String> render, boolean direct)
+            throws Exception {
+        String sql = render.apply(new MybatisParamHolder(configuration, param));
+        EzLanguageDriver ezDriver = new EzLanguageDriver();
+        Assert.assertEquals(direct, ezDriver.createSqlSource(configuration, sql, Map.class)
+                .getBoundSql(param) instanceof EzBoundSql);
+        Assert.assertEquals(bind(configuration, new XMLLanguageDriver(), sql, param),
+                bind(configuration, ezDriver, sql, param));
+    }
+
+    /**
+     * 未开启数字参数绑定时数字使用${}直接写入sql
+     */
+    @Test
+    public void dollarNumbers() throws Exception {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        assertEquivalent(configuration, holder -> "SELECT * FROM t WHERE a = " + holder.getMybatisParamName(5) +
+                " AND b = " + holder.getMybatisParamName("x") + " AND c = " + holder.getMybatisParamName(2.5) +
+                " AND d = " + holder.getMybatisParamName(new java.math.BigDecimal("10.10")), true);
+    }
+
+    @Test
+    public void boundNumbers() throws Exception {
+        Configuration configuration = newConfiguration(DbType.MYSQL, config -> config.setBindNumberParam(true));
+        assertEquivalent(configuration, holder -> "SELECT * FROM t WHERE a = " + holder.getMybatisParamName(5) +
+                " AND b = " + holder.getMybatisParamName(7L) + " AND c = " + holder.getMybatisParamName("x"), true);
+    }
+
+    /**
+     * 数组参数的占位符指定了ArrayTypeHandler
+     */
+    @Test
+    public void arrayTypeHandler() throws Exception {
+        Configuration configuration = newConfiguration(DbType.POSTGRE_SQL, null);
+        assertEquivalent(configuration, holder -> "SELECT * FROM t WHERE a = ANY(" +
+                holder.getMybatisArrayParamName(new Integer[]{1, 2}) + ") AND b = " +
+                holder.getMybatisParamName("x"), true);
+    }
+
+    /**
+     * 参数个数超过单个数组容量时切换到下一个数组
+     */
+    @Test
+    public void arrayRollover() throws Exception {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        assertEquivalent(configuration, holder -> {
+            StringBuilder sql = new StringBuilder("SELECT * FROM t WHERE a IN (");
+            for (int i = 0; i < 47430; i++) {
+                sql.append(i == 0 ? "" : ", ").append(holder.getMybatisParamName("v" + i));
+            }
+            String ret = sql.append(")").toString();
+            Assert.assertTrue(ret.contains("#{mp_1[2]}"));
+            return ret;
+        }, true);
+    }
+
+    /**
+     * 存在不是由参数持有器生成的占位符时使用mybatis默认解析
+     */
+    @Test
+    public void foreignTokenFallback() throws Exception {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        Map<String, Object> param = new HashMap<>();
+        param.put("other", "y");
+        assertEquivalent(configuration, param, holder -> "SELECT * FROM t WHERE a = " +
+                holder.getMybatisParamName("x") + " AND b = #{other}", false);
+    }
+
+    /**
+     * 初始化时替换已注册的ez方法的语言驱动, 不需要等到执行时
+     */
+    @Test
+    public void installedAtInit() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        Assert.assertTrue(configuration.getMappedStatement(EZ_MAPPER_QUERY).getLang() instanceof EzLanguageDriver);
+        Configuration disabled = newConfiguration(DbType.MYSQL, config -> config.setDirectParamBind(false));
+        Assert.assertFalse(disabled.getMappedStatement(EZ_MAPPER_QUERY).getLang() instanceof EzLanguageDriver);
+    }
+
+    /**
+     * 使用EzConfiguration时, 初始化之后注册的mapper在注册时替换
+     */
+    @Test
+    public void installedAtRegistration() {
+        Configuration configuration = initConfiguration(new EzConfiguration(newEnvironment()), DbType.MYSQL, null);
+        configuration.addMapper(UserMapper.class);
+        Assert.assertTrue(configuration.getMappedStatement(UserMapper.class.getName() + ".selectById").getLang()
+                instanceof EzLanguageDriver);
+        //在初始化之前注册的mapper在初始化时替换
+        Configuration early = new Configuration(newEnvironment());
+        early.addMapper(UserMapper.class);
+        initConfiguration(early, DbType.MYSQL, null);
+        Assert.assertTrue(early.getMappedStatement(UserMapper.class.getName() + ".selectById").getLang()
+                instanceof EzLanguageDriver);
+    }
+}
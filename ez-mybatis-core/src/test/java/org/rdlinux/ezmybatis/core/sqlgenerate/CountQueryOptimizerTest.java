@@ -0,0 +1,160 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.mapper.provider.EzSelectProvider;
+import org.rdlinux.ezmybatis.core.sqlstruct.Join;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.enumeration.AndOr;
+import org.rdlinux.ezmybatis.enumeration.JoinType;
+import org.rdlinux.ezmybatis.enumeration.Operator;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.entity.Dept;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.util.List;
+
+public class CountQueryOptimizerTest extends BaseTest {
+    private static final EzSelectProvider PROVIDER = new EzSelectProvider();
+    private final Configuration configuration = newConfiguration(DbType.MYSQL, null);
+    private final EntityTable userTable = EntityTable.of(User.class);
+    private final EntityTable deptTable = EntityTable.of(Dept.class);
+
+    private EzQuery.EzQueryBuilder<User> builder() {
+        return EzQuery.builder(User.class).from(this.userTable).select().addAll().done();
+    }
+
+    private String countSql(EzQuery<?> query) {
+        return PROVIDER.queryCount(newParam(this.configuration, query));
+    }
+
+    private List<Join> countJoins(EzQuery<?> query) {
+        return CountQueryOptimizer.getCountJoins(this.configuration, query);
+    }
+
+    @Test
+    public void removePrimaryKeyLeftJoin() {
+        EzQuery<User> query = this.builder().join(JoinType.LeftJoin, this.deptTable)
+                .addFieldCompareCondition("id", "id").done().build();
+        Assert.assertTrue(this.countJoins(query).isEmpty());
+        Assert.assertFalse(this.countSql(query), this.countSql(query).contains("JOIN"));
+        Assert.assertTrue(PROVIDER.query(newParam(this.configuration, query)).contains("LEFT JOIN"));
+    }
+
+    /**
+     * 主键等值条件之外的and条件只会减少连接到的行, 不改变左表行数
+     */
+    @Test
+    public void removePrimaryKeyLeftJoinWithExtraPredicate() {
+        EzQuery<User> query = this.builder().join(JoinType.LeftJoin, this.deptTable)
+                .addFieldCompareCondition("id", "id")
+                .addFieldCondition(this.deptTable, "title", "x").done().build();
+        Assert.assertTrue(this.countJoins(query).isEmpty());
+    }
+
+    /**
+     * or连接的条件可能连接到多行, 不能移除
+     */
+    @Test
+    public void keepOrPredicateJoin() {
+        EzQuery<User> query = this.builder().join(JoinType.LeftJoin, this.deptTable)
+                .addFieldCompareCondition("id", "id")
+                .addFieldCondition(AndOr.OR, this.deptTable, "title", "x").done().build();
+        Assert.assertEquals(1, this.countJoins(query).size());
+    }
+
+    @Test
+    public void keepNonPrimaryKeyAndInnerJoin() {
+        EzQuery<User> nonPrimaryKey = this.builder().join(JoinType.LeftJoin, this.deptTable)
+                .addFieldCompareCondition("name", "title").done().build();
+        Assert.assertEquals(1, this.countJoins(nonPrimaryKey).size());
+        EzQuery<User> innerJoin = this.builder().join(JoinType.InnerJoin, this.deptTable)
+                .addFieldCompareCondition("id", "id").done().build();
+        Assert.assertEquals(1, this.countJoins(innerJoin).size());
+    }
+
+    /**
+     * 被连接表在查询条件中被引用时不能移除
+     */
+    @Test
+    public void keepJoinReferencedFromWhere() {
+        EzQuery<User> query = this.builder().join(JoinType.LeftJoin, this.deptTable)
+                .addFieldCompareCondition("id", "id").done()
+                .where().addFieldCondition(this.deptTable, "title", Operator.isNull, null).done().build();
+        Assert.assertEquals(1, this.countJoins(query).size());
+        Assert.assertTrue(this.countSql(query), this.countSql(query).contains("LEFT JOIN"));
+    }
+
+    /**
+     * 嵌套连表都是主键左连接时全部移除
+     */
+    @Test
+    public void removeNestedJoinChain() {
+        EntityTable sonTable = EntityTable.of(Dept.class);
+        EzQuery<User> query = this.builder().join(JoinType.LeftJoin, this.deptTable)
+                .addFieldCompareCondition("id", "id")
+                .join(JoinType.LeftJoin, sonTable)
+                .addFieldCompareCondition(sonTable, "id", Operator.eq, this.deptTable, "title").done()
+                .done().build();
+        Assert.assertTrue(this.countJoins(query).isEmpty());
+    }
+
+    /**
+     * 嵌套连表不能移除时, 其依赖的外层连表同样保留
+     */
+    @Test
+    public void keepNestedJoinChain() {
+        EntityTable sonTable = EntityTable.of(Dept.class);
+        EzQuery<User> query = this.builder().join(JoinType.LeftJoin, this.deptTable)
+                .addFieldCompareCondition("id", "id")
+                .join(JoinType.LeftJoin, sonTable)
+                .addFieldCompareCondition(sonTable, "title", Operator.eq, this.deptTable, "title").done()
+                .done().build();
+        List<Join> joins = this.countJoins(query);
+        Assert.assertEquals(1, joins.size());
+        Assert.assertEquals(1, joins.get(0).getJoins().size());
+    }
+
+    /**
+     * 只移除嵌套连表时复制外层连表, 不修改原始查询
+     */
+    @Test
+    public void removeOnlyNestedJoin() {
+        EntityTable sonTable = EntityTable.of(Dept.class);
+        EzQuery<User> query = this.builder().join(JoinType.InnerJoin, this.deptTable)
+                .addFieldCompareCondition("id", "id")
+                .join(JoinType.LeftJoin, sonTable)
+                .addFieldCompareCondition(sonTable, "id", Operator.eq, this.deptTable, "title").done()
+                .done().build();
+        List<Join> joins = this.countJoins(query);
+        Assert.assertEquals(1, joins.size());
+        Assert.assertTrue(joins.get(0).getJoins().isEmpty());
+        Assert.assertEquals(1, query.getJoins().get(0).getJoins().size());
+    }
+
+    /**
+     * 分组列可能为空, 空值单独成组, COUNT(DISTINCT)之外需要统计空值组
+     */
+    @Test
+    public void nullableGroupByColumn() {
+        EzQuery<User> query = this.builder().groupBy().addField("age").done().build();
+        String sql = this.countSql(query);
+        Assert.assertTrue(sql, sql.startsWith("SELECT COUNT(DISTINCT "));
+        Assert.assertTrue(sql, sql.contains("`age`) + COUNT(DISTINCT CASE WHEN "));
+        Assert.assertTrue(sql, sql.contains("`age` IS NULL THEN 1 END)"));
+        Assert.assertFalse(sql, sql.contains("GROUP BY"));
+    }
+
+    @Test
+    public void groupByWithHavingUsesSubQuery() {
+        EzQuery<User> query = this.builder().groupBy().addField("age").done()
+                .having().addFieldCondition("age", Operator.gt, 1).done().build();
+        Assert.assertNull(CountQueryOptimizer.getDistinctCountItem(query));
+        String sql = this.countSql(query);
+        Assert.assertTrue(sql, sql.startsWith("SELECT COUNT(*) FROM ( "));
+        Assert.assertTrue(sql, sql.contains("GROUP BY"));
+    }
+}
@@ -0,0 +1,88 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.mapper.provider.EzSelectProvider;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.enumeration.Operator;
+import org.rdlinux.ezmybatis.enumeration.OrderType;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.entity.Dept;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * sql模板缓存基准, 对比直接渲染与命中模板缓存时单线程与多线程的吞吐, 单位为每毫秒操作数
+ */
+public class SqlTemplateCacheBenchmark {
+    private static final EzSelectProvider PROVIDER = new EzSelectProvider();
+    private static final int WARM_UP_MILLIS = 2000;
+    private static final int MEASURE_MILLIS = 3000;
+
+    private static EzQuery<User> query(int i) {
+        EntityTable userTable = EntityTable.of(User.class);
+        EntityTable deptTable = EntityTable.of(Dept.class);
+        return EzQuery.builder(User.class).from(userTable).select().addAll().done()
+                .join(deptTable).addFieldCompareCondition("id", "id").done()
+                .where().addFieldCondition("name", "n" + i).addFieldCondition("age", Operator.gt, i)
+                .addFieldCondition("score", Operator.in, Arrays.asList(i, i + 1, i + 2))
+                .addFieldCondition("id", Operator.isNotNull).done()
+                .orderBy().addField("age", OrderType.DESC).done()
+                .page(i % 10 + 1, 20).build();
+    }
+
+    private static double measure(Configuration configuration, int threads, int millis) throws Exception {
+        AtomicLong ops = new AtomicLong();
+        CountDownLatch latch = new CountDownLatch(threads);
+        long end = System.currentTimeMillis() + millis;
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                long count = 0;
+                while (System.currentTimeMillis() < end) {
+                    for (int i = 0; i < 100; i++) {
+                        PROVIDER.query(BaseTest.newParam(configuration, query(i)));
+                    }
+                    count += 100;
+                }
+                ops.addAndGet(count);
+                latch.countDown();
+            });
+            thread.start();
+        }
+        latch.await();
+        return (double) ops.get() / millis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        List<String> names = new ArrayList<>();
+        List<Configuration> configurations = new ArrayList<>();
+        for (boolean bindNumberParam : new boolean[]{false, true}) {
+            String suffix = bindNumberParam ? ", bindNumberParam" : "";
+            names.add("render" + suffix);
+            configurations.add(BaseTest.newConfiguration(DbType.MYSQL,
+                    config -> config.setBindNumberParam(bindNumberParam)));
+            names.add("cache" + suffix);
+            configurations.add(BaseTest.newConfiguration(DbType.MYSQL, config -> {
+                config.setSqlTemplateCacheSize(1024);
+                config.setBindNumberParam(bindNumberParam);
+            }));
+        }
+        //先全部预热, 避免先测量的配置承担jit编译的开销
+        for (Configuration configuration : configurations) {
+            measure(configuration, 1, WARM_UP_MILLIS);
+        }
+        for (int threadCount : new int[]{1, threads}) {
+            for (int i = 0; i < configurations.size(); i++) {
+                System.out.printf("%-24s threads=%-2d %10.1f ops/ms%n", names.get(i), threadCount,
+                        measure(configurations.get(i), threadCount, MEASURE_MILLIS));
+            }
+        }
+    }
+}
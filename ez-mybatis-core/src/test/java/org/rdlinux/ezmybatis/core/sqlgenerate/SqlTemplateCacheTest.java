@@ -0,0 +1,161 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.mapper.provider.EzSelectProvider;
+import org.rdlinux.ezmybatis.core.sqlstruct.SqlStruct;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.enumeration.Operator;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SqlTemplateCacheTest extends BaseTest {
+    private static final EzSelectProvider PROVIDER = new EzSelectProvider();
+
+    private static EzQuery<User> nameQuery(String name, int page) {
+        return EzQuery.builder(User.class).from(EntityTable.of(User.class)).select().addAll().done()
+                .where().addFieldCondition("name", name).addFieldCondition("age", Operator.in, Arrays.asList(1, 2))
+                .done().page(page, 10).build();
+    }
+
+    private static Configuration newConfiguration(int cacheSize, boolean bindNumberParam) {
+        return BaseTest.newConfiguration(DbType.MYSQL, config -> {
+            config.setSqlTemplateCacheSize(cacheSize);
+            config.setBindNumberParam(bindNumberParam);
+        });
+    }
+
+    private static SqlTemplateCache getCache(Configuration configuration) {
+        return EzMybatisContent.getContentConfig(configuration).getSqlTemplateCache();
+    }
+
+    /**
+     * 渲染并返回sql与绑定的参数
+     */
+    private static List<Object> render(Configuration configuration, EzQuery<?> query) {
+        Map<String, Object> param = newParam(configuration, query);
+        String sql = PROVIDER.query(param);
+        List<Object> ret = new ArrayList<>();
+        ret.add(sql);
+        ret.addAll(getBoundParams(param));
+        return ret;
+    }
+
+    @Test
+    public void hitBindsNewArgs() {
+        Configuration configuration = newConfiguration(16, false);
+        List<Object> first = render(configuration, nameQuery("a", 1));
+        List<Object> second = render(configuration, nameQuery("b", 1));
+        Assert.assertEquals(first.get(0), second.get(0));
+        Assert.assertEquals(Arrays.asList("b", 1, 2), second.subList(1, second.size()));
+        Assert.assertEquals(1, getCache(configuration).getHitCount());
+        Assert.assertEquals(1, getCache(configuration).getMissCount());
+    }
+
+    @Test
+    public void cachedEqualsUncached() {
+        for (boolean bindNumberParam : new boolean[]{false, true}) {
+            Configuration cached = newConfiguration(16, bindNumberParam);
+            Configuration uncached = newConfiguration(0, bindNumberParam);
+            for (int page = 1; page <= 3; page++) {
+                for (String name : new String[]{"a", "b"}) {
+                    Assert.assertEquals(render(uncached, nameQuery(name, page)),
+                            render(cached, nameQuery(name, page)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void numberValueNotInShapeWhenBound() {
+        EzQuery<User> page2 = nameQuery("a", 2);
+        EzQuery<User> page3 = nameQuery("b", 3);
+        Assert.assertEquals(SqlShape.of(DbType.MYSQL, true, "q", page2), SqlShape.of(DbType.MYSQL, true, "q", page3));
+        Assert.assertNotEquals(SqlShape.of(DbType.MYSQL, false, "q", page2),
+                SqlShape.of(DbType.MYSQL, false, "q", page3));
+        Assert.assertNotEquals(SqlShape.of(DbType.MYSQL, true, "q", page2),
+                SqlShape.of(DbType.ORACLE, true, "q", page2));
+        //第一页的skip为0, sql结构可能不同
+        Assert.assertNotEquals(SqlShape.of(DbType.MYSQL, true, "q", nameQuery("a", 1)),
+                SqlShape.of(DbType.MYSQL, true, "q", page2));
+    }
+
+    /**
+     * 缓存key只保存结构元素, 不引用用户查询对象与参数值
+     */
+    @Test
+    public void shapeHoldsNoUserValues() throws Exception {
+        String name = new String("user-value");
+        EzQuery<User> query = nameQuery(name, 2);
+        SqlShape shape = SqlShape.of(DbType.MYSQL, true, "q", query);
+        List<String> fieldNames = new ArrayList<>();
+        for (Field field : SqlShape.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fieldNames.add(field.getName());
+            }
+        }
+        Assert.assertEquals(Arrays.asList("key", "hash"), fieldNames);
+        Field keyField = SqlShape.class.getDeclaredField("key");
+        keyField.setAccessible(true);
+        for (Object element : (Object[]) keyField.get(shape)) {
+            Assert.assertNotSame(name, element);
+            Assert.assertFalse(String.valueOf(element), element instanceof SqlStruct || element instanceof Collection
+                    || element instanceof EzQuery);
+        }
+        //参数值不参与结构比较
+        Assert.assertEquals(shape, SqlShape.of(DbType.MYSQL, true, "q", nameQuery("other", 2)));
+    }
+
+    @Test
+    public void evictKeepsSizeBounded() {
+        Configuration configuration = newConfiguration(8, false);
+        for (int i = 0; i < 40; i++) {
+            EzQuery<User> query = EzQuery.builder(User.class).from(EntityTable.of(User.class)).select()
+                    .addColumn("c" + i).done().build();
+            render(configuration, query);
+            Assert.assertTrue(getCache(configuration).size() <= 8);
+        }
+        Assert.assertTrue(getCache(configuration).size() > 0);
+    }
+
+    @Test
+    public void concurrentHits() throws Exception {
+        Configuration configuration = newConfiguration(16, true);
+        String sql = (String) render(newConfiguration(0, true), nameQuery("x", 1)).get(0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                String name = "n" + t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        List<Object> ret = render(configuration, nameQuery(name, 1));
+                        Assert.assertEquals(sql, ret.get(0));
+                        Assert.assertEquals(name, ret.get(1));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(getCache(configuration).getHitCount() > 0);
+    }
+}
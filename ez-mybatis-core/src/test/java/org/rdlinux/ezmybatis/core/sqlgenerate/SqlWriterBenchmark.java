@@ -0,0 +1,76 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.mapper.provider.EzSelectProvider;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.enumeration.Operator;
+import org.rdlinux.ezmybatis.enumeration.OrderType;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.entity.Dept;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * sql缓冲区基准, 对比复用缓冲区与每次渲染新建缓冲区时单次渲染的内存分配与吞吐
+ */
+public class SqlWriterBenchmark {
+    private static final EzSelectProvider PROVIDER = new EzSelectProvider();
+    private static final int WARM_UP_MILLIS = 2000;
+    private static final int MEASURE_MILLIS = 3000;
+    private static volatile Object sink;
+
+    private static EzQuery<User> query(int i) {
+        EntityTable userTable = EntityTable.of(User.class);
+        EntityTable deptTable = EntityTable.of(Dept.class);
+        return EzQuery.builder(User.class).from(userTable).select().addAll().done()
+                .join(deptTable).addFieldCompareCondition("id", "id").done()
+                .where().addFieldCondition("name", "n" + i).addFieldCondition("age", Operator.gt, i)
+                .addFieldCondition("score", Operator.in, Arrays.asList(i, i + 1, i + 2))
+                .addFieldCondition("id", Operator.isNotNull).done()
+                .orderBy().addField("age", OrderType.DESC).done()
+                .page(i % 10 + 1, 20).build();
+    }
+
+    /**
+     * @return 每次渲染分配的字节数与每毫秒渲染次数
+     */
+    private static double[] measure(Configuration configuration, EzQuery<?>[] queries, boolean pooled, int millis) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long ops = 0;
+        long start = System.currentTimeMillis();
+        long bytes = bean.getThreadAllocatedBytes(threadId);
+        while (System.currentTimeMillis() - start < millis) {
+            for (int i = 0; i < 1000; i++) {
+                if (!pooled) {
+                    SqlWriter.clear();
+                }
+                sink = PROVIDER.query(BaseTest.newParam(configuration, queries[i % queries.length]));
+            }
+            ops += 1000;
+        }
+        bytes = bean.getThreadAllocatedBytes(threadId) - bytes;
+        long elapsed = System.currentTimeMillis() - start;
+        return new double[]{(double) bytes / ops, (double) ops / elapsed};
+    }
+
+    public static void main(String[] args) {
+        Configuration configuration = BaseTest.newConfiguration(DbType.MYSQL, null);
+        EzQuery<?>[] queries = new EzQuery<?>[100];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = query(i);
+        }
+        measure(configuration, queries, false, WARM_UP_MILLIS);
+        measure(configuration, queries, true, WARM_UP_MILLIS);
+        for (boolean pooled : new boolean[]{false, true}) {
+            double[] ret = measure(configuration, queries, pooled, MEASURE_MILLIS);
+            System.out.printf("%-10s %10.1f bytes/op %12.1f ops/ms%n", pooled ? "pooled" : "unpooled", ret[0],
+                    ret[1]);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.mapper.provider.EzSelectProvider;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+public class SqlWriterTest extends BaseTest {
+    /**
+     * 归还的缓冲区被清空后复用, 超过最大容量的缓冲区不保留
+     */
+    @Test
+    public void recycle() {
+        SqlWriter.clear();
+        StringBuilder buffer = SqlWriter.acquire();
+        buffer.append("SELECT 1");
+        SqlWriter.recycle(buffer);
+        StringBuilder reused = SqlWriter.acquire();
+        Assert.assertSame(buffer, reused);
+        Assert.assertEquals(0, reused.length());
+        Assert.assertNotSame(reused, SqlWriter.acquire());
+        reused.ensureCapacity(128 * 1024);
+        SqlWriter.recycle(reused);
+        Assert.assertNotSame(reused, SqlWriter.acquire());
+    }
+
+    /**
+     * 复用缓冲区渲染的sql与首次渲染一致, 渲染失败时缓冲区同样归还
+     */
+    @Test
+    public void renderWithPooledBuffer() {
+        SqlWriter.clear();
+        Configuration configuration = newConfiguration(DbType.MYSQL, null);
+        EzSelectProvider provider = new EzSelectProvider();
+        EzQuery<User> query = EzQuery.builder(User.class).from(EntityTable.of(User.class)).select().addAll().done()
+                .where().addFieldCondition("name", "a").done().build();
+        String sql = provider.query(newParam(configuration, query));
+        Assert.assertEquals(sql, provider.query(newParam(configuration, query)));
+        EzQuery<User> broken = EzQuery.builder(User.class).from(EntityTable.of(User.class)).select().addAll()
+                .done().where().addFieldCondition("noSuchField", "a").done().build();
+        SqlWriter.clear();
+        StringBuilder buffer = SqlWriter.acquire();
+        SqlWriter.recycle(buffer);
+        try {
+            provider.query(newParam(configuration, broken));
+            Assert.fail();
+        } catch (RuntimeException e) {
+            StringBuilder reused = SqlWriter.acquire();
+            Assert.assertSame(buffer, reused);
+            Assert.assertEquals(0, reused.length());
+            SqlWriter.recycle(reused);
+        }
+        Assert.assertEquals(sql, provider.query(newParam(configuration, query)));
+    }
+}
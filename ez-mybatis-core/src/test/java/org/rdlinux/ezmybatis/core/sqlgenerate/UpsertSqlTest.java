@@ -0,0 +1,112 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.dao.JdbcInsertDao;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.MockJdbc;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class UpsertSqlTest extends BaseTest {
+    private static final String MERGE_INSERT = " WHEN NOT MATCHED THEN INSERT ( \"name\", \"score\", \"id\", \"age\" ) "
+            + "VALUES ( S.\"name\", S.\"score\", S.\"id\", S.\"age\" )";
+    private static final String MERGE_UPDATE = " WHEN MATCHED THEN UPDATE SET T.\"name\" = S.\"name\", "
+            + "T.\"score\" = S.\"score\", T.\"age\" = S.\"age\"";
+    private static final String DUAL_SOURCE = "MERGE INTO \"user\" T USING ( SELECT ? \"name\", ? \"score\", "
+            + "? \"id\", ? \"age\" FROM DUAL ) S";
+
+    private static String upsertSql(DbType dbType, Collection<String> conflictFields,
+                                    Collection<String> updateFields) {
+        Configuration configuration = newConfiguration(dbType, null);
+        User user = new User();
+        user.setId("1");
+        return SqlGenerateFactory.getSqlGenerate(dbType).getJdbcUpsertSql(configuration, null, user, conflictFields,
+                updateFields).getSql();
+    }
+
+    @Test
+    public void mySql() {
+        Assert.assertEquals("INSERT INTO `user` ( `name`, `score`, `id`, `age` ) VALUES ( ?, ?, ?, ? ) "
+                        + "ON DUPLICATE KEY UPDATE `name` = VALUES(`name`), `score` = VALUES(`score`), "
+                        + "`age` = VALUES(`age`)",
+                upsertSql(DbType.MYSQL, null, null));
+    }
+
+    @Test
+    public void postgreSql() {
+        Assert.assertEquals("INSERT INTO \"user\" ( \"name\", \"score\", \"id\", \"age\" ) VALUES ( ?, ?, ?, ? ) "
+                        + "ON CONFLICT ( \"id\" ) DO UPDATE SET \"name\" = EXCLUDED.\"name\", "
+                        + "\"score\" = EXCLUDED.\"score\", \"age\" = EXCLUDED.\"age\"",
+                upsertSql(DbType.POSTGRE_SQL, null, null));
+        //冲突列不会被更新, 没有可更新的列时不做任何操作
+        Assert.assertEquals("INSERT INTO \"user\" ( \"name\", \"score\", \"id\", \"age\" ) VALUES ( ?, ?, ?, ? ) "
+                        + "ON CONFLICT ( \"name\" ) DO NOTHING",
+                upsertSql(DbType.POSTGRE_SQL, Collections.singletonList("name"),
+                        Collections.singletonList("name")));
+    }
+
+    @Test
+    public void oracleAndDm() {
+        for (DbType dbType : new DbType[]{DbType.ORACLE, DbType.DM}) {
+            Assert.assertEquals(DUAL_SOURCE + " ON ( T.\"id\" = S.\"id\" )" + MERGE_UPDATE + MERGE_INSERT,
+                    upsertSql(dbType, null, null));
+            Assert.assertEquals(DUAL_SOURCE + " ON ( T.\"name\" = S.\"name\" )" + MERGE_INSERT,
+                    upsertSql(dbType, Collections.singletonList("name"), Collections.singletonList("name")));
+        }
+    }
+
+    @Test
+    public void sqlServer() {
+        Assert.assertEquals("MERGE INTO \"user\" AS T USING ( VALUES ( ?, ?, ?, ? ) ) AS S ( \"name\", \"score\", "
+                        + "\"id\", \"age\" ) ON ( T.\"id\" = S.\"id\" )" + MERGE_UPDATE + MERGE_INSERT + ";",
+                upsertSql(DbType.SQL_SERVER, null, null));
+    }
+
+    @Test
+    public void updateFieldsSubset() {
+        Assert.assertEquals("INSERT INTO `user` ( `name`, `score`, `id`, `age` ) VALUES ( ?, ?, ?, ? ) "
+                        + "ON DUPLICATE KEY UPDATE `age` = VALUES(`age`)",
+                upsertSql(DbType.MYSQL, null, Arrays.asList("age", "id", "age")));
+    }
+
+    @Test
+    public void unknownField() {
+        try {
+            upsertSql(DbType.MYSQL, Collections.singletonList("missing"), null);
+            Assert.fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("missing"));
+        }
+    }
+
+    @Test
+    public void batchUpsertUsesOneStatement() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, config -> config.setJdbcBatchSize(2));
+        try (SqlSession session = newSqlSessionFactory(configuration).openSession()) {
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                User user = new User();
+                user.setId("id" + i);
+                user.setName("n" + i);
+                users.add(user);
+            }
+            new JdbcInsertDao(session).batchUpsert(users, null, null);
+            Assert.assertEquals(1, MockJdbc.sqls.size());
+            Assert.assertTrue(MockJdbc.sqls.get(0), MockJdbc.sqls.get(0).contains("ON DUPLICATE KEY UPDATE"));
+            List<Object> params = MockJdbc.params.get(0);
+            //age为空, 记录的是setNull的类型
+            Assert.assertEquals(Arrays.asList("n0", 0, "id0", 0, MockJdbc.BATCH_MARK, "n1", 0, "id1", 0,
+                    MockJdbc.BATCH_MARK, MockJdbc.EXECUTE_BATCH_MARK, "n2", 0, "id2", 0, MockJdbc.BATCH_MARK,
+                    MockJdbc.EXECUTE_BATCH_MARK), params);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.rdlinux.ezmybatis.core.sqlgenerate.inlist;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.StringTypeHandler;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.annotation.ColumnHandler;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.mapper.provider.EzSelectProvider;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.enumeration.Operator;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InListStrategyTest extends BaseTest {
+    private static final EzSelectProvider PROVIDER = new EzSelectProvider();
+
+    private static Configuration newConfiguration(DbType dbType, int inListThreshold, AtomicInteger listenerCount) {
+        Configuration configuration = BaseTest.newConfiguration(dbType,
+                config -> config.setInListThreshold(inListThreshold));
+        if (listenerCount != null) {
+            EzMybatisContent.addOnBuildSqlGetFieldListener(EzMybatisContent.getContentConfig(configuration)
+                    .getEzMybatisConfig(), (isSimple, ntType, field, value) -> {
+                listenerCount.incrementAndGet();
+                return value;
+            });
+        }
+        return configuration;
+    }
+
+    private static <T> EzQuery<T> inQuery(Class<T> type, String field, List<?> values) {
+        return EzQuery.builder(type).from(EntityTable.of(type)).select().addAll().done()
+                .where().addFieldCondition(field, Operator.in, values).done().build();
+    }
+
+    private static List<Object> render(Configuration configuration, EzQuery<?> query) {
+        Map<String, Object> param = newParam(configuration, query);
+        List<Object> ret = new ArrayList<>();
+        ret.add(PROVIDER.query(param));
+        ret.addAll(getBoundParams(param));
+        return ret;
+    }
+
+    private static List<Integer> range(int size) {
+        List<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    private static int count(String sql, String token) {
+        int count = 0;
+        for (int i = sql.indexOf(token); i >= 0; i = sql.indexOf(token, i + token.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void defaultUnderThreshold() {
+        Configuration configuration = newConfiguration(DbType.MYSQL, 1000, null);
+        List<Object> ret = render(configuration, inQuery(User.class, "name", Arrays.asList("a", "b", "c")));
+        String sql = (String) ret.get(0);
+        Assert.assertTrue(sql, sql.contains("t_0.`name`  IN ( #{mp_0[0]}, #{mp_0[1]}, #{mp_0[2]} )"));
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), ret.subList(1, ret.size()));
+    }
+
+    /**
+     * 补齐的占位符引用块内最后一个参数, 不重复绑定, 事件只触发一次
+     */
+    @Test
+    public void chunkedPadsWithLastPlaceholder() {
+        AtomicInteger listenerCount = new AtomicInteger();
+        Configuration configuration = newConfiguration(DbType.MYSQL, 2, listenerCount);
+        List<Object> ret = render(configuration, inQuery(User.class, "name", Arrays.asList("a", "b", "c")));
+        String sql = (String) ret.get(0);
+        Assert.assertEquals(16, count(sql, "#{mp_0["));
+        Assert.assertEquals(14, count(sql, "#{mp_0[2]}"));
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), ret.subList(1, ret.size()));
+        Assert.assertEquals(3, listenerCount.get());
+    }
+
+    @Test
+    public void chunkedSplitsLargeList() {
+        Configuration configuration = newConfiguration(DbType.ORACLE, 2, null);
+        List<Object> ret = render(configuration, inQuery(User.class, "name", range(600)));
+        String sql = (String) ret.get(0);
+        Assert.assertEquals(2, count(sql, " IN ( "));
+        Assert.assertEquals(1, count(sql, " OR "));
+        //第二块88个参数补齐到128个
+        Assert.assertEquals(512 + 128, count(sql, "{mp_0["));
+        Assert.assertEquals(601, ret.size());
+    }
+
+    @Test
+    public void postgreSqlArrayBind() {
+        AtomicInteger listenerCount = new AtomicInteger();
+        Configuration configuration = newConfiguration(DbType.POSTGRE_SQL, 2, listenerCount);
+        List<Object> ret = render(configuration, inQuery(User.class, "name", Arrays.asList("a", "b", "c")));
+        String sql = (String) ret.get(0);
+        Assert.assertTrue(sql, sql.contains("t_0.\"name\"  = ANY(#{mp_0[0],typeHandler="));
+        Assert.assertEquals(2, ret.size());
+        Assert.assertArrayEquals(new String[]{"a", "b", "c"}, (String[]) ret.get(1));
+        Assert.assertEquals(3, listenerCount.get());
+    }
+
+    /**
+     * 参数类型不一致时使用备用策略, 复用已经获取的值, 事件每个参数只触发一次
+     */
+    @Test
+    public void postgreSqlFallbackFiresListenerOnce() {
+        AtomicInteger listenerCount = new AtomicInteger();
+        Configuration configuration = newConfiguration(DbType.POSTGRE_SQL, 2, listenerCount);
+        List<Object> ret = render(configuration, inQuery(User.class, "name", Arrays.asList("a", 1, "c")));
+        String sql = (String) ret.get(0);
+        Assert.assertTrue(sql, sql.contains("t_0.\"name\"  IN ( "));
+        Assert.assertFalse(sql, sql.contains("ANY"));
+        Assert.assertEquals(Arrays.asList("a", 1, "c"), ret.subList(1, ret.size()));
+        Assert.assertEquals(3, listenerCount.get());
+    }
+
+    /**
+     * 属性指定了类型处理器时不能使用数组绑定
+     */
+    @Test
+    public void postgreSqlColumnHandlerFallsBack() {
+        Configuration configuration = newConfiguration(DbType.POSTGRE_SQL, 2, null);
+        List<Object> ret = render(configuration, inQuery(Tagged.class, "tag", Arrays.asList("a", "b", "c")));
+        String sql = (String) ret.get(0);
+        Assert.assertTrue(sql, sql.contains("t_0.\"tag\"  IN ( "));
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), ret.subList(1, ret.size()));
+        ret = render(configuration, inQuery(Tagged.class, "name", Arrays.asList("a", "b", "c")));
+        Assert.assertTrue((String) ret.get(0), ((String) ret.get(0)).contains("t_0.\"name\"  = ANY("));
+    }
+
+    @Table(name = "tagged")
+    public static class Tagged {
+        @Id
+        private String id;
+        private String name;
+        @ColumnHandler(StringTypeHandler.class)
+        private String tag;
+
+        public String getId() {
+            return this.id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getTag() {
+            return this.tag;
+        }
+
+        public void setTag(String tag) {
+            this.tag = tag;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.rdlinux.ezmybatis.core.sqlstruct.converter;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.mapper.provider.EzSelectProvider;
+import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+import org.rdlinux.ezmybatis.core.sqlstruct.ObjArg;
+import org.rdlinux.ezmybatis.core.sqlstruct.Operand;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.ArgCompareArgCondition;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.Condition;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.GroupCondition;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.enumeration.AndOr;
+import org.rdlinux.ezmybatis.enumeration.Operator;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.entity.Dept;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * 转换器可以返回新的sqlBuilder, 调用方必须使用返回值继续构建
+ */
+public class ConditionConverterTest extends BaseTest {
+    private static final EzSelectProvider PROVIDER = new EzSelectProvider();
+
+    @BeforeClass
+    public static void register() {
+        EzMybatisContent.addConverter(DbType.MYSQL, Custom.class, new CopyingConverter());
+        EzMybatisContent.addConverter(DbType.ORACLE, Custom.class, new CopyingConverter());
+        EzMybatisContent.addConverter(DbType.MYSQL, CustomOperand.class, new RewritingConverter());
+    }
+
+    private static String render(Configuration configuration, EzQuery<?> query) {
+        return PROVIDER.query(newParam(configuration, query));
+    }
+
+    private static int count(String sql, String part) {
+        int count = 0;
+        for (int i = sql.indexOf(part); i >= 0; i = sql.indexOf(part, i + part.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void whereKeepsReturnedBuilder() {
+        EzQuery<User> query = EzQuery.builder(User.class).from(EntityTable.of(User.class)).select().addAll().done()
+                .where().addFieldCondition("name", "a").done().build();
+        query.getWhere().getConditions().add(new Custom());
+        String sql = render(newConfiguration(DbType.MYSQL, null), query);
+        Assert.assertTrue(sql, sql.contains("AND  CUSTOM_SQL"));
+        Assert.assertTrue(sql, sql.contains("`name`  = #{"));
+        Assert.assertFalse(sql, sql.contains("1 = 1"));
+    }
+
+    @Test
+    public void groupConditionKeepsReturnedBuilder() {
+        EzQuery<User> query = EzQuery.builder(User.class).from(EntityTable.of(User.class)).select().addAll().done()
+                .where().addFieldCondition("name", "a").done().build();
+        query.getWhere().getConditions().add(new GroupCondition(true,
+                new ArrayList<>(Collections.singletonList(new Custom())), AndOr.OR));
+        String sql = render(newConfiguration(DbType.MYSQL, null), query);
+        Assert.assertTrue(sql, sql.contains("OR  (  CUSTOM_SQL  ) "));
+    }
+
+    @Test
+    public void joinAndHavingKeepReturnedBuilder() {
+        EntityTable userTable = EntityTable.of(User.class);
+        EzQuery<User> query = EzQuery.builder(User.class).from(userTable).select().addAll().done()
+                .join(EntityTable.of(Dept.class)).done()
+                .groupBy().addField("name").done()
+                .having().done().build();
+        query.getJoins().get(0).getOnConditions().add(new Custom());
+        query.getHaving().getConditions().add(new Custom());
+        String sql = render(newConfiguration(DbType.MYSQL, null), query);
+        Assert.assertTrue(sql, sql.contains(" ON  CUSTOM_SQL"));
+        Assert.assertTrue(sql, sql.contains("HAVING  CUSTOM_SQL"));
+        Assert.assertEquals(sql, 2, count(sql, "CUSTOM_SQL"));
+    }
+
+    @Test
+    public void emptyJoinOnSkipsJoin() {
+        EzQuery<User> query = EzQuery.builder(User.class).from(EntityTable.of(User.class)).select().addAll().done()
+                .join(EntityTable.of(Dept.class)).done().build();
+        String sql = render(newConfiguration(DbType.MYSQL, null), query);
+        Assert.assertFalse(sql, sql.contains("JOIN"));
+    }
+
+    @Test
+    public void oraclePageWrapsWhere() {
+        EzQuery<User> query = EzQuery.builder(User.class).from(EntityTable.of(User.class)).select().addAll().done()
+                .where().addFieldCondition("name", "a").done().page(2, 10).build();
+        query.getWhere().getConditions().add(new Custom());
+        String sql = render(newConfiguration(DbType.ORACLE, null), query);
+        Assert.assertTrue(sql, sql.startsWith("SELECT "));
+        Assert.assertTrue(sql, sql.contains("AND  CUSTOM_SQL"));
+        Assert.assertEquals(sql, 1, count(sql, "CUSTOM_SQL"));
+        Assert.assertEquals(sql, count(sql, "("), count(sql, ")"));
+    }
+
+    /**
+     * 左侧转换器返回的sqlBuilder与入参长度不同时, 多参数in条件仍然使用完整的左侧sql
+     */
+    @Test
+    public void inListLeftKeepsReturnedBuilder() {
+        EzQuery<User> query = EzQuery.builder(User.class).from(EntityTable.of(User.class)).select().addAll().done()
+                .where().addFieldCondition("name", "a").done().build();
+        query.getWhere().getConditions().add(new ArgCompareArgCondition(AndOr.AND, new CustomOperand(),
+                Operator.in, Arrays.<Operand>asList(ObjArg.of(1), ObjArg.of(2))));
+        String sql = render(newConfiguration(DbType.MYSQL, null), query);
+        Assert.assertTrue(sql, sql.contains("`name`  = #{"));
+        Assert.assertTrue(sql, sql.contains("AND   CUSTOM_COL  IN ("));
+        Assert.assertEquals(sql, 1, count(sql, "CUSTOM_COL"));
+    }
+
+    public static class CustomOperand implements Operand {
+    }
+
+    /**
+     * 复制时改写已有内容后返回新的sqlBuilder, 返回值的长度与入参不同
+     */
+    public static class RewritingConverter extends AbstractConverter<CustomOperand> {
+        @Override
+        protected StringBuilder doBuildSql(Type type, StringBuilder sqlBuilder, Configuration configuration,
+                                           CustomOperand obj, MybatisParamHolder mybatisParamHolder) {
+            return new StringBuilder(sqlBuilder.toString().replaceAll("\\s+", " ")).append("CUSTOM_COL");
+        }
+
+        @Override
+        public DbType getSupportDbType() {
+            return DbType.MYSQL;
+        }
+    }
+
+    public static class Custom implements Condition {
+        @Override
+        public AndOr getAndOr() {
+            return AndOr.AND;
+        }
+    }
+
+    /**
+     * 不在入参上追加, 而是复制后返回新的sqlBuilder
+     */
+    public static class CopyingConverter extends AbstractConverter<Custom> {
+        @Override
+        protected StringBuilder doBuildSql(Type type, StringBuilder sqlBuilder, Configuration configuration,
+                                           Custom obj, MybatisParamHolder mybatisParamHolder) {
+            return new StringBuilder(sqlBuilder).append(" CUSTOM_SQL ");
+        }
+
+        @Override
+        public DbType getSupportDbType() {
+            return DbType.MYSQL;
+        }
+    }
+}
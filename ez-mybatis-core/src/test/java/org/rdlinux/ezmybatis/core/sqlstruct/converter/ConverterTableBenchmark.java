@@ -0,0 +1,58 @@
+package org.rdlinux.ezmybatis.core.sqlstruct.converter;
+
+import org.apache.ibatis.session.Configuration;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.sqlstruct.*;
+import org.rdlinux.ezmybatis.core.sqlstruct.condition.ArgCompareArgCondition;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.test.BaseTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 转换器获取基准, 对比按数据库类型与sql结构类型两层HashMap查找与使用分派表, 单位为每毫秒操作数
+ */
+public class ConverterTableBenchmark {
+    private static final int WARM_UP_MILLIS = 2000;
+    private static final int MEASURE_MILLIS = 3000;
+    @SuppressWarnings("unchecked")
+    private static final Class<? extends SqlStruct>[] TYPES = new Class[]{Where.class, Select.class,
+            EntityTable.class, ObjArg.class, ArgCompareArgCondition.class, EzQuery.class};
+    private static volatile Object sink;
+
+    private interface Lookup {
+        Object get(Class<? extends SqlStruct> type);
+    }
+
+    private static double measure(Lookup lookup, int millis) {
+        long count = 0;
+        long end = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < end) {
+            for (int i = 0; i < 1000; i++) {
+                sink = lookup.get(TYPES[i % TYPES.length]);
+            }
+            count += 1000;
+        }
+        return (double) count / millis;
+    }
+
+    public static void main(String[] args) {
+        Configuration configuration = BaseTest.newConfiguration(DbType.MYSQL, null);
+        //分派表之前的查找方式: 先获取数据库类型, 再两层HashMap查找
+        Map<DbType, Map<Class<?>, Converter<?>>> convertMap = new HashMap<>();
+        Map<Class<?>, Converter<?>> mysqlMap = new HashMap<>();
+        for (Class<? extends SqlStruct> type : TYPES) {
+            mysqlMap.put(type, EzMybatisContent.getConverter(configuration, type));
+        }
+        convertMap.put(DbType.MYSQL, mysqlMap);
+        Lookup nestedMap = type -> convertMap.get(EzMybatisContent.getDbType(configuration)).get(type);
+        Lookup table = type -> EzMybatisContent.getConverter(configuration, type);
+        measure(nestedMap, WARM_UP_MILLIS);
+        measure(table, WARM_UP_MILLIS);
+        System.out.printf("%-10s %12.1f ops/ms%n", "nestedMap", measure(nestedMap, MEASURE_MILLIS));
+        System.out.printf("%-10s %12.1f ops/ms%n", "table", measure(table, MEASURE_MILLIS));
+    }
+}
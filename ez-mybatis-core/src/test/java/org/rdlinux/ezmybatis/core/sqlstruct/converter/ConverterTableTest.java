@@ -0,0 +1,53 @@
+package org.rdlinux.ezmybatis.core.sqlstruct.converter;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.sqlstruct.SqlStruct;
+import org.rdlinux.ezmybatis.core.sqlstruct.Where;
+import org.rdlinux.ezmybatis.core.sqlstruct.converter.mysql.MySqlWhereConverter;
+import org.rdlinux.ezmybatis.core.sqlstruct.converter.oracle.OracleWhereConverter;
+import org.rdlinux.ezmybatis.test.BaseTest;
+
+import java.util.Collections;
+
+public class ConverterTableTest extends BaseTest {
+    @Test
+    public void getRegisteredConverter() {
+        ConverterTable table = ConverterTable.of(DbType.MYSQL, Collections.singletonMap(Where.class,
+                MySqlWhereConverter.getInstance()));
+        Assert.assertSame(MySqlWhereConverter.getInstance(), table.get(Where.class));
+        try {
+            table.get(Custom.class);
+            Assert.fail("expected missing converter");
+        } catch (RuntimeException e) {
+            Assert.assertEquals("MYSQL cannot find the converter of Custom", e.getMessage());
+        }
+    }
+
+    @Test
+    public void configurationUsesTableOfItsDbType() {
+        Configuration mysql = newConfiguration(DbType.MYSQL, null);
+        Configuration oracle = newConfiguration(DbType.ORACLE, null);
+        Assert.assertSame(MySqlWhereConverter.getInstance(), EzMybatisContent.getConverter(mysql, Where.class));
+        Assert.assertSame(OracleWhereConverter.getInstance(), EzMybatisContent.getConverter(oracle, Where.class));
+    }
+
+    /**
+     * 注册转换器后, 已初始化的配置也能获取到
+     */
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void addConverterRepublishes() {
+        Configuration configuration = newConfiguration(DbType.SQL_SERVER, null);
+        Converter converter = MySqlWhereConverter.getInstance();
+        EzMybatisContent.addConverter(DbType.SQL_SERVER, Custom.class, converter);
+        Assert.assertSame(converter, EzMybatisContent.getConverter(configuration, Custom.class));
+        Assert.assertSame(converter, EzMybatisContent.getConverter(DbType.SQL_SERVER, Custom.class));
+    }
+
+    public static class Custom implements SqlStruct {
+    }
+}
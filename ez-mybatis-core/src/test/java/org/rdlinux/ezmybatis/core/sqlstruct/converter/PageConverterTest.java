@@ -0,0 +1,113 @@
+package org.rdlinux.ezmybatis.core.sqlstruct.converter;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdlinux.ezmybatis.EzMybatisConfig;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.mapper.provider.EzSelectProvider;
+import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
+import org.rdlinux.ezmybatis.test.BaseTest;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class PageConverterTest extends BaseTest {
+    private static final EzSelectProvider PROVIDER = new EzSelectProvider();
+
+    private static EzQuery<User> pageQuery(int page, int size, boolean orderBy) {
+        EzQuery.EzQueryBuilder<User> builder = EzQuery.builder(User.class).from(EntityTable.of(User.class))
+                .select().addAll().done()
+                .where().addFieldCondition("name", "a").done();
+        if (orderBy) {
+            builder.orderBy().addField("age").done();
+        }
+        return builder.page(page, size).build();
+    }
+
+    private static List<Object> render(Configuration configuration, EzQuery<?> query) {
+        Map<String, Object> param = newParam(configuration, query);
+        List<Object> ret = new ArrayList<>();
+        ret.add(PROVIDER.query(param));
+        ret.addAll(getBoundParams(param));
+        return ret;
+    }
+
+    private static List<Consumer<EzMybatisConfig>> oracleModes() {
+        return Arrays.asList(config -> config.setEnableOracleOffsetFetchPage(false),
+                config -> config.setEnableOracleOffsetFetchPage(true));
+    }
+
+    @Test
+    public void bindSkipAndSize() {
+        for (DbType dbType : new DbType[]{DbType.MYSQL, DbType.POSTGRE_SQL, DbType.SQL_SERVER, DbType.DM}) {
+            Configuration configuration = newConfiguration(dbType, config -> config.setBindNumberParam(true));
+            List<Object> ret = render(configuration, pageQuery(3, 20, true));
+            String sql = (String) ret.get(0);
+            Assert.assertFalse(dbType + ": " + sql, sql.contains("40"));
+            Assert.assertFalse(dbType + ": " + sql, sql.contains("20"));
+            Assert.assertTrue(dbType + ": " + ret, ret.containsAll(Arrays.asList(40, 20)));
+        }
+    }
+
+    @Test
+    public void inlineWhenNotBindNumberParam() {
+        for (DbType dbType : new DbType[]{DbType.MYSQL, DbType.POSTGRE_SQL, DbType.SQL_SERVER, DbType.ORACLE}) {
+            Configuration configuration = newConfiguration(dbType, null);
+            List<Object> ret = render(configuration, pageQuery(3, 20, true));
+            String sql = (String) ret.get(0);
+            Assert.assertTrue(dbType + ": " + sql, sql.contains(dbType == DbType.ORACLE ? "40" : "20"));
+            Assert.assertEquals(Arrays.asList(sql, "a"), ret);
+        }
+    }
+
+    @Test
+    public void oracleBindSkipAndSize() {
+        for (Consumer<EzMybatisConfig> mode : oracleModes()) {
+            Configuration configuration = newConfiguration(DbType.ORACLE, config -> {
+                mode.accept(config);
+                config.setBindNumberParam(true);
+            });
+            for (boolean orderBy : new boolean[]{false, true}) {
+                List<Object> ret = render(configuration, pageQuery(3, 20, orderBy));
+                String sql = (String) ret.get(0);
+                Assert.assertFalse(sql, sql.contains("40"));
+                Assert.assertFalse(sql, sql.contains("20"));
+                Assert.assertTrue(ret.toString(), ret.containsAll(Arrays.asList(40, 20)));
+            }
+        }
+    }
+
+    /**
+     * 开启模板缓存时, 不同页码共用模板, 结果必须与不使用缓存时一致
+     */
+    @Test
+    public void cachedPagesEqualUncached() {
+        List<DbType> dbTypes = Arrays.asList(DbType.MYSQL, DbType.POSTGRE_SQL, DbType.SQL_SERVER, DbType.DM,
+                DbType.ORACLE, DbType.ORACLE);
+        for (int i = 0; i < dbTypes.size(); i++) {
+            DbType dbType = dbTypes.get(i);
+            boolean offsetFetch = i == dbTypes.size() - 1;
+            Configuration cached = newConfiguration(dbType, config -> {
+                config.setBindNumberParam(true);
+                config.setSqlTemplateCacheSize(64);
+                config.setEnableOracleOffsetFetchPage(offsetFetch);
+            });
+            Configuration uncached = newConfiguration(dbType, config -> {
+                config.setBindNumberParam(true);
+                config.setEnableOracleOffsetFetchPage(offsetFetch);
+            });
+            for (boolean orderBy : new boolean[]{false, true}) {
+                for (int page : new int[]{2, 1, 3, 1, 5, 2}) {
+                    Assert.assertEquals(dbType + " page " + page, render(uncached, pageQuery(page, 10, orderBy)),
+                            render(cached, pageQuery(page, 10, orderBy)));
+                }
+            }
+        }
+    }
+}
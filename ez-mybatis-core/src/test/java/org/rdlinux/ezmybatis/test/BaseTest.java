@@ -0,0 +1,78 @@
+package org.rdlinux.ezmybatis.test;
+
+import org.apache.ibatis.logging.nologging.NoLoggingImpl;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.rdlinux.ezmybatis.EzMybatisConfig;
+import org.rdlinux.ezmybatis.constant.DbType;
+import org.rdlinux.ezmybatis.constant.EzMybatisConstant;
+import org.rdlinux.ezmybatis.core.EzMybatisContent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 测试基类, 使用{@link MockJdbc}作为数据源, 不需要真实数据库
+ */
+public class BaseTest {
+    /**
+     * 创建mybatis配置并初始化ez-mybatis
+     *
+     * @param dbType     数据库类型
+     * @param customizer 自定义ez-mybatis配置, 可以为null
+     */
+    public static Configuration newConfiguration(DbType dbType, Consumer<EzMybatisConfig> customizer) {
+        return initConfiguration(new Configuration(newEnvironment()), dbType, customizer);
+    }
+
+    public static Environment newEnvironment() {
+        return new Environment("mock", new JdbcTransactionFactory(), MockJdbc.dataSource());
+    }
+
+    /**
+     * 初始化ez-mybatis
+     *
+     * @param configuration mybatis配置
+     * @param dbType        数据库类型
+     * @param customizer    自定义ez-mybatis配置, 可以为null
+     */
+    public static Configuration initConfiguration(Configuration configuration, DbType dbType,
+                                                  Consumer<EzMybatisConfig> customizer) {
+        configuration.setLogImpl(NoLoggingImpl.class);
+        EzMybatisConfig config = new EzMybatisConfig(configuration);
+        if (customizer != null) {
+            customizer.accept(config);
+        }
+        EzMybatisContent.init(config);
+        EzMybatisContent.setDbType(configuration, dbType);
+        return configuration;
+    }
+
+    public static SqlSessionFactory newSqlSessionFactory(Configuration configuration) {
+        MockJdbc.reset();
+        return new DefaultSqlSessionFactory(configuration);
+    }
+
+    /**
+     * 创建provider使用的mybatis参数
+     */
+    public static Map<String, Object> newParam(Configuration configuration, Object ezParam) {
+        Map<String, Object> param = new HashMap<>();
+        param.put(EzMybatisConstant.MAPPER_PARAM_CONFIGURATION, configuration);
+        param.put(EzMybatisConstant.MAPPER_PARAM_EZPARAM, ezParam);
+        return param;
+    }
+
+    /**
+     * 获取provider渲染时绑定的参数
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Object> getBoundParams(Map<String, Object> param) {
+        return (List<Object>) param.get(EzMybatisConstant.MAPPER_PARAM_EZPARAM + "_0");
+    }
+}
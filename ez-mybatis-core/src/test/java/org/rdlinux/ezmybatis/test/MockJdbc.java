@@ -0,0 +1,239 @@
+package org.rdlinux.ezmybatis.test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 基于动态代理的jdbc桩, 所有查询都返回配置的列与行, 并记录执行的sql与绑定的参数
+ */
+public class MockJdbc {
+    public static final String BATCH_MARK = "|";
+    public static final String EXECUTE_BATCH_MARK = "#";
+    public static String[] columns = {"id", "name", "age", "score"};
+    public static int[] types = {Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.INTEGER};
+    public static List<Object[]> rows = new ArrayList<>();
+    /**
+     * 预编译的sql
+     */
+    public static List<String> sqls = new ArrayList<>();
+    /**
+     * 每个语句绑定的参数, addBatch记为{@link #BATCH_MARK}, executeBatch记为{@link #EXECUTE_BATCH_MARK}
+     */
+    public static List<List<Object>> params = new ArrayList<>();
+    /**
+     * 第几次执行非查询语句(execute/executeUpdate/executeBatch)时抛出异常, 从1开始, 小于1时不抛出
+     */
+    public static int failOnExecute = 0;
+    public static int executeCount = 0;
+    public static int commitCount = 0;
+    public static int rollbackCount = 0;
+
+    /**
+     * 重置记录
+     */
+    public static void reset() {
+        columns = new String[]{"id", "name", "age", "score"};
+        types = new int[]{Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.INTEGER};
+        rows.clear();
+        sqls.clear();
+        params.clear();
+        failOnExecute = 0;
+        executeCount = 0;
+        commitCount = 0;
+        rollbackCount = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(MockJdbc.class.getClassLoader(), new Class[]{type}, handler);
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == double.class) {
+            return 0d;
+        } else if (type == float.class) {
+            return 0f;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        }
+        return null;
+    }
+
+    public static DataSource dataSource() {
+        return proxy(DataSource.class, (p, m, a) -> {
+            if (m.getName().equals("getConnection")) {
+                return connection();
+            }
+            return defaultValue(m);
+        });
+    }
+
+    private static Connection connection() {
+        return proxy(Connection.class, (p, m, a) -> {
+            switch (m.getName()) {
+                case "prepareStatement":
+                    sqls.add((String) a[0]);
+                    return statement(p, (String) a[0]);
+                case "createStatement":
+                    return statement(p, "");
+                case "getAutoCommit":
+                    return true;
+                case "commit":
+                    commitCount++;
+                    return null;
+                case "rollback":
+                    rollbackCount++;
+                    return null;
+                case "getMetaData":
+                    return proxy(DatabaseMetaData.class, (p2, m2, a2) -> {
+                        if (m2.getName().equals("getURL")) {
+                            return "jdbc:mysql://mock";
+                        }
+                        if (m2.getName().equals("getDriverName")) {
+                            return "MySQL Connector";
+                        }
+                        return defaultValue(m2);
+                    });
+                case "toString":
+                    return "MockConnection";
+                default:
+                    return defaultValue(m);
+            }
+        });
+    }
+
+    private static void checkFail() throws SQLException {
+        executeCount++;
+        if (failOnExecute > 0 && executeCount == failOnExecute) {
+            throw new SQLException("mock failure on execute " + executeCount);
+        }
+    }
+
+    private static PreparedStatement statement(Object connection, String sql) {
+        String prefix = sql.trim().toUpperCase();
+        boolean query = prefix.startsWith("SELECT") || prefix.startsWith("WITH") || prefix.startsWith("(");
+        List<Object> statementParams = new ArrayList<>();
+        params.add(statementParams);
+        return proxy(PreparedStatement.class, (p, m, a) -> {
+            String name = m.getName();
+            if (name.startsWith("set") && a != null && a.length >= 2 && a[0] instanceof Integer
+                    && !name.equals("setFetchSize") && !name.equals("setQueryTimeout") && !name.equals("setMaxRows")) {
+                statementParams.add(a[1]);
+                return null;
+            }
+            //普通语句执行时才传入sql
+            if (name.startsWith("execute") && a != null && a.length > 0 && a[0] instanceof String) {
+                sqls.add((String) a[0]);
+            }
+            switch (name) {
+                case "execute":
+                    if (!query) {
+                        checkFail();
+                    }
+                    return query;
+                case "executeQuery":
+                case "getResultSet":
+                    return resultSet();
+                case "getUpdateCount":
+                    return query ? -1 : 1;
+                case "getMoreResults":
+                    return false;
+                case "executeUpdate":
+                    checkFail();
+                    return 1;
+                case "addBatch":
+                    statementParams.add(BATCH_MARK);
+                    return null;
+                case "executeBatch":
+                    checkFail();
+                    int count = 0;
+                    for (Object param : statementParams) {
+                        if (BATCH_MARK.equals(param)) {
+                            count++;
+                        }
+                    }
+                    int[] ret = new int[count];
+                    Arrays.fill(ret, 1);
+                    statementParams.add(EXECUTE_BATCH_MARK);
+                    return ret;
+                case "getConnection":
+                    return connection;
+                case "toString":
+                    return "MockStatement";
+                default:
+                    return defaultValue(m);
+            }
+        });
+    }
+
+    private static ResultSet resultSet() {
+        int[] index = {-1};
+        boolean[] wasNull = {false};
+        ResultSetMetaData metaData = proxy(ResultSetMetaData.class, (p, m, a) -> {
+            switch (m.getName()) {
+                case "getColumnCount":
+                    return columns.length;
+                case "getColumnLabel":
+                case "getColumnName":
+                    return columns[(Integer) a[0] - 1];
+                case "getColumnType":
+                    return types[(Integer) a[0] - 1];
+                case "getColumnClassName":
+                    return types[(Integer) a[0] - 1] == Types.INTEGER ? "java.lang.Integer" : "java.lang.String";
+                default:
+                    return defaultValue(m);
+            }
+        });
+        return proxy(ResultSet.class, (p, m, a) -> {
+            String name = m.getName();
+            switch (name) {
+                case "next":
+                    index[0]++;
+                    return index[0] < rows.size();
+                case "getMetaData":
+                    return metaData;
+                case "wasNull":
+                    return wasNull[0];
+                case "getType":
+                    return ResultSet.TYPE_FORWARD_ONLY;
+                case "toString":
+                    return "MockResultSet";
+                default:
+            }
+            if (name.startsWith("get") && a != null && a.length >= 1) {
+                int column = a[0] instanceof Integer ? (Integer) a[0] - 1 : Arrays.asList(columns).indexOf(a[0]);
+                Object value = rows.get(index[0])[column];
+                wasNull[0] = value == null;
+                if (value == null) {
+                    return defaultValue(m);
+                }
+                if (m.getReturnType() == int.class) {
+                    return ((Number) value).intValue();
+                }
+                if (m.getReturnType() == long.class) {
+                    return ((Number) value).longValue();
+                }
+                if (m.getReturnType() == String.class) {
+                    return value.toString();
+                }
+                return value;
+            }
+            return defaultValue(m);
+        });
+    }
+}
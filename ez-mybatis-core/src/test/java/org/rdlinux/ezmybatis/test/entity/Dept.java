@@ -0,0 +1,27 @@
+package org.rdlinux.ezmybatis.test.entity;
+
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Table
+public class Dept {
+    @Id
+    private String id;
+    private String title;
+
+    public String getId() {
+        return this.id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+}
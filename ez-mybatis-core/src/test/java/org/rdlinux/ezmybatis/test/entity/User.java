@@ -0,0 +1,45 @@
+package org.rdlinux.ezmybatis.test.entity;
+
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Table(name = "user")
+public class User {
+    @Id
+    private String id;
+    private String name;
+    private Integer age;
+    private int score;
+
+    public String getId() {
+        return this.id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getAge() {
+        return this.age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+}
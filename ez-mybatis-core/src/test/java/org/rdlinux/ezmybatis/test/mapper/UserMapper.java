@@ -0,0 +1,7 @@
+package org.rdlinux.ezmybatis.test.mapper;
+
+import org.rdlinux.ezmybatis.core.mapper.EzBaseMapper;
+import org.rdlinux.ezmybatis.test.entity.User;
+
+public interface UserMapper extends EzBaseMapper<User, String> {
+}
@@ -0,0 +1,22 @@
+package org.rdlinux.ezmybatis.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 开启实体二级缓存, 只缓存根据主键查询的结果, 通过ez的写入方法修改数据时自动失效,<br/>
+ * 需要同时开启EzMybatisConfig的entityCacheEnabled配置
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EntityCache {
+    /**
+     * 最大缓存实体数量
+     */
+    int maxSize() default 10000;
+
+    /**
+     * 写入后的存活时间, 单位秒, 小于等于0时不过期
+     */
+    long ttl() default 300;
+}
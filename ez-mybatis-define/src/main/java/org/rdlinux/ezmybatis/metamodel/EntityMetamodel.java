@@ -0,0 +1,73 @@
+package org.rdlinux.ezmybatis.metamodel;
+
+/**
+ * 编译期生成的实体元数据, 由{@link org.rdlinux.ezmybatis.processor.EntityMetamodelProcessor}为标注了
+ * {@link javax.persistence.Table}的实体生成, 类名为实体类名加{@link #CLASS_SUFFIX}.<br/>
+ * 属性id为属性在{@link #getFieldNames()}中的下标, 属性顺序与运行时反射获取的顺序一致
+ */
+public interface EntityMetamodel<T> {
+    /**
+     * 生成类的类名后缀
+     */
+    String CLASS_SUFFIX = "_EzMeta";
+
+    /**
+     * 实体类型
+     */
+    Class<T> getEntityClass();
+
+    /**
+     * 表名, 未指定时为类名转下划线
+     */
+    String getTableName();
+
+    /**
+     * schema
+     */
+    String getSchema();
+
+    /**
+     * 属性名称
+     */
+    String[] getFieldNames();
+
+    /**
+     * 声明属性的类型
+     */
+    Class<?>[] getDeclaringClasses();
+
+    /**
+     * {@link javax.persistence.Column}指定的列名, 未指定时为null
+     */
+    String[] getColumnNames();
+
+    /**
+     * 属性名称转下划线
+     */
+    String[] getUnderlineNames();
+
+    /**
+     * {@link org.rdlinux.ezmybatis.annotation.ColumnHandler}指定的类型处理器, 未指定时为null
+     */
+    Class<?>[] getColumnHandlers();
+
+    /**
+     * 主键属性id, 没有主键时为-1
+     */
+    int getPrimaryKeyId();
+
+    /**
+     * 属性是否存在set方法
+     */
+    boolean hasSetter(int fieldId);
+
+    /**
+     * 获取属性值
+     */
+    Object get(T entity, int fieldId);
+
+    /**
+     * 设置属性值, 只能设置存在set方法的属性
+     */
+    void set(T entity, int fieldId, Object value);
+}
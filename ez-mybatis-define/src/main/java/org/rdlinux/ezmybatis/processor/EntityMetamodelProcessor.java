@@ -0,0 +1,433 @@
+package org.rdlinux.ezmybatis.processor;
+
+import org.rdlinux.ezmybatis.annotation.ColumnHandler;
+import org.rdlinux.ezmybatis.metamodel.EntityMetamodel;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 实体元数据注解处理器, 为标注了{@link Table}的顶层实体生成{@link EntityMetamodel}实现, 运行时加载生成类代替反射构建实体信息.<br/>
+ * 属性的筛选与列名规则与运行时反射保持一致, 无法确定属性访问方法时不生成, 运行时退化为反射.<br/>
+ * 默认不生成, 通过编译参数-Aezmybatis.metamodel=true开启
+ */
+@SupportedAnnotationTypes("javax.persistence.Table")
+@SupportedOptions(EntityMetamodelProcessor.OPTION_ENABLED)
+public class EntityMetamodelProcessor extends AbstractProcessor {
+    public static final String OPTION_ENABLED = "ezmybatis.metamodel";
+    private static final Pattern HUMP_PATTERN = Pattern.compile("[A-Z]");
+    /**
+     * 不映射为列的属性注解
+     */
+    private static final Set<String> EXCLUDE_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "javax.persistence.OneToMany", "javax.persistence.ManyToMany", "javax.persistence.OneToOne",
+            "javax.persistence.ManyToOne", "javax.persistence.Transient"));
+    /**
+     * 生成类中已使用的成员名称
+     */
+    private static final Set<String> RESERVED_NAMES = new HashSet<>(Arrays.asList("CLASS_SUFFIX", "FIELD_NAMES",
+            "DECLARING_CLASSES", "COLUMN_NAMES", "UNDERLINE_NAMES", "COLUMN_HANDLERS", "SETTERS"));
+    private static final String LOMBOK_GETTER = "lombok.Getter";
+    private static final String LOMBOK_SETTER = "lombok.Setter";
+    private static final String LOMBOK_DATA = "lombok.Data";
+    private static final String LOMBOK_VALUE = "lombok.Value";
+    private static final String LOMBOK_ACCESSORS = "lombok.experimental.Accessors";
+    /**
+     * 已生成的实体
+     */
+    private final Set<String> generated = new HashSet<>();
+
+    /**
+     * 驼峰转下划线, 与运行时的HumpLineStringUtils.humpToLine一致
+     */
+    private static String humpToLine(String str) {
+        if (!str.matches(".*[a-z].*")) {
+            str = str.toLowerCase();
+        }
+        Matcher matcher = HUMP_PATTERN.matcher(str);
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find()) {
+            matcher.appendReplacement(sb, "_" + matcher.group(0).toLowerCase());
+        }
+        matcher.appendTail(sb);
+        if (sb.indexOf("_") == 0) {
+            sb.delete(0, 1);
+        }
+        return sb.toString();
+    }
+
+    private static String literal(String str) {
+        if (str == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(str.length() + 2).append('"');
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * lombok注解是否生成公共方法
+     */
+    private static boolean isLombokPublic(AnnotationMirror mirror) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value")) {
+                return entry.getValue().getValue().toString().equals("PUBLIC");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 属性是否由lombok生成公共方法, 属性上的注解优先
+     *
+     * @param classAnnotations 类上生成该方法的注解
+     */
+    private static boolean isLombokGenerated(VariableElement field, String fieldAnnotation,
+                                             String... classAnnotations) {
+        AnnotationMirror mirror = findAnnotation(field, fieldAnnotation);
+        if (mirror != null) {
+            return isLombokPublic(mirror);
+        }
+        Element declaringClass = field.getEnclosingElement();
+        mirror = findAnnotation(declaringClass, fieldAnnotation);
+        if (mirror != null) {
+            return isLombokPublic(mirror);
+        }
+        for (String annotation : classAnnotations) {
+            if (findAnnotation(declaringClass, annotation) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * lombok生成的方法名称是否无法确定
+     */
+    private static boolean isLombokNameUncertain(VariableElement field) {
+        for (Element element : Arrays.asList(field, field.getEnclosingElement())) {
+            AnnotationMirror mirror = findAnnotation(element, LOMBOK_ACCESSORS);
+            if (mirror == null) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                    mirror.getElementValues().entrySet()) {
+                String name = entry.getKey().getSimpleName().toString();
+                if (name.equals("prefix") || name.equals("fluent") && Boolean.TRUE.equals(entry.getValue()
+                        .getValue())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!"true".equalsIgnoreCase(this.processingEnv.getOptions().get(OPTION_ENABLED))) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(Table.class)) {
+            if (element.getKind() != ElementKind.CLASS ||
+                    element.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            if (!type.getTypeParameters().isEmpty() || !this.generated.add(type.getQualifiedName().toString())) {
+                continue;
+            }
+            String source = this.generate(type);
+            if (source == null) {
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "Unable to resolve the accessors of " + type.getQualifiedName() +
+                                ", the entity metamodel will not be generated.", type);
+                continue;
+            }
+            try {
+                JavaFileObject file = this.processingEnv.getFiler().createSourceFile(type.getQualifiedName() +
+                        EntityMetamodel.CLASS_SUFFIX, type);
+                try (Writer writer = file.openWriter()) {
+                    writer.write(source);
+                }
+            } catch (IOException e) {
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Failed to generate the entity metamodel of " + type.getQualifiedName() + ": " +
+                                e.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) this.processingEnv.getTypeUtils().asElement(superclass);
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    /**
+     * 类型能否在生成类中引用
+     */
+    private boolean isAccessible(TypeMirror typeMirror, String packageName) {
+        while (typeMirror.getKind() == TypeKind.ARRAY) {
+            typeMirror = ((ArrayType) typeMirror).getComponentType();
+        }
+        if (typeMirror.getKind() != TypeKind.DECLARED) {
+            return typeMirror.getKind().isPrimitive();
+        }
+        for (Element element = this.processingEnv.getTypeUtils().asElement(typeMirror);
+             element.getKind() != ElementKind.PACKAGE; element = element.getEnclosingElement()) {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || !modifiers.contains(Modifier.PUBLIC) &&
+                    !this.processingEnv.getElementUtils().getPackageOf(element).getQualifiedName()
+                            .contentEquals(packageName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ExecutableElement findMethod(TypeElement type, String name, TypeMirror paramType) {
+        Types types = this.processingEnv.getTypeUtils();
+        for (ExecutableElement method : ElementFilter.methodsIn(this.processingEnv.getElementUtils()
+                .getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.PUBLIC) || !method.getSimpleName().contentEquals(name)) {
+                continue;
+            }
+            List<? extends VariableElement> parameters = method.getParameters();
+            if (paramType == null ? parameters.isEmpty() : parameters.size() == 1 &&
+                    types.isSameType(types.erasure(parameters.get(0).asType()), types.erasure(paramType))) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 生成元数据类源码, 无法确定属性访问方法时返回null
+     */
+    private String generate(TypeElement type) {
+        Types types = this.processingEnv.getTypeUtils();
+        String packageName = this.processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        List<FieldModel> fields = new ArrayList<>();
+        int primaryKeyId = -1;
+        for (TypeElement declaringClass = type; declaringClass != null;
+             declaringClass = this.getSuperclass(declaringClass)) {
+            if (!this.isAccessible(declaringClass.asType(), packageName)) {
+                return null;
+            }
+            for (VariableElement field : ElementFilter.fieldsIn(declaringClass.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+                    continue;
+                }
+                boolean exclude = false;
+                for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+                    if (EXCLUDE_ANNOTATIONS.contains(((TypeElement) mirror.getAnnotationType().asElement())
+                            .getQualifiedName().toString())) {
+                        exclude = true;
+                    }
+                }
+                if (exclude) {
+                    continue;
+                }
+                String name = field.getSimpleName().toString();
+                String suffix = name.substring(0, 1).toUpperCase() + name.substring(1);
+                boolean primitiveBoolean = field.asType().getKind() == TypeKind.BOOLEAN;
+                String getter = "get" + suffix;
+                if (primitiveBoolean) {
+                    getter = name.matches("^is[A-Z0-9_]+.*$") ? name : "is" + suffix;
+                }
+                if (this.findMethod(type, getter, null) == null) {
+                    if (!isLombokGenerated(field, LOMBOK_GETTER, LOMBOK_DATA, LOMBOK_VALUE)) {
+                        continue;
+                    }
+                    if (isLombokNameUncertain(field)) {
+                        return null;
+                    }
+                }
+                String setter = "set" + suffix;
+                if (this.findMethod(type, setter, field.asType()) == null) {
+                    //lombok为is开头的boolean属性生成的set方法会去掉is, 与运行时查找的名称不同
+                    if (!isLombokGenerated(field, LOMBOK_SETTER, LOMBOK_DATA) ||
+                            primitiveBoolean && name.matches("^is[A-Z0-9_]+.*$")) {
+                        setter = null;
+                    } else if (isLombokNameUncertain(field)) {
+                        return null;
+                    }
+                }
+                TypeMirror fieldType = types.asMemberOf((DeclaredType) type.asType(), field);
+                if (fieldType.getKind().isPrimitive()) {
+                    fieldType = types.boxedClass(types.getPrimitiveType(fieldType.getKind())).asType();
+                }
+                FieldModel model = new FieldModel();
+                model.name = name;
+                model.declaringClass = types.erasure(declaringClass.asType()).toString();
+                model.underline = humpToLine(name);
+                Column column = field.getAnnotation(Column.class);
+                if (column != null && !column.name().isEmpty()) {
+                    model.column = column.name();
+                }
+                ColumnHandler columnHandler = field.getAnnotation(ColumnHandler.class);
+                if (columnHandler != null) {
+                    try {
+                        model.columnHandler = columnHandler.value().getName();
+                    } catch (MirroredTypeException e) {
+                        if (!this.isAccessible(e.getTypeMirror(), packageName)) {
+                            return null;
+                        }
+                        model.columnHandler = types.erasure(e.getTypeMirror()).toString();
+                    }
+                }
+                model.getter = getter;
+                //无法引用属性类型时通过反射设置
+                model.setter = this.isAccessible(fieldType, packageName) ? setter : null;
+                model.castType = types.erasure(fieldType).toString();
+                if (field.getAnnotation(Id.class) != null) {
+                    primaryKeyId = fields.size();
+                }
+                fields.add(model);
+            }
+        }
+        return this.render(type, fields, primaryKeyId);
+    }
+
+    private String render(TypeElement type, List<FieldModel> fields, int primaryKeyId) {
+        Table table = type.getAnnotation(Table.class);
+        String tableName = table.name().isEmpty() ? humpToLine(type.getSimpleName().toString()) : table.name();
+        String packageName = this.processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String entityName = type.getQualifiedName().toString();
+        String className = type.getSimpleName() + EntityMetamodel.CLASS_SUFFIX;
+        StringBuilder sb = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("/**\n * {@link ").append(entityName).append("}的实体元数据, 由ez-mybatis编译期生成\n */\n");
+        //实体的访问方法可能已废弃, 属性可能是泛型类型, 生成类不应产生编译警告
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\", \"deprecation\"})\n");
+        sb.append("public final class ").append(className).append(" implements ")
+                .append(EntityMetamodel.class.getName()).append("<").append(entityName).append("> {\n");
+        Set<String> constants = new HashSet<>(RESERVED_NAMES);
+        for (int i = 0; i < fields.size(); i++) {
+            String constant = fields.get(i).underline.toUpperCase();
+            if (!SourceVersion.isName(constant) || !constants.add(constant)) {
+                constant = constant + "_" + i;
+                constants.add(constant);
+            }
+            sb.append("    public static final int ").append(constant).append(" = ").append(i).append(";\n");
+        }
+        StringJoiner fieldNames = new StringJoiner(", ");
+        StringJoiner declaringClasses = new StringJoiner(", ");
+        StringJoiner columnNames = new StringJoiner(", ");
+        StringJoiner underlineNames = new StringJoiner(", ");
+        StringJoiner columnHandlers = new StringJoiner(", ");
+        StringJoiner setters = new StringJoiner(", ");
+        for (FieldModel field : fields) {
+            fieldNames.add(literal(field.name));
+            declaringClasses.add(field.declaringClass + ".class");
+            columnNames.add(literal(field.column));
+            underlineNames.add(literal(field.underline));
+            columnHandlers.add(field.columnHandler == null ? "null" : field.columnHandler + ".class");
+            setters.add(String.valueOf(field.setter != null));
+        }
+        sb.append("    private static final String[] FIELD_NAMES = {").append(fieldNames).append("};\n");
+        sb.append("    private static final Class<?>[] DECLARING_CLASSES = {").append(declaringClasses).append("};\n");
+        sb.append("    private static final String[] COLUMN_NAMES = {").append(columnNames).append("};\n");
+        sb.append("    private static final String[] UNDERLINE_NAMES = {").append(underlineNames).append("};\n");
+        sb.append("    private static final Class<?>[] COLUMN_HANDLERS = {").append(columnHandlers).append("};\n");
+        sb.append("    private static final boolean[] SETTERS = {").append(setters).append("};\n\n");
+        this.appendGetter(sb, "Class<" + entityName + ">", "getEntityClass", entityName + ".class");
+        this.appendGetter(sb, "String", "getTableName", literal(tableName));
+        this.appendGetter(sb, "String", "getSchema", literal(table.schema()));
+        this.appendGetter(sb, "String[]", "getFieldNames", "FIELD_NAMES.clone()");
+        this.appendGetter(sb, "Class<?>[]", "getDeclaringClasses", "DECLARING_CLASSES.clone()");
+        this.appendGetter(sb, "String[]", "getColumnNames", "COLUMN_NAMES.clone()");
+        this.appendGetter(sb, "String[]", "getUnderlineNames", "UNDERLINE_NAMES.clone()");
+        this.appendGetter(sb, "Class<?>[]", "getColumnHandlers", "COLUMN_HANDLERS.clone()");
+        this.appendGetter(sb, "int", "getPrimaryKeyId", String.valueOf(primaryKeyId));
+        sb.append("    @Override\n    public boolean hasSetter(int fieldId) {\n");
+        sb.append("        return SETTERS[fieldId];\n    }\n\n");
+        sb.append("    @Override\n    public Object get(").append(entityName).append(" entity, int fieldId) {\n");
+        sb.append("        switch (fieldId) {\n");
+        for (int i = 0; i < fields.size(); i++) {
+            sb.append("            case ").append(i).append(":\n                return entity.")
+                    .append(fields.get(i).getter).append("();\n");
+        }
+        sb.append("            default:\n                throw new IllegalArgumentException(\"Unknown field id: \" + ")
+                .append("fieldId);\n        }\n    }\n\n");
+        sb.append("    @Override\n    public void set(").append(entityName)
+                .append(" entity, int fieldId, Object value) {\n");
+        sb.append("        switch (fieldId) {\n");
+        for (int i = 0; i < fields.size(); i++) {
+            FieldModel field = fields.get(i);
+            if (field.setter != null) {
+                sb.append("            case ").append(i).append(":\n                entity.").append(field.setter)
+                        .append("((").append(field.castType).append(") value);\n                return;\n");
+            }
+        }
+        sb.append("            default:\n                throw new UnsupportedOperationException(\"Field \" + fieldId + ")
+                .append("\" has no setter\");\n        }\n    }\n}\n");
+        return sb.toString();
+    }
+
+    private void appendGetter(StringBuilder sb, String returnType, String name, String value) {
+        sb.append("    @Override\n    public ").append(returnType).append(" ").append(name).append("() {\n");
+        sb.append("        return ").append(value).append(";\n    }\n\n");
+    }
+
+    private static class FieldModel {
+        private String name;
+        private String declaringClass;
+        private String column;
+        private String underline;
+        private String columnHandler;
+        private String getter;
+        private String setter;
+        private String castType;
+    }
+}
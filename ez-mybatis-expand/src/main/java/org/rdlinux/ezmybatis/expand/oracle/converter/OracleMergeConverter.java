@@ -4,6 +4,7 @@ import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.constant.DbType;
 import org.rdlinux.ezmybatis.core.EzMybatisContent;
 import org.rdlinux.ezmybatis.core.sqlgenerate.MybatisParamHolder;
+import org.rdlinux.ezmybatis.core.sqlgenerate.SqlWriter;
 import org.rdlinux.ezmybatis.core.sqlstruct.condition.Condition;
 import org.rdlinux.ezmybatis.core.sqlstruct.converter.AbstractConverter;
 import org.rdlinux.ezmybatis.core.sqlstruct.converter.Converter;
@@ -36,17 +37,15 @@ public class OracleMergeConverter extends AbstractConverter<Merge> implements Co
         boolean lastConditionEmpty = true;
         for (Condition condition : conditions) {
             Converter<?> converter = EzMybatisContent.getConverter(configuration, condition.getClass());
-            String sqlPart = converter.buildSql(type, new StringBuilder(), configuration, condition, mybatisParamHolder)
-                    .toString();
-            boolean emptySql = sqlPart.trim().isEmpty();
-            if (!lastConditionEmpty && !emptySql) {
+            int mark = sqlBuilder.length();
+            if (!lastConditionEmpty) {
                 sqlBuilder.append(condition.getAndOr().name()).append(" ");
             }
-            if (!emptySql) {
-                lastConditionEmpty = false;
-                sqlBuilder.append(sqlPart);
-            } else {
-                lastConditionEmpty = true;
+            int partStart = sqlBuilder.length();
+            converter.buildSql(type, sqlBuilder, configuration, condition, mybatisParamHolder);
+            lastConditionEmpty = SqlWriter.isBlank(sqlBuilder, partStart);
+            if (lastConditionEmpty) {
+                sqlBuilder.setLength(mark);
             }
         }
     }
@@ -4,9 +4,12 @@ import org.apache.ibatis.annotations.Mapper;
 import org.mybatis.spring.SqlSessionTemplate;
 import org.mybatis.spring.boot.autoconfigure.ConfigurationCustomizer;
 import org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration;
+import org.mybatis.spring.boot.autoconfigure.MybatisProperties;
 import org.rdlinux.ezmybatis.EzMybatisConfig;
 import org.rdlinux.ezmybatis.constant.TableNamePattern;
+import org.rdlinux.ezmybatis.core.EzConfiguration;
 import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.EzMybatisWarmUp;
 import org.rdlinux.ezmybatis.core.dao.JdbcInsertDao;
 import org.rdlinux.ezmybatis.core.dao.JdbcUpdateDao;
 import org.rdlinux.ezmybatis.core.mapper.EzMapper;
@@ -19,11 +22,14 @@ import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -31,6 +37,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.lang.NonNull;
 import org.springframework.util.StringUtils;
@@ -68,11 +77,42 @@ public class EzMybatisAutoConfiguration implements ApplicationContextAware {
         return new JdbcUpdateDao(sqlSessionTemplate);
     }
 
+    /**
+     * 开启预热时在全部单例初始化完成后预热实体, 预热完成前容器不会完成刷新, 应用不会就绪
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = EzMybatisProperties.EZ_MYBATIS_PREFIX, name = "warm-up", havingValue = "true")
+    public SmartInitializingSingleton ezMybatisWarmUp() {
+        return () -> {
+            SqlSessionTemplate sqlSessionTemplate = this.applicationContext.getBean("sqlSessionTemplate",
+                    SqlSessionTemplate.class);
+            EzMybatisWarmUp.Result result = SpringEzMybatisInit.warmUp(sqlSessionTemplate.getConfiguration(),
+                    this.ezMybatisProperties.getWarmUpPackages(), this.ezMybatisProperties.isWarmUpRenderSql(),
+                    this.ezMybatisProperties.getWarmUpParallelism());
+            result.getFailures().forEach((entityClass, e) -> log.warn("ez-mybatis warm up entity " +
+                    entityClass.getName() + " failed", e));
+            result.getRenderFailures().forEach((entityClass, errors) -> errors.forEach(e -> log.warn(
+                    "ez-mybatis warm up render sql of entity " + entityClass.getName() + " failed", e)));
+            log.info("ez-mybatis warm up {} entities and {} statements in {} ms", result.getEntityCount(),
+                    result.getStatementCount(), result.getElapsedMillis());
+        };
+    }
+
     @Override
     public void setApplicationContext(@NonNull ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
     }
 
+    /**
+     * 开启nativeExecutor时在mybatis配置绑定之前预置{@link EzConfiguration}, 使用配置文件时撤销
+     */
+    @Bean
+    public static BeanPostProcessor ezNativeConfigurationPostProcessor(Environment environment) {
+        boolean nativeExecutor = environment.getProperty(EzMybatisProperties.EZ_MYBATIS_PREFIX + ".native-executor",
+                Boolean.class, false);
+        return new EzNativeConfigurationPostProcessor(nativeExecutor);
+    }
+
     @Bean
     public ConfigurationCustomizer ezConfigurationCustomizer() {
         return configuration -> {
@@ -88,6 +128,19 @@ public class EzMybatisAutoConfiguration implements ApplicationContextAware {
             if (this.ezMybatisProperties.getEnableOracleOffsetFetchPage() != null) {
                 ezMybatisConfig.setEnableOracleOffsetFetchPage(this.ezMybatisProperties.getEnableOracleOffsetFetchPage());
             }
+            ezMybatisConfig.setSqlTemplateCacheSize(this.ezMybatisProperties.getSqlTemplateCacheSize());
+            ezMybatisConfig.setBindNumberParam(this.ezMybatisProperties.isBindNumberParam());
+            ezMybatisConfig.setStreamFetchSize(this.ezMybatisProperties.getStreamFetchSize());
+            ezMybatisConfig.setStreamRetChunkSize(this.ezMybatisProperties.getStreamRetChunkSize());
+            ezMybatisConfig.setJdbcBatchSize(this.ezMybatisProperties.getJdbcBatchSize());
+            ezMybatisConfig.setInListThreshold(this.ezMybatisProperties.getInListThreshold());
+            ezMybatisConfig.setSetBasedBatchUpdate(this.ezMybatisProperties.isSetBasedBatchUpdate());
+            ezMybatisConfig.setEntityCacheEnabled(this.ezMybatisProperties.isEntityCacheEnabled());
+            ezMybatisConfig.setQueryCacheMaxMemory(this.ezMybatisProperties.getQueryCacheMaxMemory());
+            ezMybatisConfig.setUnknownWriteInvalidatesAll(this.ezMybatisProperties.isUnknownWriteInvalidatesAll());
+            ezMybatisConfig.setEnableWindowCountPage(this.ezMybatisProperties.isEnableWindowCountPage());
+            ezMybatisConfig.setApproximateCountThreshold(this.ezMybatisProperties.getApproximateCountThreshold());
+            ezMybatisConfig.setDirectParamBind(this.ezMybatisProperties.isDirectParamBind());
             SpringEzMybatisInit.init(ezMybatisConfig, EzMybatisAutoConfiguration.this.applicationContext);
             if (this.ezMybatisProperties.getDbType() != null) {
                 EzMybatisContent.setDbType(configuration, this.ezMybatisProperties.getDbType());
@@ -95,6 +148,50 @@ public class EzMybatisAutoConfiguration implements ApplicationContextAware {
         };
     }
 
+    private static class EzNativeConfigurationPostProcessor implements BeanPostProcessor, PriorityOrdered {
+        private final boolean nativeExecutor;
+        private EzConfiguration configuration;
+
+        private EzNativeConfigurationPostProcessor(boolean nativeExecutor) {
+            this.nativeExecutor = nativeExecutor;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName)
+                throws BeansException {
+            if (this.nativeExecutor && bean instanceof MybatisProperties) {
+                MybatisProperties properties = (MybatisProperties) bean;
+                if (properties.getConfiguration() == null) {
+                    this.configuration = new EzConfiguration();
+                    properties.setConfiguration(this.configuration);
+                }
+            }
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName)
+                throws BeansException {
+            if (bean instanceof MybatisProperties && this.configuration != null) {
+                MybatisProperties properties = (MybatisProperties) bean;
+                if (properties.getConfiguration() == this.configuration &&
+                        StringUtils.hasText(properties.getConfigLocation())) {
+                    properties.setConfiguration(null);
+                    log.warn("mybatis config location is specified, ez native executor is disabled");
+                }
+            }
+            return bean;
+        }
+
+        /**
+         * 需要在配置属性绑定之前执行
+         */
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
     public static class EzMapperRegistrar implements BeanFactoryAware, ImportBeanDefinitionRegistrar {
         private BeanFactory beanFactory;
 
@@ -1,11 +1,14 @@
 package org.rdlinux.ezmybatis.service;
 
 import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.KeysetPageResult;
+import org.rdlinux.ezmybatis.core.PageResult;
 import org.rdlinux.ezmybatis.core.sqlstruct.table.Table;
 
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 基础service
@@ -21,6 +24,37 @@ public interface EzService<MdType, PkType extends Serializable> {
      */
     List<MdType> query(EzQuery<MdType> param);
 
+    /**
+     * 根据条件流式查询数据, 结果逐条交给消费者处理, 不会在内存中持有全部结果
+     *
+     * @param param    查询参数
+     * @param consumer 结果消费者
+     */
+    void queryStream(EzQuery<MdType> param, Consumer<MdType> consumer);
+
+    /**
+     * 键集分页查询, 查询参数需要通过keysetPage指定页大小与续页令牌
+     *
+     * @param param 查询参数
+     * @return 本页数据与下一页的续页令牌
+     */
+    KeysetPageResult<MdType> queryKeysetPage(EzQuery<MdType> param);
+
+    /**
+     * 分页查询数据与总数, 数据库支持窗口函数时只需一次查询, 本页数据不满一页时不再查询总数
+     *
+     * @param param 查询参数
+     */
+    PageResult<MdType> queryPage(EzQuery<MdType> param);
+
+    /**
+     * 分页查询数据与总数
+     *
+     * @param param            查询参数
+     * @param approximateCount 是否估算总数, 开启后没有过滤条件的单表查询从数据库统计信息中读取总数
+     */
+    PageResult<MdType> queryPage(EzQuery<MdType> param, boolean approximateCount);
+
     /**
      * 根据条件查询总数
      *
@@ -28,6 +62,13 @@ public interface EzService<MdType, PkType extends Serializable> {
      */
     int queryCount(EzQuery<MdType> param);
 
+    /**
+     * 根据条件判断是否存在数据
+     *
+     * @param param 查询参数
+     */
+    boolean exists(EzQuery<MdType> param);
+
     /**
      * 根据id查询
      *
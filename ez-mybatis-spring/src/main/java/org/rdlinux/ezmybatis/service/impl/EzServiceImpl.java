@@ -2,6 +2,8 @@ package org.rdlinux.ezmybatis.service.impl;
 
 import org.rdlinux.ezmybatis.core.EzDelete;
 import org.rdlinux.ezmybatis.core.EzQuery;
+import org.rdlinux.ezmybatis.core.KeysetPageResult;
+import org.rdlinux.ezmybatis.core.PageResult;
 import org.rdlinux.ezmybatis.core.dao.JdbcInsertDao;
 import org.rdlinux.ezmybatis.core.mapper.EzMapper;
 import org.rdlinux.ezmybatis.core.sqlstruct.table.EntityTable;
@@ -14,6 +16,7 @@ import javax.annotation.Resource;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 基础service
@@ -42,12 +45,45 @@ public abstract class EzServiceImpl<MdType, PkType extends Serializable> impleme
         return this.ezMapper.query(param);
     }
 
+    @Override
+    public void queryStream(EzQuery<MdType> param, Consumer<MdType> consumer) {
+        Assert.notNull(param, "param can not be null");
+        Assert.notNull(consumer, "consumer can not be null");
+        this.ezMapper.queryStream(param, context -> consumer.accept(context.getResultObject()));
+    }
+
+    @Override
+    public KeysetPageResult<MdType> queryKeysetPage(EzQuery<MdType> param) {
+        Assert.notNull(param, "param can not be null");
+        Assert.notNull(param.getKeysetPage(), "keyset page can not be null");
+        List<MdType> records = this.ezMapper.query(param);
+        return new KeysetPageResult<>(records, param.getKeysetPage().getNextToken(records));
+    }
+
+    @Override
+    public PageResult<MdType> queryPage(EzQuery<MdType> param) {
+        return this.queryPage(param, false);
+    }
+
+    @Override
+    public PageResult<MdType> queryPage(EzQuery<MdType> param, boolean approximateCount) {
+        Assert.notNull(param, "param can not be null");
+        Assert.notNull(param.getPage(), "page can not be null");
+        return this.ezMapper.queryPage(param, approximateCount);
+    }
+
     @Override
     public int queryCount(EzQuery<MdType> param) {
         Assert.notNull(param, "param can not be null");
         return this.ezMapper.queryCount(param);
     }
 
+    @Override
+    public boolean exists(EzQuery<MdType> param) {
+        Assert.notNull(param, "param can not be null");
+        return this.ezMapper.exists(param);
+    }
+
     @SuppressWarnings({"unchecked"})
     @Override
     public MdType getById(PkType id) {
@@ -0,0 +1,40 @@
+package org.rdlinux.ezmybatis.spring;
+
+import org.rdlinux.ezmybatis.core.cache.AfterCompletionExecutor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 使用spring事务同步在事务结束后执行任务, mybatis会话在spring事务提交前提交, 缓存需要在数据库提交后再次失效
+ */
+public class SpringAfterCompletionExecutor implements AfterCompletionExecutor {
+    private static volatile SpringAfterCompletionExecutor instance;
+
+    protected SpringAfterCompletionExecutor() {
+    }
+
+    public static SpringAfterCompletionExecutor getInstance() {
+        if (instance == null) {
+            synchronized (SpringAfterCompletionExecutor.class) {
+                if (instance == null) {
+                    instance = new SpringAfterCompletionExecutor();
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public boolean execute(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                task.run();
+            }
+        });
+        return true;
+    }
+}
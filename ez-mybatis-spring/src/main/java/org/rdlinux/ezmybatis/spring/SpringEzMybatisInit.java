@@ -1,19 +1,28 @@
 package org.rdlinux.ezmybatis.spring;
 
+import org.apache.ibatis.session.Configuration;
 import org.rdlinux.ezmybatis.EzMybatisConfig;
 import org.rdlinux.ezmybatis.core.EzMybatisContent;
+import org.rdlinux.ezmybatis.core.EzMybatisWarmUp;
 import org.rdlinux.ezmybatis.core.classinfo.EzEntityClassInfoFactory;
 import org.rdlinux.ezmybatis.core.classinfo.EzMybatisEntityInfoCache;
 import org.rdlinux.ezmybatis.core.classinfo.entityinfo.build.EntityInfoBuilder;
 import org.rdlinux.ezmybatis.core.interceptor.listener.*;
 import org.rdlinux.ezmybatis.utils.Assert;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
 
-import java.util.Comparator;
-import java.util.Map;
+import javax.persistence.Table;
+import java.util.*;
 
 public class SpringEzMybatisInit {
+    private static final String TRANSACTION_SYNCHRONIZATION_MANAGER =
+            "org.springframework.transaction.support.TransactionSynchronizationManager";
+
     public static void init(EzMybatisConfig ezMybatisConfig, ApplicationContext applicationContext) {
         Assert.notNull(ezMybatisConfig, "ezMybatisConfig can not be null");
         Assert.notNull(applicationContext, "applicationContext can not be null");
@@ -33,6 +42,10 @@ public class SpringEzMybatisInit {
         }
         //初始化上下文
         EzMybatisContent.init(ezMybatisConfig);
+        //存在spring事务时, 缓存在事务真正结束后再次失效
+        if (ClassUtils.isPresent(TRANSACTION_SYNCHRONIZATION_MANAGER, SpringEzMybatisInit.class.getClassLoader())) {
+            EzMybatisContent.setAfterCompletionExecutor(ezMybatisConfig, SpringAfterCompletionExecutor.getInstance());
+        }
         //添加事件处理器
         Map<String, EzMybatisInsertListener> insertListenerMap = applicationContext.getBeansOfType(
                 EzMybatisInsertListener.class);
@@ -62,4 +75,42 @@ public class SpringEzMybatisInit {
         initListenerMap.values().stream().sorted(Comparator.comparingInt(EzMybatisInitListener::order))
                 .forEach(e -> e.onDone(ezMybatisConfig));
     }
+
+    /**
+     * 预热实体, 实体类型来自已注册mapper的{@link org.rdlinux.ezmybatis.core.mapper.EzBaseMapper}泛型参数与指定包下标注了
+     * {@link Table}的类
+     *
+     * @param configuration mybatis配置
+     * @param packages      扫描实体的包, 可以为空
+     * @param renderSql     是否预先生成根据主键查询, 插入, 更新sql
+     * @param parallelism   并行度, 小于等于0时使用cpu核数
+     */
+    public static EzMybatisWarmUp.Result warmUp(Configuration configuration, Collection<String> packages,
+                                                boolean renderSql, int parallelism) {
+        Set<Class<?>> entityClasses = EzMybatisWarmUp.findMapperEntityClasses(configuration);
+        if (packages != null && !packages.isEmpty()) {
+            entityClasses.addAll(scanEntityClasses(packages, ClassUtils.getDefaultClassLoader()));
+        }
+        return EzMybatisWarmUp.warmUp(configuration, entityClasses, renderSql, parallelism);
+    }
+
+    /**
+     * 扫描包下标注了{@link Table}的实体类型
+     */
+    public static Set<Class<?>> scanEntityClasses(Collection<String> packages, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Table.class));
+        Set<Class<?>> entityClasses = new LinkedHashSet<>();
+        for (String pkg : packages) {
+            for (BeanDefinition beanDefinition : scanner.findCandidateComponents(pkg)) {
+                try {
+                    entityClasses.add(ClassUtils.forName(Objects.requireNonNull(beanDefinition.getBeanClassName()),
+                            classLoader));
+                } catch (ClassNotFoundException | LinkageError e) {
+                    throw new IllegalArgumentException(e);
+                }
+            }
+        }
+        return entityClasses;
+    }
 }